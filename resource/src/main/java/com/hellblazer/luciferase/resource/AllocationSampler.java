@@ -0,0 +1,112 @@
+package com.hellblazer.luciferase.resource;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which {@link ResourceHandle} allocations capture their {@link AllocationSite}, so
+ * leak hunting can stay on in production at a bounded cost. Rates apply per resource class.
+ * <p>
+ * Specs accepted by {@link #parse}: {@code off}, {@code all}, {@code 1/N} for a random 1 in N
+ * allocations, and {@code N/s} for at most N allocations per second.
+ */
+public final class AllocationSampler {
+    public static final AllocationSampler OFF = new AllocationSampler(0, 0);
+    public static final AllocationSampler ALL = new AllocationSampler(1, 0);
+
+    private final int oneIn;      // Random 1 in N, 0 when not sampling by count
+    private final int perSecond;  // Cap per second, 0 when not sampling by rate
+    private final ClassValue<AtomicLong> windows = new ClassValue<>() {
+        @Override
+        protected AtomicLong computeValue(Class<?> type) {
+            return new AtomicLong(); // Second in the high half, samples taken in the low half
+        }
+    };
+
+    private AllocationSampler(int oneIn, int perSecond) {
+        this.oneIn = oneIn;
+        this.perSecond = perSecond;
+    }
+
+    /**
+     * Sample a random 1 in {@code n} allocations of each class.
+     */
+    public static AllocationSampler oneIn(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Sample rate must be positive, got: " + n);
+        }
+        return n == 1 ? ALL : new AllocationSampler(n, 0);
+    }
+
+    /**
+     * Sample at most {@code n} allocations of each class per second.
+     */
+    public static AllocationSampler perSecond(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Samples per second must be positive, got: " + n);
+        }
+        return new AllocationSampler(0, n);
+    }
+
+    /**
+     * Parse a sampling spec such as {@code 1/64} or {@code 100/s}.
+     */
+    public static AllocationSampler parse(String spec) {
+        var s = spec.trim();
+        try {
+            if (s.equalsIgnoreCase("off")) {
+                return OFF;
+            }
+            if (s.equalsIgnoreCase("all")) {
+                return ALL;
+            }
+            if (s.startsWith("1/")) {
+                return oneIn(Integer.parseInt(s.substring(2)));
+            }
+            if (s.endsWith("/s")) {
+                return perSecond(Integer.parseInt(s.substring(0, s.length() - 2)));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid allocation sampling spec: " + spec, e);
+        }
+        throw new IllegalArgumentException("Invalid allocation sampling spec: " + spec);
+    }
+
+    public boolean isEnabled() {
+        return oneIn > 0 || perSecond > 0;
+    }
+
+    /**
+     * Whether to capture the site of an allocation of the given class.
+     */
+    public boolean sample(Class<?> type) {
+        if (oneIn > 0) {
+            return oneIn == 1 || ThreadLocalRandom.current().nextInt(oneIn) == 0;
+        }
+        return perSecond > 0 && tryAcquire(windows.get(type));
+    }
+
+    private boolean tryAcquire(AtomicLong window) {
+        long second = (System.nanoTime() / 1_000_000_000L) & 0xFFFFFFFFL;
+        while (true) {
+            long state = window.get();
+            if (state >>> 32 != second) {
+                if (window.compareAndSet(state, (second << 32) | 1)) {
+                    return true;
+                }
+            } else if ((int) state >= perSecond) {
+                return false;
+            } else if (window.compareAndSet(state, state + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (oneIn > 0) {
+            return oneIn == 1 ? "all" : "1/" + oneIn;
+        }
+        return perSecond > 0 ? perSecond + "/s" : "off";
+    }
+}
@@ -0,0 +1,126 @@
+package com.hellblazer.luciferase.resource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Call site that allocated a resource, captured with {@link StackWalker} so that leaks can be
+ * attributed to the code responsible. Sites are interned up to {@link #MAX_INTERNED}: every
+ * capture of the same stack returns the same instance, so they cost nothing to retain. Sites
+ * past the cap are equal to, but not the same instance as, other captures of their stack.
+ */
+public final class AllocationSite {
+    public static final int DEFAULT_DEPTH = 8;
+    public static final int MAX_INTERNED = 4096;
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+    private static final Map<List<StackTraceElement>, AllocationSite> INTERNED = new ConcurrentHashMap<>();
+    private static final Set<String> ALLOCATORS = ConcurrentHashMap.newKeySet();
+
+    private final List<StackTraceElement> frames;
+
+    private AllocationSite(List<StackTraceElement> frames) {
+        this.frames = frames;
+    }
+
+    /**
+     * Skip the frames of an allocator, e.g. a pool or factory, and of its nested classes when
+     * capturing sites, so they start at the code that called it.
+     */
+    public static void registerAllocator(Class<?> allocator) {
+        ALLOCATORS.add(allocator.getName());
+    }
+
+    /**
+     * Whether a frame's class is a registered allocator or nested in one.
+     */
+    public static boolean isAllocator(String className) {
+        for (var name = className; ; ) {
+            if (ALLOCATORS.contains(name)) {
+                return true;
+            }
+            int nested = name.lastIndexOf('$');
+            if (nested < 0) {
+                return false;
+            }
+            name = name.substring(0, nested);
+        }
+    }
+
+    /**
+     * Capture the calling stack past the registered allocators to {@link #DEFAULT_DEPTH} frames.
+     */
+    public static AllocationSite capture() {
+        return capture(name -> false, DEFAULT_DEPTH);
+    }
+
+    /**
+     * Capture the calling stack to {@link #DEFAULT_DEPTH} frames.
+     *
+     * @param internal Matches class names of the allocator's own frames, which are skipped
+     */
+    public static AllocationSite capture(Predicate<String> internal) {
+        return capture(internal, DEFAULT_DEPTH);
+    }
+
+    /**
+     * Capture the calling stack.
+     *
+     * @param internal Matches class names of the allocator's own frames, which are skipped
+     * @param depth    Frames kept after the skipped ones
+     */
+    public static AllocationSite capture(Predicate<String> internal, int depth) {
+        var frames = WALKER.walk(stack -> stack
+            .dropWhile(f -> {
+                var name = f.getClassName();
+                return name.equals(AllocationSite.class.getName()) || internal.test(name) || isAllocator(name);
+            })
+            .limit(depth)
+            .map(StackWalker.StackFrame::toStackTraceElement)
+            .toList());
+        var site = INTERNED.get(frames);
+        if (site != null) {
+            return site;
+        }
+        if (INTERNED.size() >= MAX_INTERNED) {
+            return new AllocationSite(frames);
+        }
+        return INTERNED.computeIfAbsent(frames, AllocationSite::new);
+    }
+
+    /**
+     * Number of distinct sites captured so far.
+     */
+    public static int getInternedCount() {
+        return INTERNED.size();
+    }
+
+    public List<StackTraceElement> getFrames() {
+        return frames;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof AllocationSite other && frames.equals(other.frames));
+    }
+
+    @Override
+    public int hashCode() {
+        return frames.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        if (frames.isEmpty()) {
+            return "<unknown>";
+        }
+        var sb = new StringBuilder().append(frames.get(0));
+        for (int i = 1; i < frames.size(); i++) {
+            sb.append("\n\tat ").append(frames.get(i));
+        }
+        return sb.toString();
+    }
+}
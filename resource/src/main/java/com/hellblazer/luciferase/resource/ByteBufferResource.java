@@ -11,8 +11,7 @@ public class ByteBufferResource extends ResourceHandle<ByteBuffer> implements GP
     private long accessCount;
     
     public ByteBufferResource(UUID id, ByteBuffer buffer, ResourceTracker tracker) {
-        super(buffer, tracker);
-        // Note: We inherit the ID from ResourceHandle, no need to store separately
+        super(id.toString(), buffer, tracker);
         this.lastAccessTime = System.currentTimeMillis();
         this.accessCount = 1; // Mark as accessed on allocation
     }
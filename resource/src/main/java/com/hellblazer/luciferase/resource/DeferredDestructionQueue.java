@@ -0,0 +1,302 @@
+package com.hellblazer.luciferase.resource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Native releases deferred from {@link ResourceHandle#close()} to a safe point.
+ * <p>
+ * Releases are queued per context, e.g. a GL context or a CL context. A GL context is drained
+ * by its own thread once per frame with {@link #drain}; contexts that are not bound to a
+ * thread, such as CL, can be drained by cleanup workers with {@link #drainOnWorker}.
+ * <p>
+ * A release may be gated, e.g. on a GL fence or CL event placed after the last GPU work that
+ * uses the resource, so in-flight GPU work is never freed. A release whose gate is not yet
+ * signaled stays queued, behind nothing: later releases whose gates are signaled still run.
+ */
+public class DeferredDestructionQueue implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(DeferredDestructionQueue.class);
+
+    /**
+     * Condition a deferred release waits for, e.g.
+     * {@code () -> glClientWaitSync(fence, 0, 0) != GL_TIMEOUT_EXPIRED} or
+     * {@link com.hellblazer.luciferase.resource.opencl.CLEventHandle#isComplete}.
+     * Polled at each drain, so it must not block.
+     */
+    @FunctionalInterface
+    public interface Gate {
+        Gate OPEN = () -> true;
+
+        boolean isSignaled();
+    }
+
+    private record Pending(Runnable release, Gate gate) {
+    }
+
+    private final Map<Object, Queue<Pending>> queues = new ConcurrentHashMap<>();
+    private final Set<Object> workerContexts = ConcurrentHashMap.newKeySet(); // Safe to release on any thread
+    private final int workerThreads;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder gated = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile ScheduledExecutorService workers;
+    private volatile boolean closed;
+
+    /**
+     * Create a queue drained only at the callers' safe points.
+     */
+    public DeferredDestructionQueue() {
+        this(0);
+    }
+
+    /**
+     * @param workerThreads Cleanup threads for {@link #drainOnWorker}, started on first use;
+     *                      0 for none
+     */
+    public DeferredDestructionQueue(int workerThreads) {
+        if (workerThreads < 0) {
+            throw new IllegalArgumentException("Worker thread count cannot be negative: " + workerThreads);
+        }
+        this.workerThreads = workerThreads;
+    }
+
+    /**
+     * Queue an ungated release for a context.
+     */
+    public void enqueue(Object context, Runnable release) {
+        enqueue(context, release, Gate.OPEN);
+    }
+
+    /**
+     * Queue a release for a context, to run at a drain once its gate is signaled.
+     */
+    public void enqueue(Object context, Runnable release, Gate gate) {
+        if (!offer(context, release, gate)) {
+            throw new IllegalStateException("Deferred destruction queue is closed");
+        }
+    }
+
+    /**
+     * Queue a release for a context unless the queue is closed.
+     *
+     * @return false if the queue is closed; the release may then run on the caller's thread only
+     *         if the context {@link #isDrainedOnWorkers is drained on workers}
+     */
+    public boolean offer(Object context, Runnable release, Gate gate) {
+        Objects.requireNonNull(context, "context");
+        Objects.requireNonNull(release, "release");
+        if (closed) {
+            return false;
+        }
+        var queue = queues.get(context);
+        if (queue == null) {
+            queue = queues.computeIfAbsent(context, k -> new ConcurrentLinkedQueue<>());
+        }
+        var entry = new Pending(release, gate != null ? gate : Gate.OPEN);
+        queue.add(entry);
+        pending.incrementAndGet();
+        if (closed && queue.remove(entry)) {
+            // Closed concurrently and not drained by close(); hand the release back
+            pending.decrementAndGet();
+            return false;
+        }
+        enqueued.increment();
+        return true;
+    }
+
+    /**
+     * Run the context's queued releases whose gates are signaled, in queue order. Call at a safe
+     * point on the thread that owns the context, e.g. once per frame for GL.
+     *
+     * @return The number of releases run
+     */
+    public int drain(Object context) {
+        return drain(context, false);
+    }
+
+    /**
+     * Run all of the context's queued releases regardless of their gates, e.g. when tearing
+     * the context down after the GPU has finished.
+     *
+     * @return The number of releases run
+     */
+    public int drainAll(Object context) {
+        return drain(context, true);
+    }
+
+    /**
+     * Drain a context periodically on a cleanup worker, for contexts whose releases may run on
+     * any thread.
+     *
+     * @throws IllegalStateException if the queue has no worker threads
+     */
+    public void drainOnWorker(Object context, Duration interval) {
+        Objects.requireNonNull(context, "context");
+        if (interval == null || interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("Drain interval must be positive, got: " + interval);
+        }
+        long period = interval.toNanos();
+        workerContexts.add(context);
+        workers().scheduleWithFixedDelay(() -> {
+            if (!closed) {
+                drain(context, false);
+            }
+        }, period, period, TimeUnit.NANOSECONDS);
+        log.debug("Draining context {} every {} on cleanup workers", context, interval);
+    }
+
+    /**
+     * Whether the context is drained by cleanup workers, so its releases may run on any thread.
+     */
+    public boolean isDrainedOnWorkers(Object context) {
+        return context != null && workerContexts.contains(context);
+    }
+    
+    public boolean isClosed() {
+        return closed;
+    }
+    
+    /**
+     * Releases queued for a context.
+     */
+    public int getPendingCount(Object context) {
+        var queue = queues.get(context);
+        return queue != null ? queue.size() : 0;
+    }
+
+    /**
+     * Releases queued over all contexts.
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    public long getEnqueuedCount() {
+        return enqueued.sum();
+    }
+
+    public long getReleasedCount() {
+        return released.sum();
+    }
+
+    /**
+     * Times a drain left a release queued because its gate was not signaled.
+     */
+    public long getGatedCount() {
+        return gated.sum();
+    }
+
+    /**
+     * Releases and gates that threw.
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Run every release queued for the contexts drained on workers, then stop the workers.
+     * Releases of other contexts are not run, as they may be bound to another thread; drain
+     * them with {@link #drainAll} on their own thread first.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (var context : workerContexts) {
+            drain(context, true);
+        }
+        var executor = workers;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        int remaining = pending.get();
+        if (remaining > 0) {
+            log.warn("Deferred destruction queue closed with {} releases pending", remaining);
+        }
+    }
+
+    private int drain(Object context, boolean force) {
+        var queue = queues.get(context);
+        if (queue == null) {
+            return 0;
+        }
+        // Only the entries present now, so requeued gated entries are not polled again
+        int count = queue.size();
+        int ran = 0;
+        for (int i = 0; i < count; i++) {
+            var next = queue.poll();
+            if (next == null) {
+                break;
+            }
+            if (!force && !isSignaled(next)) {
+                queue.add(next);
+                gated.increment();
+                continue;
+            }
+            pending.decrementAndGet();
+            try {
+                next.release().run();
+                released.increment();
+                ran++;
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.error("Deferred release failed for context {}", context, e);
+            }
+        }
+        if (ran > 0) {
+            log.trace("Drained {} deferred releases for context {}", ran, context);
+        }
+        return ran;
+    }
+
+    private boolean isSignaled(Pending next) {
+        try {
+            return next.gate().isSignaled();
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Deferred release gate failed, keeping the release queued", e);
+            return false;
+        }
+    }
+
+    private ScheduledExecutorService workers() {
+        if (workerThreads == 0) {
+            throw new IllegalStateException("Deferred destruction queue has no cleanup workers");
+        }
+        var executor = workers;
+        if (executor == null) {
+            synchronized (this) {
+                executor = workers;
+                if (executor == null) {
+                    if (closed) {
+                        throw new IllegalStateException("Deferred destruction queue is closed");
+                    }
+                    executor = Executors.newScheduledThreadPool(workerThreads, r -> {
+                        var thread = new Thread(r, "deferred-destruction");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    workers = executor;
+                }
+            }
+        }
+        return executor;
+    }
+}
@@ -3,6 +3,9 @@ package com.hellblazer.luciferase.resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -17,6 +20,26 @@ import java.util.function.Consumer;
 public abstract class ResourceHandle<T> implements AutoCloseable {
     private static final Logger log = LoggerFactory.getLogger(ResourceHandle.class);
     
+    /**
+     * System property with the default {@link AllocationSampler} spec, e.g. {@code 1/64}.
+     * Without it, every allocation is sampled when debug logging is on, and none otherwise.
+     */
+    public static final String SAMPLING_PROPERTY = "resource.allocationSampling";
+    
+    private static volatile AllocationSampler sampler = defaultSampler();
+    
+    // Names of each handle class and its superclasses up to ResourceHandle, skipped in allocation sites
+    private static final ClassValue<Set<String>> HANDLE_CLASSES = new ClassValue<>() {
+        @Override
+        protected Set<String> computeValue(Class<?> type) {
+            var names = new HashSet<String>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                names.add(c.getName());
+            }
+            return Set.copyOf(names);
+        }
+    };
+    
     public enum State {
         ALLOCATED,
         CLOSING,
@@ -26,12 +49,15 @@ public abstract class ResourceHandle<T> implements AutoCloseable {
     
     private final String id;
     private final long allocationTime;
-    private final String allocationStack;
+    private final AllocationSite allocationSite;
     private final AtomicReference<State> state;
     private final AtomicBoolean cleanupExecuted;
     private volatile T resource;
     private volatile Consumer<ResourceHandle<T>> cleanupCallback;
     private volatile ResourceTracker tracker;
+    private volatile DeferredDestructionQueue destructionQueue;
+    private volatile Object destructionContext;
+    private volatile DeferredDestructionQueue.Gate destructionGate;
     
     /**
      * Create a new resource handle.
@@ -40,23 +66,32 @@ public abstract class ResourceHandle<T> implements AutoCloseable {
      * @param tracker Optional tracker for leak detection
      */
     protected ResourceHandle(T resource, ResourceTracker tracker) {
-        this.id = UUID.randomUUID().toString();
+        this(UUID.randomUUID().toString(), resource, tracker);
+    }
+    
+    /**
+     * Create a new resource handle with an ID chosen by the caller, e.g. a cheap sequence-based
+     * ID on hot allocation paths where a random UUID would dominate the cost.
+     * 
+     * @param id Unique ID of the handle
+     * @param resource The underlying native resource
+     * @param tracker Optional tracker for leak detection
+     */
+    protected ResourceHandle(String id, T resource, ResourceTracker tracker) {
+        this.id = id;
         this.resource = resource;
         this.tracker = tracker;
         this.allocationTime = System.nanoTime();
         this.state = new AtomicReference<>(State.ALLOCATED);
         this.cleanupExecuted = new AtomicBoolean(false);
         
-        // Capture allocation stack for debugging
-        if (log.isDebugEnabled()) {
-            var stackTrace = Thread.currentThread().getStackTrace();
-            var sb = new StringBuilder();
-            for (int i = 2; i < Math.min(stackTrace.length, 10); i++) {
-                sb.append("\n\tat ").append(stackTrace[i]);
-            }
-            this.allocationStack = sb.toString();
+        // Capture the allocation site for sampled allocations, starting past the handle's
+        // constructors and any registered allocator that created it
+        var type = getClass();
+        if (sampler.sample(type)) {
+            this.allocationSite = AllocationSite.capture(HANDLE_CLASSES.get(type)::contains);
         } else {
-            this.allocationStack = null;
+            this.allocationSite = null;
         }
         
         // Register with tracker if provided
@@ -90,6 +125,14 @@ public abstract class ResourceHandle<T> implements AutoCloseable {
         return state.get() == State.ALLOCATED;
     }
     
+    /**
+     * Attach the tracker that registered this handle after construction, see
+     * {@link ResourceTracker#registerAll}.
+     */
+    void attachTracker(ResourceTracker tracker) {
+        this.tracker = tracker;
+    }
+    
     /**
      * Set a cleanup callback to be executed when the resource is closed.
      * 
@@ -99,9 +142,38 @@ public abstract class ResourceHandle<T> implements AutoCloseable {
         this.cleanupCallback = callback;
     }
     
+    /**
+     * Defer the native release on {@link #close()} to a destruction queue, to run when the
+     * context is next drained, e.g. GL objects that must be deleted on their context's thread.
+     *
+     * @param queue   The queue, or null to release synchronously again
+     * @param context The context whose drain runs the release
+     */
+    public void deferDestruction(DeferredDestructionQueue queue, Object context) {
+        if (queue != null) {
+            Objects.requireNonNull(context, "context");
+        }
+        this.destructionContext = context;
+        this.destructionQueue = queue;
+    }
+    
+    /**
+     * Gate the deferred release on GPU work that may still use the resource, e.g. a fence
+     * placed after its last draw or kernel. Only used with {@link #deferDestruction}.
+     */
+    public void setDestructionGate(DeferredDestructionQueue.Gate gate) {
+        this.destructionGate = gate;
+    }
+    
     /**
      * Close the resource and release native memory/handles.
-     * This method is idempotent and thread-safe.
+     * This method is idempotent and thread-safe. With {@link #deferDestruction} the native
+     * release is queued instead, and the handle stays CLOSING and tracked until a drain runs it.
+     *
+     * @throws IllegalStateException if the release is deferred to a closed queue for a context
+     *                               bound to its own thread; the handle stays open, so it can be
+     *                               detached with {@code deferDestruction(null, null)} and closed
+     *                               on that thread
      */
     @Override
     public void close() {
@@ -111,6 +183,14 @@ public abstract class ResourceHandle<T> implements AutoCloseable {
             return;
         }
         
+        var queue = destructionQueue;
+        var context = destructionContext;
+        if (queue != null && queue.isClosed() && !queue.isDrainedOnWorkers(context)) {
+            state.set(State.ALLOCATED);
+            throw new IllegalStateException(
+                "Cannot close resource " + id + ": the destruction queue for context " + context + " is closed");
+        }
+        
         try {
             // Execute cleanup callback if set
             if (cleanupCallback != null && cleanupExecuted.compareAndSet(false, true)) {
@@ -121,22 +201,20 @@ public abstract class ResourceHandle<T> implements AutoCloseable {
                 }
             }
             
-            // Perform actual resource cleanup
-            if (resource != null) {
-                doCleanup(resource);
-                resource = null;
-            }
-            
-            // Unregister from tracker
-            if (tracker != null) {
-                tracker.unregister(this);
+            // Perform actual resource cleanup, or hand it to the context's destruction queue
+            var current = resource;
+            resource = null;
+            if (current == null) {
+                released();
+            } else if (queue == null) {
+                release(current);
+            } else if (!queue.offer(context, () -> release(current), destructionGate)) {
+                if (!queue.isDrainedOnWorkers(context)) {
+                    // The queue closed after the check above; nothing will drain this context now
+                    throw new IllegalStateException("Destruction queue for context " + context + " closed during close");
+                }
+                release(current); // Safe on any thread
             }
-            
-            // Transition to CLOSED state
-            state.set(State.CLOSED);
-            
-            log.trace("Closed resource {} of type {}", id, getClass().getSimpleName());
-            
         } catch (Exception e) {
             log.error("Error closing resource {}", id, e);
             state.set(State.LEAKED);
@@ -144,6 +222,28 @@ public abstract class ResourceHandle<T> implements AutoCloseable {
         }
     }
     
+    private void release(T current) {
+        try {
+            doCleanup(current);
+        } catch (RuntimeException e) {
+            state.set(State.LEAKED);
+            throw e;
+        }
+        released();
+    }
+    
+    private void released() {
+        // Unregister from tracker
+        if (tracker != null) {
+            tracker.unregister(this);
+        }
+        
+        // Transition to CLOSED state
+        state.set(State.CLOSED);
+        
+        log.trace("Closed resource {} of type {}", id, getClass().getSimpleName());
+    }
+    
     /**
      * Perform the actual cleanup of the native resource.
      * Subclasses must implement this to release their specific resource type.
@@ -174,10 +274,36 @@ public abstract class ResourceHandle<T> implements AutoCloseable {
     }
     
     /**
-     * Get the allocation stack trace (if debug logging is enabled).
+     * Get the allocation stack trace (if this allocation was sampled).
      */
     public String getAllocationStack() {
-        return allocationStack;
+        return allocationSite != null ? "\n\tat " + allocationSite : null;
+    }
+    
+    /**
+     * Get the interned allocation site (if this allocation was sampled).
+     */
+    public AllocationSite getAllocationSite() {
+        return allocationSite;
+    }
+    
+    /**
+     * Set which allocations capture their site, for all handles created from now on.
+     */
+    public static void setAllocationSampler(AllocationSampler allocationSampler) {
+        sampler = Objects.requireNonNull(allocationSampler, "allocationSampler");
+    }
+    
+    public static AllocationSampler getAllocationSampler() {
+        return sampler;
+    }
+    
+    private static AllocationSampler defaultSampler() {
+        var spec = System.getProperty(SAMPLING_PROPERTY);
+        if (spec != null) {
+            return AllocationSampler.parse(spec);
+        }
+        return log.isDebugEnabled() ? AllocationSampler.ALL : AllocationSampler.OFF;
     }
     
     /**
@@ -192,10 +318,10 @@ public abstract class ResourceHandle<T> implements AutoCloseable {
      */
     void markLeaked() {
         state.set(State.LEAKED);
-        if (allocationStack != null) {
-            log.error("Resource {} leaked! Allocated at:{}", id, allocationStack);
+        if (allocationSite != null) {
+            log.error("Resource {} leaked! Allocated at:{}", id, getAllocationStack());
         } else {
-            log.error("Resource {} leaked! Enable debug logging to see allocation stack", id);
+            log.error("Resource {} leaked! Set -D{} to sample allocation stacks", id, SAMPLING_PROPERTY);
         }
     }
     
@@ -3,6 +3,9 @@ package com.hellblazer.luciferase.resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -26,6 +29,7 @@ public class ResourceTracker {
     private final AtomicLong totalAllocated = new AtomicLong(0);
     private final AtomicLong totalFreed = new AtomicLong(0);
     private final AtomicLong totalLeaked = new AtomicLong(0);
+    private final Map<AllocationSite, AtomicLong> leaksBySite = new ConcurrentHashMap<>(); // Sampled leaks only
     private final long maxAgeMillis;
     private final boolean enablePeriodicCheck;
     
@@ -95,6 +99,27 @@ public class ResourceTracker {
         log.trace("Registered resource: {}", resource);
     }
     
+    /**
+     * Register a batch of resources created without a tracker, updating the counters once for
+     * the batch. The tracker is attached to each, so closing one unregisters it as usual.
+     * 
+     * @param resources The resources to track
+     */
+    public void registerAll(Collection<? extends ResourceHandle<?>> resources) {
+        if (shutdown) {
+            log.warn("Attempting to register {} resources after tracker shutdown", resources.size());
+            return;
+        }
+        
+        for (var resource : resources) {
+            resource.attachTracker(this);
+            activeResources.put(resource.getId(), resource);
+        }
+        totalAllocated.addAndGet(resources.size());
+        
+        log.trace("Registered batch of {} resources", resources.size());
+    }
+    
     /**
      * Convenience method alias for register.
      */
@@ -209,6 +234,29 @@ public class ResourceTracker {
         return totalLeaked.get();
     }
     
+    /**
+     * Count the active resources per allocation site, for resources whose site was sampled.
+     */
+    public Map<AllocationSite, Long> getActiveResourcesBySite() {
+        var bySite = new HashMap<AllocationSite, Long>();
+        for (var resource : activeResources.values()) {
+            var site = resource.getAllocationSite();
+            if (site != null) {
+                bySite.merge(site, 1L, Long::sum);
+            }
+        }
+        return bySite;
+    }
+    
+    /**
+     * Count the leaks detected at shutdown per allocation site, for leaks whose site was sampled.
+     */
+    public Map<AllocationSite, Long> getLeaksBySite() {
+        var bySite = new HashMap<AllocationSite, Long>();
+        leaksBySite.forEach((site, count) -> bySite.put(site, count.get()));
+        return bySite;
+    }
+    
     /**
      * Get a snapshot of all active resources.
      * 
@@ -284,6 +332,19 @@ public class ResourceTracker {
                         resource.getId(), resource.getAgeMillis()));
                 }
             }
+            
+            // Repeated sites share one interned record, so this groups leaks by the code responsible
+            var bySite = getActiveResourcesBySite();
+            if (!bySite.isEmpty()) {
+                long sampled = bySite.values().stream().mapToLong(Long::longValue).sum();
+                report.append(String.format("\nActive Resources by Allocation Site (%d of %d sampled):\n",
+                    sampled, activeResources.size()));
+                bySite.entrySet().stream()
+                    .sorted(Map.Entry.<AllocationSite, Long>comparingByValue(Comparator.reverseOrder()))
+                    .limit(10)
+                    .forEach(e -> report.append(String.format("  %d at %s\n", e.getValue(),
+                        e.getKey().toString().replace("\n", "\n    "))));
+            }
         }
         
         return report.toString();
@@ -307,6 +368,10 @@ public class ResourceTracker {
             for (var resource : activeResources.values()) {
                 resource.markLeaked();
                 totalLeaked.incrementAndGet();
+                var site = resource.getAllocationSite();
+                if (site != null) {
+                    leaksBySite.computeIfAbsent(site, k -> new AtomicLong()).incrementAndGet();
+                }
             }
             
             // Log detailed leak report
@@ -329,5 +394,6 @@ public class ResourceTracker {
         totalAllocated.set(0);
         totalFreed.set(0);
         totalLeaked.set(0);
+        leaksBySite.clear();
     }
 }
\ No newline at end of file
@@ -4,36 +4,63 @@ import com.hellblazer.luciferase.resource.gpu.*;
 import com.hellblazer.luciferase.resource.opencl.*;
 import com.hellblazer.luciferase.resource.memory.*;
 import com.hellblazer.luciferase.resource.opengl.*;
+import org.lwjgl.system.MemoryUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 
 /**
  * Unified resource manager for all GPU resources across OpenGL and OpenCL
+ * <p>
+ * Subsystems sharing one manager can be separated into named tenants. Memory allocations and
+ * resource creates are charged to a tenant, which may be given soft and hard byte quotas with
+ * {@link #setTenantQuota}. The hard quota is enforced at allocation time; the soft quota marks
+ * the tenant whose resources are evicted first when the manager is over its high water mark.
+ * Untagged allocations are charged to {@link #DEFAULT_TENANT}, which is unlimited by default.
  */
 public class UnifiedResourceManager implements AutoCloseable {
     private static final Logger log = LoggerFactory.getLogger(UnifiedResourceManager.class);
     
+    static {
+        AllocationSite.registerAllocator(UnifiedResourceManager.class);
+    }
+    
+    /**
+     * Tenant charged by the allocation and create methods that do not name one
+     */
+    public static final String DEFAULT_TENANT = "default";
+    
     // Singleton instance
     private static volatile UnifiedResourceManager instance;
     private static final Object instanceLock = new Object();
     
     private final Map<UUID, GPUResource> resources = new ConcurrentHashMap<>();
-    private final Map<ByteBuffer, UUID> bufferToIdMap = Collections.synchronizedMap(new IdentityHashMap<>()); // Identity-based ByteBuffer to UUID mapping
+    private final Map<GPUResourceType, TypeIndex> typeIndexes = new EnumMap<>(GPUResourceType.class); // Filled once, read-only after
+    private final ConcurrentSkipListMap<AgeKey, UUID> resourcesByAge = new ConcurrentSkipListMap<>(); // Oldest first
+    private final AtomicLong ageSequence = new AtomicLong();
+    private final Map<Long, PooledAllocation> pooledAllocations = new ConcurrentHashMap<>(); // allocateMemory buffers by native address
+    private final long idPrefix = UUID.randomUUID().getMostSignificantBits(); // Resource IDs are this prefix and a sequence number
+    private final AtomicLong idSequence = new AtomicLong();
     private final Map<GPUResourceType, AtomicLong> allocatedBytesPerType = new ConcurrentHashMap<>();
     private final ResourceTracker tracker;
     private final MemoryPool memoryPool;
+    private final DeferredDestructionQueue destructionQueue; // Null without async cleanup
     private final ResourceConfiguration config;
     private final AtomicLong totalAllocatedBytes = new AtomicLong(0);
     private final AtomicInteger activeResourceCount = new AtomicInteger(0);
     private final AtomicInteger allocationCount = new AtomicInteger(0); // Debug counter
     private final AtomicInteger releaseCount = new AtomicInteger(0); // Debug counter
+    private final Map<String, TenantAccount> tenants = new ConcurrentHashMap<>();
+    private final Map<GPUResource, TenantCharge> tenantCharges = new ConcurrentHashMap<>();
     private volatile boolean closed = false;
     
     /**
@@ -50,13 +77,26 @@ public class UnifiedResourceManager implements AutoCloseable {
         this.config = config;
         this.tracker = new ResourceTracker(config.getMaxIdleTime().toMillis(), config.isLeakDetectionEnabled());
         this.memoryPool = new MemoryPool(
-            config.getMaxPoolSizeBytes(),
-            config.getMaxIdleTime()
+            MemoryPool.Config.builder()
+                .maxPoolSize(Integer.MAX_VALUE) // Bounded by bytes, not buffer count
+                .maxBuffersPerSize(Integer.MAX_VALUE)
+                .evictionPolicy(config.getEvictionPolicy())
+                .waterMarks(config.getHighWaterMark(), config.getLowWaterMark())
+                .maintenanceInterval(config.isAsyncCleanupEnabled() && config.getCleanupThreadCount() > 0
+                                     ? config.getCleanupInterval() : null)
+                .maintenanceThreads(Math.max(1, config.getCleanupThreadCount()))
+                .build(),
+            ResourceTracker.getGlobalTracker(),
+            config.getMaxIdleTime(),
+            config.getMaxPoolSizeBytes()
         );
+        this.destructionQueue = config.isAsyncCleanupEnabled()
+                                ? new DeferredDestructionQueue(config.getCleanupThreadCount()) : null;
         
-        // Initialize per-type counters
+        // Initialize per-type counters and indexes
         for (GPUResourceType type : GPUResourceType.values()) {
             allocatedBytesPerType.put(type, new AtomicLong(0));
+            typeIndexes.put(type, new TypeIndex());
         }
         
         log.debug("Unified resource manager initialized with config: {}", config);
@@ -111,31 +151,176 @@ public class UnifiedResourceManager implements AutoCloseable {
      * Register a resource with the manager
      */
     public void register(GPUResource resource) {
+        register(resource, DEFAULT_TENANT);
+    }
+
+    /**
+     * Register a resource with the manager, charging its size to a tenant
+     *
+     * @throws TenantQuotaExceededException if the tenant's hard quota would be exceeded
+     */
+    public void register(GPUResource resource, String tenant) {
         ensureNotClosed();
-        
+
         UUID id = UUID.fromString(resource.getId());
-        if (resources.putIfAbsent(id, resource) == null) {
+        long size = resource.getSizeBytes();
+        var account = reserve(tenant, size);
+        if (index(id, resource, true)) {
+            tenantCharges.put(resource, new TenantCharge(account, size));
             GPUResourceType type = resource.getType();
-            long size = resource.getSizeBytes();
             allocatedBytesPerType.get(type).addAndGet(size);
-            
-            log.debug("Registered {} resource: {} ({} bytes)", type, id, size);
+
+            log.debug("Registered {} resource: {} ({} bytes, tenant {})", type, id, size, tenant);
+        } else {
+            account.credit(size);
         }
     }
-    
+
+    /**
+     * Register several resources charged to one tenant, reserving the tenant's quota once for
+     * the whole batch. All or nothing: if an ID is malformed, the quota rejects the batch or
+     * indexing fails, none are registered.
+     *
+     * @throws TenantQuotaExceededException if the tenant's hard quota would be exceeded
+     */
+    public void registerBatch(Collection<? extends GPUResource> batch, String tenant) {
+        ensureNotClosed();
+        
+        // Validate every entry before reserving anything
+        var resources = List.copyOf(batch);
+        var ids = new UUID[resources.size()];
+        var types = new GPUResourceType[resources.size()];
+        var sizes = new long[resources.size()];
+        long total = 0;
+        for (int i = 0; i < ids.length; i++) {
+            var resource = resources.get(i);
+            ids[i] = UUID.fromString(resource.getId());
+            types[i] = resource.getType();
+            sizes[i] = resource.getSizeBytes();
+            total += sizes[i];
+        }
+        
+        var account = reserve(tenant, total, ids.length);
+        var bytesPerType = new long[GPUResourceType.values().length];
+        var indexed = new boolean[ids.length];
+        long duplicateBytes = 0;
+        int duplicates = 0;
+        try {
+            for (int i = 0; i < ids.length; i++) {
+                indexed[i] = index(ids[i], resources.get(i), true);
+                if (indexed[i]) {
+                    tenantCharges.put(resources.get(i), new TenantCharge(account, sizes[i]));
+                    bytesPerType[types[i].ordinal()] += sizes[i];
+                } else {
+                    duplicateBytes += sizes[i];
+                    duplicates++;
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            // Undo the entries indexed so far and return the whole reservation
+            for (int i = 0; i < ids.length; i++) {
+                if (indexed[i]) {
+                    tenantCharges.remove(resources.get(i));
+                    deindex(ids[i]);
+                }
+            }
+            account.credit(total, ids.length);
+            throw e;
+        }
+        if (duplicates > 0) {
+            account.credit(duplicateBytes, duplicates);
+        }
+        for (var type : GPUResourceType.values()) {
+            if (bytesPerType[type.ordinal()] != 0) {
+                allocatedBytesPerType.get(type).addAndGet(bytesPerType[type.ordinal()]);
+            }
+        }
+        log.debug("Registered batch of {} resources ({} bytes, tenant {})", ids.length, total, tenant);
+    }
+
     /**
      * Unregister a resource from the manager
      */
     public void unregister(GPUResource resource) {
         UUID id = UUID.fromString(resource.getId());
-        if (resources.remove(id) != null) {
+        if (deindex(id) != null) {
+            releaseCharge(resource);
             GPUResourceType type = resource.getType();
             long size = resource.getSizeBytes();
             allocatedBytesPerType.get(type).addAndGet(-size);
-            
+
             log.debug("Unregistered {} resource: {} ({} bytes)", type, id, size);
         }
     }
+
+    /**
+     * Set the byte quotas of a tenant, creating it if needed. Allocations that would take the
+     * tenant past its hard quota fail; past its soft quota they succeed, but the tenant's
+     * resources become the first eviction candidates under memory pressure.
+     *
+     * @param tenant         Tenant name
+     * @param softQuotaBytes Soft quota in bytes ({@link Long#MAX_VALUE} for none)
+     * @param hardQuotaBytes Hard quota in bytes ({@link Long#MAX_VALUE} for none)
+     */
+    public void setTenantQuota(String tenant, long softQuotaBytes, long hardQuotaBytes) {
+        if (softQuotaBytes < 0) {
+            throw new IllegalArgumentException("Soft quota cannot be negative: " + softQuotaBytes);
+        }
+        if (hardQuotaBytes < softQuotaBytes) {
+            throw new IllegalArgumentException(
+                "Hard quota " + hardQuotaBytes + " must not be below soft quota " + softQuotaBytes);
+        }
+        var account = tenant(tenant);
+        account.softQuotaBytes = softQuotaBytes;
+        account.hardQuotaBytes = hardQuotaBytes;
+        log.debug("Tenant {} quotas set: soft={} hard={}", tenant, softQuotaBytes, hardQuotaBytes);
+    }
+
+    /**
+     * Get the bytes currently charged to a tenant
+     */
+    public long getTenantUsage(String tenant) {
+        var account = tenants.get(tenant);
+        return account != null ? account.usedBytes.get() : 0;
+    }
+
+    /**
+     * Get the names of all tenants that have allocated or been given quotas
+     */
+    public Set<String> getTenants() {
+        return Collections.unmodifiableSet(tenants.keySet());
+    }
+
+    private TenantAccount tenant(String tenant) {
+        Objects.requireNonNull(tenant, "tenant");
+        var account = tenants.get(tenant);
+        return account != null ? account : tenants.computeIfAbsent(tenant, TenantAccount::new);
+    }
+
+    private TenantAccount reserve(String tenant, long bytes) {
+        return reserve(tenant, bytes, 1);
+    }
+
+    private TenantAccount reserve(String tenant, long bytes, int resources) {
+        var account = tenant(tenant);
+        if (!account.tryCharge(bytes, resources)) {
+            throw new TenantQuotaExceededException(tenant, bytes, account.usedBytes.get(), account.hardQuotaBytes);
+        }
+        return account;
+    }
+
+    private void releaseCharge(GPUResource resource) {
+        var charge = tenantCharges.remove(resource);
+        if (charge != null) {
+            charge.tenant().credit(charge.bytes());
+        }
+    }
+
+    private void releaseAllCharges() {
+        for (var resource : new ArrayList<>(tenantCharges.keySet())) {
+            releaseCharge(resource);
+        }
+    }
     
     /**
      * Get a resource by ID
@@ -148,9 +333,12 @@ public class UnifiedResourceManager implements AutoCloseable {
      * Get all resources of a specific type
      */
     public List<GPUResource> getResourcesByType(GPUResourceType type) {
-        return resources.values().stream()
-            .filter(r -> r.getType() == type)
-            .collect(Collectors.toList());
+        var entries = typeIndexes.get(type).entries.values();
+        var typeResources = new ArrayList<GPUResource>(entries.size());
+        for (var entry : entries) {
+            typeResources.add(entry.resource());
+        }
+        return typeResources;
     }
     
     /**
@@ -170,36 +358,43 @@ public class UnifiedResourceManager implements AutoCloseable {
     }
     
     /**
-     * Get resource statistics
+     * Get resource statistics. Per-type counts and allocated bytes are maintained as resources
+     * come and go; used bytes and utilization change while a resource lives, so they are read
+     * from the resources of each type when the statistics are taken.
      */
     public ResourceManagerStatistics getStatistics() {
         Map<GPUResourceType, TypeStatistics> typeStats = new HashMap<>();
         
         for (GPUResourceType type : GPUResourceType.values()) {
-            List<GPUResource> typeResources = getResourcesByType(type);
-            if (!typeResources.isEmpty()) {
-                long totalAllocated = getAllocatedBytes(type);
-                long totalUsed = typeResources.stream()
-                    .mapToLong(r -> r.getStatistics().getUsedBytes())
-                    .sum();
-                int count = typeResources.size();
-                float avgUtilization = (float) typeResources.stream()
-                    .mapToDouble(r -> r.getStatistics().getUtilizationPercent())
-                    .average()
-                    .orElse(0.0);
-                
+            var entries = typeIndexes.get(type).entries.values();
+            int count = 0;
+            long usedBytes = 0;
+            double utilization = 0;
+            for (var entry : entries) {
+                var stats = entry.resource().getStatistics();
+                count++;
+                usedBytes += stats.getUsedBytes();
+                utilization += stats.getUtilizationPercent();
+            }
+            if (count > 0) {
                 typeStats.put(type, new TypeStatistics(
-                    count, totalAllocated, totalUsed, avgUtilization
+                    count, getAllocatedBytes(type), usedBytes, (float) (utilization / count)
                 ));
             }
         }
-        
+
+        Map<String, TenantStatistics> tenantStats = new TreeMap<>();
+        for (var account : tenants.values()) {
+            tenantStats.put(account.name, account.snapshot());
+        }
+
         return new ResourceManagerStatistics(
             resources.size(),
             getTotalAllocatedBytes(),
             typeStats,
             memoryPool.getPoolStatistics(),
-            tracker.getActiveCount()
+            tracker.getActiveCount(),
+            tenantStats
         );
     }
     
@@ -217,7 +412,9 @@ public class UnifiedResourceManager implements AutoCloseable {
                 }
             }
             resources.clear();
-            bufferToIdMap.clear();
+            clearIndexes();
+            pooledAllocations.clear();
+            releaseAllCharges();
             totalAllocatedBytes.set(0);
             activeResourceCount.set(0);
         }
@@ -237,22 +434,14 @@ public class UnifiedResourceManager implements AutoCloseable {
     }
     
     /**
-     * Get resource ID for a buffer
-     * Workaround: Reset position to 0 during lookup to ensure consistent behavior
+     * Get resource ID for a buffer from {@link #allocateMemory}, or null if it is not tracked
      */
     public UUID getResourceId(ByteBuffer buffer) {
-        synchronized (bufferToIdMap) {
-            // Store current position
-            int originalPosition = buffer.position();
-            try {
-                // Reset to position 0 for consistent lookup
-                buffer.position(0);
-                return bufferToIdMap.get(buffer);
-            } finally {
-                // Restore original position
-                buffer.position(originalPosition);
-            }
+        if (!buffer.isDirect()) {
+            return null;
         }
+        var allocation = pooledAllocations.get(MemoryUtil.memAddress0(buffer));
+        return allocation != null ? allocation.id() : null;
     }
     
     /**
@@ -283,31 +472,35 @@ public class UnifiedResourceManager implements AutoCloseable {
     
     /**
      * Clean up old or unused resources
+     * <p>
+     * Walks registered resources oldest first and stops at the first one young enough to keep,
+     * so the cost is proportional to the resources removed. Pooled memory from
+     * {@link #allocateMemory} is left to {@link #releaseMemory}, as its owner still holds the buffer.
      */
     public int cleanupUnused(long maxAgeMillis) {
         ensureNotClosed();
         
-        // Note: ByteBufferResources are immediately removed on releaseMemory(),
-        // so this mainly cleans up other resource types that might be leaked
-        List<GPUResource> toRemove = resources.values().stream()
-            .filter(r -> r.getAgeMillis() > maxAgeMillis)
-            .collect(Collectors.toList());
+        var expired = new ArrayList<Map.Entry<UUID, GPUResource>>();
+        for (var id : resourcesByAge.values()) {
+            var resource = resources.get(id);
+            if (resource == null) {
+                continue; // Removed since the iterator passed its key
+            }
+            if (resource.getAgeMillis() <= maxAgeMillis) {
+                break;
+            }
+            expired.add(Map.entry(id, resource));
+        }
         
         int removed = 0;
-        for (GPUResource resource : toRemove) {
+        for (var entry : expired) {
+            var resource = entry.getValue();
             try {
                 resource.close();
-                resources.remove(resource.getId());
-                
-                // Also clean up buffer mapping if it's a ByteBufferResource
-                if (resource instanceof ByteBufferResource) {
-                    var bufferResource = (ByteBufferResource) resource;
-                    var buffer = bufferResource.getBuffer();
-                    if (buffer != null) {
-                        bufferToIdMap.remove(buffer);
-                    }
+                if (deindex(entry.getKey()) != null) {
+                    releaseCharge(resource);
+                    allocatedBytesPerType.get(resource.getType()).addAndGet(-resource.getSizeBytes());
                 }
-                
                 removed++;
             } catch (Exception e) {
                 log.error("Failed to cleanup resource: {}", resource.getId(), e);
@@ -337,10 +530,24 @@ public class UnifiedResourceManager implements AutoCloseable {
         }
         
         resources.clear();
+        clearIndexes();
+        releaseAllCharges();
     }
     
     @Override
     public void close() {
+        close(new Object[0]);
+    }
+    
+    /**
+     * Close the manager on the thread that owns the given thread-bound contexts, e.g. the GL
+     * thread with its context current. Deferred releases of those contexts, including the ones
+     * queued by closing the remaining resources here, run before the destruction queue closes.
+     * Contexts drained on cleanup workers are always drained on close.
+     *
+     * @param boundContexts Destruction queue contexts that may be released on this thread
+     */
+    public void close(Object... boundContexts) {
         if (closed) {
             return;
         }
@@ -349,12 +556,22 @@ public class UnifiedResourceManager implements AutoCloseable {
         
         // Close all resources
         closeAll();
+        if (destructionQueue != null) {
+            for (var context : boundContexts) {
+                destructionQueue.drainAll(context);
+            }
+        }
         
-        // Clear memory pool
+        // Close memory pool, stopping its maintenance threads
         try {
-            memoryPool.clear();
+            memoryPool.close();
         } catch (Exception e) {
-            log.error("Failed to clear memory pool", e);
+            log.error("Failed to close memory pool", e);
+        }
+        
+        // Drain the worker contexts and stop the cleanup workers
+        if (destructionQueue != null) {
+            destructionQueue.close();
         }
         
         // Shutdown tracker
@@ -376,6 +593,26 @@ public class UnifiedResourceManager implements AutoCloseable {
         return memoryPool;
     }
     
+    /**
+     * Get the queue for native releases deferred with {@link ResourceHandle#deferDestruction}
+     *
+     * @return The queue, or null if async cleanup is disabled
+     */
+    public DeferredDestructionQueue getDestructionQueue() {
+        return destructionQueue;
+    }
+    
+    /**
+     * Defer a handle's native release on close to a context of the destruction queue, or
+     * leave it synchronous if async cleanup is disabled
+     */
+    public <H extends ResourceHandle<?>> H deferDestruction(H handle, Object context) {
+        if (destructionQueue != null) {
+            handle.deferDestruction(destructionQueue, context);
+        }
+        return handle;
+    }
+    
     /**
      * Get the resource tracker
      */
@@ -396,48 +633,69 @@ public class UnifiedResourceManager implements AutoCloseable {
      * Create an OpenGL buffer resource (VBO, UBO, SSBO)
      */
     public BufferResource createBuffer(int target, int usage, ByteBuffer data, String debugName) {
+        return createBuffer(DEFAULT_TENANT, target, usage, data, debugName);
+    }
+    
+    /**
+     * Create an OpenGL buffer resource charged to a tenant
+     */
+    public BufferResource createBuffer(String tenant, int target, int usage, ByteBuffer data, String debugName) {
         ensureNotClosed();
         
+        BufferResource buffer;
         try {
-            var buffer = BufferResource.Factory.createSSBO(data, debugName);
-            register(buffer);
-            return buffer;
+            buffer = BufferResource.Factory.createSSBO(data, debugName);
         } catch (Exception e) {
             log.error("Failed to create OpenGL buffer: {}", debugName, e);
             throw new RuntimeException("Failed to create OpenGL buffer: " + debugName, e);
         }
+        return registerCreated(buffer, tenant);
     }
     
     /**
      * Create a Shader Storage Buffer Object (SSBO)
      */
     public BufferResource createSSBO(ByteBuffer data, String debugName) {
+        return createSSBO(DEFAULT_TENANT, data, debugName);
+    }
+    
+    /**
+     * Create a Shader Storage Buffer Object (SSBO) charged to a tenant
+     */
+    public BufferResource createSSBO(String tenant, ByteBuffer data, String debugName) {
         ensureNotClosed();
         
+        BufferResource buffer;
         try {
-            var buffer = BufferResource.Factory.createSSBO(data, debugName);
-            register(buffer);
-            return buffer;
+            buffer = BufferResource.Factory.createSSBO(data, debugName);
         } catch (Exception e) {
             log.error("Failed to create SSBO: {}", debugName, e);
             throw new RuntimeException("Failed to create SSBO: " + debugName, e);
         }
+        return registerCreated(buffer, tenant);
     }
     
     /**
      * Create a Uniform Buffer Object (UBO)
      */
     public BufferResource createUBO(long sizeBytes, String debugName) {
+        return createUBO(DEFAULT_TENANT, sizeBytes, debugName);
+    }
+    
+    /**
+     * Create a Uniform Buffer Object (UBO) charged to a tenant
+     */
+    public BufferResource createUBO(String tenant, long sizeBytes, String debugName) {
         ensureNotClosed();
         
+        BufferResource buffer;
         try {
-            var buffer = BufferResource.Factory.createUBO(sizeBytes, debugName);
-            register(buffer);
-            return buffer;
+            buffer = BufferResource.Factory.createUBO(sizeBytes, debugName);
         } catch (Exception e) {
             log.error("Failed to create UBO: {}", debugName, e);
             throw new RuntimeException("Failed to create UBO: " + debugName, e);
         }
+        return registerCreated(buffer, tenant);
     }
     
     /**
@@ -451,48 +709,70 @@ public class UnifiedResourceManager implements AutoCloseable {
      * Create a Storage Buffer Object (SSBO) - alternative method name
      */
     public BufferResource createStorageBuffer(long sizeBytes, String debugName) {
+        return createStorageBuffer(DEFAULT_TENANT, sizeBytes, debugName);
+    }
+    
+    /**
+     * Create a Storage Buffer Object (SSBO) charged to a tenant
+     */
+    public BufferResource createStorageBuffer(String tenant, long sizeBytes, String debugName) {
         ensureNotClosed();
         
+        BufferResource buffer;
         try {
-            var buffer = BufferResource.Factory.createSSBO(sizeBytes, debugName);
-            register(buffer);
-            return buffer;
+            buffer = BufferResource.Factory.createSSBO(sizeBytes, debugName);
         } catch (Exception e) {
             log.error("Failed to create storage buffer: {}", debugName, e);
             throw new RuntimeException("Failed to create storage buffer: " + debugName, e);
         }
+        return registerCreated(buffer, tenant);
     }
     
     /**
      * Create a Vertex Buffer Object (VBO)
      */
     public BufferResource createVBO(ByteBuffer data, String debugName) {
+        return createVBO(DEFAULT_TENANT, data, debugName);
+    }
+    
+    /**
+     * Create a Vertex Buffer Object (VBO) charged to a tenant
+     */
+    public BufferResource createVBO(String tenant, ByteBuffer data, String debugName) {
         ensureNotClosed();
         
+        BufferResource buffer;
         try {
-            var buffer = BufferResource.Factory.createVBO(data, debugName);
-            register(buffer);
-            return buffer;
+            buffer = BufferResource.Factory.createVBO(data, debugName);
         } catch (Exception e) {
             log.error("Failed to create VBO: {}", debugName, e);
             throw new RuntimeException("Failed to create VBO: " + debugName, e);
         }
+        return registerCreated(buffer, tenant);
     }
     
     /**
      * Create a 2D texture
      */
     public TextureResource createTexture2D(int width, int height, int internalFormat, String debugName) {
+        return createTexture2D(DEFAULT_TENANT, width, height, internalFormat, debugName);
+    }
+    
+    /**
+     * Create a 2D texture charged to a tenant
+     */
+    public TextureResource createTexture2D(String tenant, int width, int height, int internalFormat,
+                                         String debugName) {
         ensureNotClosed();
         
+        TextureResource texture;
         try {
-            var texture = TextureResource.Factory.create2D(width, height, internalFormat, debugName);
-            register(texture);
-            return texture;
+            texture = TextureResource.Factory.create2D(width, height, internalFormat, debugName);
         } catch (Exception e) {
             log.error("Failed to create 2D texture: {}", debugName, e);
             throw new RuntimeException("Failed to create 2D texture: " + debugName, e);
         }
+        return registerCreated(texture, tenant);
     }
     
     /**
@@ -500,48 +780,137 @@ public class UnifiedResourceManager implements AutoCloseable {
      */
     public TextureResource createTexture2D(int width, int height, int internalFormat, 
                                          int format, int type, ByteBuffer data, String debugName) {
+        return createTexture2D(DEFAULT_TENANT, width, height, internalFormat, format, type, data, debugName);
+    }
+    
+    /**
+     * Create a 2D texture with initial data charged to a tenant
+     */
+    public TextureResource createTexture2D(String tenant, int width, int height, int internalFormat,
+                                         int format, int type, ByteBuffer data, String debugName) {
         ensureNotClosed();
         
+        TextureResource texture;
         try {
-            var texture = TextureResource.Factory.create2D(width, height, internalFormat, format, type, data, debugName);
-            register(texture);
-            return texture;
+            texture = TextureResource.Factory.create2D(width, height, internalFormat, format, type, data, debugName);
         } catch (Exception e) {
             log.error("Failed to create 2D texture with data: {}", debugName, e);
             throw new RuntimeException("Failed to create 2D texture with data: " + debugName, e);
         }
+        return registerCreated(texture, tenant);
     }
     
     /**
      * Create a 3D texture
      */
     public TextureResource createTexture3D(int width, int height, int depth, int internalFormat, String debugName) {
+        return createTexture3D(DEFAULT_TENANT, width, height, depth, internalFormat, debugName);
+    }
+    
+    /**
+     * Create a 3D texture charged to a tenant
+     */
+    public TextureResource createTexture3D(String tenant, int width, int height, int depth, int internalFormat,
+                                         String debugName) {
         ensureNotClosed();
         
+        TextureResource texture;
         try {
-            var texture = TextureResource.Factory.create3D(width, height, depth, internalFormat, debugName);
-            register(texture);
-            return texture;
+            texture = TextureResource.Factory.create3D(width, height, depth, internalFormat, debugName);
         } catch (Exception e) {
             log.error("Failed to create 3D texture: {}", debugName, e);
             throw new RuntimeException("Failed to create 3D texture: " + debugName, e);
         }
+        return registerCreated(texture, tenant);
     }
     
     /**
      * Create a render target texture
      */
     public TextureResource createRenderTarget(int width, int height, String debugName) {
+        return createRenderTarget(DEFAULT_TENANT, width, height, debugName);
+    }
+    
+    /**
+     * Create a render target texture charged to a tenant
+     */
+    public TextureResource createRenderTarget(String tenant, int width, int height, String debugName) {
         ensureNotClosed();
         
+        TextureResource texture;
         try {
-            var texture = TextureResource.Factory.createRenderTarget(width, height, debugName);
-            register(texture);
-            return texture;
+            texture = TextureResource.Factory.createRenderTarget(width, height, debugName);
         } catch (Exception e) {
             log.error("Failed to create render target: {}", debugName, e);
             throw new RuntimeException("Failed to create render target: " + debugName, e);
         }
+        return registerCreated(texture, tenant);
+    }
+    
+    /**
+     * Register a freshly created resource under a tenant, closing it if the tenant's hard
+     * quota rejects it
+     */
+    private <T extends GPUResource> T registerCreated(T resource, String tenant) {
+        try {
+            register(resource, tenant);
+        } catch (RuntimeException e) {
+            try {
+                resource.close();
+            } catch (Exception closeError) {
+                e.addSuppressed(closeError);
+            }
+            throw e;
+        }
+        return resource;
+    }
+    
+    /**
+     * Create several resources with a factory and register them under one tenant reservation,
+     * e.g. {@code createBatch(tenant, sizes.length, i -> BufferResource.Factory.createSSBO(sizes[i], name))}.
+     * All or nothing: if a creation or the quota fails, every resource created so far is closed.
+     *
+     * @param factory Creates the resource at each index of the batch
+     * @return The resources, in index order
+     */
+    public <T extends GPUResource> List<T> createBatch(String tenant, int count, IntFunction<T> factory) {
+        ensureNotClosed();
+        
+        var batch = new ArrayList<T>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                batch.add(factory.apply(i));
+            }
+            registerBatch(batch, tenant);
+        } catch (RuntimeException e) {
+            for (var resource : batch) {
+                try {
+                    resource.close();
+                } catch (Exception closeError) {
+                    e.addSuppressed(closeError);
+                }
+            }
+            log.error("Failed to create batch of {} resources, closed {} created", count, batch.size(), e);
+            throw e;
+        }
+        return batch;
+    }
+    
+    /**
+     * Create Shader Storage Buffer Objects for several data buffers, charged to a tenant
+     */
+    public List<BufferResource> createSSBOBatch(String tenant, List<ByteBuffer> data, String debugName) {
+        return createBatch(tenant, data.size(),
+                           i -> BufferResource.Factory.createSSBO(data.get(i), debugName + "[" + i + "]"));
+    }
+    
+    /**
+     * Create 2D textures of one size and format, charged to a tenant
+     */
+    public List<TextureResource> createTexture2DBatch(String tenant, int count, int width, int height,
+                                                      int internalFormat, String debugName) {
+        return createBatch(tenant, count,
+                           i -> TextureResource.Factory.create2D(width, height, internalFormat, debugName + "[" + i + "]"));
     }
     
     /**
@@ -682,16 +1051,23 @@ public class UnifiedResourceManager implements AutoCloseable {
      * Create a depth texture
      */
     public TextureResource createDepthTexture(int width, int height, String debugName) {
+        return createDepthTexture(DEFAULT_TENANT, width, height, debugName);
+    }
+    
+    /**
+     * Create a depth texture charged to a tenant
+     */
+    public TextureResource createDepthTexture(String tenant, int width, int height, String debugName) {
         ensureNotClosed();
         
+        TextureResource texture;
         try {
-            var texture = TextureResource.Factory.createDepthTexture(width, height, debugName);
-            register(texture);
-            return texture;
+            texture = TextureResource.Factory.createDepthTexture(width, height, debugName);
         } catch (Exception e) {
             log.error("Failed to create depth texture: {}", debugName, e);
             throw new RuntimeException("Failed to create depth texture: " + debugName, e);
         }
+        return registerCreated(texture, tenant);
     }
     
     /**
@@ -748,75 +1124,51 @@ public class UnifiedResourceManager implements AutoCloseable {
      * Allocate memory from the pool
      */
     public ByteBuffer allocateMemory(int size) {
+        return allocateMemory(DEFAULT_TENANT, size);
+    }
+    
+    /**
+     * Allocate memory from the pool, charged to a tenant
+     *
+     * @throws TenantQuotaExceededException if the tenant's hard quota would be exceeded
+     */
+    public ByteBuffer allocateMemory(String tenant, int size) {
         ensureNotClosed();
         if (size <= 0) {
             throw new IllegalArgumentException("Size must be positive: " + size);
         }
         
-        var buffer = memoryPool.allocate(size);
-        if (buffer != null) {
-            // Create tracking info first
-            var resourceId = UUID.randomUUID();
-            var handle = new ByteBufferResource(resourceId, buffer, tracker);
-            
-            boolean wasAlreadyTracked = false;
-            
-            // Synchronize buffer tracking to prevent race conditions
-            synchronized (bufferToIdMap) {
-                // Check if buffer is already tracked
-                var existingId = bufferToIdMap.get(buffer);
-                if (existingId != null) {
-                    // This happens when pool returns a buffer that wasn't properly untracked
-                    wasAlreadyTracked = true;
-                    log.debug("Buffer {} reused from pool, was tracked as {}", 
-                             System.identityHashCode(buffer), existingId);
-                    // Remove the old resource
-                    var oldResource = resources.remove(existingId);
-                    if (oldResource != null) {
-                        try {
-                            oldResource.close();
-                        } catch (Exception e) {
-                            log.debug("Error closing old resource", e);
-                        }
-                    }
-                }
-                
-                // Track the new allocation - store buffer at position 0 for consistency
-                int originalPosition = buffer.position();
-                try {
-                    buffer.position(0);
-                    bufferToIdMap.put(buffer, resourceId);
-                } finally {
-                    buffer.position(originalPosition);
-                }
-                    log.trace("Buffer {} mapped to resourceId {}, bufferToIdMap size: {}",
-                         System.identityHashCode(buffer), resourceId, bufferToIdMap.size());
-            }
-            
-            // Add to resources map and register - MUST be synchronized like releaseMemory
-            synchronized (resources) {
-                resources.put(resourceId, handle);
-            }
-            tracker.register(handle);
-            allocatedBytesPerType.get(GPUResourceType.MEMORY_POOL).addAndGet(size);
-            totalAllocatedBytes.addAndGet(size); // Track in total allocated bytes
-            
-            // Only increment counter if this is a truly new allocation
-            if (!wasAlreadyTracked) {
-                int countBefore = activeResourceCount.get();
-                activeResourceCount.incrementAndGet(); // Track as active
-                int countAfter = activeResourceCount.get();
-                log.debug("Incremented activeResourceCount from {} to {} for new buffer {}", 
-                        countBefore, countAfter, System.identityHashCode(buffer));
-            } else {
-                log.debug("Buffer {} was already tracked, not incrementing activeResourceCount (current: {})", 
-                        System.identityHashCode(buffer), activeResourceCount.get());
-            }
-            allocationCount.incrementAndGet(); // Debug counter
-            
-            log.debug("Allocated buffer {} with resourceId {}, resources.size() = {}, activeCount = {}", 
-                     System.identityHashCode(buffer), resourceId, resources.size(), activeResourceCount.get());
+        var account = reserve(tenant, size);
+        ByteBuffer buffer;
+        try {
+            buffer = memoryPool.allocate(size);
+        } catch (RuntimeException | Error e) {
+            account.credit(size);
+            throw e;
+        }
+        if (buffer == null) {
+            account.credit(size);
+            return null;
+        }
+        
+        // The entry keyed by address carries the ID and handle, so release needs one lock-free lookup
+        var resourceId = nextId();
+        var handle = new ByteBufferResource(resourceId, buffer, tracker);
+        tenantCharges.put(handle, new TenantCharge(account, size));
+        index(resourceId, handle, false);
+        var previous = pooledAllocations.put(MemoryUtil.memAddress0(buffer), new PooledAllocation(resourceId, handle, size));
+        if (previous != null) {
+            // The pool handed out a buffer that was never released through this manager
+            log.debug("Buffer {} reused from pool, was tracked as {}", System.identityHashCode(buffer), previous.id());
+            untrack(previous);
+        } else {
+            activeResourceCount.incrementAndGet();
         }
+        allocatedBytesPerType.get(GPUResourceType.MEMORY_POOL).addAndGet(size);
+        totalAllocatedBytes.addAndGet(size);
+        allocationCount.incrementAndGet(); // Debug counter
+        
+        log.trace("Allocated buffer {} with resourceId {}", System.identityHashCode(buffer), resourceId);
         return buffer;
     }
     
@@ -828,55 +1180,12 @@ public class UnifiedResourceManager implements AutoCloseable {
             return;
         }
         
-        UUID resourceId = null;
-        boolean wasTracked = false;
-        
-        // Synchronize buffer tracking removal to prevent race conditions
-        synchronized (bufferToIdMap) {
-            log.trace("Removing buffer {} from bufferToIdMap, size before: {}",
-                     System.identityHashCode(buffer), bufferToIdMap.size());
-
-            // Apply position workaround for consistent lookup during removal
-            int originalPosition = buffer.position();
-            try {
-                buffer.position(0);
-                resourceId = bufferToIdMap.remove(buffer);
-            } finally {
-                buffer.position(originalPosition);
-            }
-            wasTracked = (resourceId != null);
-
-            log.trace("Buffer {} removal result: wasTracked={}, resourceId={}",
-                     System.identityHashCode(buffer), wasTracked, resourceId);
-        }
-        
-        if (wasTracked) {
+        var allocation = buffer.isDirect() ? pooledAllocations.remove(MemoryUtil.memAddress0(buffer)) : null;
+        if (allocation != null) {
             releaseCount.incrementAndGet(); // Debug counter - count all buffer releases
-            int countBefore = activeResourceCount.get();
-            activeResourceCount.decrementAndGet(); // Always decrement when buffer was tracked
-            int countAfter = activeResourceCount.get();
-            log.debug("Decremented activeResourceCount from {} to {} for buffer {}", 
-                    countBefore, countAfter, System.identityHashCode(buffer));
-            allocatedBytesPerType.get(GPUResourceType.MEMORY_POOL).addAndGet(-buffer.capacity()); // Always update bytes
-            totalAllocatedBytes.addAndGet(-buffer.capacity()); // Also update total allocated bytes
-            
-            // Synchronize resources map access
-            synchronized (resources) {
-                var resource = resources.remove(resourceId);
-                if (resource != null) {
-                    // Close the resource handle (which will unregister from tracker)
-                    try {
-                        resource.close();
-                    } catch (Exception e) {
-                        log.debug("Error closing buffer resource", e);
-                    }
-                    log.debug("Released buffer {} with resourceId {}, resources.size() = {}, activeCount = {}", 
-                             System.identityHashCode(buffer), resourceId, resources.size(), activeResourceCount.get());
-                } else {
-                    log.warn("Buffer {} found in bufferToIdMap but resource {} not found in resources map", 
-                             System.identityHashCode(buffer), resourceId);
-                }
-            }
+            activeResourceCount.decrementAndGet();
+            untrack(allocation);
+            log.trace("Released buffer {} with resourceId {}", System.identityHashCode(buffer), allocation.id());
         } else {
             // This can happen in concurrent scenarios where the same buffer is returned multiple times
             // or if the buffer was never tracked (shouldn't happen with correct usage)
@@ -888,6 +1197,193 @@ public class UnifiedResourceManager implements AutoCloseable {
         memoryPool.returnToPool(buffer);
     }
     
+    /**
+     * Allocate several buffers from the pool
+     */
+    public List<ByteBuffer> allocateMemoryBatch(int[] sizes) {
+        return allocateMemoryBatch(DEFAULT_TENANT, sizes);
+    }
+    
+    /**
+     * Allocate several buffers from the pool, charged to a tenant. The tenant's quota is
+     * reserved once, the pool lock is taken once per phase rather than per buffer, and the
+     * manager's counters are updated once for the batch.
+     * <p>
+     * All or nothing: if the quota or the pool rejects the batch, nothing stays allocated.
+     *
+     * @return The buffers, in the order of {@code sizes}
+     * @throws TenantQuotaExceededException if the tenant's hard quota would be exceeded
+     */
+    public List<ByteBuffer> allocateMemoryBatch(String tenant, int[] sizes) {
+        ensureNotClosed();
+        long total = 0;
+        for (int size : sizes) {
+            if (size <= 0) {
+                throw new IllegalArgumentException("Size must be positive: " + size);
+            }
+            total += size;
+        }
+        
+        var account = reserve(tenant, total, sizes.length);
+        ByteBuffer[] buffers;
+        try {
+            buffers = memoryPool.allocateBatch(sizes);
+        } catch (RuntimeException | Error e) {
+            account.credit(total, sizes.length);
+            throw e;
+        }
+        
+        int added = 0;
+        var handles = new ArrayList<ByteBufferResource>(buffers.length);
+        for (int i = 0; i < buffers.length; i++) {
+            var buffer = buffers[i];
+            var resourceId = nextId();
+            var handle = new ByteBufferResource(resourceId, buffer, null);
+            handles.add(handle);
+            tenantCharges.put(handle, new TenantCharge(account, sizes[i]));
+            index(resourceId, handle, false);
+            var previous = pooledAllocations.put(MemoryUtil.memAddress0(buffer), new PooledAllocation(resourceId, handle, sizes[i]));
+            if (previous != null) {
+                untrack(previous);
+            } else {
+                added++;
+            }
+        }
+        if (tracker != null) {
+            tracker.registerAll(handles);
+        }
+        activeResourceCount.addAndGet(added);
+        allocatedBytesPerType.get(GPUResourceType.MEMORY_POOL).addAndGet(total);
+        totalAllocatedBytes.addAndGet(total);
+        allocationCount.addAndGet(sizes.length); // Debug counter
+        
+        log.debug("Allocated batch of {} buffers ({} bytes, tenant {})", sizes.length, total, tenant);
+        return List.of(buffers);
+    }
+    
+    /**
+     * Return several buffers to the pool, crediting each tenant's quota and updating the
+     * manager's counters once for the batch. Null and untracked buffers are skipped, as in
+     * {@link #releaseMemory}.
+     */
+    public void releaseMemoryBatch(Collection<ByteBuffer> buffers) {
+        var released = new ArrayList<ByteBuffer>(buffers.size());
+        var credits = new HashMap<TenantAccount, long[]>(); // Bytes and resources per tenant
+        int tracked = 0;
+        long bytes = 0;
+        for (var buffer : buffers) {
+            if (buffer == null) {
+                continue;
+            }
+            released.add(buffer);
+            var allocation = buffer.isDirect() ? pooledAllocations.remove(MemoryUtil.memAddress0(buffer)) : null;
+            if (allocation != null) {
+                tracked++;
+                bytes += allocation.size();
+                deindex(allocation.id());
+                var charge = tenantCharges.remove(allocation.handle());
+                if (charge != null) {
+                    var credit = credits.computeIfAbsent(charge.tenant(), t -> new long[2]);
+                    credit[0] += charge.bytes();
+                    credit[1]++;
+                }
+                closeQuietly(allocation.handle());
+            }
+        }
+        credits.forEach((tenant, credit) -> tenant.credit(credit[0], (int) credit[1]));
+        releaseCount.addAndGet(tracked); // Debug counter
+        activeResourceCount.addAndGet(-tracked);
+        allocatedBytesPerType.get(GPUResourceType.MEMORY_POOL).addAndGet(-bytes);
+        totalAllocatedBytes.addAndGet(-bytes);
+        memoryPool.returnBatch(released);
+        
+        log.debug("Released batch of {} buffers ({} tracked, {} bytes)", released.size(), tracked, bytes);
+    }
+    
+    /**
+     * Drop the accounting of an allocateMemory buffer whose address entry was removed.
+     */
+    private void untrack(PooledAllocation allocation) {
+        allocatedBytesPerType.get(GPUResourceType.MEMORY_POOL).addAndGet(-allocation.size());
+        totalAllocatedBytes.addAndGet(-allocation.size());
+        closeHandle(allocation);
+    }
+    
+    /**
+     * Drop the index entry, tenant charge and tracker registration of an allocateMemory buffer.
+     */
+    private void closeHandle(PooledAllocation allocation) {
+        deindex(allocation.id());
+        releaseCharge(allocation.handle());
+        closeQuietly(allocation.handle());
+    }
+    
+    private static void closeQuietly(ByteBufferResource handle) {
+        try {
+            // Closing the handle unregisters it from the tracker
+            handle.close();
+        } catch (Exception e) {
+            log.debug("Error closing buffer resource", e);
+        }
+    }
+    
+    /**
+     * Next resource ID: unique per manager and far cheaper than a random UUID.
+     */
+    private UUID nextId() {
+        return new UUID(idPrefix, idSequence.incrementAndGet());
+    }
+    
+    /**
+     * Add a resource to the resources map and the type and age indexes.
+     *
+     * @param aged Whether {@link #cleanupUnused} may remove it by age
+     * @return false if the ID was already present
+     */
+    private boolean index(UUID id, GPUResource resource, boolean aged) {
+        // Read from the resource before entering the map's bin lock
+        var type = resource.getType();
+        long createdNanos = !aged ? 0
+                            : resource instanceof ResourceHandle<?> handle
+                              ? handle.getAllocationTime()
+                              : System.nanoTime() - resource.getAgeMillis() * 1_000_000;
+        var added = new boolean[1];
+        resources.computeIfAbsent(id, key -> {
+            AgeKey age = null;
+            if (aged) {
+                age = new AgeKey(createdNanos, ageSequence.incrementAndGet());
+                resourcesByAge.put(age, id);
+            }
+            typeIndexes.get(type).entries.put(id, new IndexEntry(resource, age));
+            added[0] = true;
+            return resource;
+        });
+        return added[0];
+    }
+    
+    /**
+     * Remove a resource from the resources map and the type and age indexes.
+     *
+     * @return The removed resource, or null if the ID was not present
+     */
+    private GPUResource deindex(UUID id) {
+        var removed = new GPUResource[1];
+        resources.computeIfPresent(id, (key, resource) -> {
+            var entry = typeIndexes.get(resource.getType()).entries.remove(id);
+            if (entry != null && entry.age() != null) {
+                resourcesByAge.remove(entry.age());
+            }
+            removed[0] = resource;
+            return null;
+        });
+        return removed[0];
+    }
+    
+    private void clearIndexes() {
+        typeIndexes.values().forEach(index -> index.entries.clear());
+        resourcesByAge.clear();
+    }
+    
     /**
      * Get the count of active resources
      */
@@ -909,8 +1405,8 @@ public class UnifiedResourceManager implements AutoCloseable {
      */
     public <T extends GPUResource> ResourceHandle<T> add(T resource, Object attachment) {
         ensureNotClosed();
-        UUID id = UUID.randomUUID();
-        resources.put(id, resource);
+        UUID id = nextId();
+        index(id, resource, true);
         activeResourceCount.incrementAndGet();
         
         // Track memory usage
@@ -941,18 +1437,68 @@ public class UnifiedResourceManager implements AutoCloseable {
         return getTotalAllocatedBytes();
     }
     
+    /**
+     * Close registered resources of tenants above their soft quota, the tenant furthest over
+     * first and its oldest resources first, until each is back within its soft quota. Pooled
+     * memory from {@link #allocateMemory} is never evicted, as its owner still holds the buffer.
+     *
+     * @return Number of resources closed
+     */
+    public int evictOverQuota() {
+        ensureNotClosed();
+        
+        // Snapshot the overage so concurrent charges do not reorder the sort
+        var overQuota = new ArrayList<Map.Entry<TenantAccount, Long>>();
+        for (var account : tenants.values()) {
+            long over = account.overQuotaBytes();
+            if (over > 0) {
+                overQuota.add(Map.entry(account, over));
+            }
+        }
+        overQuota.sort(Map.Entry.<TenantAccount, Long>comparingByValue().reversed());
+        
+        int evicted = 0;
+        for (var entry : overQuota) {
+            var account = entry.getKey();
+            var candidates = tenantCharges.entrySet().stream()
+                .filter(e -> e.getValue().tenant() == account && !(e.getKey() instanceof ByteBufferResource))
+                .map(Map.Entry::getKey)
+                .sorted(Comparator.comparingLong(GPUResource::getAgeMillis).reversed())
+                .collect(Collectors.toList());
+            for (var resource : candidates) {
+                if (account.overQuotaBytes() <= 0) {
+                    break;
+                }
+                unregister(resource);
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    log.error("Failed to close evicted resource: {}", resource.getId(), e);
+                }
+                account.evictions.increment();
+                evicted++;
+            }
+            log.debug("Tenant {} was {} bytes over soft quota, now {}",
+                     account.name, entry.getValue(), account.overQuotaBytes());
+        }
+        return evicted;
+    }
+    
     /**
      * Perform maintenance operations
      */
     public void performMaintenance() {
         ensureNotClosed();
         memoryPool.evictExpired();
+        if (getTotalAllocatedBytes() > (long) (config.getMaxPoolSizeBytes() * config.getHighWaterMark())) {
+            evictOverQuota();
+        }
         cleanupUnused(config.getMaxIdleTime().toMillis());
         
         // Debug output for tracking allocation/release mismatch
         log.debug("Maintenance complete - Allocations: {}, Releases: {}, Active: {}, Resources size: {}, BufferMap size: {}", 
                  allocationCount.get(), releaseCount.get(), activeResourceCount.get(), 
-                 resources.size(), bufferToIdMap.size());
+                 resources.size(), pooledAllocations.size());
     }
     
     /**
@@ -971,16 +1517,26 @@ public class UnifiedResourceManager implements AutoCloseable {
         private final Map<GPUResourceType, TypeStatistics> typeStatistics;
         private final MemoryPool.PoolStatistics poolStatistics;
         private final int trackedResources;
+        private final Map<String, TenantStatistics> tenantStatistics;
         
         public ResourceManagerStatistics(int totalResources, long totalAllocatedBytes,
                                         Map<GPUResourceType, TypeStatistics> typeStatistics,
                                         MemoryPool.PoolStatistics poolStatistics,
                                         int trackedResources) {
+            this(totalResources, totalAllocatedBytes, typeStatistics, poolStatistics, trackedResources, Map.of());
+        }
+        
+        public ResourceManagerStatistics(int totalResources, long totalAllocatedBytes,
+                                        Map<GPUResourceType, TypeStatistics> typeStatistics,
+                                        MemoryPool.PoolStatistics poolStatistics,
+                                        int trackedResources,
+                                        Map<String, TenantStatistics> tenantStatistics) {
             this.totalResources = totalResources;
             this.totalAllocatedBytes = totalAllocatedBytes;
             this.typeStatistics = typeStatistics;
             this.poolStatistics = poolStatistics;
             this.trackedResources = trackedResources;
+            this.tenantStatistics = tenantStatistics;
         }
         
         public int getTotalResources() {
@@ -1003,6 +1559,10 @@ public class UnifiedResourceManager implements AutoCloseable {
             return trackedResources;
         }
         
+        public Map<String, TenantStatistics> getTenantStatistics() {
+            return tenantStatistics;
+        }
+        
         @Override
         public String toString() {
             var sb = new StringBuilder();
@@ -1019,6 +1579,13 @@ public class UnifiedResourceManager implements AutoCloseable {
                 }
             }
             
+            if (!tenantStatistics.isEmpty()) {
+                sb.append("\nPer-Tenant Statistics:\n");
+                for (var entry : tenantStatistics.entrySet()) {
+                    sb.append(String.format("  %s: %s\n", entry.getKey(), entry.getValue()));
+                }
+            }
+            
             if (poolStatistics != null) {
                 sb.append(String.format("\nMemory Pool: %s\n", poolStatistics));
             }
@@ -1066,6 +1633,204 @@ public class UnifiedResourceManager implements AutoCloseable {
         }
     }
     
+    /**
+     * Statistics for a tenant
+     */
+    public static class TenantStatistics {
+        private final long softQuotaBytes;
+        private final long hardQuotaBytes;
+        private final long usedBytes;
+        private final long peakBytes;
+        private final int resourceCount;
+        private final long softQuotaBreaches;
+        private final long rejections;
+        private final long evictions;
+        
+        public TenantStatistics(long softQuotaBytes, long hardQuotaBytes, long usedBytes, long peakBytes,
+                                int resourceCount, long softQuotaBreaches, long rejections, long evictions) {
+            this.softQuotaBytes = softQuotaBytes;
+            this.hardQuotaBytes = hardQuotaBytes;
+            this.usedBytes = usedBytes;
+            this.peakBytes = peakBytes;
+            this.resourceCount = resourceCount;
+            this.softQuotaBreaches = softQuotaBreaches;
+            this.rejections = rejections;
+            this.evictions = evictions;
+        }
+        
+        public long getSoftQuotaBytes() {
+            return softQuotaBytes;
+        }
+        
+        public long getHardQuotaBytes() {
+            return hardQuotaBytes;
+        }
+        
+        public long getUsedBytes() {
+            return usedBytes;
+        }
+        
+        public long getPeakBytes() {
+            return peakBytes;
+        }
+        
+        public int getResourceCount() {
+            return resourceCount;
+        }
+        
+        /**
+         * Times an allocation took the tenant from within to above its soft quota
+         */
+        public long getSoftQuotaBreaches() {
+            return softQuotaBreaches;
+        }
+        
+        /**
+         * Allocations refused by the hard quota
+         */
+        public long getRejections() {
+            return rejections;
+        }
+        
+        public long getEvictions() {
+            return evictions;
+        }
+        
+        public boolean isOverSoftQuota() {
+            return usedBytes > softQuotaBytes;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("used=%d, peak=%d, soft=%s, hard=%s, resources=%d, breaches=%d, rejected=%d, evicted=%d",
+                usedBytes, peakBytes, quotaString(softQuotaBytes), quotaString(hardQuotaBytes), resourceCount,
+                softQuotaBreaches, rejections, evictions);
+        }
+        
+        private static String quotaString(long quota) {
+            return quota == Long.MAX_VALUE ? "none" : Long.toString(quota);
+        }
+    }
+    
+    /**
+     * Thrown when an allocation or create would take a tenant past its hard quota
+     */
+    public static class TenantQuotaExceededException extends IllegalStateException {
+        private final String tenant;
+        private final long requestedBytes;
+        
+        public TenantQuotaExceededException(String tenant, long requestedBytes, long usedBytes, long hardQuotaBytes) {
+            super(String.format("Tenant %s hard quota exceeded: requested %d bytes with %d of %d in use",
+                tenant, requestedBytes, usedBytes, hardQuotaBytes));
+            this.tenant = tenant;
+            this.requestedBytes = requestedBytes;
+        }
+        
+        public String getTenant() {
+            return tenant;
+        }
+        
+        public long getRequestedBytes() {
+            return requestedBytes;
+        }
+    }
+    
+    /**
+     * Byte accounting for one tenant. Charges are a compare-and-set on the used counter, so
+     * quota checks never take a lock.
+     */
+    private static final class TenantAccount {
+        final String name;
+        volatile long softQuotaBytes = Long.MAX_VALUE;
+        volatile long hardQuotaBytes = Long.MAX_VALUE;
+        final AtomicLong usedBytes = new AtomicLong();
+        final AtomicLong peakBytes = new AtomicLong();
+        final AtomicInteger resourceCount = new AtomicInteger();
+        final LongAdder softQuotaBreaches = new LongAdder();
+        final LongAdder rejections = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+        
+        TenantAccount(String name) {
+            this.name = name;
+        }
+        
+        boolean tryCharge(long bytes) {
+            return tryCharge(bytes, 1);
+        }
+        
+        boolean tryCharge(long bytes, int resources) {
+            long used;
+            long next;
+            do {
+                used = usedBytes.get();
+                next = used + bytes;
+                if (next > hardQuotaBytes) {
+                    rejections.increment();
+                    return false;
+                }
+            } while (!usedBytes.compareAndSet(used, next));
+            
+            resourceCount.addAndGet(resources);
+            if (next > peakBytes.get()) {
+                peakBytes.accumulateAndGet(next, Math::max);
+            }
+            long soft = softQuotaBytes;
+            if (next > soft && used <= soft) {
+                softQuotaBreaches.increment();
+                log.debug("Tenant {} over soft quota: {} of {} bytes", name, next, soft);
+            }
+            return true;
+        }
+        
+        void credit(long bytes) {
+            credit(bytes, 1);
+        }
+        
+        void credit(long bytes, int resources) {
+            usedBytes.addAndGet(-bytes);
+            resourceCount.addAndGet(-resources);
+        }
+        
+        long overQuotaBytes() {
+            return usedBytes.get() - softQuotaBytes;
+        }
+        
+        TenantStatistics snapshot() {
+            return new TenantStatistics(softQuotaBytes, hardQuotaBytes, usedBytes.get(), peakBytes.get(),
+                resourceCount.get(), softQuotaBreaches.sum(), rejections.sum(), evictions.sum());
+        }
+    }
+    
+    private record TenantCharge(TenantAccount tenant, long bytes) {
+    }
+    
+    /**
+     * Tracking of a buffer from {@link #allocateMemory}, keyed by its native address.
+     */
+    private record PooledAllocation(UUID id, ByteBufferResource handle, int size) {
+    }
+    
+    /**
+     * Resources of one type, by ID.
+     */
+    private static final class TypeIndex {
+        final Map<UUID, IndexEntry> entries = new ConcurrentHashMap<>();
+    }
+    
+    private record IndexEntry(GPUResource resource, AgeKey age) {
+    }
+    
+    /**
+     * Position in the age index: creation time, then insertion order for equal times.
+     */
+    private record AgeKey(long createdNanos, long sequence) implements Comparable<AgeKey> {
+        @Override
+        public int compareTo(AgeKey other) {
+            int byTime = Long.compare(createdNanos - other.createdNanos, 0); // nanoTime may wrap
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+    
     /**
      * Simple ResourceHandle implementation for GPU resources
      */
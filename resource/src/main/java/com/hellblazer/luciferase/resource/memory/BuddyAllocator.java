@@ -0,0 +1,483 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.AllocationSite;
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.lwjgl.system.MemoryUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buddy-system allocator carving variable-size blocks out of a few large native arenas.
+ * <p>
+ * Block sizes are powers of two between {@code minBlockSize} and {@code arenaSize}. A request is
+ * served by splitting the smallest free block that fits; on free, a block is merged with its buddy
+ * for as long as the buddy is free too, so neighbouring frees coalesce back into large blocks.
+ * Requests are rounded up to {@code minBlockSize} only, not to a power of two: the unused tail of
+ * the enclosing block is split off and left free, so a 10 MB request occupies 10 MB, not 16 MB.
+ * Each arena has its own lock; arenas are tried lowest first, which keeps later arenas empty so
+ * they can be released.
+ * <p>
+ * {@code initialArenas} are reserved up front and kept until {@link #close()}. Up to
+ * {@code maxArenas} are added on demand and released again once completely free. When every
+ * arena is exhausted {@link #allocate(int)} returns 0 and the caller falls back to malloc.
+ */
+public class BuddyAllocator implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(BuddyAllocator.class);
+    
+    static {
+        AllocationSite.registerAllocator(BuddyAllocator.class);
+    }
+
+    public static final int DEFAULT_ARENA_SIZE = 256 * 1024 * 1024;
+    public static final int DEFAULT_MIN_BLOCK_SIZE = 4096;
+    public static final int DEFAULT_INITIAL_ARENAS = 1;
+    public static final int DEFAULT_MAX_ARENAS = 4;
+
+    /**
+     * A native arena managed as a binary buddy tree.
+     * Free blocks are tracked per order by block index; an allocation records its length in
+     * minimum-size blocks at the index of its first one, and occupies the power-of-two blocks of
+     * that length's binary decomposition, largest first.
+     */
+    private static final class Arena {
+        final long address;
+        final int maxOrder;
+        final int minShift;
+        final BitSet[] free;
+        final int[] allocatedUnits;
+        final ReentrantLock lock = new ReentrantLock();
+        long bytesInUse;
+        int blocksInUse;
+        boolean retired;
+
+        Arena(long address, int arenaSize, int minBlockSize) {
+            this.address = address;
+            this.minShift = Integer.numberOfTrailingZeros(minBlockSize);
+            this.maxOrder = Integer.numberOfTrailingZeros(arenaSize) - minShift;
+            this.free = new BitSet[maxOrder + 1];
+            for (int order = 0; order <= maxOrder; order++) {
+                free[order] = new BitSet(1 << (maxOrder - order));
+            }
+            free[maxOrder].set(0);
+            this.allocatedUnits = new int[1 << maxOrder];
+        }
+
+        /**
+         * @param units Length in minimum-size blocks
+         * @return block address, or 0 if no free block large enough can be split off
+         */
+        long allocate(int units, LongAdder splits) {
+            int order = 32 - Integer.numberOfLeadingZeros(units - 1);
+            lock.lock();
+            try {
+                if (retired) {
+                    return 0;
+                }
+                int from = order;
+                while (from <= maxOrder && free[from].isEmpty()) {
+                    from++;
+                }
+                if (from > maxOrder) {
+                    return 0;
+                }
+                int index = free[from].nextSetBit(0);
+                free[from].clear(index);
+                // Split down, leaving the upper half of each split free
+                while (from > order) {
+                    from--;
+                    index <<= 1;
+                    free[from].set(index + 1);
+                    splits.increment();
+                }
+                int start = index << order;
+                // Trim the tail: keep the leading halves the request needs, free the rest
+                int remaining = units;
+                while (remaining != 1 << order) {
+                    order--;
+                    index <<= 1;
+                    splits.increment();
+                    if (remaining > 1 << order) {
+                        remaining -= 1 << order;
+                        index++;
+                    } else {
+                        free[order].set(index + 1);
+                    }
+                }
+                allocatedUnits[start] = units;
+                bytesInUse += (long) units << minShift;
+                blocksInUse++;
+                return address + ((long) start << minShift);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return true if the arena is completely free afterwards
+         */
+        boolean free(long blockAddress, LongAdder merges) {
+            lock.lock();
+            try {
+                int minIndex = (int) ((blockAddress - address) >>> minShift);
+                int units = allocatedUnits[minIndex];
+                if (units == 0) {
+                    throw new IllegalStateException("Block 0x" + Long.toHexString(blockAddress) + " is not allocated");
+                }
+                allocatedUnits[minIndex] = 0;
+                bytesInUse -= (long) units << minShift;
+                blocksInUse--;
+
+                int offset = minIndex;
+                for (int part = Integer.highestOneBit(units); part != 0; part = Integer.highestOneBit(units)) {
+                    units -= part;
+                    int order = Integer.numberOfTrailingZeros(part);
+                    int index = offset >>> order;
+                    offset += part;
+                    while (order < maxOrder && free[order].get(index ^ 1)) {
+                        free[order].clear(index ^ 1);
+                        index >>>= 1;
+                        order++;
+                        merges.increment();
+                    }
+                    free[order].set(index);
+                }
+                return blocksInUse == 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long largestFreeBlock() {
+            lock.lock();
+            try {
+                for (int order = maxOrder; order >= 0; order--) {
+                    if (!free[order].isEmpty()) {
+                        return blockSize(order);
+                    }
+                }
+                return 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long blockSize(int order) {
+            return 1L << (order + minShift);
+        }
+    }
+
+    /**
+     * Native memory handle over a buddy block; closing it frees the block.
+     */
+    private class BlockHandle extends NativeMemoryHandle {
+        private final long blockAddress; // Block start, whatever the buffer's position
+
+        BlockHandle(ByteBuffer buffer, long address, long size, ResourceTracker tracker) {
+            super(buffer, address, size, true, tracker);
+            this.blockAddress = address;
+        }
+
+        @Override
+        protected void doCleanup(ByteBuffer buffer) {
+            free(blockAddress);
+        }
+    }
+
+    private final int arenaSize;
+    private final int minBlockSize;
+    private final int initialArenas;
+    private final int maxArenas;
+    private final CopyOnWriteArrayList<Arena> arenas = new CopyOnWriteArrayList<>();
+    private final ConcurrentSkipListMap<Long, Arena> arenasByAddress = new ConcurrentSkipListMap<>();
+    private final ReentrantLock growLock = new ReentrantLock();
+
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder failedAllocations = new LongAdder();
+    private final LongAdder splits = new LongAdder();
+    private final LongAdder merges = new LongAdder();
+    private final AtomicInteger arenasAllocated = new AtomicInteger();
+    private final AtomicInteger arenasReleased = new AtomicInteger();
+    private volatile boolean closed = false;
+
+    public BuddyAllocator() {
+        this(DEFAULT_ARENA_SIZE, DEFAULT_MIN_BLOCK_SIZE, DEFAULT_INITIAL_ARENAS, DEFAULT_MAX_ARENAS);
+    }
+
+    /**
+     * @param arenaSize     Bytes per arena; a power of two, at most 1 GB
+     * @param minBlockSize  Smallest block size and arena alignment; a power of two
+     * @param initialArenas Arenas reserved up front and kept until close
+     * @param maxArenas     Upper bound on arenas, including the initial ones
+     */
+    public BuddyAllocator(int arenaSize, int minBlockSize, int initialArenas, int maxArenas) {
+        if (Integer.bitCount(arenaSize) != 1 || Integer.bitCount(minBlockSize) != 1) {
+            throw new IllegalArgumentException("Arena and block sizes must be powers of two");
+        }
+        if (minBlockSize > arenaSize) {
+            throw new IllegalArgumentException(
+                "Require minBlockSize <= arenaSize, got " + minBlockSize + ", " + arenaSize);
+        }
+        if (initialArenas < 0 || maxArenas < Math.max(1, initialArenas)) {
+            throw new IllegalArgumentException(
+                "Require 0 <= initialArenas <= maxArenas and maxArenas >= 1, got " + initialArenas + ", " + maxArenas);
+        }
+        this.arenaSize = arenaSize;
+        this.minBlockSize = minBlockSize;
+        this.initialArenas = initialArenas;
+        this.maxArenas = maxArenas;
+
+        for (int i = 0; i < initialArenas; i++) {
+            addArena();
+        }
+    }
+
+    /**
+     * Whether a request of this size fits in an arena.
+     */
+    public boolean handles(int size) {
+        return size > 0 && size <= arenaSize;
+    }
+
+    /**
+     * Bytes a request of this size occupies: the size rounded up to the minimum block size.
+     */
+    public int blockSize(int size) {
+        return (int) (((long) size + minBlockSize - 1) & -minBlockSize);
+    }
+
+    /**
+     * Alignment guaranteed for every block.
+     */
+    public int getMinBlockSize() {
+        return minBlockSize;
+    }
+
+    /**
+     * Allocate a block. The memory is not zeroed.
+     *
+     * @param size Requested size, at most arenaSize
+     * @return Address of a block of {@link #blockSize(int)} bytes, or 0 if all arenas are exhausted
+     */
+    public long allocate(int size) {
+        if (!handles(size)) {
+            throw new IllegalArgumentException("Size " + size + " outside arena range (1.." + arenaSize + ")");
+        }
+        if (closed) {
+            throw new IllegalStateException("Buddy allocator is closed");
+        }
+        int units = blockSize(size) / minBlockSize;
+        allocations.increment();
+
+        for (var arena : arenas) {
+            long address = arena.allocate(units, splits);
+            if (address != 0) {
+                return address;
+            }
+        }
+
+        growLock.lock();
+        try {
+            // Another thread may have added an arena while we waited
+            for (var arena : arenas) {
+                long address = arena.allocate(units, splits);
+                if (address != 0) {
+                    return address;
+                }
+            }
+            if (arenas.size() < maxArenas) {
+                long address = addArena().allocate(units, splits);
+                if (address != 0) {
+                    return address;
+                }
+            }
+        } finally {
+            growLock.unlock();
+        }
+
+        failedAllocations.increment();
+        log.trace("Buddy arenas exhausted for {} byte block", blockSize(size));
+        return 0;
+    }
+
+    /**
+     * Allocate a block wrapped in a handle that frees it back to this allocator on close.
+     *
+     * @return the handle, or null if all arenas are exhausted
+     */
+    public NativeMemoryHandle allocateHandle(int size, ResourceTracker tracker) {
+        long address = allocate(size);
+        if (address == 0) {
+            return null;
+        }
+        return new BlockHandle(MemoryUtil.memByteBuffer(address, size), address, size, tracker);
+    }
+
+    /**
+     * Free a block previously returned by {@link #allocate(int)}.
+     */
+    public void free(long address) {
+        var entry = arenasByAddress.floorEntry(address);
+        if (entry == null || address >= entry.getKey() + arenaSize) {
+            if (closed) {
+                return; // Arenas were released by close()
+            }
+            throw new IllegalArgumentException("Address 0x" + Long.toHexString(address) + " is not a buddy block");
+        }
+        var arena = entry.getValue();
+        if (arena.free(address, merges) && arenas.size() > initialArenas) {
+            release(arena);
+        }
+    }
+
+    private Arena addArena() {
+        var memory = MemoryUtil.nmemAlignedAlloc(minBlockSize, arenaSize);
+        if (memory == 0) {
+            throw new OutOfMemoryError("Failed to allocate " + arenaSize + " byte arena");
+        }
+        var arena = new Arena(memory, arenaSize, minBlockSize);
+        arenasByAddress.put(memory, arena);
+        arenas.add(arena);
+        arenasAllocated.incrementAndGet();
+        log.debug("Reserved buddy arena of {}", BufferPoolUtils.formatBytes(arenaSize));
+        return arena;
+    }
+
+    /**
+     * Release an on-demand arena if it is still completely free; losing to a concurrent allocator is fine.
+     */
+    private void release(Arena arena) {
+        growLock.lock();
+        try {
+            arena.lock.lock();
+            try {
+                if (arena.retired || arena.blocksInUse > 0 || arenas.size() <= initialArenas) {
+                    return;
+                }
+                arena.retired = true;
+            } finally {
+                arena.lock.unlock();
+            }
+            arenas.remove(arena);
+            arenasByAddress.remove(arena.address);
+            MemoryUtil.nmemAlignedFree(arena.address);
+            arenasReleased.incrementAndGet();
+            log.debug("Released empty buddy arena");
+        } finally {
+            growLock.unlock();
+        }
+    }
+
+    public BuddyStatistics getStatistics() {
+        int count = 0;
+        long bytesInUse = 0;
+        long blocksInUse = 0;
+        long largestFree = 0;
+        for (var arena : arenas) {
+            arena.lock.lock();
+            try {
+                count++;
+                bytesInUse += arena.bytesInUse;
+                blocksInUse += arena.blocksInUse;
+            } finally {
+                arena.lock.unlock();
+            }
+            largestFree = Math.max(largestFree, arena.largestFreeBlock());
+        }
+        return new BuddyStatistics(count, (long) count * arenaSize, bytesInUse, blocksInUse, largestFree,
+                                   allocations.sum(), failedAllocations.sum(), splits.sum(), merges.sum(),
+                                   arenasAllocated.get(), arenasReleased.get());
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        growLock.lock();
+        try {
+            long outstanding = 0;
+            for (var arena : arenas) {
+                arena.lock.lock();
+                try {
+                    outstanding += arena.blocksInUse;
+                    arena.retired = true;
+                } finally {
+                    arena.lock.unlock();
+                }
+                MemoryUtil.nmemAlignedFree(arena.address);
+            }
+            arenas.clear();
+            arenasByAddress.clear();
+            if (outstanding > 0) {
+                log.warn("Closing buddy allocator with {} blocks still allocated", outstanding);
+            }
+        } finally {
+            growLock.unlock();
+        }
+    }
+
+    /**
+     * Statistics snapshot for the buddy allocator.
+     */
+    public static class BuddyStatistics {
+        public final int arenas;
+        public final long reservedBytes;
+        public final long bytesInUse;
+        public final long blocksInUse;
+        public final long largestFreeBlock;
+        public final long totalAllocations;
+        public final long failedAllocations; // Arenas exhausted, caller fell back to malloc
+        public final long splits;
+        public final long merges;
+        public final int arenasAllocated;
+        public final int arenasReleased;
+
+        public BuddyStatistics(int arenas, long reservedBytes, long bytesInUse, long blocksInUse,
+                               long largestFreeBlock, long totalAllocations, long failedAllocations,
+                               long splits, long merges, int arenasAllocated, int arenasReleased) {
+            this.arenas = arenas;
+            this.reservedBytes = reservedBytes;
+            this.bytesInUse = bytesInUse;
+            this.blocksInUse = blocksInUse;
+            this.largestFreeBlock = largestFreeBlock;
+            this.totalAllocations = totalAllocations;
+            this.failedAllocations = failedAllocations;
+            this.splits = splits;
+            this.merges = merges;
+            this.arenasAllocated = arenasAllocated;
+            this.arenasReleased = arenasReleased;
+        }
+
+        /**
+         * Fraction of reserved arena memory occupied by allocated blocks.
+         */
+        public double getUtilization() {
+            return reservedBytes > 0 ? (double) bytesInUse / reservedBytes : 0;
+        }
+
+        /**
+         * Fraction of free arena memory not reachable as the single largest free block.
+         * 0 means all free space is contiguous; values near 1 mean it is scattered in small blocks.
+         */
+        public double getExternalFragmentation() {
+            long freeBytes = reservedBytes - bytesInUse;
+            return freeBytes > 0 ? 1.0 - (double) largestFreeBlock / freeBytes : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("BuddyStatistics[arenas=%d, reserved=%s, inUse=%s, utilization=%.1f%%, fragmentation=%.1f%%]",
+                arenas, BufferPoolUtils.formatBytes(reservedBytes), BufferPoolUtils.formatBytes(bytesInUse),
+                getUtilization() * 100, getExternalFragmentation() * 100);
+        }
+    }
+}
@@ -57,6 +57,23 @@ public class BufferPoolUtils {
         return 1 << (32 - Integer.numberOfLeadingZeros(value - 1));
     }
 
+    /**
+     * Round up to the nearest quarter-power-of-2 size class (jemalloc-style spacing).
+     * Each doubling [2^k, 2^(k+1)] is split into four classes of 2^(k-2) bytes,
+     * bounding internal fragmentation to 20% instead of 50%.
+     *
+     * @param value Size to round up
+     * @return Smallest size class >= value
+     */
+    public static int roundUpToQuarterPowerOf2(int value) {
+        if (value <= 8) {
+            return roundUpToPowerOf2(value);
+        }
+        int step = Integer.highestOneBit(value - 1) >> 2;
+        long rounded = ((long) value + step - 1) & -(long) step;
+        return (int) Math.min(rounded, Integer.MAX_VALUE);
+    }
+
     /**
      * Format bytes for human-readable display.
      *
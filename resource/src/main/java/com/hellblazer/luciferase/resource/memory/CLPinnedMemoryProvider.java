@@ -0,0 +1,140 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.opencl.CLBufferHandle;
+import org.lwjgl.PointerBuffer;
+import org.lwjgl.opencl.CL10;
+import org.lwjgl.system.MemoryStack;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pinned allocations as OpenCL buffers created with CL_MEM_ALLOC_HOST_PTR and mapped for host
+ * access. Each context needs a command queue for the initial map and for remapping recycled
+ * buffers; the one given at construction is registered, others via {@link #register}.
+ */
+public final class CLPinnedMemoryProvider implements PinnedMemoryProvider {
+    private static final Logger log = LoggerFactory.getLogger(CLPinnedMemoryProvider.class);
+
+    private final Map<Long, Long> queues = new ConcurrentHashMap<>();
+
+    public CLPinnedMemoryProvider(long context, long queue) {
+        register(context, queue);
+    }
+
+    /**
+     * Register the command queue used to map buffers created in {@code context}.
+     */
+    public void register(long context, long queue) {
+        if (context == 0 || queue == 0) {
+            throw new IllegalArgumentException("Context and queue must be non-zero");
+        }
+        queues.put(context, queue);
+    }
+
+    @Override
+    public Allocation allocate(long context, MemoryPool.AccessType access, int size) {
+        var queue = queues.get(context);
+        if (queue == null) {
+            throw new IllegalArgumentException("No command queue registered for context " + context);
+        }
+        int clFlags = switch (access) {
+            case READ_ONLY -> CL10.CL_MEM_READ_ONLY | CL10.CL_MEM_ALLOC_HOST_PTR;
+            case WRITE_ONLY -> CL10.CL_MEM_WRITE_ONLY | CL10.CL_MEM_ALLOC_HOST_PTR;
+            case READ_WRITE -> CL10.CL_MEM_READ_WRITE | CL10.CL_MEM_ALLOC_HOST_PTR;
+        };
+        int mapFlags = switch (access) {
+            case READ_ONLY -> CL10.CL_MAP_WRITE;   // Host writes, device reads
+            case WRITE_ONLY -> CL10.CL_MAP_READ;   // Host reads, device writes
+            case READ_WRITE -> CL10.CL_MAP_READ | CL10.CL_MAP_WRITE;
+        };
+
+        var gpuBuffer = CLBufferHandle.create(context, size, clFlags);
+        var allocation = new CLAllocation(gpuBuffer, queue, mapFlags, size);
+        try {
+            allocation.map(queue, mapFlags, null, null);
+        } catch (RuntimeException e) {
+            gpuBuffer.close();
+            throw e;
+        }
+        return allocation;
+    }
+
+    private static final class CLAllocation implements Allocation {
+        private final CLBufferHandle gpuBuffer;
+        private final long queue;
+        private final int mapFlags;
+        private final int size;
+        private ByteBuffer hostBuffer;
+        private int mappedFlags; // Flags of the current mapping, 0 when unmapped
+
+        CLAllocation(CLBufferHandle gpuBuffer, long queue, int mapFlags, int size) {
+            this.gpuBuffer = gpuBuffer;
+            this.queue = queue;
+            this.mapFlags = mapFlags;
+            this.size = size;
+        }
+
+        @Override
+        public ByteBuffer hostBuffer() {
+            return hostBuffer;
+        }
+
+        @Override
+        public CLBufferHandle gpuBuffer() {
+            return gpuBuffer;
+        }
+
+        @Override
+        public void upload(long queue, PointerBuffer events, PointerBuffer event) {
+            // Unmap to make data visible to GPU (DMA transfer)
+            gpuBuffer.enqueueUnmap(queue, hostBuffer, events, event);
+            mappedFlags = 0;
+        }
+
+        @Override
+        public void download(long queue, PointerBuffer events, PointerBuffer event) {
+            // Mappings nest; drop the current one so a single unmap hands the buffer back
+            unmap(queue);
+            map(queue, CL10.CL_MAP_READ, events, event);
+        }
+
+        @Override
+        public void remap() {
+            if (mappedFlags != mapFlags) {
+                // e.g. still mapped read-only by a download, where host writes are undefined
+                unmap(queue);
+                map(queue, mapFlags, null, null);
+            }
+        }
+
+        @Override
+        public void release() {
+            unmap(queue);
+            gpuBuffer.close();
+        }
+
+        private void unmap(long queue) {
+            if (mappedFlags != 0) {
+                gpuBuffer.enqueueUnmap(queue, hostBuffer, null, null);
+                mappedFlags = 0;
+            }
+        }
+
+        private void map(long queue, int flags, PointerBuffer events, PointerBuffer event) {
+            try (var stack = MemoryStack.stackPush()) {
+                var errorCode = stack.mallocInt(1);
+                var host = gpuBuffer.enqueueMap(queue, true, flags, 0, size, events, event, errorCode);
+                if (errorCode.get(0) != CL10.CL_SUCCESS) {
+                    throw new RuntimeException("Failed to map pinned buffer: " + errorCode.get(0));
+                }
+                hostBuffer = host;
+                mappedFlags = flags;
+            }
+            log.trace("Mapped pinned buffer: size={}", size);
+        }
+    }
+}
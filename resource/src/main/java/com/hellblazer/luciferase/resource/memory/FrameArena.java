@@ -0,0 +1,274 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceHandle;
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.lwjgl.system.MemoryUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * Bump-pointer allocator for per-frame scratch memory (ray batches, traversal stacks, uniform
+ * staging) that all dies at the end of a frame.
+ * <p>
+ * Allocation advances a cursor through fixed-size blocks borrowed from a {@link MemoryPool};
+ * {@link #reset()} rewinds the cursor in O(1) and keeps the blocks for the next frame.
+ * Requests larger than a block get a dedicated pool buffer that is returned on reset.
+ * Arena borrows carry no lease deadline, since blocks are held for the arena's lifetime; the
+ * pool's lease scan never reclaims them.
+ * <p>
+ * With more than one frame, the arena is a ring: {@link #nextFrame()} moves to the next frame's
+ * blocks and only rewinds those, so memory handed to GPU work in the previous {@code frames - 1}
+ * frames is not overwritten. The caller must have waited for the frame being recycled.
+ * <p>
+ * The arena is tracked as one resource; individual allocations are not. Not thread-safe; use
+ * one arena per producing thread.
+ */
+public class FrameArena extends ResourceHandle<MemoryPool> {
+    private static final Logger log = LoggerFactory.getLogger(FrameArena.class);
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+    public static final int DEFAULT_ALIGNMENT = 16;
+
+    private final int blockSize;
+    private final Frame[] frames;
+    private long frameNumber;
+    private Frame current;
+    private long highWaterBytes;
+
+    /**
+     * Blocks owned by one frame of the ring and the bump cursor into them.
+     */
+    private static final class Frame {
+        final ArrayList<MemoryPool.BorrowedBuffer> blocks = new ArrayList<>();
+        final ArrayList<MemoryPool.BorrowedBuffer> oversized = new ArrayList<>();
+        int blockIndex = -1; // Block being bumped, -1 before the first allocation
+        long base;           // Address of that block
+        long cursor;         // Next free offset in it
+        long limit;
+        long allocatedBytes;
+        int reachedBlocks;   // Blocks used before the last rewind
+
+        void rewind() {
+            reachedBlocks = blockIndex + 1;
+            blockIndex = -1;
+            base = 0;
+            cursor = 0;
+            limit = 0;
+            allocatedBytes = 0;
+        }
+    }
+
+    /**
+     * Create a single-frame arena with the default block size.
+     */
+    public FrameArena(MemoryPool pool, ResourceTracker tracker) {
+        this(pool, DEFAULT_BLOCK_SIZE, 1, tracker);
+    }
+
+    /**
+     * @param pool      Pool the blocks are borrowed from
+     * @param blockSize Bytes per block
+     * @param frames    Frames in the ring (1 disables ring buffering)
+     * @param tracker   Optional resource tracker
+     */
+    public FrameArena(MemoryPool pool, int blockSize, int frames, ResourceTracker tracker) {
+        super(pool, tracker);
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive, got: " + blockSize);
+        }
+        if (frames < 1) {
+            throw new IllegalArgumentException("Frame count must be positive, got: " + frames);
+        }
+        this.blockSize = blockSize;
+        this.frames = new Frame[frames];
+        for (int i = 0; i < frames; i++) {
+            this.frames[i] = new Frame();
+        }
+        this.current = this.frames[0];
+    }
+
+    /**
+     * Allocate with the default alignment.
+     *
+     * @return Address of the allocation, valid until this frame is rewound
+     */
+    public long allocate(long size) {
+        return allocate(size, DEFAULT_ALIGNMENT);
+    }
+
+    /**
+     * Allocate scratch memory in the current frame. The memory is not zeroed.
+     *
+     * @param size      Size in bytes
+     * @param alignment Alignment in bytes (must be power of 2)
+     * @return Address of the allocation, valid until this frame is rewound
+     */
+    public long allocate(long size, int alignment) {
+        if (!isValid()) {
+            throw new IllegalStateException("Cannot allocate from closed frame arena");
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be positive: " + size);
+        }
+        if (alignment <= 0 || (alignment & (alignment - 1)) != 0) {
+            throw new IllegalArgumentException("Alignment must be power of 2: " + alignment);
+        }
+
+        var frame = current;
+        long offset = alignUp(frame.base + frame.cursor, alignment) - frame.base;
+        if (offset > frame.limit - size) {
+            if (size > blockSize - (alignment - 1)) {
+                return allocateOversized(frame, size, alignment);
+            }
+            nextBlock(frame);
+            offset = alignUp(frame.base, alignment) - frame.base;
+        }
+        frame.cursor = offset + size;
+        frame.allocatedBytes += size;
+        return frame.base + offset;
+    }
+
+    /**
+     * Allocate scratch memory as a native-order ByteBuffer view, aligned to
+     * {@link #DEFAULT_ALIGNMENT}.
+     */
+    public ByteBuffer allocateBuffer(int size) {
+        return MemoryUtil.memByteBuffer(allocate(size), size);
+    }
+
+    /**
+     * Rewind the current frame in O(1); its blocks are kept for reuse.
+     */
+    public void reset() {
+        if (!isValid()) {
+            throw new IllegalStateException("Cannot reset closed frame arena");
+        }
+        highWaterBytes = Math.max(highWaterBytes, current.allocatedBytes);
+        rewind(current);
+    }
+
+    /**
+     * Advance the ring to the next frame and rewind it.
+     *
+     * @return The new frame number
+     */
+    public long nextFrame() {
+        if (!isValid()) {
+            throw new IllegalStateException("Cannot advance closed frame arena");
+        }
+        highWaterBytes = Math.max(highWaterBytes, current.allocatedBytes);
+        frameNumber++;
+        current = frames[(int) (frameNumber % frames.length)];
+        rewind(current);
+        return frameNumber;
+    }
+
+    /**
+     * Return to the pool the blocks each frame reached neither in its current nor its previous use.
+     *
+     * @return Number of blocks returned
+     */
+    public int trim() {
+        int released = 0;
+        for (var frame : frames) {
+            int keep = Math.max(frame.reachedBlocks, frame.blockIndex + 1);
+            for (int i = frame.blocks.size() - 1; i >= keep; i--) {
+                frame.blocks.remove(i).close();
+                released++;
+            }
+        }
+        return released;
+    }
+
+    public long getFrameNumber() {
+        return frameNumber;
+    }
+
+    public int getFrameCount() {
+        return frames.length;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Bytes allocated in the current frame, excluding alignment padding.
+     */
+    public long getUsedBytes() {
+        return current.allocatedBytes;
+    }
+
+    /**
+     * Most bytes allocated in any frame so far, for sizing blocks.
+     */
+    public long getHighWaterBytes() {
+        return Math.max(highWaterBytes, current.allocatedBytes);
+    }
+
+    /**
+     * Blocks held across all frames, excluding oversized buffers.
+     */
+    public int getBlockCount() {
+        int count = 0;
+        for (var frame : frames) {
+            count += frame.blocks.size();
+        }
+        return count;
+    }
+
+    private void nextBlock(Frame frame) {
+        frame.blockIndex++;
+        if (frame.blockIndex == frame.blocks.size()) {
+            frame.blocks.add(borrow(blockSize));
+            log.trace("Frame arena grew to {} blocks in frame slot", frame.blocks.size());
+        }
+        frame.base = frame.blocks.get(frame.blockIndex).getAddress();
+        frame.cursor = 0;
+        frame.limit = blockSize;
+    }
+
+    private long allocateOversized(Frame frame, long size, int alignment) {
+        var buffer = borrow(Math.toIntExact(size + alignment - 1));
+        frame.oversized.add(buffer);
+        frame.allocatedBytes += size;
+        return alignUp(buffer.getAddress(), alignment);
+    }
+
+    private MemoryPool.BorrowedBuffer borrow(int size) {
+        var buffer = get().borrow(size);
+        buffer.renewLease(null); // Held until reset or close, not a stuck borrow
+        return buffer;
+    }
+
+    private static void rewind(Frame frame) {
+        if (!frame.oversized.isEmpty()) {
+            frame.oversized.forEach(MemoryPool.BorrowedBuffer::close);
+            frame.oversized.clear();
+        }
+        frame.rewind();
+    }
+
+    private static long alignUp(long value, long alignment) {
+        return (value + alignment - 1) & -alignment;
+    }
+
+    @Override
+    protected void doCleanup(MemoryPool pool) {
+        for (var frame : frames) {
+            rewind(frame);
+            frame.blocks.forEach(MemoryPool.BorrowedBuffer::close);
+            frame.blocks.clear();
+        }
+        log.trace("Closed frame arena after {} frames, high water {} bytes", frameNumber, highWaterBytes);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FrameArena[frames=%d, blockSize=%d, blocks=%d, frame=%d, state=%s]",
+            frames.length, blockSize, getBlockCount(), frameNumber, getState());
+    }
+}
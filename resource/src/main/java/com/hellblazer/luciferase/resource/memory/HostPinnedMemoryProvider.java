@@ -0,0 +1,93 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.opencl.CLBufferHandle;
+import org.lwjgl.PointerBuffer;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Host-memory stand-in for the GPU side of pinned buffers, so pooling can run and be tested
+ * without OpenCL. Allocations are plain native memory with no device buffer; uploads and
+ * downloads only count calls. Contexts are opaque keys.
+ */
+public final class HostPinnedMemoryProvider implements PinnedMemoryProvider {
+
+    private final LongAdder created = new LongAdder();
+    private final AtomicInteger live = new AtomicInteger();
+    private final LongAdder transfers = new LongAdder();
+
+    @Override
+    public Allocation allocate(long context, MemoryPool.AccessType access, int size) {
+        var hostBuffer = MemoryUtil.memAlloc(size);
+        created.increment();
+        live.incrementAndGet();
+        return new HostAllocation(hostBuffer);
+    }
+
+    /**
+     * Allocations created so far; each one stands for a device buffer create and map.
+     */
+    public long getCreatedCount() {
+        return created.sum();
+    }
+
+    /**
+     * Allocations not yet released.
+     */
+    public int getLiveCount() {
+        return live.get();
+    }
+
+    /**
+     * Uploads and downloads performed.
+     */
+    public long getTransferCount() {
+        return transfers.sum();
+    }
+
+    private final class HostAllocation implements Allocation {
+        private final ByteBuffer hostBuffer;
+        private boolean released;
+
+        HostAllocation(ByteBuffer hostBuffer) {
+            this.hostBuffer = hostBuffer;
+        }
+
+        @Override
+        public ByteBuffer hostBuffer() {
+            return hostBuffer;
+        }
+
+        @Override
+        public CLBufferHandle gpuBuffer() {
+            return null;
+        }
+
+        @Override
+        public void upload(long queue, PointerBuffer events, PointerBuffer event) {
+            transfers.increment();
+        }
+
+        @Override
+        public void download(long queue, PointerBuffer events, PointerBuffer event) {
+            transfers.increment();
+        }
+
+        @Override
+        public void remap() {
+            hostBuffer.clear();
+        }
+
+        @Override
+        public void release() {
+            if (!released) {
+                released = true;
+                MemoryUtil.memFree(hostBuffer);
+                live.decrementAndGet();
+            }
+        }
+    }
+}
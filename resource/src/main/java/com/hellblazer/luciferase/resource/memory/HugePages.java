@@ -0,0 +1,111 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Transparent huge page advice for large native allocations.
+ * <p>
+ * On Linux with THP in {@code always} or {@code madvise} mode, {@link #advise} calls
+ * {@code madvise(MADV_HUGEPAGE)} through an FFM downcall so the kernel can back the range with
+ * 2 MB pages when it is first touched. Anywhere else (other platforms, THP disabled, native
+ * access denied) it returns false and the memory stays on regular pages.
+ */
+public final class HugePages {
+    private static final Logger log = LoggerFactory.getLogger(HugePages.class);
+
+    /**
+     * Transparent huge page size on x86-64 and the default aarch64 configuration.
+     */
+    public static final int PAGE_SIZE = 2 * 1024 * 1024;
+
+    private static final int MADV_HUGEPAGE = 14;
+    private static final Path THP_ENABLED = Path.of("/sys/kernel/mm/transparent_hugepage/enabled");
+
+    private HugePages() {
+    }
+
+    /**
+     * Whether {@link #advise} can succeed on this system.
+     */
+    public static boolean isSupported() {
+        return Madvise.HANDLE != null;
+    }
+
+    /**
+     * The kernel's THP mode ({@code always}, {@code madvise} or {@code never}), or
+     * {@code unsupported} where it cannot be determined.
+     */
+    public static String getMode() {
+        return Madvise.MODE;
+    }
+
+    /**
+     * Ask the kernel to back a range with huge pages. The range must start on a
+     * {@link #PAGE_SIZE} boundary; advice should precede the first touch of the memory.
+     *
+     * @return true if the advice was accepted
+     */
+    public static boolean advise(long address, long length) {
+        var madvise = Madvise.HANDLE;
+        if (madvise == null || address == 0 || (address & (PAGE_SIZE - 1)) != 0 || length <= 0) {
+            return false;
+        }
+        try {
+            return (int) madvise.invokeExact(MemorySegment.ofAddress(address), length, MADV_HUGEPAGE) == 0;
+        } catch (Throwable e) {
+            log.debug("madvise(MADV_HUGEPAGE) failed for {} bytes at 0x{}", length, Long.toHexString(address), e);
+            return false;
+        }
+    }
+
+    /**
+     * Resolved on first use so platforms without THP never touch the linker.
+     */
+    private static final class Madvise {
+        static final String MODE = readMode();
+        static final MethodHandle HANDLE = lookup();
+
+        private static String readMode() {
+            if (!System.getProperty("os.name", "").toLowerCase().startsWith("linux")) {
+                return "unsupported";
+            }
+            try {
+                // Format: "always [madvise] never" with the active mode bracketed
+                var line = Files.readString(THP_ENABLED);
+                int start = line.indexOf('[');
+                int end = line.indexOf(']', start + 1);
+                return start >= 0 && end > start ? line.substring(start + 1, end) : "unsupported";
+            } catch (IOException | SecurityException e) {
+                return "unsupported";
+            }
+        }
+
+        private static MethodHandle lookup() {
+            if (!"always".equals(MODE) && !"madvise".equals(MODE)) {
+                log.debug("Transparent huge pages unavailable (mode: {})", MODE);
+                return null;
+            }
+            try {
+                var linker = Linker.nativeLinker();
+                return linker.defaultLookup().find("madvise")
+                    .map(symbol -> linker.downcallHandle(symbol, FunctionDescriptor.of(
+                        ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.JAVA_LONG, ValueLayout.JAVA_INT)))
+                    .orElse(null);
+            } catch (RuntimeException | LinkageError e) {
+                // Includes IllegalCallerException when native access is denied
+                log.debug("madvise unavailable, huge pages disabled", e);
+                return null;
+            }
+        }
+    }
+}
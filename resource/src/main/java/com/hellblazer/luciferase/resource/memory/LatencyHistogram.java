@@ -0,0 +1,126 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in power-of-two nanosecond buckets.
+ * Bucket {@code i} counts durations below {@code 2^(i + 10)} ns (about 1 us, 2 us, 4 us, ...);
+ * the last bucket also takes everything longer. A coarser first bucket can be chosen for
+ * durations of seconds to hours, see {@link #LatencyHistogram(int)}.
+ */
+public final class LatencyHistogram {
+    public static final int BUCKETS = 32; // Last bounded bucket ends at 2^40 ns (~18 min) by default
+    public static final int MILLIS_SHIFT = 20; // First bucket ~1 ms, for ages of seconds to days
+    private static final int FIRST_SHIFT = 10;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAdder totalNanos = new LongAdder();
+    private final int firstShift;
+
+    public LatencyHistogram() {
+        this(FIRST_SHIFT);
+    }
+
+    /**
+     * @param firstShift Bucket {@code i} counts durations below {@code 2^(i + firstShift)} ns
+     */
+    public LatencyHistogram(int firstShift) {
+        if (firstShift < 0 || firstShift + BUCKETS > 63) {
+            throw new IllegalArgumentException("First shift must be in [0, " + (63 - BUCKETS) + "], got: " + firstShift);
+        }
+        this.firstShift = firstShift;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        long clamped = Math.max(0, nanos);
+        int bucket = Math.max(0, 64 - Long.numberOfLeadingZeros(clamped) - firstShift);
+        counts[Math.min(BUCKETS - 1, bucket)].increment();
+        totalNanos.add(clamped);
+    }
+
+    /**
+     * Exclusive upper bound of a bucket in nanoseconds; the last bucket is open-ended.
+     */
+    public static long upperBoundNanos(int bucket) {
+        return upperBoundNanos(bucket, FIRST_SHIFT);
+    }
+
+    private static long upperBoundNanos(int bucket, int firstShift) {
+        return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : 1L << (bucket + firstShift);
+    }
+
+    public Snapshot snapshot() {
+        var snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts[i].sum();
+        }
+        return new Snapshot(snapshot, totalNanos.sum(), firstShift);
+    }
+
+    /**
+     * Point-in-time copy of the bucket counts.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        public final long count;
+        public final long totalNanos;
+        private final int firstShift;
+
+        Snapshot(long[] counts, long totalNanos) {
+            this(counts, totalNanos, FIRST_SHIFT);
+        }
+
+        Snapshot(long[] counts, long totalNanos, int firstShift) {
+            this.counts = counts;
+            this.firstShift = firstShift;
+            long sum = 0;
+            for (long c : counts) {
+                sum += c;
+            }
+            this.count = sum;
+            this.totalNanos = totalNanos;
+        }
+
+        public long getCount(int bucket) {
+            return counts[bucket];
+        }
+
+        /**
+         * Exclusive upper bound of a bucket of this snapshot in nanoseconds.
+         */
+        public long getUpperBoundNanos(int bucket) {
+            return upperBoundNanos(bucket, firstShift);
+        }
+
+        public double getMeanNanos() {
+            return count > 0 ? (double) totalNanos / count : 0;
+        }
+
+        /**
+         * Upper bound of the bucket holding the given percentile (0-100), or 0 if empty.
+         */
+        public long getPercentileNanos(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return getUpperBoundNanos(i);
+                }
+            }
+            return getUpperBoundNanos(BUCKETS - 1);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("LatencyHistogram[count=%d, mean=%.1fus, p50<%dus, p99<%dus]",
+                count, getMeanNanos() / 1000, getPercentileNanos(50) / 1000, getPercentileNanos(99) / 1000);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+
+/**
+ * Read-only native memory handle over a memory-mapped file region, created by
+ * {@link MappedFileLoader}. Reads and uploads go straight to the mapped pages; every write
+ * operation throws {@link java.nio.ReadOnlyBufferException}. Closing unmaps the region.
+ */
+public class MappedFileHandle extends NativeMemoryHandle {
+    private static final Logger log = LoggerFactory.getLogger(MappedFileHandle.class);
+
+    private final Path file;
+    private final long fileOffset;
+    private final MemorySegment segment;
+    private final Arena arena;
+
+    MappedFileHandle(Path file, long fileOffset, MemorySegment segment, Arena arena, ResourceTracker tracker) {
+        super(segment.asByteBuffer().order(ByteOrder.nativeOrder()), segment.address(), segment.byteSize(), false,
+              tracker);
+        this.file = file;
+        this.fileOffset = fileOffset;
+        this.segment = segment.asReadOnly();
+        this.arena = arena;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Offset of this region within the file.
+     */
+    public long getFileOffset() {
+        return fileOffset;
+    }
+
+    /**
+     * Change the read-ahead hint for the whole region.
+     *
+     * @return true if the kernel accepted the hint
+     */
+    public boolean advise(MappedFileLoader.ReadAhead readAhead) {
+        return MappedFileLoader.advise(getAddress(), getSize(), readAhead);
+    }
+
+    /**
+     * Start paging in part of the region ahead of use, e.g. the next octree level.
+     *
+     * @return true if the kernel accepted the hint
+     */
+    public boolean prefetch(long offset, long length) {
+        if (offset < 0 || length < 0 || offset > getSize() - length) {
+            throw new IllegalArgumentException("Range out of bounds: offset=" + offset + ", length=" + length);
+        }
+        return MappedFileLoader.advise(getAddress() + offset, length, MappedFileLoader.ReadAhead.WILL_NEED);
+    }
+
+    @Override
+    public MemorySegment asSegment() {
+        if (!isValid()) {
+            throw new IllegalStateException("Cannot access segment of closed memory handle");
+        }
+        return segment;
+    }
+
+    @Override
+    protected void doCleanup(ByteBuffer buffer) {
+        arena.close();
+        log.trace("Unmapped {} bytes of {} at offset {}", getSize(), file, fileOffset);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MappedFileHandle[file=%s, offset=%d, size=%d, state=%s]",
+            file, fileOffset, getSize(), getState());
+    }
+}
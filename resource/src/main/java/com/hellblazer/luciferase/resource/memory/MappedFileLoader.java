@@ -0,0 +1,188 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.AllocationSite;
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memory-maps dataset files as read-only {@link MappedFileHandle}s, so octree and voxel data can
+ * be handed to uploads straight from the page cache instead of being read into heap arrays and
+ * copied into pool buffers.
+ * <p>
+ * Each handle owns one mapping of at most 2 GB (the ByteBuffer limit of
+ * {@link NativeMemoryHandle}); larger files are mapped with {@link #mapChunks}. Mappings are
+ * released when their handle is closed and are tracked like any other native allocation.
+ *
+ * <pre>
+ * var loader = new MappedFileLoader(tracker);
+ * try (var nodes = loader.map(path, MappedFileLoader.ReadAhead.SEQUENTIAL)) {
+ *     gpuBuffer.enqueueWrite(queue, true, 0, nodes.getBuffer(), null, null);
+ * }
+ * </pre>
+ */
+public final class MappedFileLoader {
+    private static final Logger log = LoggerFactory.getLogger(MappedFileLoader.class);
+    
+    static {
+        AllocationSite.registerAllocator(MappedFileLoader.class);
+    }
+
+    private static final long ADVICE_ALIGNMENT = 4096; // madvise needs page-aligned ranges
+
+    /**
+     * Read-ahead hint passed to {@code madvise} for a mapped range.
+     */
+    public enum ReadAhead {
+        NORMAL(0),     // Kernel default read-ahead
+        RANDOM(1),     // Disable read-ahead, e.g. for sparse octree traversal
+        SEQUENTIAL(2), // Aggressive read-ahead, pages dropped soon after use
+        WILL_NEED(3);  // Start reading the whole range in now
+
+        private final int advice;
+
+        ReadAhead(int advice) {
+            this.advice = advice;
+        }
+    }
+
+    private final ResourceTracker tracker;
+
+    /**
+     * @param tracker Optional resource tracker for the mapped handles
+     */
+    public MappedFileLoader(ResourceTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    /**
+     * Map a whole file of at most 2 GB.
+     */
+    public MappedFileHandle map(Path file, ReadAhead readAhead) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(
+                    "File exceeds a single mapping: " + size + " bytes; use mapChunks for " + file);
+            }
+            return map(channel, file, 0, size, readAhead);
+        }
+    }
+
+    /**
+     * Map {@code length} bytes of a file starting at {@code offset}.
+     */
+    public MappedFileHandle map(Path file, long offset, int length, ReadAhead readAhead) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (offset < 0 || length < 0 || offset > channel.size() - length) {
+                throw new IllegalArgumentException(
+                    "Range out of bounds: offset=" + offset + ", length=" + length + ", file size=" + channel.size());
+            }
+            return map(channel, file, offset, length, readAhead);
+        }
+    }
+
+    /**
+     * Map a file of any size as consecutive chunks of {@code chunkSize} bytes; the last may be
+     * shorter. A multiple of the page size keeps each chunk's start page aligned.
+     */
+    public List<MappedFileHandle> mapChunks(Path file, int chunkSize, ReadAhead readAhead) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive, got: " + chunkSize);
+        }
+        var chunks = new ArrayList<MappedFileHandle>();
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long offset = 0; offset < size; offset += chunkSize) {
+                chunks.add(map(channel, file, offset, Math.min(chunkSize, size - offset), readAhead));
+            }
+        } catch (IOException | RuntimeException e) {
+            chunks.forEach(MappedFileHandle::close);
+            throw e;
+        }
+        return chunks;
+    }
+
+    private MappedFileHandle map(FileChannel channel, Path file, long offset, long length, ReadAhead readAhead)
+    throws IOException {
+        if (length == 0) {
+            throw new IllegalArgumentException("Nothing to map at offset " + offset + " of " + file);
+        }
+        var arena = Arena.ofShared();
+        try {
+            var segment = channel.map(FileChannel.MapMode.READ_ONLY, offset, length, arena);
+            var handle = new MappedFileHandle(file, offset, segment, arena, tracker);
+            if (readAhead != null && readAhead != ReadAhead.NORMAL) {
+                handle.advise(readAhead);
+            }
+            log.trace("Mapped {} bytes of {} at offset {}", length, file, offset);
+            return handle;
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Whether read-ahead hints reach the kernel on this system; elsewhere they are ignored.
+     */
+    public static boolean isAdviceSupported() {
+        return Madvise.HANDLE != null;
+    }
+
+    /**
+     * Apply a hint to a mapped range, widened to whole pages. Best effort.
+     */
+    static boolean advise(long address, long length, ReadAhead readAhead) {
+        var madvise = Madvise.HANDLE;
+        if (madvise == null || address == 0 || length <= 0) {
+            return false;
+        }
+        long start = address & -ADVICE_ALIGNMENT;
+        try {
+            return (int) madvise.invokeExact(MemorySegment.ofAddress(start), length + (address - start),
+                                             readAhead.advice) == 0;
+        } catch (Throwable e) {
+            log.debug("madvise({}) failed for {} bytes at 0x{}", readAhead, length, Long.toHexString(address), e);
+            return false;
+        }
+    }
+
+    /**
+     * Resolved on first use so platforms without madvise never touch the linker.
+     */
+    private static final class Madvise {
+        static final MethodHandle HANDLE = lookup();
+
+        private static MethodHandle lookup() {
+            var os = System.getProperty("os.name", "").toLowerCase();
+            if (!os.startsWith("linux") && !os.startsWith("mac")) {
+                return null;
+            }
+            try {
+                var linker = Linker.nativeLinker();
+                return linker.defaultLookup().find("madvise")
+                    .map(symbol -> linker.downcallHandle(symbol, FunctionDescriptor.of(
+                        ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.JAVA_LONG, ValueLayout.JAVA_INT)))
+                    .orElse(null);
+            } catch (RuntimeException | LinkageError e) {
+                // Includes IllegalCallerException when native access is denied
+                log.debug("madvise unavailable, read-ahead hints disabled", e);
+                return null;
+            }
+        }
+    }
+}
@@ -1,15 +1,33 @@
 package com.hellblazer.luciferase.resource.memory;
 
+import com.hellblazer.luciferase.resource.AllocationSite;
+import com.hellblazer.luciferase.resource.ResourceConfiguration.EvictionPolicy;
 import com.hellblazer.luciferase.resource.ResourceTracker;
 import org.lwjgl.system.MemoryUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.foreign.MemorySegment;
+import java.lang.ref.Cleaner;
+import java.lang.ref.WeakReference;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -18,6 +36,13 @@ import java.util.concurrent.locks.ReentrantLock;
  */
 public class MemoryPool implements AutoCloseable {
     private static final Logger log = LoggerFactory.getLogger(MemoryPool.class);
+    
+    static {
+        AllocationSite.registerAllocator(MemoryPool.class);
+    }
+    private static final int MAGAZINE_SWEEP_GROWTH = 8; // Sweep once 1/8 more magazines are registered
+    private static final int EVICTION_BATCH = 8;      // Max buffers evicted by one water-mark pass
+    private static final int EVICTION_SAMPLE = 4;     // Oldest idle buffers examined per size class
 
     /**
      * Access type for pinned memory buffers.
@@ -29,6 +54,24 @@ public class MemoryPool implements AutoCloseable {
         READ_WRITE    // Both can read and write
     }
 
+    /**
+     * How reused buffers are zeroed before being handed out.
+     */
+    public enum ZeroingPolicy {
+        NONE,   // Never zero; callers overwrite the whole buffer anyway
+        EAGER,  // memSet on borrow/allocate, outside the pool lock
+        ASYNC   // Zeroed by a background worker on return, before re-entering a free list
+    }
+
+    /**
+     * Native allocator behind pooled buffers.
+     */
+    public enum Backend {
+        MALLOC,  // One memAlloc/memFree per pooled buffer
+        BUDDY,   // Blocks split from large BuddyAllocator arenas, malloc once arenas are exhausted
+        SEGMENT  // Malloc'd buffers with their MemorySegment view built up front, no per-buffer Arena
+    }
+
     /**
      * Pool configuration.
      */
@@ -39,6 +82,33 @@ public class MemoryPool implements AutoCloseable {
         public final int maxBuffersPerSize;
         public final boolean alignBuffers;
         public final int alignment;
+        public final boolean concurrent;
+        public final int magazineDepth;
+        public final ZeroingPolicy zeroingPolicy;
+        public final SizeClassScheme sizeClassScheme;
+        public final int slabMaxSlotSize;
+        public final int slabSize;
+        public final Backend backend;
+        public final int buddyArenaSize;
+        public final int buddyInitialArenas;
+        public final int buddyMaxArenas;
+        public final EvictionPolicy evictionPolicy;
+        public final float highWaterMark;
+        public final float lowWaterMark;
+        public final java.time.Duration maintenanceInterval;
+        public final int maintenanceThreads;
+        public final boolean virtualMaintenanceThreads;
+        public final long borrowBudgetBytes;
+        public final int warmupTopK;
+        public final long warmupBudgetBytes;
+        public final double warmupDecay;
+        public final java.nio.file.Path warmupProfile;
+        public final int hugePageThreshold;
+        public final long pinnedBudgetBytes;
+        public final boolean leakReclaim;
+        public final int leakSiteSampleRate;
+        public final java.time.Duration leaseTimeout;
+        public final boolean reclaimExpiredLeases;
         
         private Config(Builder builder) {
             this.minBufferSize = builder.minBufferSize;
@@ -47,6 +117,74 @@ public class MemoryPool implements AutoCloseable {
             this.maxBuffersPerSize = builder.maxBuffersPerSize;
             this.alignBuffers = builder.alignBuffers;
             this.alignment = builder.alignment;
+            this.concurrent = builder.concurrent;
+            this.magazineDepth = builder.magazineDepth;
+            this.zeroingPolicy = builder.zeroingPolicy;
+            this.sizeClassScheme = builder.sizeClassScheme;
+            this.slabMaxSlotSize = builder.slabMaxSlotSize;
+            this.slabSize = builder.slabSize;
+            this.backend = builder.backend;
+            this.buddyArenaSize = builder.buddyArenaSize;
+            this.buddyInitialArenas = builder.buddyInitialArenas;
+            this.buddyMaxArenas = builder.buddyMaxArenas;
+            this.evictionPolicy = builder.evictionPolicy;
+            this.highWaterMark = builder.highWaterMark;
+            this.lowWaterMark = builder.lowWaterMark;
+            this.maintenanceInterval = builder.maintenanceInterval;
+            this.maintenanceThreads = builder.maintenanceThreads;
+            this.virtualMaintenanceThreads = builder.virtualMaintenanceThreads;
+            this.borrowBudgetBytes = builder.borrowBudgetBytes;
+            this.warmupTopK = builder.warmupTopK;
+            this.warmupBudgetBytes = builder.warmupBudgetBytes;
+            this.warmupDecay = builder.warmupDecay;
+            this.warmupProfile = builder.warmupProfile;
+            this.hugePageThreshold = builder.hugePageThreshold;
+            this.pinnedBudgetBytes = builder.pinnedBudgetBytes;
+            this.leakReclaim = builder.leakReclaim;
+            this.leakSiteSampleRate = builder.leakSiteSampleRate;
+            this.leaseTimeout = builder.leaseTimeout;
+            this.reclaimExpiredLeases = builder.reclaimExpiredLeases;
+        }
+        
+        /**
+         * A builder starting from this configuration, e.g. to derive a variant of it.
+         */
+        public Builder toBuilder() {
+            var builder = new Builder();
+            builder.minBufferSize = minBufferSize;
+            builder.maxBufferSize = maxBufferSize;
+            builder.maxPoolSize = maxPoolSize;
+            builder.maxBuffersPerSize = maxBuffersPerSize;
+            builder.alignBuffers = alignBuffers;
+            builder.alignment = alignment;
+            builder.concurrent = concurrent;
+            builder.magazineDepth = magazineDepth;
+            builder.zeroingPolicy = zeroingPolicy;
+            builder.sizeClassScheme = sizeClassScheme;
+            builder.slabMaxSlotSize = slabMaxSlotSize;
+            builder.slabSize = slabSize;
+            builder.backend = backend;
+            builder.buddyArenaSize = buddyArenaSize;
+            builder.buddyInitialArenas = buddyInitialArenas;
+            builder.buddyMaxArenas = buddyMaxArenas;
+            builder.evictionPolicy = evictionPolicy;
+            builder.highWaterMark = highWaterMark;
+            builder.lowWaterMark = lowWaterMark;
+            builder.maintenanceInterval = maintenanceInterval;
+            builder.maintenanceThreads = maintenanceThreads;
+            builder.virtualMaintenanceThreads = virtualMaintenanceThreads;
+            builder.borrowBudgetBytes = borrowBudgetBytes;
+            builder.warmupTopK = warmupTopK;
+            builder.warmupBudgetBytes = warmupBudgetBytes;
+            builder.warmupDecay = warmupDecay;
+            builder.warmupProfile = warmupProfile;
+            builder.hugePageThreshold = hugePageThreshold;
+            builder.pinnedBudgetBytes = pinnedBudgetBytes;
+            builder.leakReclaim = leakReclaim;
+            builder.leakSiteSampleRate = leakSiteSampleRate;
+            builder.leaseTimeout = leaseTimeout;
+            builder.reclaimExpiredLeases = reclaimExpiredLeases;
+            return builder;
         }
         
         public static Builder builder() {
@@ -60,6 +198,33 @@ public class MemoryPool implements AutoCloseable {
             private int maxBuffersPerSize = 10;
             private boolean alignBuffers = false;
             private int alignment = 64;
+            private boolean concurrent = false;
+            private int magazineDepth = 0;
+            private ZeroingPolicy zeroingPolicy = ZeroingPolicy.EAGER;
+            private SizeClassScheme sizeClassScheme = SizeClassScheme.POWER_OF_TWO;
+            private int slabMaxSlotSize = 0;
+            private int slabSize = SlabAllocator.DEFAULT_SLAB_SIZE;
+            private Backend backend = Backend.MALLOC;
+            private int buddyArenaSize = BuddyAllocator.DEFAULT_ARENA_SIZE;
+            private int buddyInitialArenas = BuddyAllocator.DEFAULT_INITIAL_ARENAS;
+            private int buddyMaxArenas = BuddyAllocator.DEFAULT_MAX_ARENAS;
+            private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+            private float highWaterMark = 1.0f;
+            private float lowWaterMark = 1.0f;
+            private java.time.Duration maintenanceInterval = null;
+            private int maintenanceThreads = 1;
+            private boolean virtualMaintenanceThreads = false;
+            private long borrowBudgetBytes = 0;
+            private int warmupTopK = 0;
+            private long warmupBudgetBytes = 0;
+            private double warmupDecay = 0.8;
+            private java.nio.file.Path warmupProfile = null;
+            private int hugePageThreshold = 0;
+            private long pinnedBudgetBytes = 128L * 1024 * 1024; // Page-locked memory is scarce
+            private boolean leakReclaim = false;
+            private int leakSiteSampleRate = 0; // Allocation sites not captured
+            private java.time.Duration leaseTimeout = null; // Borrows have no deadline
+            private boolean reclaimExpiredLeases = false;
             
             public Builder minBufferSize(int size) {
                 this.minBufferSize = size;
@@ -91,6 +256,244 @@ public class MemoryPool implements AutoCloseable {
                 return this;
             }
             
+            /**
+             * Serve borrow/return without taking the pool lock.
+             * Only capacity eviction on the miss path is serialized.
+             */
+            public Builder concurrent(boolean concurrent) {
+                this.concurrent = concurrent;
+                return this;
+            }
+            
+            /**
+             * Per-thread magazine depth per size class (0 disables magazines).
+             * Magazines are refilled from and flushed to the shared pool in batches of depth/2.
+             * With {@link ZeroingPolicy#ASYNC} returns skip the magazine: the worker zeroes the
+             * buffer and cannot push into the returning thread's magazine, so it goes to the
+             * shared free list and reaches magazines through their next refill.
+             */
+            public Builder magazineDepth(int depth) {
+                if (depth < 0) {
+                    throw new IllegalArgumentException("Magazine depth must be non-negative, got: " + depth);
+                }
+                this.magazineDepth = depth;
+                return this;
+            }
+            
+            public Builder zeroingPolicy(ZeroingPolicy policy) {
+                this.zeroingPolicy = Objects.requireNonNull(policy, "policy");
+                return this;
+            }
+            
+            public Builder sizeClassScheme(SizeClassScheme scheme) {
+                this.sizeClassScheme = Objects.requireNonNull(scheme, "scheme");
+                return this;
+            }
+            
+            /**
+             * Serve requests up to this size (a power of two) from slab slots instead of
+             * individual allocations, including those below minBufferSize. 0 disables slabs.
+             */
+            public Builder slabMaxSlotSize(int size) {
+                this.slabMaxSlotSize = size;
+                return this;
+            }
+            
+            public Builder slabSize(int size) {
+                this.slabSize = size;
+                return this;
+            }
+            
+            public Builder backend(Backend backend) {
+                this.backend = Objects.requireNonNull(backend, "backend");
+                return this;
+            }
+            
+            /**
+             * Size of each buddy arena (a power of two); pooled sizes above it use malloc.
+             */
+            public Builder buddyArenaSize(int size) {
+                this.buddyArenaSize = size;
+                return this;
+            }
+            
+            /**
+             * Buddy arenas reserved up front and the upper bound on arenas added on demand.
+             */
+            public Builder buddyArenas(int initial, int max) {
+                this.buddyInitialArenas = initial;
+                this.buddyMaxArenas = max;
+                return this;
+            }
+            
+            /**
+             * Which idle buffers to evict first when the pool is over its byte budget.
+             */
+            public Builder evictionPolicy(EvictionPolicy policy) {
+                this.evictionPolicy = Objects.requireNonNull(policy, "policy");
+                return this;
+            }
+            
+            /**
+             * Fractions of the byte budget: crossing {@code high} starts eviction, which continues
+             * in bounded batches until pooled bytes are at or below {@code low}.
+             * Only applies to pools created with a byte limit.
+             */
+            public Builder waterMarks(float high, float low) {
+                if (high <= 0 || high > 1.0f || low <= 0 || low > high) {
+                    throw new IllegalArgumentException(
+                        "Require 0 < low <= high <= 1, got high=" + high + ", low=" + low);
+                }
+                this.highWaterMark = high;
+                this.lowWaterMark = low;
+                return this;
+            }
+            
+            /**
+             * Run idle-timeout trimming, water-mark eviction and the dead-magazine sweep in the
+             * background at this period (null or zero disables it). With maintenance enabled,
+             * borrow no longer evicts inline when the pool is full.
+             */
+            public Builder maintenanceInterval(java.time.Duration interval) {
+                this.maintenanceInterval = interval;
+                return this;
+            }
+            
+            public Builder maintenanceThreads(int threads) {
+                if (threads < 1) {
+                    throw new IllegalArgumentException("Maintenance threads must be positive, got: " + threads);
+                }
+                this.maintenanceThreads = threads;
+                return this;
+            }
+            
+            public Builder virtualMaintenanceThreads(boolean virtual) {
+                this.virtualMaintenanceThreads = virtual;
+                return this;
+            }
+            
+            /**
+             * Hard limit on borrowed bytes enforced by tryBorrow and timed borrow; 0, the default,
+             * is unlimited. Independent of the pool's byte limit, which caps idle bytes only, so
+             * the pool's native footprint is bounded by the budget plus that idle cap.
+             */
+            public Builder borrowBudgetBytes(long bytes) {
+                if (bytes < 0) {
+                    throw new IllegalArgumentException("Borrow budget must be non-negative, got: " + bytes);
+                }
+                this.borrowBudgetBytes = bytes;
+                return this;
+            }
+            
+            /**
+             * Pre-allocate and retain buffers for the topK most requested size classes, within budgetBytes.
+             * Runs at construction, on every maintenance pass, and on {@link MemoryPool#prewarm()}.
+             */
+            public Builder adaptiveWarmup(int topK, long budgetBytes) {
+                if (topK < 0 || budgetBytes < 0) {
+                    throw new IllegalArgumentException(
+                        "Warm-up topK and budget must be non-negative, got: " + topK + ", " + budgetBytes);
+                }
+                this.warmupTopK = topK;
+                this.warmupBudgetBytes = budgetBytes;
+                return this;
+            }
+            
+            /**
+             * Fraction of the size histogram's weight kept per maintenance pass.
+             */
+            public Builder warmupDecay(double decay) {
+                if (decay <= 0 || decay > 1) {
+                    throw new IllegalArgumentException("Decay must be in (0, 1], got: " + decay);
+                }
+                this.warmupDecay = decay;
+                return this;
+            }
+            
+            /**
+             * Size histogram file loaded at construction (if present) and saved on close.
+             */
+            public Builder warmupProfile(java.nio.file.Path profile) {
+                this.warmupProfile = profile;
+                return this;
+            }
+            
+            /**
+             * Buffers of at least this size (pooled or not) are allocated on huge page boundaries
+             * and advised for transparent huge pages where supported (0 disables).
+             */
+            public Builder hugePageThreshold(int bytes) {
+                if (bytes < 0) {
+                    throw new IllegalArgumentException("Huge page threshold must be non-negative, got: " + bytes);
+                }
+                this.hugePageThreshold = bytes;
+                return this;
+            }
+            
+            /**
+             * Upper bound on bytes held by idle pinned buffers; returning one past it evicts the
+             * least recently returned. 0 disables pinned pooling.
+             */
+            public Builder pinnedBudgetBytes(long bytes) {
+                if (bytes < 0) {
+                    throw new IllegalArgumentException("Pinned budget must be non-negative, got: " + bytes);
+                }
+                this.pinnedBudgetBytes = bytes;
+                return this;
+            }
+            
+            /**
+             * Reclaim borrowed and allocated buffers that become unreachable without being
+             * returned, using a {@link java.lang.ref.Cleaner}. Each reclaim is counted as a leak.
+             * Off by default, leaving the borrow path free of reference tracking.
+             * <p>
+             * Borrows and allocations then hand out a buffer of their own, and the memory stays
+             * live while that buffer, any buffer derived from it (slice, duplicate,
+             * asFloatBuffer) or the borrow's handle is reachable. Memory segments and raw
+             * addresses do not count: keep the buffer or handle reachable while using them.
+             */
+            public Builder leakReclaim(boolean enabled) {
+                this.leakReclaim = enabled;
+                return this;
+            }
+            
+            /**
+             * Capture the allocation site of one in every {@code rate} leak-tracked buffers, so
+             * leaks are reported with the code that leaked them. 0 disables capture, 1 captures
+             * every buffer. Only applies with {@link #leakReclaim}.
+             */
+            public Builder leakSiteSampleRate(int rate) {
+                if (rate < 0) {
+                    throw new IllegalArgumentException("Leak site sample rate must be non-negative, got: " + rate);
+                }
+                this.leakSiteSampleRate = rate;
+                return this;
+            }
+            
+            /**
+             * Deadline for every borrow, after which the lease scan reports the buffer as stuck.
+             * Scans run with maintenance, see {@link #maintenanceInterval}, or on
+             * {@link MemoryPool#scanLeases()}. Null disables deadlines; handles can still set
+             * their own with {@link BorrowedBuffer#renewLease}.
+             */
+            public Builder leaseTimeout(java.time.Duration timeout) {
+                if (timeout != null && (timeout.isZero() || timeout.isNegative())) {
+                    throw new IllegalArgumentException("Lease timeout must be positive, got: " + timeout);
+                }
+                this.leaseTimeout = timeout;
+                return this;
+            }
+            
+            /**
+             * Return buffers held past their lease to the pool instead of only reporting them.
+             * The holder's later close is a no-op, but any access in between races with the
+             * next borrower, so this is only for holders presumed dead.
+             */
+            public Builder reclaimExpiredLeases(boolean reclaim) {
+                this.reclaimExpiredLeases = reclaim;
+                return this;
+            }
+            
             public Config build() {
                 return new Config(this);
             }
@@ -129,6 +532,17 @@ public class MemoryPool implements AutoCloseable {
         }
     }
 
+    /**
+     * Where a pooled buffer's memory came from, which decides how it is freed.
+     */
+    private enum Backing {
+        MALLOC,  // memAlloc or memAlignedAlloc
+        SLAB,    // Slot in a SlabAllocator slab
+        BUDDY,   // Block in a BuddyAllocator arena
+        SEGMENT, // memAlloc or memAlignedAlloc, segment view created with the buffer
+        HUGE     // memAlignedAlloc on a huge page boundary, advised for transparent huge pages
+    }
+
     /**
      * Pooled buffer wrapper that tracks usage.
      */
@@ -137,17 +551,36 @@ public class MemoryPool implements AutoCloseable {
         final long address;
         final int size;
         final boolean aligned;
+        final Backing backing;
         final BufferCategory category;
+        final long createdAt;
         volatile long lastUsed;
         volatile int useCount;
+        volatile long leaseDeadline;   // nanoTime a borrow must be returned by, 0 = none
+        volatile boolean leaseReported;
+        private final AtomicLong lendState = new AtomicLong(); // Odd while borrowed, bumped per borrow and return
+        private volatile MemorySegment segment; // Created once and reused by every borrow
 
         PooledBuffer(ByteBuffer buffer, long address, int size, boolean aligned) {
+            this(buffer, address, size, aligned, Backing.MALLOC);
+        }
+
+        PooledBuffer(ByteBuffer buffer, long address, int size, boolean aligned, Backing backing) {
+            this(buffer, address, size, aligned, backing,
+                 backing == Backing.SEGMENT ? MemorySegment.ofBuffer(buffer.duplicate().clear()) : null);
+        }
+
+        private PooledBuffer(ByteBuffer buffer, long address, int size, boolean aligned, Backing backing,
+                             MemorySegment segment) {
             this.buffer = buffer;
             this.address = address;
             this.size = size;
             this.aligned = aligned;
+            this.backing = backing;
+            this.segment = segment;
             this.category = BufferCategory.fromSize(size);
-            this.lastUsed = System.nanoTime();
+            this.createdAt = System.nanoTime();
+            this.lastUsed = createdAt;
             this.useCount = 0;
         }
 
@@ -159,20 +592,314 @@ public class MemoryPool implements AutoCloseable {
         long getIdleTime() {
             return System.nanoTime() - lastUsed;
         }
+
+        /**
+         * Start a borrow.
+         *
+         * @return The borrow's generation, which {@link #release} must present
+         */
+        long lend(long deadline) {
+            leaseDeadline = deadline;
+            leaseReported = false;
+            return lendState.incrementAndGet();
+        }
+
+        /**
+         * End a borrow. Exactly one of the holder's close, the leak cleaner and the lease scan
+         * wins, so a buffer is never returned twice.
+         *
+         * @return false if the borrow already ended
+         */
+        boolean release(long generation) {
+            return lendState.compareAndSet(generation, generation + 1);
+        }
+
+        /**
+         * Generation of the current borrow, or 0 if not borrowed.
+         */
+        long lentGeneration() {
+            long state = lendState.get();
+            return (state & 1) != 0 ? state : 0;
+        }
+
+        /**
+         * Reset the buffer for its next holder: full range, in the holder's byte order.
+         * Borrows get big-endian, as a fresh duplicate() had; allocations native order.
+         */
+        ByteBuffer resetView(ByteOrder order) {
+            return buffer.clear().order(order);
+        }
+
+        /**
+         * A new buffer over this memory with no parent. Buffers derived from it reference it
+         * rather than the pooled buffer, so it stays reachable while any of them is in use.
+         */
+        ByteBuffer rootView() {
+            return MemoryUtil.memByteBuffer(address, size);
+        }
+
+        MemorySegment segment() {
+            var view = segment;
+            if (view == null) {
+                view = MemorySegment.ofBuffer(buffer.duplicate().clear());
+                segment = view;
+            }
+            return view;
+        }
+    }
+
+    /**
+     * Free list for a single size class.
+     * The idle count is kept alongside the deque so limits can be checked without O(n) size().
+     */
+    private class FreeList {
+        private final ConcurrentLinkedDeque<PooledBuffer> buffers = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger count = new AtomicInteger(0);
+
+        PooledBuffer poll() {
+            var buffer = buffers.poll();
+            if (buffer != null) {
+                count.decrementAndGet();
+                idleBytes.addAndGet(-buffer.size);
+            }
+            return buffer;
+        }
+
+        /**
+         * Offer a buffer if the list holds fewer than limit buffers.
+         */
+        boolean offer(PooledBuffer buffer, int limit) {
+            if (count.incrementAndGet() > limit) {
+                count.decrementAndGet();
+                return false;
+            }
+            idleBytes.addAndGet(buffer.size);
+            buffers.offer(buffer);
+            return true;
+        }
+
+        /**
+         * Remove a specific buffer; only one caller can win against concurrent polls.
+         */
+        boolean remove(PooledBuffer buffer) {
+            if (buffers.removeFirstOccurrence(buffer)) {
+                count.decrementAndGet();
+                idleBytes.addAndGet(-buffer.size);
+                return true;
+            }
+            return false;
+        }
+
+        boolean contains(PooledBuffer buffer) {
+            return buffers.contains(buffer);
+        }
+
+        int size() {
+            return count.get();
+        }
+
+        Iterator<PooledBuffer> iterator() {
+            return buffers.iterator();
+        }
+    }
+
+    /**
+     * Per-thread cache of idle buffers, a bounded stack per size class.
+     * Only the owning thread touches it on the hot path; the lock is uncontended except
+     * when the pool drains it after the owner died or on clear()/close(). The magazine
+     * lock is always the innermost lock: it is never held while taking the pool lock.
+     * Static so a thread's ThreadLocal map does not keep a closed pool reachable.
+     */
+    private static final class Magazine {
+        private final WeakReference<Thread> owner;
+        private final int depth;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Integer, Stack> stacks = new HashMap<>();
+        private volatile long bytes;
+        private boolean retired;
+
+        private static final class Stack {
+            final PooledBuffer[] items;
+            int count;
+
+            Stack(int depth) {
+                this.items = new PooledBuffer[depth];
+            }
+        }
+
+        Magazine(Thread owner, int depth) {
+            this.owner = new WeakReference<>(owner);
+            this.depth = depth;
+        }
+
+        boolean isOwnerDead() {
+            var thread = owner.get();
+            return thread == null || !thread.isAlive();
+        }
+
+        PooledBuffer pop(int size) {
+            lock.lock();
+            try {
+                var stack = stacks.get(size);
+                if (retired || stack == null || stack.count == 0) {
+                    return null;
+                }
+                var buffer = stack.items[--stack.count];
+                stack.items[stack.count] = null;
+                bytes -= size;
+                return buffer;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Push a buffer, spilling the oldest half of a full stack.
+         *
+         * @return buffers to hand back to the shared pool, or null if the magazine is retired
+         */
+        List<PooledBuffer> push(PooledBuffer buffer) {
+            lock.lock();
+            try {
+                if (retired) {
+                    return null;
+                }
+                var stack = stacks.computeIfAbsent(buffer.size, k -> new Stack(depth));
+                List<PooledBuffer> spilled = List.of();
+                if (stack.count == depth) {
+                    int spill = Math.max(1, depth / 2);
+                    spilled = new ArrayList<>(Arrays.asList(stack.items).subList(0, spill));
+                    System.arraycopy(stack.items, spill, stack.items, 0, depth - spill);
+                    Arrays.fill(stack.items, depth - spill, depth, null);
+                    stack.count -= spill;
+                    bytes -= (long) spill * buffer.size;
+                }
+                stack.items[stack.count++] = buffer;
+                bytes += buffer.size;
+                return spilled;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Add buffers taken from the shared pool; returns those that did not fit.
+         */
+        List<PooledBuffer> refill(int size, List<PooledBuffer> buffers) {
+            lock.lock();
+            try {
+                if (retired) {
+                    return buffers;
+                }
+                var stack = stacks.computeIfAbsent(size, k -> new Stack(depth));
+                int i = 0;
+                for (; i < buffers.size() && stack.count < depth; i++) {
+                    stack.items[stack.count++] = buffers.get(i);
+                    bytes += size;
+                }
+                return buffers.subList(i, buffers.size());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Remove every cached buffer; a retired magazine rejects further pushes.
+         */
+        List<PooledBuffer> drain(boolean retire) {
+            lock.lock();
+            try {
+                var drained = new ArrayList<PooledBuffer>();
+                for (var stack : stacks.values()) {
+                    for (int i = 0; i < stack.count; i++) {
+                        drained.add(stack.items[i]);
+                        stack.items[i] = null;
+                    }
+                    stack.count = 0;
+                }
+                bytes = 0;
+                retired |= retire;
+                return drained;
+            } finally {
+                lock.unlock();
+            }
+        }
     }
     
     /**
      * Handle for a borrowed buffer that returns to pool on close.
+     * <p>
+     * The ByteBuffer and MemorySegment views are the pooled buffer's own, reset on each borrow
+     * rather than copied, so neither may be kept past {@link #close()}. With
+     * {@link Config#leakReclaim} the ByteBuffer is a view of this borrow's own, reclaimed once
+     * neither it, a buffer derived from it nor the handle is reachable; the handle is not
+     * registered with the resource tracker, which would keep it reachable.
      */
     public class BorrowedBuffer extends NativeMemoryHandle {
         private final PooledBuffer pooledBuffer;
+        private final long generation;
+        private final Lease lease; // Null unless leak reclaim is enabled
         private volatile boolean returned = false;
 
-        private BorrowedBuffer(PooledBuffer pooledBuffer, ResourceTracker tracker) {
-            super(pooledBuffer.buffer.duplicate().clear(), pooledBuffer.address,
-                  pooledBuffer.size, pooledBuffer.aligned, tracker);
+        private BorrowedBuffer(PooledBuffer pooledBuffer, ResourceTracker tracker, boolean reserved) {
+            super(config.leakReclaim && pooledBuffer.size > 0
+                  ? pooledBuffer.rootView().order(ByteOrder.BIG_ENDIAN) : pooledBuffer.resetView(ByteOrder.BIG_ENDIAN),
+                  pooledBuffer.address, pooledBuffer.size, pooledBuffer.aligned, pooledBuffer.backing == Backing.HUGE,
+                  config.leakReclaim ? null : tracker);
             this.pooledBuffer = pooledBuffer;
             pooledBuffer.markUsed();
+            this.generation = pooledBuffer.lend(leaseTimeoutNanos > 0 ? pooledBuffer.lastUsed + leaseTimeoutNanos : 0);
+            if (!reserved) {
+                borrowedBytes.addAndGet(pooledBuffer.size);
+            }
+            this.lease = config.leakReclaim && pooledBuffer.size > 0
+                         ? new Lease(MemoryPool.this, pooledBuffer, generation, getBuffer()) : null;
+        }
+
+        /**
+         * Replace this borrow's lease deadline, counting from now.
+         *
+         * @param lease Time until the lease scan treats the buffer as stuck, or null for no deadline
+         * @throws IllegalStateException if the buffer was returned or reclaimed
+         */
+        public void renewLease(java.time.Duration lease) {
+            if (returned || pooledBuffer.lentGeneration() != generation) {
+                throw new IllegalStateException("Borrow already ended");
+            }
+            pooledBuffer.leaseDeadline = lease == null ? 0 : System.nanoTime() + Math.max(1, lease.toNanos());
+            pooledBuffer.leaseReported = false;
+        }
+
+        /**
+         * Whether the lease scan took the buffer back before this handle was closed.
+         */
+        public boolean isReclaimed() {
+            return !returned && pooledBuffer.lentGeneration() != generation;
+        }
+
+        /**
+         * @throws IllegalStateException also once the buffer was reclaimed, since it may be lent again
+         */
+        @Override
+        public ByteBuffer get() {
+            var buffer = super.get();
+            if (isReclaimed()) {
+                throw new IllegalStateException("Buffer of " + pooledBuffer.size + " bytes was reclaimed past its lease");
+            }
+            return buffer;
+        }
+
+        @Override
+        public boolean isValid() {
+            return super.isValid() && !isReclaimed();
+        }
+
+        @Override
+        public MemorySegment asSegment() {
+            if (!isValid()) {
+                throw new IllegalStateException("Cannot access segment of closed memory handle");
+            }
+            return pooledBuffer.segment();
         }
 
         @Override
@@ -183,14 +910,73 @@ public class MemoryPool implements AutoCloseable {
         private void returnToPool() {
             if (!returned) {
                 returned = true;
-                MemoryPool.this.returnBuffer(pooledBuffer);
+                if (lease != null) {
+                    lease.disarm();
+                }
+                if (pooledBuffer.release(generation)) {
+                    MemoryPool.this.returnBuffer(pooledBuffer);
+                    releaseBudget(pooledBuffer.size);
+                } else {
+                    log.debug("Buffer of {} bytes was reclaimed before close", pooledBuffer.size);
+                }
+            }
+        }
+    }
+
+    /**
+     * Cleaner shared by every pool with leak reclaim, started on first use.
+     */
+    private static final class LeakCleaner {
+        static final Cleaner CLEANER = Cleaner.create();
+    }
+
+    /**
+     * Leak-reclaim registration for one borrowed handle or allocated buffer. Runs on the cleaner
+     * thread once the owner is unreachable, unless disarmed by a normal return first. Holds only
+     * the pooled buffer, never the owner, so it does not keep the owner reachable.
+     */
+    private static final class Lease implements Runnable {
+        private final MemoryPool pool;
+        private final PooledBuffer buffer;
+        private final long generation; // Borrow generation, 0 for allocate()'d buffers
+        private final AllocationSite site; // Null unless sampled
+        private final AtomicBoolean armed = new AtomicBoolean(true);
+        private final Cleaner.Cleanable cleanable;
+
+        Lease(MemoryPool pool, PooledBuffer buffer, long generation, Object owner) {
+            this.pool = pool;
+            this.buffer = buffer;
+            this.generation = generation;
+            this.site = pool.sampleAllocationSite();
+            this.cleanable = LeakCleaner.CLEANER.register(owner, this);
+        }
+
+        /**
+         * Claim the buffer for a normal return.
+         *
+         * @return false if it was already returned or reclaimed
+         */
+        boolean disarm() {
+            if (!armed.compareAndSet(true, false)) {
+                return false;
+            }
+            cleanable.clean(); // Deregister; run() sees the lease disarmed
+            return true;
+        }
+
+        @Override
+        public void run() {
+            if (armed.compareAndSet(true, false)) {
+                pool.reclaimLeak(this);
             }
         }
     }
 
     /**
-     * Pinned memory buffer wrapper combining host-side ByteBuffer with GPU-side CLBufferHandle.
-     * Supports efficient DMA transfers between CPU and GPU.
+     * Pinned memory buffer wrapper combining a host-side ByteBuffer with a GPU-side allocation
+     * from the pool's {@link PinnedMemoryProvider}. Supports efficient DMA transfers between CPU
+     * and GPU; closing returns the buffer to the pool for reuse with the same context, access
+     * type and size class.
      *
      * Usage:
      * <pre>
@@ -205,17 +991,16 @@ public class MemoryPool implements AutoCloseable {
      * </pre>
      */
     public class PinnedBuffer implements AutoCloseable {
-        private final ByteBuffer hostBuffer;
-        private final com.hellblazer.luciferase.resource.opencl.CLBufferHandle gpuBuffer;
+        private final PinnedKey key;
+        private final PinnedMemoryProvider.Allocation allocation;
         private final int size;
+        private long lastReturnNanos;
         private volatile boolean closed = false;
 
-        private PinnedBuffer(ByteBuffer hostBuffer,
-                           com.hellblazer.luciferase.resource.opencl.CLBufferHandle gpuBuffer,
-                           int size) {
-            this.hostBuffer = hostBuffer;
-            this.gpuBuffer = gpuBuffer;
-            this.size = size;
+        private PinnedBuffer(PinnedKey key, PinnedMemoryProvider.Allocation allocation) {
+            this.key = key;
+            this.allocation = allocation;
+            this.size = key.sizeClass();
         }
 
         /**
@@ -225,17 +1010,17 @@ public class MemoryPool implements AutoCloseable {
             if (closed) {
                 throw new IllegalStateException("PinnedBuffer is closed");
             }
-            return hostBuffer;
+            return allocation.hostBuffer();
         }
 
         /**
-         * Get the GPU-side buffer handle.
+         * Get the GPU-side buffer handle, or null when the provider has no device buffer.
          */
         public com.hellblazer.luciferase.resource.opencl.CLBufferHandle getGPUBuffer() {
             if (closed) {
                 throw new IllegalStateException("PinnedBuffer is closed");
             }
-            return gpuBuffer;
+            return allocation.gpuBuffer();
         }
 
         /**
@@ -245,6 +1030,14 @@ public class MemoryPool implements AutoCloseable {
             return size;
         }
 
+        public AccessType getAccessType() {
+            return key.access();
+        }
+
+        public long getContext() {
+            return key.context();
+        }
+
         /**
          * Upload data from host to GPU (enqueued operation).
          *
@@ -261,13 +1054,13 @@ public class MemoryPool implements AutoCloseable {
 
             // If data provided, copy to host buffer first
             if (data != null) {
+                var hostBuffer = allocation.hostBuffer();
                 hostBuffer.clear();
                 hostBuffer.asFloatBuffer().put(data);
                 hostBuffer.rewind();
             }
 
-            // Unmap to make data visible to GPU (DMA transfer)
-            gpuBuffer.enqueueUnmap(queue, hostBuffer, events, event);
+            allocation.upload(queue, events, event);
         }
 
         /**
@@ -283,20 +1076,7 @@ public class MemoryPool implements AutoCloseable {
                 throw new IllegalStateException("PinnedBuffer is closed");
             }
 
-            // Map GPU buffer to host (triggers DMA download)
-            try (var stack = org.lwjgl.system.MemoryStack.stackPush()) {
-                var errorCode = stack.mallocInt(1);
-                gpuBuffer.enqueueMap(
-                    queue,
-                    true, // blocking
-                    org.lwjgl.opencl.CL10.CL_MAP_READ,
-                    0,
-                    size,
-                    events,
-                    event,
-                    errorCode
-                );
-            }
+            allocation.download(queue, events, event);
         }
 
         @Override
@@ -311,16 +1091,19 @@ public class MemoryPool implements AutoCloseable {
          * Internal cleanup - called when buffer is actually freed (not pooled).
          */
         private void cleanup() {
-            if (gpuBuffer != null) {
-                gpuBuffer.close();
-            }
-            // hostBuffer will be freed when gpuBuffer is released (USE_HOST_PTR mode)
+            allocation.release();
         }
     }
 
+    /**
+     * Pinned buffers are only interchangeable within one context, access type and size class.
+     */
+    private record PinnedKey(long context, AccessType access, int sizeClass) {
+    }
+
     private final Config config;
     private final ResourceTracker tracker;
-    private final Map<Integer, ConcurrentLinkedDeque<PooledBuffer>> pools;
+    private final Map<Integer, FreeList> pools;
     private final Set<PooledBuffer> borrowed;
     private final Map<ByteBuffer, PooledBuffer> allocatedBuffers; // Track allocate() calls - use IdentityHashMap for object identity
     private final ReentrantLock lock;
@@ -328,19 +1111,107 @@ public class MemoryPool implements AutoCloseable {
     private final long maxPoolSizeBytes; // Max total bytes in pool (0 = use config.maxPoolSize for buffer count)
     private final Set<Integer> keepWarmSizes; // Buffer sizes to keep warm (prevent eviction)
 
-    // GPU support (optional - 0 means not configured)
+    // GPU support (optional - 0 means not configured); contexts default to gpuContext
     private final long gpuContext;
-    private final long gpuQueue;
+    private final PinnedMemoryProvider pinnedProvider; // null = pinned allocation disabled
 
-    // Pinned buffer pool (separate from regular buffer pool)
-    private final Map<Integer, ConcurrentLinkedDeque<PinnedBuffer>> pinnedPools;
+    // Pinned buffer pool (separate from regular buffer pool); idle deques are guarded by lock, oldest first
+    private final Map<PinnedKey, ArrayDeque<PinnedBuffer>> pinnedPools;
     private final Set<PinnedBuffer> activePinnedBuffers;
+    private final AtomicInteger pinnedIdleBuffers;
+    private final AtomicLong pinnedIdleBytes;
+    private final LongAdder pinnedHits;
+    private final LongAdder pinnedMisses;
+    private final LongAdder pinnedEvictions;
 
     private final AtomicInteger totalBuffers;
     private final AtomicLong totalMemory;
-    private final AtomicLong allocations;
+    private final AtomicLong idleBytes; // Bytes sitting in free lists
+    private final LongAdder allocations;
     private final AtomicLong poolHits;
     private final AtomicLong poolMisses;
+    private final LongAdder magazineHits;
+    private final LongAdder magazineMisses;
+
+    // Per-thread magazines (null when config.magazineDepth == 0)
+    private final ThreadLocal<Magazine> magazines;
+    private final Set<Magazine> magazineRegistry;
+    private final AtomicInteger magazineSweepThreshold;
+
+    // Zeroing cost accounting and the ASYNC worker (null unless policy is ASYNC)
+    private final LongAdder zeroedBuffers;
+    private final LongAdder zeroedBytes;
+    private final LongAdder zeroingNanos;
+    private final AtomicLong asyncPendingBytes;
+    private final ExecutorService zeroingExecutor;
+
+    // Internal fragmentation: bytes requested by callers vs. bytes reserved by size classes
+    private final LongAdder requestedBytes;
+    private final LongAdder reservedBytes;
+
+    // Small-buffer slabs (null when config.slabMaxSlotSize == 0)
+    private final SlabAllocator slabAllocator;
+
+    // Arena backend for pooled buffers (null unless config.backend is BUDDY)
+    private final BuddyAllocator buddyAllocator;
+
+    // Water-mark eviction (only with a byte limit); set when crossing high, cleared at low
+    private final long highWaterBytes;
+    private final long lowWaterBytes;
+    private volatile boolean evicting;
+    private final LongAdder evictions;
+    private final LongAdder evictedBytes;
+
+    // Background maintenance (null unless config.maintenanceInterval is set)
+    private final ScheduledExecutorService maintenanceScheduler;
+    private final LongAdder maintenanceRuns;
+
+    // Borrow budget: bytes lent out by borrow/tryBorrow and the FIFO queue of timed borrowers
+    private final long borrowBudget; // 0 = unlimited
+    private final AtomicLong borrowedBytes;
+    private final ReentrantLock budgetLock;
+    private final ArrayDeque<BudgetWaiter> budgetWaiters;
+    private final AtomicInteger budgetWaiterCount;
+    private final LongAdder blockedBorrows;
+    private final LongAdder rejectedBorrows;
+    private final LongAdder timedOutBorrows;
+    private final LatencyHistogram borrowWaitTimes;
+
+    // Requested size classes, and how many idle buffers adaptive warm-up retains per class
+    private final SizeClassHistogram sizeHistogram;
+    private final Map<Integer, Integer> warmTargets;
+    private final LongAdder prewarmedBuffers;
+    
+    // Live buffers whose huge page advice was accepted, and allocations where it was not
+    private final AtomicInteger hugePageBuffers;
+    private final AtomicLong hugePageBytes;
+    private final LongAdder hugePageFallbacks;
+
+    // Leak reclaim: leases of allocate()'d buffers by address (null when disabled), and leaks by site
+    private final Map<Long, Lease> allocatedLeases;
+    private final Map<AllocationSite, LongAdder> leakSites;
+    private final LongAdder leakedBuffers;
+    private final LongAdder leakedBytes;
+
+    // Lease deadlines: default for borrows (0 = none), borrows past deadline at the last scan, totals
+    private final long leaseTimeoutNanos;
+    private final AtomicInteger overdueBorrows;
+    private final LongAdder expiredLeases;
+    private final LongAdder reclaimedLeases;
+
+    /**
+     * A timed borrower queued for budget; granted bytes are reserved on its behalf before it wakes.
+     */
+    private static final class BudgetWaiter {
+        final long bytes;
+        final Condition ready;
+        boolean granted;
+
+        BudgetWaiter(long bytes, Condition ready) {
+            this.bytes = bytes;
+            this.ready = ready;
+        }
+    }
     
     private volatile boolean closed = false;
     
@@ -380,9 +1251,10 @@ public class MemoryPool implements AutoCloseable {
     
     /**
      * Create a memory pool with custom configuration, idle time, and byte size limit.
+     * The configured water marks and eviction policy apply to the byte limit.
      */
-    private MemoryPool(Config config, ResourceTracker tracker, java.time.Duration maxIdleTime, long maxPoolSizeBytes) {
-        this(config, tracker, maxIdleTime, maxPoolSizeBytes, 0, 0);
+    public MemoryPool(Config config, ResourceTracker tracker, java.time.Duration maxIdleTime, long maxPoolSizeBytes) {
+        this(config, tracker, maxIdleTime, maxPoolSizeBytes, 0, null);
     }
 
     /**
@@ -395,37 +1267,111 @@ public class MemoryPool implements AutoCloseable {
      * @param queue OpenCL command queue handle (0 to disable GPU features)
      */
     public MemoryPool(Config config, ResourceTracker tracker, long context, long queue) {
-        this(config, tracker, java.time.Duration.ofMinutes(1), 0, context, queue);
+        this(config, tracker, java.time.Duration.ofMinutes(1), 0, context,
+             context != 0 && queue != 0 ? PinnedMemoryProvider.openCL(context, queue) : null);
     }
 
     /**
-     * Internal constructor with all parameters.
+     * Create a memory pool whose pinned buffers come from the given provider, for example
+     * {@link HostPinnedMemoryProvider} on machines without OpenCL.
      */
-    private MemoryPool(Config config, ResourceTracker tracker, java.time.Duration maxIdleTime,
-                       long maxPoolSizeBytes, long gpuContext, long gpuQueue) {
+    public MemoryPool(Config config, ResourceTracker tracker, PinnedMemoryProvider pinnedProvider) {
+        this(config, tracker, java.time.Duration.ofMinutes(1), 0, 0,
+             Objects.requireNonNull(pinnedProvider, "pinnedProvider"));
+    }
+
+    /**
+     * Internal constructor with all parameters.
+     */
+    private MemoryPool(Config config, ResourceTracker tracker, java.time.Duration maxIdleTime,
+                       long maxPoolSizeBytes, long gpuContext, PinnedMemoryProvider pinnedProvider) {
         this.config = config;
         this.tracker = tracker;
-        this.pools = new HashMap<>();
-        this.borrowed = new HashSet<>();
+        this.pools = new ConcurrentHashMap<>();
+        this.borrowed = ConcurrentHashMap.newKeySet();
         this.allocatedBuffers = new IdentityHashMap<>(); // Use IdentityHashMap for object identity
         this.lock = new ReentrantLock();
         this.maxIdleTimeNanos = maxIdleTime.toNanos();
         this.maxPoolSizeBytes = maxPoolSizeBytes;
-        this.keepWarmSizes = new HashSet<>();
+        this.highWaterBytes = (long) (maxPoolSizeBytes * (double) config.highWaterMark);
+        this.lowWaterBytes = (long) (maxPoolSizeBytes * (double) config.lowWaterMark);
+        this.evictions = new LongAdder();
+        this.evictedBytes = new LongAdder();
+        this.keepWarmSizes = ConcurrentHashMap.newKeySet();
         this.gpuContext = gpuContext;
-        this.gpuQueue = gpuQueue;
+        this.pinnedProvider = pinnedProvider;
         this.pinnedPools = new HashMap<>();
-        this.activePinnedBuffers = new HashSet<>();
+        this.activePinnedBuffers = ConcurrentHashMap.newKeySet();
+        this.pinnedIdleBuffers = new AtomicInteger(0);
+        this.pinnedIdleBytes = new AtomicLong(0);
+        this.pinnedHits = new LongAdder();
+        this.pinnedMisses = new LongAdder();
+        this.pinnedEvictions = new LongAdder();
 
         this.totalBuffers = new AtomicInteger(0);
         this.totalMemory = new AtomicLong(0);
-        this.allocations = new AtomicLong(0);
+        this.idleBytes = new AtomicLong(0);
+        this.allocations = new LongAdder();
         this.poolHits = new AtomicLong(0);
         this.poolMisses = new AtomicLong(0);
+        this.magazineHits = new LongAdder();
+        this.magazineMisses = new LongAdder();
+        this.magazineRegistry = ConcurrentHashMap.newKeySet();
+        this.magazineSweepThreshold = new AtomicInteger(2);
+        this.magazines = config.magazineDepth > 0 ? ThreadLocal.withInitial(this::newMagazine) : null;
+        this.zeroedBuffers = new LongAdder();
+        this.zeroedBytes = new LongAdder();
+        this.zeroingNanos = new LongAdder();
+        this.asyncPendingBytes = new AtomicLong(0);
+        this.requestedBytes = new LongAdder();
+        this.reservedBytes = new LongAdder();
+        this.slabAllocator = config.slabMaxSlotSize > 0
+            ? new SlabAllocator(config.slabSize, SlabAllocator.DEFAULT_MIN_SLOT_SIZE, config.slabMaxSlotSize)
+            : null;
+        this.buddyAllocator = config.backend == Backend.BUDDY
+            ? new BuddyAllocator(config.buddyArenaSize, BuddyAllocator.DEFAULT_MIN_BLOCK_SIZE,
+                                 config.buddyInitialArenas, config.buddyMaxArenas)
+            : null;
+        this.zeroingExecutor = config.zeroingPolicy == ZeroingPolicy.ASYNC
+            ? Executors.newSingleThreadExecutor(r -> {
+                var thread = new Thread(r, "memory-pool-zeroing");
+                thread.setDaemon(true);
+                return thread;
+            })
+            : null;
+        this.maintenanceRuns = new LongAdder();
+        this.borrowBudget = config.borrowBudgetBytes;
+        this.borrowedBytes = new AtomicLong(0);
+        this.budgetLock = new ReentrantLock();
+        this.budgetWaiters = new ArrayDeque<>();
+        this.budgetWaiterCount = new AtomicInteger(0);
+        this.blockedBorrows = new LongAdder();
+        this.rejectedBorrows = new LongAdder();
+        this.timedOutBorrows = new LongAdder();
+        this.borrowWaitTimes = new LatencyHistogram();
+        this.sizeHistogram = new SizeClassHistogram(config.warmupDecay);
+        this.warmTargets = new ConcurrentHashMap<>();
+        this.prewarmedBuffers = new LongAdder();
+        this.hugePageBuffers = new AtomicInteger(0);
+        this.hugePageBytes = new AtomicLong(0);
+        this.hugePageFallbacks = new LongAdder();
+        this.allocatedLeases = config.leakReclaim ? new ConcurrentHashMap<>() : null;
+        this.leakSites = new ConcurrentHashMap<>();
+        this.leakedBuffers = new LongAdder();
+        this.leakedBytes = new LongAdder();
+        this.leaseTimeoutNanos = config.leaseTimeout != null ? config.leaseTimeout.toNanos() : 0;
+        this.overdueBorrows = new AtomicInteger(0);
+        this.expiredLeases = new LongAdder();
+        this.reclaimedLeases = new LongAdder();
+        loadWarmupProfile();
+        if (config.warmupTopK > 0) {
+            prewarm();
+        }
+        this.maintenanceScheduler = startMaintenance();
 
-        var gpuStatus = (gpuContext != 0 && gpuQueue != 0) ? "GPU-enabled" : "CPU-only";
-        log.debug("Created {} memory pool with config: minSize={}, maxSize={}, maxPool={}",
-            gpuStatus, config.minBufferSize, config.maxBufferSize, config.maxPoolSize);
+        var gpuStatus = pinnedProvider != null ? "GPU-enabled" : "CPU-only";
+        log.debug("Created {} memory pool with config: minSize={}, maxSize={}, maxPool={}, concurrent={}",
+            gpuStatus, config.minBufferSize, config.maxBufferSize, config.maxPoolSize, config.concurrent);
     }
     
     /**
@@ -435,6 +1381,180 @@ public class MemoryPool implements AutoCloseable {
      * @return A borrowed buffer handle
      */
     public BorrowedBuffer borrow(int size) {
+        return borrow(size, false);
+    }
+    
+    /**
+     * Borrow a buffer only if it fits in the borrow budget right now and nobody is queued ahead.
+     *
+     * @return A borrowed buffer handle, or null if the budget is exhausted
+     */
+    public BorrowedBuffer tryBorrow(int size) {
+        long charge = chargeFor(size);
+        if (!tryAcquireBudget(charge)) {
+            rejectedBorrows.increment();
+            return null;
+        }
+        return borrowReserved(size, charge);
+    }
+    
+    /**
+     * Borrow a buffer, waiting in FIFO order for returns to free up budget.
+     *
+     * @return A borrowed buffer handle, or null if the timeout elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public BorrowedBuffer borrow(int size, java.time.Duration timeout) throws InterruptedException {
+        long charge = chargeFor(size);
+        if (!acquireBudget(charge, timeout.toNanos())) {
+            return null;
+        }
+        return borrowReserved(size, charge);
+    }
+    
+    /**
+     * Bytes a request of this size occupies once served, which is what the budget is charged.
+     */
+    private long chargeFor(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size must be non-negative, got: " + size);
+        }
+        if (size == 0) {
+            return 0;
+        }
+        if (slabAllocator != null && slabAllocator.handles(size)) {
+            return slabAllocator.slotSize(size);
+        }
+        if (size < config.minBufferSize || size > config.maxBufferSize) {
+            return size;
+        }
+        return sizeClass(size);
+    }
+    
+    private boolean tryAcquireBudget(long bytes) {
+        if (closed) {
+            throw new IllegalStateException("Pool is closed");
+        }
+        if (borrowBudget <= 0) {
+            borrowedBytes.addAndGet(bytes);
+            return true;
+        }
+        checkBudget(bytes);
+        // No barging: queued borrowers are served first
+        return budgetWaiterCount.get() == 0 && reserveBudget(bytes);
+    }
+    
+    private boolean acquireBudget(long bytes, long timeoutNanos) throws InterruptedException {
+        long start = System.nanoTime();
+        if (tryAcquireBudget(bytes)) {
+            borrowWaitTimes.record(0);
+            return true;
+        }
+        
+        var waiter = new BudgetWaiter(bytes, budgetLock.newCondition());
+        budgetLock.lock();
+        try {
+            budgetWaiters.add(waiter);
+            budgetWaiterCount.incrementAndGet();
+            grantWaiters(); // Budget may have been returned since the fast path
+            if (!waiter.granted) {
+                blockedBorrows.increment();
+            }
+            long remaining = timeoutNanos;
+            while (!waiter.granted) {
+                if (closed) {
+                    dequeue(waiter);
+                    throw new IllegalStateException("Pool is closed");
+                }
+                if (remaining <= 0) {
+                    dequeue(waiter);
+                    timedOutBorrows.increment();
+                    rejectedBorrows.increment();
+                    borrowWaitTimes.record(System.nanoTime() - start);
+                    return false;
+                }
+                try {
+                    remaining = waiter.ready.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    if (waiter.granted) {
+                        borrowedBytes.addAndGet(-bytes);
+                        grantWaiters();
+                    } else {
+                        dequeue(waiter);
+                    }
+                    throw e;
+                }
+            }
+            borrowWaitTimes.record(System.nanoTime() - start);
+            return true;
+        } finally {
+            budgetLock.unlock();
+        }
+    }
+    
+    private void checkBudget(long bytes) {
+        if (bytes > borrowBudget) {
+            throw new IllegalArgumentException(
+                "Request of " + bytes + " bytes exceeds the borrow budget of " + borrowBudget + " bytes");
+        }
+    }
+    
+    private boolean reserveBudget(long bytes) {
+        long current;
+        do {
+            current = borrowedBytes.get();
+            if (current + bytes > borrowBudget) {
+                return false;
+            }
+        } while (!borrowedBytes.compareAndSet(current, current + bytes));
+        return true;
+    }
+    
+    /**
+     * Wake queued borrowers in order while the head fits; the caller holds the budget lock.
+     */
+    private void grantWaiters() {
+        BudgetWaiter head;
+        while ((head = budgetWaiters.peek()) != null && reserveBudget(head.bytes)) {
+            budgetWaiters.poll();
+            budgetWaiterCount.decrementAndGet();
+            head.granted = true;
+            head.ready.signal();
+        }
+    }
+    
+    private void dequeue(BudgetWaiter waiter) {
+        if (budgetWaiters.remove(waiter)) {
+            budgetWaiterCount.decrementAndGet();
+            grantWaiters(); // A large head leaving may unblock smaller requests behind it
+        }
+    }
+    
+    private void releaseBudget(long bytes) {
+        if (bytes == 0) {
+            return;
+        }
+        borrowedBytes.addAndGet(-bytes);
+        if (budgetWaiterCount.get() > 0) {
+            budgetLock.lock();
+            try {
+                grantWaiters();
+            } finally {
+                budgetLock.unlock();
+            }
+        }
+    }
+    
+    private BorrowedBuffer borrowReserved(int size, long charge) {
+        try {
+            return borrow(size, true);
+        } catch (RuntimeException | Error e) {
+            releaseBudget(charge);
+            throw e;
+        }
+    }
+    
+    private BorrowedBuffer borrow(int size, boolean reserved) {
         if (size < 0) {
             throw new IllegalArgumentException("Size must be non-negative, got: " + size);
         }
@@ -443,7 +1563,8 @@ public class MemoryPool implements AutoCloseable {
             // Return an empty buffer for zero size
             return new BorrowedBuffer(
                 new PooledBuffer(ByteBuffer.allocateDirect(0), 0, 0, false),
-                tracker
+                tracker,
+                reserved
             );
         }
         
@@ -451,18 +1572,27 @@ public class MemoryPool implements AutoCloseable {
             throw new IllegalStateException("Pool is closed");
         }
         
+        if (slabAllocator != null && slabAllocator.handles(size)) {
+            var slot = allocateSlot(size);
+            borrowed.add(slot);
+            return new BorrowedBuffer(slot, tracker, reserved);
+        }
+        
         if (size < config.minBufferSize || size > config.maxBufferSize) {
             // Size out of range, allocate directly without pooling
             log.trace("Size {} out of pool range, allocating directly", size);
             poolMisses.incrementAndGet();
             
-            if (config.alignBuffers) {
+            if (usesHugePages(size)) {
+                return new BorrowedBuffer(allocateHuge(size, false), tracker, reserved);
+            } else if (config.alignBuffers) {
                 return new BorrowedBuffer(
                     new PooledBuffer(
                         MemoryUtil.memAlignedAlloc(config.alignment, size),
                         0, size, true
                     ), 
-                    tracker
+                    tracker,
+                    reserved
                 );
             } else {
                 return new BorrowedBuffer(
@@ -470,459 +1600,1868 @@ public class MemoryPool implements AutoCloseable {
                         MemoryUtil.memAlloc(size),
                         0, size, false
                     ),
-                    tracker
+                    tracker,
+                    reserved
                 );
             }
         }
         
-        allocations.incrementAndGet();
+        allocations.increment();
         
-        // Round up to power of 2 for better reuse
-        int poolSize = roundUpToPowerOf2(size);
+        // Round up to the size class for better reuse
+        int poolSize = sizeClass(size);
+        requestedBytes.add(size);
+        reservedBytes.add(reservedSize(poolSize));
+        sizeHistogram.record(poolSize);
         
-        lock.lock();
-        try {
-            var pool = pools.computeIfAbsent(poolSize, k -> new ConcurrentLinkedDeque<>());
-            
-            // Try to get from pool
-            PooledBuffer buffer = pool.poll();
+        PooledBuffer buffer = null;
+        if (magazines != null) {
+            buffer = magazines.get().pop(poolSize);
             if (buffer != null) {
-                poolHits.incrementAndGet();
-                log.trace("Reusing buffer of size {} from pool", poolSize);
-                
-                // Clear buffer before reuse - ensure it's zeroed
-                buffer.buffer.clear();
-                // Use bulk put operation for better performance and reliability
-                int capacity = buffer.buffer.capacity();
-                buffer.buffer.position(0);
-                buffer.buffer.limit(capacity);
-                
-                // Fill with zeros using bulk operations for better performance
-                // This works more reliably across different environments
-                while (buffer.buffer.remaining() >= 8) {
-                    buffer.buffer.putLong(0L);
-                }
-                while (buffer.buffer.hasRemaining()) {
-                    buffer.buffer.put((byte) 0);
-                }
-                
-                buffer.buffer.clear(); // Reset position and limit
-                
-                borrowed.add(buffer);
-                return new BorrowedBuffer(buffer, tracker);
-            }
-            
-            // Need to allocate new buffer
-            poolMisses.incrementAndGet();
-            
-            if (totalBuffers.get() >= config.maxPoolSize) {
-                // Pool is full, try to evict old buffers
-                evictOldBuffers();
-            }
-            
-            // Allocate new buffer
-            ByteBuffer newBuffer;
-            if (config.alignBuffers) {
-                newBuffer = MemoryUtil.memAlignedAlloc(config.alignment, poolSize);
+                magazineHits.increment();
             } else {
-                newBuffer = MemoryUtil.memAlloc(poolSize);
-            }
-            
-            // Zero the newly allocated buffer - LWJGL doesn't zero memory by default
-            newBuffer.clear();
-            while (newBuffer.remaining() >= 8) {
-                newBuffer.putLong(0L);
+                magazineMisses.increment();
             }
-            while (newBuffer.hasRemaining()) {
-                newBuffer.put((byte) 0);
-            }
-            newBuffer.clear(); // Reset position and limit
-            
-            var pooledBuffer = new PooledBuffer(
-                newBuffer,
-                MemoryUtil.memAddress(newBuffer),
-                poolSize,
-                config.alignBuffers
-            );
-            
-            totalBuffers.incrementAndGet();
-            totalMemory.addAndGet(poolSize);
-            
-            log.trace("Allocated new buffer of size {} for pool", poolSize);
-            
-            borrowed.add(pooledBuffer);
-            return new BorrowedBuffer(pooledBuffer, tracker);
-            
-        } finally {
-            lock.unlock();
-        }
-    }
-    
-    /**
-     * Return a buffer to the pool.
-     */
-    private void returnBuffer(PooledBuffer buffer) {
-        if (closed) {
-            // Pool is closed, free the buffer
-            freeBuffer(buffer);
-            return;
         }
         
-        lock.lock();
-        try {
-            borrowed.remove(buffer);
-            
-            var pool = pools.get(buffer.size);
-            if (pool != null && pool.size() < config.maxBuffersPerSize) {
-                pool.offer(buffer);
-                log.trace("Returned buffer of size {} to pool", buffer.size);
+        if (buffer == null) {
+            if (config.concurrent) {
+                buffer = takePooled(poolSize);
             } else {
-                // Pool for this size is full, free the buffer
-                freeBuffer(buffer);
+                lock.lock();
+                try {
+                    buffer = takePooled(poolSize);
+                } finally {
+                    lock.unlock();
+                }
             }
-        } finally {
-            lock.unlock();
         }
+        
+        // Zeroing and allocation happen outside the pool lock
+        if (buffer != null) {
+            prepareForReuse(buffer);
+        } else {
+            buffer = allocatePooled(poolSize, config.alignBuffers);
+            log.trace("Allocated new buffer of size {} for pool", poolSize);
+        }
+        
+        borrowed.add(buffer);
+        return new BorrowedBuffer(buffer, tracker, reserved);
     }
     
     /**
-     * Get category-specific idle timeout in nanoseconds.
+     * Borrow an idle buffer of the size class without allocating, for {@link ShardedMemoryPool}
+     * probing its home shard and stealing from siblings.
+     *
+     * @param fromMagazine Also check the calling thread's magazine; only for the home shard, so
+     *                     stealing does not create magazines in every sibling
+     * @return The buffer, or null if none of this size class is idle
      */
-    private long getCategoryTimeout(BufferCategory category) {
-        return switch (category) {
-            case SMALL, MEDIUM -> maxIdleTimeNanos;           // 60s default
-            case XLARGE -> maxIdleTimeNanos * 5;               // 5x longer (5 min if base is 60s)
-            case BATCH -> maxIdleTimeNanos * 10;               // 10x longer (10 min if base is 60s)
-        };
+    BorrowedBuffer borrowIfIdle(int size, boolean fromMagazine) {
+        return borrowIfIdle(size, fromMagazine, false);
     }
 
     /**
-     * Evict old buffers that haven't been used recently.
-     * Uses category-specific timeouts and respects keep-warm sizes.
+     * {@link #borrowIfIdle} charged to the borrow budget, for {@link ShardedMemoryPool#tryBorrow}.
+     *
+     * @return The buffer, or null if none is idle or the budget is exhausted
      */
-    private void evictOldBuffers() {
-        for (var pool : pools.values()) {
-            var iterator = pool.iterator();
-            while (iterator.hasNext()) {
-                var buffer = iterator.next();
+    BorrowedBuffer tryBorrowIfIdle(int size, boolean fromMagazine) {
+        long charge = chargeFor(size);
+        if (!tryAcquireBudget(charge)) {
+            return null;
+        }
+        var buffer = borrowIfIdle(size, fromMagazine, true);
+        if (buffer == null) {
+            releaseBudget(charge);
+        }
+        return buffer;
+    }
 
-                // Check if this size is keep-warm
-                if (keepWarmSizes.contains(buffer.size)) {
-                    continue; // Skip eviction for keep-warm buffers
-                }
+    private BorrowedBuffer borrowIfIdle(int size, boolean fromMagazine, boolean reserved) {
+        if (closed || size < config.minBufferSize || size > config.maxBufferSize || size == 0
+            || (slabAllocator != null && slabAllocator.handles(size))) {
+            return null;
+        }
+        int poolSize = sizeClass(size);
+        var pool = pools.get(poolSize);
 
-                // Use category-specific timeout
-                long categoryTimeout = getCategoryTimeout(buffer.category);
-                if (buffer.getIdleTime() > categoryTimeout) {
-                    iterator.remove();
-                    freeBuffer(buffer);
-                    log.trace("Evicted idle {} buffer of size {}", buffer.category, buffer.size);
+        PooledBuffer buffer = null;
+        if (fromMagazine && magazines != null) {
+            buffer = magazines.get().pop(poolSize);
+            if (buffer != null) {
+                magazineHits.increment();
+            }
+        }
+        if (buffer == null && pool != null && pool.size() > 0) {
+            if (config.concurrent) {
+                buffer = pool.poll();
+            } else {
+                lock.lock();
+                try {
+                    buffer = pool.poll();
+                } finally {
+                    lock.unlock();
                 }
             }
+            if (buffer != null) {
+                poolHits.incrementAndGet();
+            }
         }
-    }
-    
-    /**
-     * Free a pooled buffer.
-     */
-    private void freeBuffer(PooledBuffer buffer) {
-        if (buffer.aligned) {
-            MemoryUtil.memAlignedFree(buffer.buffer);
-        } else {
-            MemoryUtil.memFree(buffer.buffer);
+        if (buffer == null) {
+            return null;
         }
-        
-        totalBuffers.decrementAndGet();
-        totalMemory.addAndGet(-buffer.size);
-        
-        log.trace("Freed buffer of size {}", buffer.size);
+
+        allocations.increment();
+        requestedBytes.add(size);
+        reservedBytes.add(reservedSize(poolSize));
+        sizeHistogram.record(poolSize);
+        prepareForReuse(buffer);
+        borrowed.add(buffer);
+        return new BorrowedBuffer(buffer, tracker, reserved);
     }
-    
+
     /**
-     * Round up to nearest power of 2.
-     * @deprecated Use {@link BufferPoolUtils#roundUpToPowerOf2(int)} instead
+     * Carve a slab slot for a small request, zeroed unless the policy is NONE.
      */
-    @Deprecated(since = "1.0", forRemoval = true)
-    private static int roundUpToPowerOf2(int value) {
-        return BufferPoolUtils.roundUpToPowerOf2(value);
+    private PooledBuffer allocateSlot(int size) {
+        // Counted in the slab statistics rather than pool hits/misses
+        int slotSize = slabAllocator.slotSize(size);
+        requestedBytes.add(size);
+        reservedBytes.add(slotSize);
+        
+        long address = slabAllocator.allocate(size);
+        var slot = new PooledBuffer(MemoryUtil.memByteBuffer(address, slotSize), address, slotSize, false, Backing.SLAB);
+        if (config.zeroingPolicy != ZeroingPolicy.NONE) {
+            zero(slot);
+        }
+        return slot;
     }
     
     /**
-     * Allocate a buffer from the pool.
-     * Simple wrapper for compatibility.
-     * Note: Buffers allocated this way MUST be returned via returnToPool().
+     * Take an idle buffer from the shared free list, or make room for a new one.
+     * In locked mode the caller holds the pool lock.
+     *
+     * @return the reused buffer, or null if the caller must allocate
      */
-    public ByteBuffer allocate(int size) {
-        if (size < 0) {
-            throw new IllegalArgumentException("Size must be non-negative, got: " + size);
-        }
+    private PooledBuffer takePooled(int poolSize) {
+        var pool = freeList(poolSize);
         
-        if (size == 0) {
-            // Return an empty buffer for zero size
-            return ByteBuffer.allocateDirect(0);
+        // Try to get from pool
+        PooledBuffer buffer = pool.poll();
+        if (buffer != null) {
+            poolHits.incrementAndGet();
+            log.trace("Reusing buffer of size {} from pool", poolSize);
+            
+            if (magazines != null) {
+                refillMagazine(pool);
+            }
+            return buffer;
         }
         
-        allocations.incrementAndGet();
-        
-        // Round up to power of 2 for better reuse
-        int poolSize = roundUpToPowerOf2(size);
+        // Need to allocate new buffer
+        poolMisses.incrementAndGet();
         
-        lock.lock();
-        try {
-            var pool = pools.computeIfAbsent(poolSize, k -> new ConcurrentLinkedDeque<>());
-            
-            // Try to get from pool
-            PooledBuffer buffer = pool.poll();
-            if (buffer != null) {
-                poolHits.incrementAndGet();
-                // DON'T count as allocated when reusing from pool - it's already in totalMemory
-                log.debug("Reusing buffer {} of size {} from pool", 
-                         System.identityHashCode(buffer.buffer), poolSize);
-                
-                // Clear buffer before reuse - ensure it's zeroed
-                buffer.buffer.clear();
-                // Use bulk put operation for better performance and reliability
-                int capacity = buffer.buffer.capacity();
-                buffer.buffer.position(0);
-                buffer.buffer.limit(capacity);
-                
-                // Fill with zeros using bulk operations for better performance
-                // This works more reliably across different environments
-                while (buffer.buffer.remaining() >= 8) {
-                    buffer.buffer.putLong(0L);
-                }
-                while (buffer.buffer.hasRemaining()) {
-                    buffer.buffer.put((byte) 0);
-                }
-                
-                buffer.buffer.clear(); // Reset position and limit
-                
-                allocatedBuffers.put(buffer.buffer, buffer);
-                return buffer.buffer;
+        if (maintenanceScheduler == null && totalBuffers.get() >= config.maxPoolSize) {
+            // Pool is full, try to evict old buffers (serialized even in concurrent mode);
+            // with background maintenance the borrower leaves this to the maintenance thread
+            lock.lock();
+            try {
+                evictOldBuffers();
+            } finally {
+                lock.unlock();
             }
-            
-            // Need to allocate new buffer
-            poolMisses.incrementAndGet();
-            
-            // Allocate new buffer
-            ByteBuffer newBuffer = MemoryUtil.memAlloc(poolSize);
-            
-            // Zero the newly allocated buffer - LWJGL doesn't zero memory by default
-            newBuffer.clear();
-            while (newBuffer.remaining() >= 8) {
-                newBuffer.putLong(0L);
+        }
+        return null;
+    }
+    
+    /**
+     * Allocate and account a new pooled buffer, zeroed unless the policy is NONE.
+     */
+    private PooledBuffer allocatePooled(int poolSize, boolean aligned) {
+        PooledBuffer pooledBuffer = null;
+        if (usesHugePages(poolSize)) {
+            pooledBuffer = allocateHuge(poolSize, true);
+        } else if (buddyAllocator != null && buddyAllocator.handles(poolSize)
+            && (!aligned || config.alignment <= buddyAllocator.getMinBlockSize())) {
+            long address = buddyAllocator.allocate(poolSize);
+            if (address != 0) {
+                pooledBuffer = new PooledBuffer(MemoryUtil.memByteBuffer(address, poolSize), address,
+                                                poolSize, aligned, Backing.BUDDY);
             }
-            while (newBuffer.hasRemaining()) {
-                newBuffer.put((byte) 0);
+        }
+        
+        if (pooledBuffer == null) {
+            ByteBuffer newBuffer;
+            if (aligned) {
+                newBuffer = MemoryUtil.memAlignedAlloc(config.alignment, poolSize);
+            } else {
+                newBuffer = MemoryUtil.memAlloc(poolSize);
             }
-            newBuffer.clear(); // Reset position and limit
-            
-            var pooledBuffer = new PooledBuffer(
+            pooledBuffer = new PooledBuffer(
                 newBuffer,
                 MemoryUtil.memAddress(newBuffer),
                 poolSize,
-                false
+                aligned,
+                config.backend == Backend.SEGMENT ? Backing.SEGMENT : Backing.MALLOC
             );
-            
-            totalBuffers.incrementAndGet();
-            totalMemory.addAndGet(poolSize);
-            
-            log.debug("Allocated new buffer {} of size {} for pool", 
-                     System.identityHashCode(newBuffer), poolSize);
-            
-            allocatedBuffers.put(newBuffer, pooledBuffer);
-            return newBuffer;
-            
-        } finally {
-            lock.unlock();
         }
+        
+        // LWJGL doesn't zero memory by default
+        if (config.zeroingPolicy != ZeroingPolicy.NONE) {
+            zero(pooledBuffer);
+        }
+        
+        totalBuffers.incrementAndGet();
+        totalMemory.addAndGet(poolSize);
+        return pooledBuffer;
     }
     
     /**
-     * Return a buffer to the pool.
+     * Bytes a size class occupies in its backend: buddy blocks round up to the minimum block size.
      */
-    public void returnToPool(ByteBuffer buffer) {
-        if (buffer == null) {
-            return;
+    private long reservedSize(int poolSize) {
+        if (buddyAllocator != null && !usesHugePages(poolSize) && buddyAllocator.handles(poolSize)) {
+            return buddyAllocator.blockSize(poolSize);
+        }
+        return poolSize;
+    }
+    
+    private boolean usesHugePages(int size) {
+        return config.hugePageThreshold > 0 && size >= config.hugePageThreshold;
+    }
+    
+    /**
+     * Allocate on a huge page boundary and advise the kernel before the memory is first touched.
+     * Where the advice is refused the buffer is still aligned but backed by regular pages.
+     *
+     * @param pooled false for out-of-range buffers, which carry no address
+     */
+    private PooledBuffer allocateHuge(int size, boolean pooled) {
+        var buffer = MemoryUtil.memAlignedAlloc(HugePages.PAGE_SIZE, size);
+        long address = MemoryUtil.memAddress(buffer);
+        boolean advised = HugePages.advise(address, size);
+        if (advised) {
+            hugePageBuffers.incrementAndGet();
+            hugePageBytes.addAndGet(size);
+        } else {
+            hugePageFallbacks.increment();
+        }
+        return new PooledBuffer(buffer, pooled ? address : 0, size, true, advised ? Backing.HUGE : Backing.MALLOC);
+    }
+    
+    /**
+     * Move a batch from the shared free list into the calling thread's magazine.
+     */
+    private void refillMagazine(FreeList pool) {
+        int batch = Math.max(1, config.magazineDepth / 2) - 1;
+        if (batch <= 0) {
+            return;
+        }
+        var refill = new ArrayList<PooledBuffer>(batch);
+        PooledBuffer buffer;
+        while (refill.size() < batch && (buffer = pool.poll()) != null) {
+            refill.add(buffer);
+        }
+        if (!refill.isEmpty()) {
+            for (var rejected : magazines.get().refill(refill.get(0).size, refill)) {
+                pool.offer(rejected, Integer.MAX_VALUE);
+            }
+        }
+    }
+    
+    private Magazine newMagazine() {
+        var magazine = new Magazine(Thread.currentThread(), config.magazineDepth);
+        magazineRegistry.add(magazine);
+        // A new magazine means a new thread, so earlier ones may have ended. Sweep once the
+        // registry grew by an eighth since the last sweep: a thread that borrows once and
+        // exits hands its buffers to the next one, while each sweep stays amortized O(1).
+        int threshold = magazineSweepThreshold.get();
+        if (magazineRegistry.size() >= threshold
+            && magazineSweepThreshold.compareAndSet(threshold, Integer.MAX_VALUE)) {
+            reclaimDeadMagazines();
+            int live = magazineRegistry.size();
+            magazineSweepThreshold.set(live + Math.max(1, live / MAGAZINE_SWEEP_GROWTH));
+        }
+        return magazine;
+    }
+    
+    /**
+     * Return the buffers cached by threads that have terminated (platform or virtual)
+     * to the shared pool.
+     *
+     * @return number of magazines reclaimed
+     */
+    public int reclaimDeadMagazines() {
+        int reclaimed = 0;
+        for (var magazine : magazineRegistry) {
+            if (magazine.isOwnerDead() && magazineRegistry.remove(magazine)) {
+                releaseToShared(magazine.drain(true));
+                reclaimed++;
+            }
+        }
+        if (reclaimed > 0) {
+            log.debug("Reclaimed {} magazines from terminated threads", reclaimed);
+        }
+        return reclaimed;
+    }
+    
+    /**
+     * Hand magazine buffers back to the shared free lists, freeing what does not fit.
+     */
+    private void releaseToShared(List<PooledBuffer> buffers) {
+        if (buffers.isEmpty()) {
+            return;
+        }
+        if (config.concurrent) {
+            for (var buffer : buffers) {
+                offerShared(buffer);
+            }
+            evictToWaterMarks();
+            return;
+        }
+        lock.lock();
+        try {
+            for (var buffer : buffers) {
+                offerShared(buffer);
+            }
+            evictToWaterMarks();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void offerShared(PooledBuffer buffer) {
+        if (closed) {
+            freeBuffer(buffer);
+            return;
+        }
+        var pool = pools.get(buffer.size);
+        if (pool == null || !pool.offer(buffer, config.maxBuffersPerSize)) {
+            freeBuffer(buffer);
+        } else if (closed && pool.remove(buffer)) {
+            freeBuffer(buffer);
+        }
+    }
+    
+    private FreeList freeList(int poolSize) {
+        var pool = pools.get(poolSize);
+        return pool != null ? pool : pools.computeIfAbsent(poolSize, k -> new FreeList());
+    }
+    
+    /**
+     * Reset a reused buffer, zeroing it first under the EAGER policy.
+     * ASYNC buffers were zeroed by the background worker before reaching a free list.
+     */
+    private void prepareForReuse(PooledBuffer buffer) {
+        if (config.zeroingPolicy == ZeroingPolicy.EAGER) {
+            zero(buffer);
+        } else {
+            buffer.buffer.clear();
+        }
+    }
+    
+    /**
+     * Zero a pooled buffer with memSet and reset its position and limit.
+     */
+    private void zero(PooledBuffer buffer) {
+        long start = System.nanoTime();
+        MemoryUtil.memSet(buffer.address, 0, buffer.size);
+        zeroingNanos.add(System.nanoTime() - start);
+        zeroedBuffers.increment();
+        zeroedBytes.add(buffer.size);
+        buffer.buffer.clear();
+    }
+    
+    /**
+     * Hand a returned buffer to the zeroing worker; it reaches the free list once zeroed.
+     */
+    private void zeroAsync(PooledBuffer buffer, Consumer<PooledBuffer> then) {
+        asyncPendingBytes.addAndGet(buffer.size);
+        try {
+            zeroingExecutor.execute(() -> {
+                try {
+                    zero(buffer);
+                    then.accept(buffer);
+                } finally {
+                    asyncPendingBytes.addAndGet(-buffer.size);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Worker already shut down by close()
+            asyncPendingBytes.addAndGet(-buffer.size);
+            freeBuffer(buffer);
+        }
+    }
+    
+    /**
+     * Return a buffer to the pool.
+     */
+    private void returnBuffer(PooledBuffer buffer) {
+        returnBuffer(buffer, true);
+    }
+    
+    /**
+     * Return a buffer to the pool.
+     *
+     * @param viaMagazine Push to the calling thread's magazine; false on the cleaner thread,
+     *                    whose magazine no borrower would ever pop
+     */
+    private void returnBuffer(PooledBuffer buffer, boolean viaMagazine) {
+        if (buffer.backing == Backing.SLAB) {
+            // Slots go straight back to their slab; after close() the borrowed entry is gone
+            if (borrowed.remove(buffer)) {
+                freeBuffer(buffer);
+            }
+            return;
+        }
+        
+        if (closed) {
+            // Pool is closed, free the buffer unless close() already freed it as borrowed
+            if (buffer.address == 0 || borrowed.remove(buffer)) {
+                freeBuffer(buffer);
+            }
+            return;
+        }
+        
+        if (config.zeroingPolicy == ZeroingPolicy.ASYNC && buffer.address != 0) {
+            // Not via the magazine: it is owned by this thread, the buffer is done on the worker
+            borrowed.remove(buffer);
+            zeroAsync(buffer, zeroed -> releaseToShared(List.of(zeroed)));
+            return;
+        }
+        
+        // Unpooled (out-of-range or empty) buffers carry no address and never enter magazines
+        if (magazines != null && viaMagazine && buffer.address != 0) {
+            borrowed.remove(buffer);
+            var spilled = magazines.get().push(buffer);
+            if (spilled != null) {
+                releaseToShared(spilled);
+                return;
+            }
+            // Magazine retired by close(), fall through to the shared path
+        }
+        
+        if (config.concurrent) {
+            releasePooled(buffer);
+            // close() may have drained the free lists while we were offering
+            if (closed && pools.get(buffer.size) != null && pools.get(buffer.size).remove(buffer)) {
+                freeBuffer(buffer);
+            }
+            return;
         }
         
         lock.lock();
         try {
-            PooledBuffer pooledBuffer = allocatedBuffers.remove(buffer);
-            if (pooledBuffer != null) {
-                var pool = pools.get(pooledBuffer.size);
-                
-                // Check if we should keep this buffer based on size limits
-                boolean shouldKeep = false;
-                if (maxPoolSizeBytes > 0) {
-                    // Using byte size limit - calculate current pool size inline to avoid lock issues
-                    long currentPoolSize = 0;
-                    for (var p : pools.values()) {
-                        for (var buf : p) {
-                            currentPoolSize += buf.size;
-                        }
-                    }
-                    shouldKeep = (currentPoolSize + pooledBuffer.size) <= maxPoolSizeBytes;
-                } else {
-                    // Using buffer count limit
-                    shouldKeep = pool != null && pool.size() < config.maxBuffersPerSize;
+            releasePooled(buffer);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void releasePooled(PooledBuffer buffer) {
+        borrowed.remove(buffer);
+        
+        var pool = pools.get(buffer.size);
+        if (pool != null && pool.offer(buffer, config.maxBuffersPerSize)) {
+            log.trace("Returned buffer of size {} to pool", buffer.size);
+            evictToWaterMarks();
+        } else {
+            // Pool for this size is full, free the buffer
+            freeBuffer(buffer);
+        }
+    }
+    
+    /**
+     * Get category-specific idle timeout in nanoseconds.
+     */
+    private long getCategoryTimeout(BufferCategory category) {
+        return switch (category) {
+            case SMALL, MEDIUM -> maxIdleTimeNanos;           // 60s default
+            case XLARGE -> maxIdleTimeNanos * 5;               // 5x longer (5 min if base is 60s)
+            case BATCH -> maxIdleTimeNanos * 10;               // 10x longer (10 min if base is 60s)
+        };
+    }
+
+    /**
+     * Evict old buffers that haven't been used recently.
+     * Uses category-specific timeouts and respects keep-warm sizes.
+     */
+    private void evictOldBuffers() {
+        for (var pool : pools.values()) {
+            var iterator = pool.iterator();
+            while (iterator.hasNext()) {
+                var buffer = iterator.next();
+
+                // Check if this size is keep-warm or still within its warm-up target
+                if (keepWarmSizes.contains(buffer.size) || retainedForWarmup(buffer.size, pool)) {
+                    continue; // Skip eviction for keep-warm buffers
                 }
-                
-                if (shouldKeep && pool != null) {
-                    // Check if this buffer is already in the pool (duplicate return)
-                    boolean alreadyInPool = pool.stream()
-                        .anyMatch(pb -> pb.buffer == pooledBuffer.buffer);
-                    
-                    if (!alreadyInPool) {
-                        // Mark the buffer as used when returning to pool so idle time resets
-                        pooledBuffer.markUsed();
-                        pool.offer(pooledBuffer);
-                        log.debug("Returned buffer of size {} to pool (pool now has {} buffers, {} bytes total)", 
-                                 pooledBuffer.size, pool.size(), getCurrentSize() + pooledBuffer.size);
-                    } else {
-                        log.debug("Buffer {} already in pool, ignoring duplicate return", 
-                                 System.identityHashCode(buffer));
-                    }
-                } else {
-                    // Pool is full or doesn't exist, free the buffer
-                    log.debug("Pool limit reached (byte limit: {}, current: {}), freeing buffer of size {}", 
-                             maxPoolSizeBytes > 0 ? maxPoolSizeBytes : "N/A", 
-                             getCurrentSize(), pooledBuffer.size);
-                    freeBuffer(pooledBuffer);
+
+                // Use category-specific timeout; lose gracefully to a concurrent borrower
+                long categoryTimeout = getCategoryTimeout(buffer.category);
+                if (buffer.getIdleTime() > categoryTimeout && pool.remove(buffer)) {
+                    freeBuffer(buffer);
+                    evictions.increment();
+                    evictedBytes.add(buffer.size);
+                    log.trace("Evicted idle {} buffer of size {}", buffer.category, buffer.size);
                 }
-            } else {
-                // Buffer was not tracked or already returned
-                log.trace("Buffer {} not tracked or already returned", 
-                         System.identityHashCode(buffer));
             }
-        } finally {
-            lock.unlock();
-        }
-    }
-    
-    /**
-     * Evict expired buffers from the pool.
-     */
-    public void evictExpired() {
-        evictOldBuffers();
-    }
-    
-    /**
-     * Get current size of pool in bytes.
-     */
-    public long getCurrentSize() {
-        lock.lock();
-        try {
-            long size = 0;
-            for (var pool : pools.values()) {
-                for (var buffer : pool) {
-                    size += buffer.size;
-                }
+        }
+    }
+
+    /**
+     * Start evicting once pooled bytes cross the high water mark and keep going, at most
+     * EVICTION_BATCH buffers per call, until they are at or below the low water mark.
+     * Callers that lose the pool lock to a concurrent evictor skip the pass.
+     */
+    private void evictToWaterMarks() {
+        if (maxPoolSizeBytes <= 0 || closed) {
+            return;
+        }
+        if (!evicting) {
+            if (getCurrentSize() <= highWaterBytes) {
+                return;
+            }
+            evicting = true;
+        }
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            if (evictDownTo(lowWaterBytes) <= lowWaterBytes) {
+                evicting = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Evict idle buffers by policy until pooled bytes are at or below target, bounded by EVICTION_BATCH.
+     * Only the oldest few buffers of each size class are sampled, so a pass never scans whole free lists.
+     *
+     * @return pooled bytes after the pass
+     */
+    private long evictDownTo(long target) {
+        long current = getCurrentSize();
+        for (int i = 0; i < EVICTION_BATCH && current > target; i++) {
+            var victim = selectVictim();
+            if (victim == null) {
+                break; // Everything left is keep-warm, in magazines or being zeroed
+            }
+            if (pools.get(victim.size).remove(victim)) {
+                freeBuffer(victim);
+                evictions.increment();
+                evictedBytes.add(victim.size);
+                current -= victim.size;
+                log.trace("Evicted {} buffer of size {} ({})", victim.category, victim.size, config.evictionPolicy);
+            }
+        }
+        return current;
+    }
+
+    private PooledBuffer selectVictim() {
+        long now = System.nanoTime();
+        PooledBuffer victim = null;
+        for (var entry : pools.entrySet()) {
+            if (keepWarmSizes.contains(entry.getKey()) || retainedForWarmup(entry.getKey(), entry.getValue())) {
+                continue;
+            }
+            // Free lists are FIFO, so the head holds the longest-idle buffers of the class
+            var iterator = entry.getValue().iterator();
+            for (int i = 0; i < EVICTION_SAMPLE && iterator.hasNext(); i++) {
+                var candidate = iterator.next();
+                if (victim == null || evictsBefore(candidate, victim, now)) {
+                    victim = candidate;
+                }
+            }
+        }
+        return victim;
+    }
+
+    private boolean evictsBefore(PooledBuffer a, PooledBuffer b, long now) {
+        return switch (config.evictionPolicy) {
+            case LRU -> a.lastUsed < b.lastUsed;
+            case LFU -> a.useCount < b.useCount || (a.useCount == b.useCount && a.lastUsed < b.lastUsed);
+            case FIFO -> a.createdAt < b.createdAt;
+            case SIZE_BASED -> a.size > b.size || (a.size == b.size && a.lastUsed < b.lastUsed);
+            case HYBRID -> (double) (now - a.lastUsed) * a.size > (double) (now - b.lastUsed) * b.size;
+        };
+    }
+    
+    /**
+     * Free a pooled buffer.
+     */
+    private void freeBuffer(PooledBuffer buffer) {
+        if (buffer.backing == Backing.SLAB) {
+            slabAllocator.free(buffer.address);
+            log.trace("Freed slab slot of size {}", buffer.size);
+            return;
+        }
+        
+        if (buffer.backing == Backing.BUDDY) {
+            buddyAllocator.free(buffer.address);
+        } else if (buffer.aligned) {
+            MemoryUtil.memAlignedFree(buffer.buffer);
+        } else {
+            MemoryUtil.memFree(buffer.buffer);
+        }
+        if (buffer.backing == Backing.HUGE) {
+            hugePageBuffers.decrementAndGet();
+            hugePageBytes.addAndGet(-buffer.size);
+        }
+        
+        totalBuffers.decrementAndGet();
+        totalMemory.addAndGet(-buffer.size);
+        
+        log.trace("Freed buffer of size {}", buffer.size);
+    }
+    
+    /**
+     * Round a requested size up to its size class under the configured scheme.
+     */
+    private int sizeClass(int size) {
+        return config.sizeClassScheme.roundUp(size);
+    }
+    
+    /**
+     * Allocate a buffer from the pool.
+     * Simple wrapper for compatibility.
+     * Note: Buffers allocated this way MUST be returned via returnToPool().
+     */
+    public ByteBuffer allocate(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size must be non-negative, got: " + size);
+        }
+        
+        if (size == 0) {
+            // Return an empty buffer for zero size
+            return ByteBuffer.allocateDirect(0);
+        }
+        
+        if (slabAllocator != null && slabAllocator.handles(size)) {
+            var slot = allocateSlot(size);
+            lock.lock();
+            try {
+                allocatedBuffers.put(slot.buffer, slot);
+            } finally {
+                lock.unlock();
+            }
+            return leased(slot);
+        }
+        
+        allocations.increment();
+        
+        // Round up to the size class for better reuse
+        int poolSize = sizeClass(size);
+        requestedBytes.add(size);
+        reservedBytes.add(reservedSize(poolSize));
+        sizeHistogram.record(poolSize);
+        
+        PooledBuffer buffer;
+        lock.lock();
+        try {
+            // Try to get from pool
+            buffer = freeList(poolSize).poll();
+            if (buffer != null) {
+                poolHits.incrementAndGet();
+                // DON'T count as allocated when reusing from pool - it's already in totalMemory
+                log.debug("Reusing buffer {} of size {} from pool", 
+                         System.identityHashCode(buffer.buffer), poolSize);
+                allocatedBuffers.put(buffer.buffer, buffer);
+            } else {
+                // Need to allocate new buffer
+                poolMisses.incrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+        
+        // Zeroing and allocation happen outside the pool lock
+        if (buffer != null) {
+            prepareForReuse(buffer);
+            return leased(buffer);
+        }
+        
+        var pooledBuffer = allocatePooled(poolSize, false);
+        log.debug("Allocated new buffer {} of size {} for pool", 
+                 System.identityHashCode(pooledBuffer.buffer), poolSize);
+        
+        lock.lock();
+        try {
+            allocatedBuffers.put(pooledBuffer.buffer, pooledBuffer);
+        } finally {
+            lock.unlock();
+        }
+        return leased(pooledBuffer);
+    }
+    
+    /**
+     * Allocate several buffers to be handed back with {@link #returnToPool} or
+     * {@link #returnBatch}. The pool lock is taken once to take idle buffers for the whole
+     * batch and once to record the new ones, rather than per buffer.
+     * <p>
+     * All or nothing: if any allocation fails, the buffers already taken go back to the pool
+     * and the failure is rethrown.
+     *
+     * @return The buffers, in the order of {@code sizes}
+     */
+    public ByteBuffer[] allocateBatch(int[] sizes) {
+        for (int size : sizes) {
+            if (size < 0) {
+                throw new IllegalArgumentException("Size must be non-negative, got: " + size);
+            }
+        }
+        
+        var pooled = new PooledBuffer[sizes.length];
+        var reused = new boolean[sizes.length];
+        int hits = 0;
+        int misses = 0;
+        lock.lock();
+        try {
+            for (int i = 0; i < sizes.length; i++) {
+                if (sizes[i] == 0 || (slabAllocator != null && slabAllocator.handles(sizes[i]))) {
+                    continue;
+                }
+                var buffer = freeList(sizeClass(sizes[i])).poll();
+                if (buffer != null) {
+                    allocatedBuffers.put(buffer.buffer, buffer);
+                    pooled[i] = buffer;
+                    reused[i] = true;
+                    hits++;
+                } else {
+                    misses++;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        poolHits.addAndGet(hits);
+        poolMisses.addAndGet(misses);
+        
+        // Misses and slab slots are allocated outside the pool lock, as in allocate()
+        try {
+            for (int i = 0; i < sizes.length; i++) {
+                int size = sizes[i];
+                if (size == 0 || reused[i]) {
+                    continue;
+                }
+                if (slabAllocator != null && slabAllocator.handles(size)) {
+                    pooled[i] = allocateSlot(size);
+                    continue;
+                }
+                int poolSize = sizeClass(size);
+                allocations.increment();
+                requestedBytes.add(size);
+                reservedBytes.add(reservedSize(poolSize));
+                sizeHistogram.record(poolSize);
+                pooled[i] = allocatePooled(poolSize, false);
+            }
+        } catch (RuntimeException | Error e) {
+            for (int i = 0; i < sizes.length; i++) {
+                if (reused[i]) {
+                    releaseAllocated(pooled[i].buffer);
+                } else if (pooled[i] != null) {
+                    freeBuffer(pooled[i]);
+                }
+            }
+            log.debug("Batch allocation of {} buffers failed, returned the partial batch", sizes.length);
+            throw e;
+        }
+        
+        lock.lock();
+        try {
+            for (int i = 0; i < sizes.length; i++) {
+                if (pooled[i] != null && !reused[i]) {
+                    allocatedBuffers.put(pooled[i].buffer, pooled[i]);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        
+        var buffers = new ByteBuffer[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            if (sizes[i] == 0) {
+                buffers[i] = ByteBuffer.allocateDirect(0);
+            } else {
+                if (reused[i]) {
+                    allocations.increment();
+                    requestedBytes.add(sizes[i]);
+                    reservedBytes.add(reservedSize(pooled[i].size));
+                    sizeHistogram.record(pooled[i].size);
+                    prepareForReuse(pooled[i]);
+                }
+                buffers[i] = leased(pooled[i]);
+            }
+        }
+        return buffers;
+    }
+    
+    /**
+     * Take an idle buffer of the size class for {@link #allocate} callers without allocating,
+     * for {@link ShardedMemoryPool} stealing from sibling shards.
+     *
+     * @return The buffer, or null if none of this size class is idle
+     */
+    ByteBuffer allocateIfIdle(int size) {
+        if (closed || size <= 0 || (slabAllocator != null && slabAllocator.handles(size))) {
+            return null;
+        }
+        int poolSize = sizeClass(size);
+        var pool = pools.get(poolSize);
+        if (pool == null || pool.size() == 0) {
+            return null;
+        }
+        
+        PooledBuffer buffer;
+        lock.lock();
+        try {
+            buffer = pool.poll();
+            if (buffer == null) {
+                return null;
+            }
+            poolHits.incrementAndGet();
+            allocatedBuffers.put(buffer.buffer, buffer);
+        } finally {
+            lock.unlock();
+        }
+        
+        allocations.increment();
+        requestedBytes.add(size);
+        reservedBytes.add(reservedSize(poolSize));
+        sizeHistogram.record(poolSize);
+        prepareForReuse(buffer);
+        return leased(buffer);
+    }
+    
+    /**
+     * Hand out an allocated buffer reset to full range and native order, whatever its last
+     * holder left. With leak reclaim, hand out a root view whose reachability is tracked; the
+     * pool's own buffer stays reachable through the allocation map. Unlike a duplicate, the
+     * root view is what derived buffers keep alive.
+     */
+    private ByteBuffer leased(PooledBuffer pooledBuffer) {
+        var buffer = pooledBuffer.resetView(ByteOrder.nativeOrder());
+        if (allocatedLeases == null) {
+            return buffer;
+        }
+        var view = pooledBuffer.rootView().order(buffer.order());
+        allocatedLeases.put(MemoryUtil.memAddress0(view), new Lease(this, pooledBuffer, 0, view));
+        return view;
+    }
+    
+    /**
+     * Return a buffer to the pool.
+     */
+    public void returnToPool(ByteBuffer buffer) {
+        returnIfOwned(buffer);
+    }
+    
+    /**
+     * Return several buffers from {@link #allocate} or {@link #allocateBatch}, holding the
+     * pool lock across the batch rather than taking it per buffer.
+     *
+     * @return The number of buffers returned; unknown and duplicate buffers are skipped
+     */
+    public int returnBatch(Collection<ByteBuffer> buffers) {
+        int returned = 0;
+        lock.lock();
+        try {
+            for (var buffer : buffers) {
+                if (returnIfOwned(buffer)) {
+                    returned++;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return returned;
+    }
+    
+    /**
+     * Return a buffer to the pool if it was allocated here.
+     *
+     * @return false if this pool does not own the buffer or it was already returned
+     */
+    boolean returnIfOwned(ByteBuffer buffer) {
+        if (buffer == null) {
+            return false;
+        }
+        if (allocatedLeases != null && buffer.isDirect()) {
+            var lease = allocatedLeases.get(MemoryUtil.memAddress0(buffer));
+            if (lease == null || !allocatedLeases.remove(MemoryUtil.memAddress0(buffer), lease) || !lease.disarm()) {
+                return false;
+            }
+            buffer = lease.buffer.buffer;
+        }
+        return releaseAllocated(buffer);
+    }
+    
+    /**
+     * Release a buffer from the allocation map back to its free list, or free it.
+     */
+    private boolean releaseAllocated(ByteBuffer buffer) {
+        lock.lock();
+        try {
+            PooledBuffer pooledBuffer = allocatedBuffers.remove(buffer);
+            if (pooledBuffer != null && pooledBuffer.backing == Backing.SLAB) {
+                freeBuffer(pooledBuffer);
+            } else if (pooledBuffer != null) {
+                var pool = pools.get(pooledBuffer.size);
+                
+                // Check if we should keep this buffer based on size limits
+                boolean shouldKeep = false;
+                if (maxPoolSizeBytes > 0) {
+                    // Using byte size limit; make room by policy before giving up on this buffer
+                    long limit = maxPoolSizeBytes - pooledBuffer.size;
+                    shouldKeep = getCurrentSize() <= limit || evictDownTo(limit) <= limit;
+                } else {
+                    // Using buffer count limit
+                    shouldKeep = pool != null && pool.size() < config.maxBuffersPerSize;
+                }
+                
+                if (shouldKeep && pool != null) {
+                    // Check if this buffer is already in the pool (duplicate return)
+                    boolean alreadyInPool = pool.contains(pooledBuffer);
+                    
+                    if (!alreadyInPool) {
+                        // Mark the buffer as used when returning to pool so idle time resets
+                        pooledBuffer.markUsed();
+                        if (config.zeroingPolicy == ZeroingPolicy.ASYNC) {
+                            zeroAsync(pooledBuffer, this::offerZeroed);
+                        } else {
+                            pool.offer(pooledBuffer, Integer.MAX_VALUE);
+                            evictToWaterMarks();
+                        }
+                        log.debug("Returned buffer of size {} to pool (pool now has {} buffers, {} bytes total)", 
+                                 pooledBuffer.size, pool.size(), getCurrentSize());
+                    } else {
+                        log.debug("Buffer {} already in pool, ignoring duplicate return", 
+                                 System.identityHashCode(buffer));
+                    }
+                } else {
+                    // Pool is full or doesn't exist, free the buffer
+                    log.debug("Pool limit reached (byte limit: {}, current: {}), freeing buffer of size {}", 
+                             maxPoolSizeBytes > 0 ? maxPoolSizeBytes : "N/A", 
+                             getCurrentSize(), pooledBuffer.size);
+                    freeBuffer(pooledBuffer);
+                }
+            } else {
+                // Buffer was not tracked or already returned
+                log.trace("Buffer {} not tracked or already returned", 
+                         System.identityHashCode(buffer));
+                return false;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+    
+    /**
+     * Completion of an async-zeroed returnToPool(); the byte limit was checked at return.
+     */
+    private void offerZeroed(PooledBuffer buffer) {
+        lock.lock();
+        try {
+            if (closed) {
+                freeBuffer(buffer);
+            } else {
+                freeList(buffer.size).offer(buffer, Integer.MAX_VALUE);
+                evictToWaterMarks();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Capture the allocation site of a leak-tracked buffer, one in every leakSiteSampleRate.
+     */
+    private AllocationSite sampleAllocationSite() {
+        int rate = config.leakSiteSampleRate;
+        if (rate == 0 || (rate > 1 && ThreadLocalRandom.current().nextInt(rate) != 0)) {
+            return null;
+        }
+        return AllocationSite.capture();
+    }
+    
+    /**
+     * Return the buffer of an unreachable borrowed handle or allocated buffer to the pool.
+     * Runs on the cleaner thread.
+     */
+    private void reclaimLeak(Lease lease) {
+        var buffer = lease.buffer;
+        if (lease.generation != 0 && !buffer.release(lease.generation)) {
+            return; // Already taken back by the lease scan
+        }
+        try {
+            if (lease.generation != 0) {
+                returnBuffer(buffer, false);
+                releaseBudget(buffer.size);
+            } else {
+                allocatedLeases.remove(MemoryUtil.memAddress0(buffer.buffer), lease);
+                releaseAllocated(buffer.buffer);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to reclaim leaked buffer of {} bytes", buffer.size, e);
+        }
+        
+        // Counted once the buffer is back, so statistics never show a leak still borrowed
+        if (lease.site != null) {
+            leakSites.computeIfAbsent(lease.site, site -> new LongAdder()).increment();
+            log.warn("Reclaimed leaked buffer of {} bytes allocated at {}", buffer.size, lease.site);
+        } else {
+            log.warn("Reclaimed leaked buffer of {} bytes; set leakSiteSampleRate to capture allocation sites",
+                     buffer.size);
+        }
+        leakedBytes.add(buffer.size);
+        leakedBuffers.increment();
+    }
+    
+    /**
+     * Leaks reclaimed per sampled allocation site. Leaks of unsampled buffers are only counted in
+     * {@link PoolStatistics#leakedBuffers}.
+     */
+    public Map<AllocationSite, Long> getLeakSites() {
+        var sites = new HashMap<AllocationSite, Long>();
+        leakSites.forEach((site, count) -> sites.put(site, count.sum()));
+        return sites;
+    }
+    
+    private ScheduledExecutorService startMaintenance() {
+        var interval = config.maintenanceInterval;
+        if (interval == null || interval.isZero() || interval.isNegative()) {
+            return null;
+        }
+        ThreadFactory factory;
+        if (config.virtualMaintenanceThreads) {
+            factory = Thread.ofVirtual().name("memory-pool-maintenance-", 0).factory();
+        } else {
+            factory = r -> {
+                var thread = new Thread(r, "memory-pool-maintenance");
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+        var scheduler = Executors.newScheduledThreadPool(config.maintenanceThreads, factory);
+        long period = interval.toNanos();
+        // Separate tasks so a second maintenance thread lets them overlap
+        scheduler.scheduleWithFixedDelay(() -> runMaintenance(this::trimIdle), period, period, TimeUnit.NANOSECONDS);
+        scheduler.scheduleWithFixedDelay(() -> runMaintenance(this::finishEviction), period, period, TimeUnit.NANOSECONDS);
+        if (leaseTimeoutNanos > 0) {
+            scheduler.scheduleWithFixedDelay(() -> runMaintenance(this::scanLeases), period, period, TimeUnit.NANOSECONDS);
+        }
+        log.debug("Started memory pool maintenance every {} on {} {} thread(s)",
+            interval, config.maintenanceThreads, config.virtualMaintenanceThreads ? "virtual" : "platform");
+        return scheduler;
+    }
+    
+    private void runMaintenance(Runnable task) {
+        if (closed) {
+            return;
+        }
+        try {
+            task.run();
+            maintenanceRuns.increment();
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; an exception would cancel future runs
+            log.warn("Memory pool maintenance failed", e);
+        }
+    }
+    
+    /**
+     * Run one maintenance pass on the calling thread.
+     * Free lists are trimmed with CAS removals and the pool lock is only tried, so borrowers never wait on it.
+     */
+    public void performMaintenance() {
+        runMaintenance(this::trimIdle);
+        runMaintenance(this::finishEviction);
+        runMaintenance(this::scanLeases);
+    }
+    
+    /**
+     * Check borrowed buffers against their lease deadlines. Each stuck borrow is reported once
+     * and, with {@link Config#reclaimExpiredLeases}, returned to the pool. Walks the borrowed
+     * set without taking the pool lock.
+     *
+     * @return Borrows past their deadline, including any reclaimed by this scan
+     */
+    public int scanLeases() {
+        long now = System.nanoTime();
+        int overdue = 0;
+        for (var buffer : borrowed) {
+            long generation = buffer.lentGeneration();
+            long deadline = buffer.leaseDeadline;
+            if (generation == 0 || deadline == 0 || now - deadline < 0) {
+                continue;
+            }
+            overdue++;
+            long heldMillis = (now - buffer.lastUsed) / 1_000_000;
+            if (!buffer.leaseReported) {
+                buffer.leaseReported = true;
+                expiredLeases.increment();
+                if (!config.reclaimExpiredLeases) {
+                    log.warn("Buffer of {} bytes held for {} ms is past its lease", buffer.size, heldMillis);
+                }
+            }
+            if (config.reclaimExpiredLeases && buffer.release(generation)) {
+                returnBuffer(buffer, false);
+                releaseBudget(buffer.size);
+                reclaimedLeases.increment();
+                log.warn("Reclaimed buffer of {} bytes held for {} ms past its lease", buffer.size, heldMillis);
+            }
+        }
+        overdueBorrows.set(overdue);
+        return overdue;
+    }
+    
+    /**
+     * Ages of outstanding borrows per size class, taken from each buffer's borrow time.
+     * Only pooled and slab borrows are included; out-of-range borrows are not tracked.
+     */
+    public Map<Integer, BorrowAges> getBorrowAges() {
+        long now = System.nanoTime();
+        var histograms = new TreeMap<Integer, LatencyHistogram>();
+        var oldest = new HashMap<Integer, Long>();
+        var overdue = new HashMap<Integer, Integer>();
+        for (var buffer : borrowed) {
+            if (buffer.lentGeneration() == 0) {
+                continue;
+            }
+            long age = now - buffer.lastUsed;
+            long deadline = buffer.leaseDeadline;
+            histograms.computeIfAbsent(buffer.size, size -> new LatencyHistogram(LatencyHistogram.MILLIS_SHIFT)).record(age);
+            oldest.merge(buffer.size, age, Math::max);
+            if (deadline != 0 && now - deadline >= 0) {
+                overdue.merge(buffer.size, 1, Integer::sum);
+            }
+        }
+        var ages = new LinkedHashMap<Integer, BorrowAges>();
+        histograms.forEach((size, histogram) -> ages.put(size, new BorrowAges(
+            size, histogram.snapshot(), oldest.get(size), overdue.getOrDefault(size, 0))));
+        return ages;
+    }
+    
+    /**
+     * Outstanding borrows of one size class.
+     */
+    public static class BorrowAges {
+        public final int sizeClass;
+        public final LatencyHistogram.Snapshot ages; // Millisecond-resolution buckets
+        public final long oldestNanos;
+        public final int overdue;                    // Past their lease deadline
+        
+        public BorrowAges(int sizeClass, LatencyHistogram.Snapshot ages, long oldestNanos, int overdue) {
+            this.sizeClass = sizeClass;
+            this.ages = ages;
+            this.oldestNanos = oldestNanos;
+            this.overdue = overdue;
+        }
+        
+        public long getOutstanding() {
+            return ages.count;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("BorrowAges[size=%d, outstanding=%d, overdue=%d, oldest=%dms, p50<%dms, p99<%dms]",
+                sizeClass, ages.count, overdue, oldestNanos / 1_000_000, ages.getPercentileNanos(50) / 1_000_000,
+                ages.getPercentileNanos(99) / 1_000_000);
+        }
+    }
+    
+    private void trimIdle() {
+        if (magazines != null) {
+            reclaimDeadMagazines();
+        }
+        evictOldBuffers();
+        evictIdlePinned();
+        sizeHistogram.decay();
+        if (config.warmupTopK > 0) {
+            prewarm();
+        }
+    }
+    
+    /**
+     * Continue a water-mark eviction in batches until the low mark is reached or nothing is evictable.
+     */
+    private void finishEviction() {
+        long before;
+        do {
+            before = evictions.sum();
+            evictToWaterMarks();
+        } while (evicting && !closed && evictions.sum() > before);
+    }
+    
+    /**
+     * Evict expired buffers from the pool.
+     */
+    public void evictExpired() {
+        if (magazines != null) {
+            reclaimDeadMagazines();
+        }
+        evictOldBuffers();
+        evictIdlePinned();
+    }
+    
+    /**
+     * Get current size of pool in bytes. A buffer the zeroing worker is moving to a free
+     * list may be counted twice for a moment, since the worker adds it there before
+     * clearing it from the pending bytes; it is never missed.
+     */
+    public long getCurrentSize() {
+        long size = idleBytes.get() + asyncPendingBytes.get();
+        for (var magazine : magazineRegistry) {
+            size += magazine.bytes;
+        }
+        return size;
+    }
+    
+    /**
+     * Get hit rate as a percentage.
+     */
+    public float getHitRate() {
+        long total = allocations.sum();
+        if (total == 0) return 0.0f;
+        return (float) (poolHits.get() + magazineHits.sum()) / total;
+    }
+    
+    /**
+     * Get pool statistics.
+     */
+    public String getStatistics() {
+        float hitRate = allocations.sum() > 0 
+            ? (float) (poolHits.get() + magazineHits.sum()) / allocations.sum() * 100 
+            : 0;
+        
+        return String.format(
+            "MemoryPool[buffers=%d, memory=%s, allocations=%d, hitRate=%.1f%%, borrowed=%d]",
+            totalBuffers.get(),
+            formatBytes(totalMemory.get()),
+            allocations.sum(),
+            hitRate,
+            borrowed.size()
+        );
+    }
+    
+    /**
+     * Get detailed pool statistics.
+     */
+    public PoolStatistics getPoolStatistics() {
+        return PoolStatistics.builder()
+            .totalBuffers(totalBuffers.get())
+            .totalMemoryBytes(totalMemory.get())
+            .totalAllocations(allocations.sum())
+            .poolHits(poolHits.get())
+            .poolMisses(poolMisses.get())
+            .currentlyBorrowed(borrowed.size())
+            .poolSizes(pools.size())
+            .magazineHits(magazineHits.sum())
+            .magazineMisses(magazineMisses.sum())
+            .zeroingPolicy(config.zeroingPolicy)
+            .zeroedBuffers(zeroedBuffers.sum())
+            .zeroedBytes(zeroedBytes.sum())
+            .zeroingNanos(zeroingNanos.sum())
+            .zeroingPendingBytes(asyncPendingBytes.get())
+            .sizeClassScheme(config.sizeClassScheme)
+            .requestedBytes(requestedBytes.sum())
+            .reservedBytes(reservedBytes.sum())
+            .slabStatistics(slabAllocator != null ? slabAllocator.getStatistics() : null)
+            .buddyStatistics(buddyAllocator != null ? buddyAllocator.getStatistics() : null)
+            .evictionPolicy(config.evictionPolicy)
+            .evictionCount(evictions.sum())
+            .evictedBytes(evictedBytes.sum())
+            .maintenanceRuns(maintenanceRuns.sum())
+            .borrowBudgetBytes(borrowBudget)
+            .borrowedBytes(borrowedBytes.get())
+            .budgetWaiters(budgetWaiterCount.get())
+            .blockedBorrows(blockedBorrows.sum())
+            .rejectedBorrows(rejectedBorrows.sum())
+            .timedOutBorrows(timedOutBorrows.sum())
+            .borrowWaitTimes(borrowWaitTimes.snapshot())
+            .prewarmedBuffers(prewarmedBuffers.sum())
+            .warmTargets(Map.copyOf(warmTargets))
+            .hugePageThreshold(config.hugePageThreshold)
+            .hugePageBuffers(hugePageBuffers.get())
+            .hugePageBytes(hugePageBytes.get())
+            .hugePageFallbacks(hugePageFallbacks.sum())
+            .pinnedBudgetBytes(config.pinnedBudgetBytes)
+            .pinnedHits(pinnedHits.sum())
+            .pinnedMisses(pinnedMisses.sum())
+            .pinnedEvictions(pinnedEvictions.sum())
+            .pinnedIdleBuffers(pinnedIdleBuffers.get())
+            .pinnedIdleBytes(pinnedIdleBytes.get())
+            .pinnedActiveBuffers(activePinnedBuffers.size())
+            .leakedBuffers(leakedBuffers.sum())
+            .leakedBytes(leakedBytes.sum())
+            .overdueBorrows(overdueBorrows.get())
+            .expiredLeases(expiredLeases.sum())
+            .reclaimedLeases(reclaimedLeases.sum())
+            .build();
+    }
+    
+    /**
+     * Statistics snapshot for the memory pool.
+     */
+    public static class PoolStatistics {
+        public final int totalBuffers;
+        public final long totalMemoryBytes;
+        public final long totalAllocations;
+        public final long poolHits;
+        public final long poolMisses;
+        public final int currentlyBorrowed;
+        public final int poolSizes;
+        public final long magazineHits;   // Served from the calling thread's magazine
+        public final long magazineMisses; // Magazine empty, fell through to the shared pool
+        public final ZeroingPolicy zeroingPolicy;
+        public final long zeroedBuffers;
+        public final long zeroedBytes;
+        public final long zeroingNanos;   // Time spent in memSet, on the worker for ASYNC
+        public final long zeroingPendingBytes; // Returned buffers queued for ASYNC zeroing
+        public final SizeClassScheme sizeClassScheme;
+        public final long requestedBytes; // Sum of pooled request sizes
+        public final long reservedBytes;  // Sum of backend block sizes served for those requests
+        public final SlabAllocator.SlabStatistics slabStatistics; // Null when slabs are disabled
+        public final BuddyAllocator.BuddyStatistics buddyStatistics; // Null unless the BUDDY backend is used
+        public final EvictionPolicy evictionPolicy;
+        public final long evictionCount;  // Idle-timeout and water-mark evictions
+        public final long evictedBytes;
+        public final long maintenanceRuns; // Completed background or performMaintenance() tasks
+        public final long borrowBudgetBytes; // 0 = unlimited
+        public final long borrowedBytes;     // Bytes of buffers currently borrowed
+        public final int budgetWaiters;      // Timed borrowers queued for budget
+        public final long blockedBorrows;    // Timed borrows that had to wait
+        public final long rejectedBorrows;   // tryBorrow failures and timed-out borrows
+        public final long timedOutBorrows;
+        public final LatencyHistogram.Snapshot borrowWaitTimes; // Timed borrows, including immediate grants
+        public final long prewarmedBuffers;
+        public final Map<Integer, Integer> warmTargets; // Idle buffers retained per size class by adaptive warm-up
+        public final int hugePageThreshold;  // 0 = huge pages disabled
+        public final int hugePageBuffers;    // Live buffers advised for transparent huge pages
+        public final long hugePageBytes;
+        public final long hugePageFallbacks; // Allocations above the threshold left on regular pages
+        public final long pinnedBudgetBytes;  // Limit on idle pinned bytes
+        public final long pinnedHits;         // Pinned allocations served from the pinned pool
+        public final long pinnedMisses;       // Pinned allocations that created and mapped a new buffer
+        public final long pinnedEvictions;    // Idle pinned buffers freed for the budget or idle timeout
+        public final int pinnedIdleBuffers;
+        public final long pinnedIdleBytes;
+        public final int pinnedActiveBuffers;
+        public final long leakedBuffers;      // Unreachable unreturned buffers reclaimed by leak reclaim
+        public final long leakedBytes;
+        public final int overdueBorrows;      // Borrows past their lease deadline at the last scan
+        public final long expiredLeases;      // Borrows found past their deadline, counted once each
+        public final long reclaimedLeases;    // Expired borrows returned to the pool by the lease scan
+        
+        public PoolStatistics(int totalBuffers, long totalMemoryBytes, long totalAllocations,
+                            long poolHits, long poolMisses, int currentlyBorrowed, int poolSizes) {
+            this(builder().totalBuffers(totalBuffers).totalMemoryBytes(totalMemoryBytes)
+                     .totalAllocations(totalAllocations).poolHits(poolHits).poolMisses(poolMisses)
+                     .currentlyBorrowed(currentlyBorrowed).poolSizes(poolSizes));
+        }
+        
+        private PoolStatistics(Builder b) {
+            this.totalBuffers = b.totalBuffers;
+            this.totalMemoryBytes = b.totalMemoryBytes;
+            this.totalAllocations = b.totalAllocations;
+            this.poolHits = b.poolHits;
+            this.poolMisses = b.poolMisses;
+            this.currentlyBorrowed = b.currentlyBorrowed;
+            this.poolSizes = b.poolSizes;
+            this.magazineHits = b.magazineHits;
+            this.magazineMisses = b.magazineMisses;
+            this.zeroingPolicy = b.zeroingPolicy;
+            this.zeroedBuffers = b.zeroedBuffers;
+            this.zeroedBytes = b.zeroedBytes;
+            this.zeroingNanos = b.zeroingNanos;
+            this.zeroingPendingBytes = b.zeroingPendingBytes;
+            this.sizeClassScheme = b.sizeClassScheme;
+            this.requestedBytes = b.requestedBytes;
+            this.reservedBytes = b.reservedBytes;
+            this.slabStatistics = b.slabStatistics;
+            this.buddyStatistics = b.buddyStatistics;
+            this.evictionPolicy = b.evictionPolicy;
+            this.evictionCount = b.evictionCount;
+            this.evictedBytes = b.evictedBytes;
+            this.maintenanceRuns = b.maintenanceRuns;
+            this.borrowBudgetBytes = b.borrowBudgetBytes;
+            this.borrowedBytes = b.borrowedBytes;
+            this.budgetWaiters = b.budgetWaiters;
+            this.blockedBorrows = b.blockedBorrows;
+            this.rejectedBorrows = b.rejectedBorrows;
+            this.timedOutBorrows = b.timedOutBorrows;
+            this.borrowWaitTimes = b.borrowWaitTimes;
+            this.prewarmedBuffers = b.prewarmedBuffers;
+            this.warmTargets = b.warmTargets;
+            this.hugePageThreshold = b.hugePageThreshold;
+            this.hugePageBuffers = b.hugePageBuffers;
+            this.hugePageBytes = b.hugePageBytes;
+            this.hugePageFallbacks = b.hugePageFallbacks;
+            this.pinnedBudgetBytes = b.pinnedBudgetBytes;
+            this.pinnedHits = b.pinnedHits;
+            this.pinnedMisses = b.pinnedMisses;
+            this.pinnedEvictions = b.pinnedEvictions;
+            this.pinnedIdleBuffers = b.pinnedIdleBuffers;
+            this.pinnedIdleBytes = b.pinnedIdleBytes;
+            this.pinnedActiveBuffers = b.pinnedActiveBuffers;
+            this.leakedBuffers = b.leakedBuffers;
+            this.leakedBytes = b.leakedBytes;
+            this.overdueBorrows = b.overdueBorrows;
+            this.expiredLeases = b.expiredLeases;
+            this.reclaimedLeases = b.reclaimedLeases;
+        }
+        
+        public static Builder builder() {
+            return new Builder();
+        }
+        
+        public float getHitRate() {
+            return totalAllocations > 0 ? (float) (poolHits + magazineHits) / totalAllocations : 0;
+        }
+        
+        /**
+         * Fraction of pinned allocations that skipped a device buffer create and map.
+         */
+        public float getPinnedHitRate() {
+            long lookups = pinnedHits + pinnedMisses;
+            return lookups > 0 ? (float) pinnedHits / lookups : 0;
+        }
+        
+        /**
+         * Fraction of magazine lookups served without touching the shared pool.
+         */
+        public float getMagazineHitRate() {
+            long lookups = magazineHits + magazineMisses;
+            return lookups > 0 ? (float) magazineHits / lookups : 0;
+        }
+        
+        public long getTotalMemoryMB() {
+            return totalMemoryBytes / (1024 * 1024);
+        }
+        
+        public long getTotalAllocated() {
+            return totalMemoryBytes;
+        }
+        
+        public long getUsedMemory() {
+            // Memory currently in use (borrowed buffers)
+            return currentlyBorrowed * (totalMemoryBytes / Math.max(totalBuffers, 1));
+        }
+        
+        /**
+         * Average zeroing cost per buffer in nanoseconds under the configured policy.
+         */
+        public double getAverageZeroingNanos() {
+            return zeroedBuffers > 0 ? (double) zeroingNanos / zeroedBuffers : 0;
+        }
+        
+        /**
+         * Zeroing throughput in bytes per second of zeroing time.
+         */
+        public double getZeroingBytesPerSecond() {
+            return zeroingNanos > 0 ? zeroedBytes * 1e9 / zeroingNanos : 0;
+        }
+        
+        /**
+         * Internal fragmentation: fraction of reserved bytes not asked for by callers.
+         */
+        public double getInternalFragmentation() {
+            return reservedBytes > 0 ? 1.0 - (double) requestedBytes / reservedBytes : 0;
+        }
+        
+        public long getWastedBytes() {
+            return reservedBytes - requestedBytes;
+        }
+        
+        public long getHitCount() {
+            return poolHits + magazineHits;
+        }
+        
+        public long getMissCount() {
+            return poolMisses;
+        }
+        
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+        
+        public long getEvictedBytes() {
+            return evictedBytes;
+        }
+        
+        /**
+         * Statistics summed over several pools, e.g. the shards of a {@link ShardedMemoryPool}.
+         * Configured values are taken from the first pool and pool sizes are the largest of any;
+         * slab and buddy statistics are only kept for a single pool.
+         */
+        public static PoolStatistics sum(List<PoolStatistics> stats) {
+            var first = stats.get(0);
+            if (stats.size() == 1) {
+                return first;
+            }
+            
+            var b = builder()
+                .zeroingPolicy(first.zeroingPolicy)
+                .sizeClassScheme(first.sizeClassScheme)
+                .evictionPolicy(first.evictionPolicy)
+                .hugePageThreshold(first.hugePageThreshold);
+            var waitCounts = new long[LatencyHistogram.BUCKETS];
+            long waitNanos = 0;
+            var warmTargets = new HashMap<Integer, Integer>();
+            for (var s : stats) {
+                b.totalBuffers += s.totalBuffers;
+                b.totalMemoryBytes += s.totalMemoryBytes;
+                b.totalAllocations += s.totalAllocations;
+                b.poolHits += s.poolHits;
+                b.poolMisses += s.poolMisses;
+                b.currentlyBorrowed += s.currentlyBorrowed;
+                b.poolSizes = Math.max(b.poolSizes, s.poolSizes);
+                b.magazineHits += s.magazineHits;
+                b.magazineMisses += s.magazineMisses;
+                b.zeroedBuffers += s.zeroedBuffers;
+                b.zeroedBytes += s.zeroedBytes;
+                b.zeroingNanos += s.zeroingNanos;
+                b.zeroingPendingBytes += s.zeroingPendingBytes;
+                b.requestedBytes += s.requestedBytes;
+                b.reservedBytes += s.reservedBytes;
+                b.evictionCount += s.evictionCount;
+                b.evictedBytes += s.evictedBytes;
+                b.maintenanceRuns += s.maintenanceRuns;
+                b.borrowBudgetBytes += s.borrowBudgetBytes;
+                b.borrowedBytes += s.borrowedBytes;
+                b.budgetWaiters += s.budgetWaiters;
+                b.blockedBorrows += s.blockedBorrows;
+                b.rejectedBorrows += s.rejectedBorrows;
+                b.timedOutBorrows += s.timedOutBorrows;
+                for (int i = 0; i < waitCounts.length; i++) {
+                    waitCounts[i] += s.borrowWaitTimes.getCount(i);
+                }
+                waitNanos += s.borrowWaitTimes.totalNanos;
+                b.prewarmedBuffers += s.prewarmedBuffers;
+                s.warmTargets.forEach((size, count) -> warmTargets.merge(size, count, Integer::sum));
+                b.hugePageBuffers += s.hugePageBuffers;
+                b.hugePageBytes += s.hugePageBytes;
+                b.hugePageFallbacks += s.hugePageFallbacks;
+                b.pinnedBudgetBytes += s.pinnedBudgetBytes;
+                b.pinnedHits += s.pinnedHits;
+                b.pinnedMisses += s.pinnedMisses;
+                b.pinnedEvictions += s.pinnedEvictions;
+                b.pinnedIdleBuffers += s.pinnedIdleBuffers;
+                b.pinnedIdleBytes += s.pinnedIdleBytes;
+                b.pinnedActiveBuffers += s.pinnedActiveBuffers;
+                b.leakedBuffers += s.leakedBuffers;
+                b.leakedBytes += s.leakedBytes;
+                b.overdueBorrows += s.overdueBorrows;
+                b.expiredLeases += s.expiredLeases;
+                b.reclaimedLeases += s.reclaimedLeases;
+            }
+            return b.borrowWaitTimes(new LatencyHistogram.Snapshot(waitCounts, waitNanos))
+                    .warmTargets(Map.copyOf(warmTargets))
+                    .build();
+        }
+        
+        /**
+         * Named setters for {@link PoolStatistics}; unset counters are zero.
+         */
+        public static class Builder {
+            private int totalBuffers;
+            private long totalMemoryBytes;
+            private long totalAllocations;
+            private long poolHits;
+            private long poolMisses;
+            private int currentlyBorrowed;
+            private int poolSizes;
+            private long magazineHits;
+            private long magazineMisses;
+            private ZeroingPolicy zeroingPolicy = ZeroingPolicy.EAGER;
+            private long zeroedBuffers;
+            private long zeroedBytes;
+            private long zeroingNanos;
+            private long zeroingPendingBytes;
+            private SizeClassScheme sizeClassScheme = SizeClassScheme.POWER_OF_TWO;
+            private long requestedBytes;
+            private long reservedBytes;
+            private SlabAllocator.SlabStatistics slabStatistics;
+            private BuddyAllocator.BuddyStatistics buddyStatistics;
+            private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+            private long evictionCount;
+            private long evictedBytes;
+            private long maintenanceRuns;
+            private long borrowBudgetBytes;
+            private long borrowedBytes;
+            private int budgetWaiters;
+            private long blockedBorrows;
+            private long rejectedBorrows;
+            private long timedOutBorrows;
+            private LatencyHistogram.Snapshot borrowWaitTimes = new LatencyHistogram().snapshot();
+            private long prewarmedBuffers;
+            private Map<Integer, Integer> warmTargets = Map.of();
+            private int hugePageThreshold;
+            private int hugePageBuffers;
+            private long hugePageBytes;
+            private long hugePageFallbacks;
+            private long pinnedBudgetBytes;
+            private long pinnedHits;
+            private long pinnedMisses;
+            private long pinnedEvictions;
+            private int pinnedIdleBuffers;
+            private long pinnedIdleBytes;
+            private int pinnedActiveBuffers;
+            private long leakedBuffers;
+            private long leakedBytes;
+            private int overdueBorrows;
+            private long expiredLeases;
+            private long reclaimedLeases;
+            
+            private Builder() {
+            }
+            
+            public Builder totalBuffers(int totalBuffers) {
+                this.totalBuffers = totalBuffers;
+                return this;
+            }
+            
+            public Builder totalMemoryBytes(long totalMemoryBytes) {
+                this.totalMemoryBytes = totalMemoryBytes;
+                return this;
+            }
+            
+            public Builder totalAllocations(long totalAllocations) {
+                this.totalAllocations = totalAllocations;
+                return this;
+            }
+            
+            public Builder poolHits(long poolHits) {
+                this.poolHits = poolHits;
+                return this;
+            }
+            
+            public Builder poolMisses(long poolMisses) {
+                this.poolMisses = poolMisses;
+                return this;
+            }
+            
+            public Builder currentlyBorrowed(int currentlyBorrowed) {
+                this.currentlyBorrowed = currentlyBorrowed;
+                return this;
+            }
+            
+            public Builder poolSizes(int poolSizes) {
+                this.poolSizes = poolSizes;
+                return this;
+            }
+            
+            public Builder magazineHits(long magazineHits) {
+                this.magazineHits = magazineHits;
+                return this;
+            }
+            
+            public Builder magazineMisses(long magazineMisses) {
+                this.magazineMisses = magazineMisses;
+                return this;
+            }
+            
+            public Builder zeroingPolicy(ZeroingPolicy zeroingPolicy) {
+                this.zeroingPolicy = zeroingPolicy;
+                return this;
+            }
+            
+            public Builder zeroedBuffers(long zeroedBuffers) {
+                this.zeroedBuffers = zeroedBuffers;
+                return this;
+            }
+            
+            public Builder zeroedBytes(long zeroedBytes) {
+                this.zeroedBytes = zeroedBytes;
+                return this;
+            }
+            
+            public Builder zeroingNanos(long zeroingNanos) {
+                this.zeroingNanos = zeroingNanos;
+                return this;
+            }
+            
+            public Builder zeroingPendingBytes(long zeroingPendingBytes) {
+                this.zeroingPendingBytes = zeroingPendingBytes;
+                return this;
+            }
+            
+            public Builder sizeClassScheme(SizeClassScheme sizeClassScheme) {
+                this.sizeClassScheme = sizeClassScheme;
+                return this;
+            }
+            
+            public Builder requestedBytes(long requestedBytes) {
+                this.requestedBytes = requestedBytes;
+                return this;
+            }
+            
+            public Builder reservedBytes(long reservedBytes) {
+                this.reservedBytes = reservedBytes;
+                return this;
+            }
+            
+            public Builder slabStatistics(SlabAllocator.SlabStatistics slabStatistics) {
+                this.slabStatistics = slabStatistics;
+                return this;
+            }
+            
+            public Builder buddyStatistics(BuddyAllocator.BuddyStatistics buddyStatistics) {
+                this.buddyStatistics = buddyStatistics;
+                return this;
+            }
+            
+            public Builder evictionPolicy(EvictionPolicy evictionPolicy) {
+                this.evictionPolicy = evictionPolicy;
+                return this;
+            }
+            
+            public Builder evictionCount(long evictionCount) {
+                this.evictionCount = evictionCount;
+                return this;
+            }
+            
+            public Builder evictedBytes(long evictedBytes) {
+                this.evictedBytes = evictedBytes;
+                return this;
+            }
+            
+            public Builder maintenanceRuns(long maintenanceRuns) {
+                this.maintenanceRuns = maintenanceRuns;
+                return this;
+            }
+            
+            public Builder borrowBudgetBytes(long borrowBudgetBytes) {
+                this.borrowBudgetBytes = borrowBudgetBytes;
+                return this;
+            }
+            
+            public Builder borrowedBytes(long borrowedBytes) {
+                this.borrowedBytes = borrowedBytes;
+                return this;
+            }
+            
+            public Builder budgetWaiters(int budgetWaiters) {
+                this.budgetWaiters = budgetWaiters;
+                return this;
+            }
+            
+            public Builder blockedBorrows(long blockedBorrows) {
+                this.blockedBorrows = blockedBorrows;
+                return this;
+            }
+            
+            public Builder rejectedBorrows(long rejectedBorrows) {
+                this.rejectedBorrows = rejectedBorrows;
+                return this;
+            }
+            
+            public Builder timedOutBorrows(long timedOutBorrows) {
+                this.timedOutBorrows = timedOutBorrows;
+                return this;
+            }
+            
+            public Builder borrowWaitTimes(LatencyHistogram.Snapshot borrowWaitTimes) {
+                this.borrowWaitTimes = borrowWaitTimes;
+                return this;
+            }
+            
+            public Builder prewarmedBuffers(long prewarmedBuffers) {
+                this.prewarmedBuffers = prewarmedBuffers;
+                return this;
+            }
+            
+            public Builder warmTargets(Map<Integer, Integer> warmTargets) {
+                this.warmTargets = warmTargets;
+                return this;
+            }
+            
+            public Builder hugePageThreshold(int hugePageThreshold) {
+                this.hugePageThreshold = hugePageThreshold;
+                return this;
+            }
+            
+            public Builder hugePageBuffers(int hugePageBuffers) {
+                this.hugePageBuffers = hugePageBuffers;
+                return this;
+            }
+            
+            public Builder hugePageBytes(long hugePageBytes) {
+                this.hugePageBytes = hugePageBytes;
+                return this;
+            }
+            
+            public Builder hugePageFallbacks(long hugePageFallbacks) {
+                this.hugePageFallbacks = hugePageFallbacks;
+                return this;
+            }
+            
+            public Builder pinnedBudgetBytes(long pinnedBudgetBytes) {
+                this.pinnedBudgetBytes = pinnedBudgetBytes;
+                return this;
+            }
+            
+            public Builder pinnedHits(long pinnedHits) {
+                this.pinnedHits = pinnedHits;
+                return this;
+            }
+            
+            public Builder pinnedMisses(long pinnedMisses) {
+                this.pinnedMisses = pinnedMisses;
+                return this;
+            }
+            
+            public Builder pinnedEvictions(long pinnedEvictions) {
+                this.pinnedEvictions = pinnedEvictions;
+                return this;
+            }
+            
+            public Builder pinnedIdleBuffers(int pinnedIdleBuffers) {
+                this.pinnedIdleBuffers = pinnedIdleBuffers;
+                return this;
+            }
+            
+            public Builder pinnedIdleBytes(long pinnedIdleBytes) {
+                this.pinnedIdleBytes = pinnedIdleBytes;
+                return this;
+            }
+            
+            public Builder pinnedActiveBuffers(int pinnedActiveBuffers) {
+                this.pinnedActiveBuffers = pinnedActiveBuffers;
+                return this;
+            }
+            
+            public Builder leakedBuffers(long leakedBuffers) {
+                this.leakedBuffers = leakedBuffers;
+                return this;
+            }
+            
+            public Builder leakedBytes(long leakedBytes) {
+                this.leakedBytes = leakedBytes;
+                return this;
+            }
+            
+            public Builder overdueBorrows(int overdueBorrows) {
+                this.overdueBorrows = overdueBorrows;
+                return this;
+            }
+            
+            public Builder expiredLeases(long expiredLeases) {
+                this.expiredLeases = expiredLeases;
+                return this;
+            }
+            
+            public Builder reclaimedLeases(long reclaimedLeases) {
+                this.reclaimedLeases = reclaimedLeases;
+                return this;
+            }
+            
+            public PoolStatistics build() {
+                return new PoolStatistics(this);
             }
-            return size;
-        } finally {
-            lock.unlock();
-        }
-    }
-    
-    /**
-     * Get hit rate as a percentage.
-     */
-    public float getHitRate() {
-        long total = allocations.get();
-        if (total == 0) return 0.0f;
-        return (float) poolHits.get() / total;
-    }
-    
-    /**
-     * Get pool statistics.
-     */
-    public String getStatistics() {
-        float hitRate = allocations.get() > 0 
-            ? (float) poolHits.get() / allocations.get() * 100 
-            : 0;
-        
-        return String.format(
-            "MemoryPool[buffers=%d, memory=%s, allocations=%d, hitRate=%.1f%%, borrowed=%d]",
-            totalBuffers.get(),
-            formatBytes(totalMemory.get()),
-            allocations.get(),
-            hitRate,
-            borrowed.size()
-        );
-    }
-    
-    /**
-     * Get detailed pool statistics.
-     */
-    public PoolStatistics getPoolStatistics() {
-        lock.lock();
-        try {
-            return new PoolStatistics(
-                totalBuffers.get(),
-                totalMemory.get(),
-                allocations.get(),
-                poolHits.get(),
-                poolMisses.get(),
-                borrowed.size(),
-                pools.size()
-            );
-        } finally {
-            lock.unlock();
-        }
-    }
-    
-    /**
-     * Statistics snapshot for the memory pool.
-     */
-    public static class PoolStatistics {
-        public final int totalBuffers;
-        public final long totalMemoryBytes;
-        public final long totalAllocations;
-        public final long poolHits;
-        public final long poolMisses;
-        public final int currentlyBorrowed;
-        public final int poolSizes;
-        
-        public PoolStatistics(int totalBuffers, long totalMemoryBytes, long totalAllocations,
-                            long poolHits, long poolMisses, int currentlyBorrowed, int poolSizes) {
-            this.totalBuffers = totalBuffers;
-            this.totalMemoryBytes = totalMemoryBytes;
-            this.totalAllocations = totalAllocations;
-            this.poolHits = poolHits;
-            this.poolMisses = poolMisses;
-            this.currentlyBorrowed = currentlyBorrowed;
-            this.poolSizes = poolSizes;
-        }
-        
-        public float getHitRate() {
-            return totalAllocations > 0 ? (float) poolHits / totalAllocations : 0;
-        }
-        
-        public long getTotalMemoryMB() {
-            return totalMemoryBytes / (1024 * 1024);
-        }
-        
-        public long getTotalAllocated() {
-            return totalMemoryBytes;
-        }
-        
-        public long getUsedMemory() {
-            // Memory currently in use (borrowed buffers)
-            return currentlyBorrowed * (totalMemoryBytes / Math.max(totalBuffers, 1));
-        }
-        
-        public long getHitCount() {
-            return poolHits;
-        }
-        
-        public long getMissCount() {
-            return poolMisses;
-        }
-        
-        public long getEvictionCount() {
-            // Not tracked separately, return 0 for now
-            return 0;
         }
     }
     
@@ -939,30 +3478,45 @@ public class MemoryPool implements AutoCloseable {
      * Clear all pooled buffers.
      */
     public void clear() {
+        var pinnedVictims = new ArrayList<PinnedBuffer>();
         lock.lock();
         try {
+            for (var magazine : magazineRegistry) {
+                magazine.drain(false).forEach(this::freeBuffer);
+            }
             for (var pool : pools.values()) {
                 PooledBuffer buffer;
                 while ((buffer = pool.poll()) != null) {
                     freeBuffer(buffer);
                 }
             }
-            pools.clear();
-            
-            log.debug("Cleared memory pool: {}", getStatistics());
+            if (!config.concurrent) {
+                // Lock-free returners may still hold a free list reference, so keep them mapped
+                pools.clear();
+            }
+            for (var pool : pinnedPools.values()) {
+                PinnedBuffer buffer;
+                while ((buffer = pool.pollFirst()) != null) {
+                    pinnedIdleBuffers.decrementAndGet();
+                    pinnedIdleBytes.addAndGet(-buffer.size);
+                    pinnedVictims.add(buffer);
+                }
+            }
         } finally {
             lock.unlock();
         }
+        pinnedVictims.forEach(this::freePinnedBuffer);
+        log.debug("Cleared memory pool: {}", getStatistics());
     }
     
     /**
      * Mark a buffer size as "keep warm" - prevents eviction.
      * Useful for hot paths like FuzzyARTGPU batch operations.
      *
-     * @param size Buffer size to keep warm (will be rounded to power-of-2)
+     * @param size Buffer size to keep warm (will be rounded to its size class)
      */
     public void keepWarm(int size) {
-        int poolSize = roundUpToPowerOf2(size);
+        int poolSize = sizeClass(size);
         lock.lock();
         try {
             keepWarmSizes.add(poolSize);
@@ -975,10 +3529,10 @@ public class MemoryPool implements AutoCloseable {
     /**
      * Clear keep-warm status for a buffer size - allows eviction.
      *
-     * @param size Buffer size to clear (will be rounded to power-of-2)
+     * @param size Buffer size to clear (will be rounded to its size class)
      */
     public void clearKeepWarm(int size) {
-        int poolSize = roundUpToPowerOf2(size);
+        int poolSize = sizeClass(size);
         lock.lock();
         try {
             keepWarmSizes.remove(poolSize);
@@ -988,19 +3542,135 @@ public class MemoryPool implements AutoCloseable {
         }
     }
 
+    /**
+     * Pre-allocate the hottest size classes with the configured top-K and budget.
+     *
+     * @return number of buffers allocated
+     */
+    public int prewarm() {
+        return prewarm(config.warmupTopK, config.warmupBudgetBytes);
+    }
+
+    /**
+     * Pre-allocate idle buffers for the topK most requested size classes.
+     * The budget is split across them by histogram weight, with at least one buffer per class
+     * while the budget lasts. The resulting per-class counts replace the previous warm-up
+     * targets; eviction leaves a class alone while its idle count is within its target.
+     *
+     * @return number of buffers allocated
+     */
+    public int prewarm(int topK, long budgetBytes) {
+        if (closed) {
+            return 0;
+        }
+        var hot = new ArrayList<Map.Entry<Integer, Double>>();
+        for (var entry : sizeHistogram.topK(Integer.MAX_VALUE)) {
+            int size = entry.getKey();
+            if (hot.size() < topK && size >= config.minBufferSize && size <= config.maxBufferSize) {
+                hot.add(entry);
+            }
+        }
+        double totalWeight = hot.stream().mapToDouble(Map.Entry::getValue).sum();
+
+        var targets = new HashMap<Integer, Integer>();
+        long remaining = budgetBytes;
+        for (var entry : hot) {
+            int size = entry.getKey();
+            long share = totalWeight > 0 ? (long) (budgetBytes * (entry.getValue() / totalWeight)) : 0;
+            long count = Math.max(1, share / size);
+            count = Math.min(Math.min(count, remaining / size), config.maxBuffersPerSize);
+            if (count <= 0) {
+                continue;
+            }
+            targets.put(size, (int) count);
+            remaining -= count * size;
+        }
+        warmTargets.keySet().retainAll(targets.keySet());
+        warmTargets.putAll(targets);
+
+        int allocated = 0;
+        for (var target : targets.entrySet()) {
+            int size = target.getKey();
+            int missing = target.getValue() - freeList(size).size();
+            if (missing <= 0) {
+                continue;
+            }
+            var buffers = new ArrayList<PooledBuffer>(missing);
+            for (int i = 0; i < missing; i++) {
+                buffers.add(allocatePooled(size, config.alignBuffers));
+            }
+            releaseToShared(buffers);
+            allocated += missing;
+        }
+        if (allocated > 0) {
+            prewarmedBuffers.add(allocated);
+            log.debug("Pre-warmed {} buffers for size classes {}", allocated, targets);
+        }
+        return allocated;
+    }
+
+    private boolean retainedForWarmup(int size, FreeList pool) {
+        Integer target = warmTargets.get(size);
+        return target != null && pool.size() <= target;
+    }
+
+    /**
+     * Decayed histogram of requested size classes, heaviest classes included.
+     */
+    public Map<Integer, Double> getSizeHistogram() {
+        return sizeHistogram.snapshot();
+    }
+
+    /**
+     * Save the size histogram so a later run can pre-warm from it.
+     */
+    public void saveSizeHistogram(java.nio.file.Path file) throws java.io.IOException {
+        sizeHistogram.save(file);
+    }
+
+    /**
+     * Add a histogram saved by {@link #saveSizeHistogram} to this pool's weights.
+     */
+    public void loadSizeHistogram(java.nio.file.Path file) throws java.io.IOException {
+        mergeSizeHistogram(SizeClassHistogram.read(file));
+    }
+
+    /**
+     * Add weights to the size histogram, for {@link ShardedMemoryPool} splitting one profile
+     * between its shards.
+     */
+    void mergeSizeHistogram(Map<Integer, Double> weights) {
+        sizeHistogram.merge(weights);
+    }
+
+    private void loadWarmupProfile() {
+        var profile = config.warmupProfile;
+        if (profile == null || !java.nio.file.Files.exists(profile)) {
+            return;
+        }
+        try {
+            loadSizeHistogram(profile);
+            log.debug("Loaded size histogram from {}", profile);
+        } catch (java.io.IOException e) {
+            // A stale or corrupt profile only costs a cold start
+            log.warn("Failed to load size histogram from {}", profile, e);
+        }
+    }
+
     /**
      * Allocate a pinned memory buffer for efficient GPU DMA transfers.
      * Pinned buffers use CL_MEM_ALLOC_HOST_PTR for zero-copy transfers.
-     * Supports pooling and reuse for frequently-used sizes.
+     * Closed buffers are pooled per (context, access, size class) and reused without a new
+     * create and map; idle ones are evicted under {@link Config#pinnedBudgetBytes}.
      *
      * @param size Size in bytes
-     * @param context OpenCL context handle (currently unused, kept for API consistency)
+     * @param context OpenCL context handle (0 for the pool's own context)
      * @param access Access pattern (READ_ONLY, WRITE_ONLY, READ_WRITE)
      * @return PinnedBuffer combining host and GPU buffers
      * @throws IllegalStateException if GPU not configured (context/queue are 0)
      */
     public PinnedBuffer pinnedAllocate(int size, long context, AccessType access) {
-        if (gpuContext == 0 || gpuQueue == 0) {
+        if (pinnedProvider == null) {
             throw new IllegalStateException("Cannot allocate pinned memory: GPU not configured. " +
                 "Use MemoryPool(Config, ResourceTracker, long context, long queue) constructor.");
         }
@@ -1008,85 +3678,53 @@ public class MemoryPool implements AutoCloseable {
         if (size <= 0) {
             throw new IllegalArgumentException("Size must be positive, got: " + size);
         }
+        Objects.requireNonNull(access, "access");
 
-        allocations.incrementAndGet();
+        allocations.increment();
 
-        // Round up to power of 2 for better pooling
-        int poolSize = roundUpToPowerOf2(size);
+        // Round up to the size class for better pooling
+        var key = new PinnedKey(context != 0 ? context : gpuContext, access, sizeClass(size));
 
+        PinnedBuffer pooledBuffer;
         lock.lock();
         try {
-            // Check pool for existing buffer
-            var pool = pinnedPools.computeIfAbsent(poolSize, k -> new ConcurrentLinkedDeque<>());
-            var pooledBuffer = pool.poll();
-
+            // Most recently returned first: its pages are the likeliest to still be resident
+            var pool = pinnedPools.get(key);
+            pooledBuffer = pool != null ? pool.pollLast() : null;
             if (pooledBuffer != null) {
-                poolHits.incrementAndGet();
-                // Reset closed flag so the buffer can be closed again after use
-                pooledBuffer.closed = false;
-                activePinnedBuffers.add(pooledBuffer);
-                log.debug("Reusing pinned buffer: size={}, access={}", size, access);
-                return pooledBuffer;
-            }
-
-            // Need to allocate new pinned buffer
-            poolMisses.incrementAndGet();
-
-            // Map AccessType to OpenCL flags
-            int clFlags = switch (access) {
-                case READ_ONLY -> org.lwjgl.opencl.CL10.CL_MEM_READ_ONLY |
-                                 org.lwjgl.opencl.CL10.CL_MEM_ALLOC_HOST_PTR;
-                case WRITE_ONLY -> org.lwjgl.opencl.CL10.CL_MEM_WRITE_ONLY |
-                                  org.lwjgl.opencl.CL10.CL_MEM_ALLOC_HOST_PTR;
-                case READ_WRITE -> org.lwjgl.opencl.CL10.CL_MEM_READ_WRITE |
-                                  org.lwjgl.opencl.CL10.CL_MEM_ALLOC_HOST_PTR;
-            };
-
-            // Create GPU buffer with pinned memory (ALLOC_HOST_PTR)
-            var gpuBuffer = com.hellblazer.luciferase.resource.opencl.CLBufferHandle.create(
-                gpuContext,
-                poolSize,
-                clFlags
-            );
-
-            // Map the GPU buffer to get the pinned host pointer
-            try (var stack = org.lwjgl.system.MemoryStack.stackPush()) {
-                var errorCode = stack.mallocInt(1);
-                int mapFlags = switch (access) {
-                    case READ_ONLY -> org.lwjgl.opencl.CL10.CL_MAP_WRITE;   // Host writes, device reads
-                    case WRITE_ONLY -> org.lwjgl.opencl.CL10.CL_MAP_READ;   // Host reads, device writes
-                    case READ_WRITE -> org.lwjgl.opencl.CL10.CL_MAP_READ |
-                                      org.lwjgl.opencl.CL10.CL_MAP_WRITE;
-                };
-
-                var pinnedHost = gpuBuffer.enqueueMap(
-                    gpuQueue,
-                    true, // blocking
-                    mapFlags,
-                    0,
-                    poolSize,
-                    null,
-                    null,
-                    errorCode
-                );
-
-                if (errorCode.get(0) != org.lwjgl.opencl.CL10.CL_SUCCESS) {
-                    gpuBuffer.close();
-                    throw new RuntimeException("Failed to map pinned buffer: " + errorCode.get(0));
-                }
-
-                var newBuffer = new PinnedBuffer(pinnedHost, gpuBuffer, poolSize);
-                activePinnedBuffers.add(newBuffer);
-
-                totalBuffers.incrementAndGet();
-                totalMemory.addAndGet(poolSize);
-
-                log.debug("Allocated new pinned buffer: size={}, access={}", poolSize, access);
-                return newBuffer;
+                pinnedIdleBuffers.decrementAndGet();
+                pinnedIdleBytes.addAndGet(-pooledBuffer.size);
             }
         } finally {
             lock.unlock();
         }
+
+        if (pooledBuffer != null) {
+            try {
+                pooledBuffer.allocation.remap();
+            } catch (RuntimeException e) {
+                freePinnedBuffer(pooledBuffer);
+                throw e;
+            }
+            poolHits.incrementAndGet();
+            pinnedHits.increment();
+            // Reset closed flag so the buffer can be closed again after use
+            pooledBuffer.closed = false;
+            activePinnedBuffers.add(pooledBuffer);
+            log.debug("Reusing pinned buffer: size={}, access={}", size, access);
+            return pooledBuffer;
+        }
+
+        // Need to allocate new pinned buffer; create and map outside the lock
+        poolMisses.incrementAndGet();
+        pinnedMisses.increment();
+        var newBuffer = new PinnedBuffer(key, pinnedProvider.allocate(key.context(), access, key.sizeClass()));
+        totalBuffers.incrementAndGet();
+        totalMemory.addAndGet(newBuffer.size);
+        activePinnedBuffers.add(newBuffer);
+
+        log.debug("Allocated new pinned buffer: size={}, access={}", newBuffer.size, access);
+        return newBuffer;
     }
 
     /**
@@ -1099,24 +3737,85 @@ public class MemoryPool implements AutoCloseable {
             return;
         }
 
+        // Unmapping and releasing CL buffers can block, so victims are freed after the lock
+        var victims = new ArrayList<PinnedBuffer>();
         lock.lock();
         try {
             activePinnedBuffers.remove(buffer);
 
-            var pool = pinnedPools.get(buffer.size);
-            if (pool != null && pool.size() < config.maxBuffersPerSize) {
-                pool.offer(buffer);
-                log.debug("Returned pinned buffer to pool: size={}", buffer.size);
-            } else {
+            var pool = pinnedPools.computeIfAbsent(buffer.key, k -> new ArrayDeque<>());
+            if (buffer.size > config.pinnedBudgetBytes || pool.size() >= config.maxBuffersPerSize) {
                 // Pool full, free the buffer
-                buffer.cleanup();
-                totalBuffers.decrementAndGet();
-                totalMemory.addAndGet(-buffer.size);
-                log.debug("Freed pinned buffer (pool full): size={}", buffer.size);
+                victims.add(buffer);
+                log.debug("Freeing pinned buffer (pool full): size={}", buffer.size);
+            } else {
+                evictPinnedDownTo(config.pinnedBudgetBytes - buffer.size, victims);
+                buffer.lastReturnNanos = System.nanoTime();
+                pool.addLast(buffer);
+                pinnedIdleBuffers.incrementAndGet();
+                pinnedIdleBytes.addAndGet(buffer.size);
+                log.debug("Returned pinned buffer to pool: size={}", buffer.size);
+            }
+        } finally {
+            lock.unlock();
+        }
+        victims.forEach(this::freePinnedBuffer);
+    }
+
+    /**
+     * Evict the least recently returned idle pinned buffers until at most {@code targetBytes} remain,
+     * adding them to {@code victims} to be freed once the caller releases the lock.
+     */
+    private void evictPinnedDownTo(long targetBytes, List<PinnedBuffer> victims) {
+        while (pinnedIdleBytes.get() > targetBytes) {
+            ArrayDeque<PinnedBuffer> oldest = null;
+            for (var pool : pinnedPools.values()) {
+                var head = pool.peekFirst();
+                if (head != null && (oldest == null || head.lastReturnNanos < oldest.peekFirst().lastReturnNanos)) {
+                    oldest = pool;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            evictPinned(oldest.pollFirst(), victims);
+        }
+    }
+
+    /**
+     * Evict pinned buffers idle for longer than the pool's idle timeout; skipped if the lock is busy.
+     */
+    private void evictIdlePinned() {
+        if (!lock.tryLock()) {
+            return;
+        }
+        var victims = new ArrayList<PinnedBuffer>();
+        try {
+            long now = System.nanoTime();
+            for (var pool : pinnedPools.values()) {
+                PinnedBuffer head;
+                while ((head = pool.peekFirst()) != null && now - head.lastReturnNanos > maxIdleTimeNanos) {
+                    evictPinned(pool.pollFirst(), victims);
+                }
             }
         } finally {
             lock.unlock();
         }
+        victims.forEach(this::freePinnedBuffer);
+    }
+
+    private void evictPinned(PinnedBuffer buffer, List<PinnedBuffer> victims) {
+        pinnedIdleBuffers.decrementAndGet();
+        pinnedIdleBytes.addAndGet(-buffer.size);
+        victims.add(buffer);
+        pinnedEvictions.increment();
+        log.trace("Evicted idle pinned buffer: size={}, access={}", buffer.size, buffer.key.access());
+    }
+
+    private void freePinnedBuffer(PinnedBuffer buffer) {
+        buffer.cleanup();
+        totalBuffers.decrementAndGet();
+        totalMemory.addAndGet(-buffer.size);
     }
 
     @Override
@@ -1127,6 +3826,43 @@ public class MemoryPool implements AutoCloseable {
 
         closed = true;
 
+        if (config.warmupProfile != null) {
+            try {
+                saveSizeHistogram(config.warmupProfile);
+            } catch (java.io.IOException e) {
+                log.warn("Failed to save size histogram to {}", config.warmupProfile, e);
+            }
+        }
+
+        // Wake timed borrowers; they see the pool closed and give up
+        budgetLock.lock();
+        try {
+            budgetWaiters.forEach(waiter -> waiter.ready.signal());
+        } finally {
+            budgetLock.unlock();
+        }
+
+        if (maintenanceScheduler != null) {
+            maintenanceScheduler.shutdownNow();
+            try {
+                maintenanceScheduler.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Let in-flight async zeroing finish first; completions take the lock to free their buffers
+        if (zeroingExecutor != null) {
+            zeroingExecutor.shutdown();
+            try {
+                if (!zeroingExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    log.warn("Zeroing worker did not finish within 5s, {} bytes pending", asyncPendingBytes.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
         lock.lock();
         try {
             // Log warning if buffers still borrowed
@@ -1139,16 +3875,27 @@ public class MemoryPool implements AutoCloseable {
                 log.warn("Closing pool with {} pinned buffers still active", activePinnedBuffers.size());
             }
 
+            // Retire magazines so late returns from live threads bypass them
+            for (var magazine : magazineRegistry) {
+                magazine.drain(true).forEach(this::freeBuffer);
+            }
+            magazineRegistry.clear();
+
             // Free all pooled buffers
             clear();
 
-            // Free borrowed buffers (leak prevention)
+            // Free borrowed buffers (leak prevention); a racing return frees only if it wins the remove
             for (var buffer : borrowed) {
-                freeBuffer(buffer);
+                if (borrowed.remove(buffer)) {
+                    freeBuffer(buffer);
+                }
             }
-            borrowed.clear();
 
-            // Free allocated buffers
+            // Free allocated buffers; their leases must not reclaim into the closed pool
+            if (allocatedLeases != null) {
+                allocatedLeases.values().forEach(Lease::disarm);
+                allocatedLeases.clear();
+            }
             for (var buffer : allocatedBuffers.values()) {
                 freeBuffer(buffer);
             }
@@ -1163,15 +3910,24 @@ public class MemoryPool implements AutoCloseable {
             // Free pooled pinned buffers
             for (var pool : pinnedPools.values()) {
                 PinnedBuffer buffer;
-                while ((buffer = pool.poll()) != null) {
+                while ((buffer = pool.pollFirst()) != null) {
                     buffer.cleanup();
                 }
             }
             pinnedPools.clear();
+            pinnedIdleBuffers.set(0);
+            pinnedIdleBytes.set(0);
+
+            if (slabAllocator != null) {
+                slabAllocator.close();
+            }
+            if (buddyAllocator != null) {
+                buddyAllocator.close();
+            }
 
             log.debug("Closed memory pool: total allocations={}, hit rate={}%",
-                allocations.get(),
-                allocations.get() > 0 ? String.format("%.1f", (float) poolHits.get() / allocations.get() * 100) : "0.0");
+                allocations.sum(),
+                allocations.sum() > 0 ? String.format("%.1f", getHitRate() * 100) : "0.0");
 
         } finally {
             lock.unlock();
@@ -6,7 +6,10 @@ import org.lwjgl.system.MemoryUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.foreign.MemorySegment;
 import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Objects;
 
 /**
  * RAII handle for native memory allocated via LWJGL.
@@ -18,6 +21,9 @@ public class NativeMemoryHandle extends ResourceHandle<ByteBuffer> {
     private final long address;
     private final long size;
     private final boolean aligned;
+    private final boolean hugePages;
+    private final boolean readOnly;
+    private volatile MemorySegment segment; // Created on first asSegment()
     
     /**
      * Allocate native memory.
@@ -30,6 +36,7 @@ public class NativeMemoryHandle extends ResourceHandle<ByteBuffer> {
         if (size <= 0) {
             throw new IllegalArgumentException("Size must be positive: " + size);
         }
+        checkBufferSize(size);
         
         var buffer = MemoryUtil.memAlloc((int) size);
         var address = MemoryUtil.memAddress(buffer);
@@ -51,6 +58,7 @@ public class NativeMemoryHandle extends ResourceHandle<ByteBuffer> {
         if (size <= 0) {
             throw new IllegalArgumentException("Size must be positive: " + size);
         }
+        checkBufferSize(size);
         if (alignment <= 0 || (alignment & (alignment - 1)) != 0) {
             throw new IllegalArgumentException("Alignment must be power of 2: " + alignment);
         }
@@ -65,7 +73,32 @@ public class NativeMemoryHandle extends ResourceHandle<ByteBuffer> {
     }
     
     /**
-     * Wrap an existing ByteBuffer in a managed handle.
+     * Allocate native memory on a huge page boundary and advise the kernel to back it with
+     * transparent huge pages. Falls back to regular pages where THP is unavailable.
+     * 
+     * @param size Size in bytes
+     * @param tracker Optional resource tracker
+     * @return A new aligned memory handle
+     * @see #isHugePageBacked()
+     */
+    public static NativeMemoryHandle allocateHugePages(long size, ResourceTracker tracker) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be positive: " + size);
+        }
+        checkBufferSize(size);
+        
+        var buffer = MemoryUtil.memAlignedAlloc(HugePages.PAGE_SIZE, (int) size);
+        var address = MemoryUtil.memAddress(buffer);
+        var advised = HugePages.advise(address, size);
+        
+        log.trace("Allocated {} bytes of {} native memory at address 0x{}", 
+            size, advised ? "huge page" : "huge page aligned", Long.toHexString(address));
+        
+        return new NativeMemoryHandle(buffer, address, size, true, advised, tracker);
+    }
+    
+    /**
+     * Wrap an existing ByteBuffer in a managed handle. A read-only buffer gives a read-only handle.
      * 
      * @param buffer The buffer to wrap
      * @param tracker Optional resource tracker
@@ -85,11 +118,25 @@ public class NativeMemoryHandle extends ResourceHandle<ByteBuffer> {
         return new NativeMemoryHandle(buffer, address, size, false, tracker);
     }
     
+    private static void checkBufferSize(long size) {
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                "Size exceeds ByteBuffer capacity: " + size + "; use SegmentMemoryHandle for larger allocations");
+        }
+    }
+    
     protected NativeMemoryHandle(ByteBuffer buffer, long address, long size, boolean aligned, ResourceTracker tracker) {
+        this(buffer, address, size, aligned, false, tracker);
+    }
+    
+    protected NativeMemoryHandle(ByteBuffer buffer, long address, long size, boolean aligned, boolean hugePages,
+                                 ResourceTracker tracker) {
         super(buffer, tracker);
         this.address = address;
         this.size = size;
         this.aligned = aligned;
+        this.hugePages = hugePages;
+        this.readOnly = buffer.isReadOnly();
     }
     
     /**
@@ -122,16 +169,226 @@ public class NativeMemoryHandle extends ResourceHandle<ByteBuffer> {
         return aligned;
     }
     
+    /**
+     * Check if the kernel accepted transparent huge page advice for this memory.
+     * 
+     * @return true if advised for huge pages
+     */
+    public boolean isHugePageBacked() {
+        return hugePages;
+    }
+    
+    /**
+     * Check if this memory rejects writes, as for read-only file mappings.
+     * 
+     * @return true if backed by a read-only buffer
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+    
     /**
      * Clear the memory (set to zero).
      */
     public void clear() {
+        checkWritable();
         var buffer = get();
         if (buffer != null) {
             MemoryUtil.memSet(buffer, 0);
         }
     }
     
+    /**
+     * Fill a range with a byte value.
+     * 
+     * @param offset Offset in bytes
+     * @param length Length in bytes
+     * @param value Byte value
+     */
+    public void fill(long offset, long length, byte value) {
+        checkWritable();
+        MemoryUtil.memSet(rangeAddress(offset, length), value, length);
+    }
+    
+    /**
+     * Fill consecutive ints with a value.
+     * 
+     * @param offset Offset in bytes
+     * @param count Number of ints
+     * @param value Int value
+     */
+    public void fillInts(long offset, long count, int value) {
+        checkWritable();
+        NativeMemoryOps.fillInts(rangeAddress(offset, elements(count, Integer.BYTES)), count, value);
+    }
+    
+    /**
+     * Fill consecutive floats with a value.
+     * 
+     * @param offset Offset in bytes
+     * @param count Number of floats
+     * @param value Float value
+     */
+    public void fillFloats(long offset, long count, float value) {
+        fillInts(offset, count, Float.floatToRawIntBits(value));
+    }
+    
+    /**
+     * Compare a range of this memory with a range of another.
+     * 
+     * @param offset Offset in this memory
+     * @param other Memory to compare with
+     * @param otherOffset Offset in the other memory
+     * @param length Number of bytes to compare
+     * @return Offset of the first differing byte relative to the range start, or -1 if equal
+     */
+    public long mismatch(long offset, NativeMemoryHandle other, long otherOffset, long length) {
+        rangeAddress(offset, length);
+        other.rangeAddress(otherOffset, length);
+        return NativeMemoryOps.mismatch(asSegment(), offset, other.asSegment(), otherOffset, length);
+    }
+    
+    /**
+     * Check whether two handles hold the same bytes.
+     */
+    public boolean contentEquals(NativeMemoryHandle other) {
+        return size == other.size && mismatch(0, other, 0, size) < 0;
+    }
+    
+    /**
+     * CRC32C of a range, hardware accelerated where the CPU supports it.
+     * 
+     * @param offset Offset in bytes
+     * @param length Length in bytes
+     * @return The checksum
+     */
+    public int crc32c(long offset, long length) {
+        return NativeMemoryOps.crc32c(rangeAddress(offset, length), (int) length);
+    }
+    
+    /**
+     * 64-bit xxHash of a range; allocation-free and faster than CRC32C without hardware support.
+     * 
+     * @param offset Offset in bytes
+     * @param length Length in bytes
+     * @param seed Hash seed
+     * @return The hash
+     */
+    public long xxHash64(long offset, long length, long seed) {
+        return NativeMemoryOps.xxHash64(rangeAddress(offset, length), length, seed);
+    }
+    
+    /**
+     * Write ints from an array, {@code stride} bytes apart (4 for a packed array).
+     * 
+     * @param offset Offset of the first element in bytes
+     * @param src Source array
+     * @param srcIndex First array index
+     * @param count Number of elements
+     * @param stride Distance between elements in bytes
+     */
+    public void putInts(long offset, int[] src, int srcIndex, int count, int stride) {
+        checkWritable();
+        Objects.checkFromIndexSize(srcIndex, count, src.length);
+        NativeMemoryOps.putInts(stridedAddress(offset, count, stride, Integer.BYTES), src, srcIndex, count, stride);
+    }
+    
+    /**
+     * Read ints into an array, {@code stride} bytes apart (4 for a packed array).
+     * 
+     * @param offset Offset of the first element in bytes
+     * @param dst Destination array
+     * @param dstIndex First array index
+     * @param count Number of elements
+     * @param stride Distance between elements in bytes
+     */
+    public void getInts(long offset, int[] dst, int dstIndex, int count, int stride) {
+        Objects.checkFromIndexSize(dstIndex, count, dst.length);
+        NativeMemoryOps.getInts(stridedAddress(offset, count, stride, Integer.BYTES), dst, dstIndex, count, stride);
+    }
+    
+    /**
+     * Write floats from an array, {@code stride} bytes apart (4 for a packed array).
+     * 
+     * @param offset Offset of the first element in bytes
+     * @param src Source array
+     * @param srcIndex First array index
+     * @param count Number of elements
+     * @param stride Distance between elements in bytes
+     */
+    public void putFloats(long offset, float[] src, int srcIndex, int count, int stride) {
+        checkWritable();
+        Objects.checkFromIndexSize(srcIndex, count, src.length);
+        NativeMemoryOps.putFloats(stridedAddress(offset, count, stride, Float.BYTES), src, srcIndex, count, stride);
+    }
+    
+    /**
+     * Read floats into an array, {@code stride} bytes apart (4 for a packed array).
+     * 
+     * @param offset Offset of the first element in bytes
+     * @param dst Destination array
+     * @param dstIndex First array index
+     * @param count Number of elements
+     * @param stride Distance between elements in bytes
+     */
+    public void getFloats(long offset, float[] dst, int dstIndex, int count, int stride) {
+        Objects.checkFromIndexSize(dstIndex, count, dst.length);
+        NativeMemoryOps.getFloats(stridedAddress(offset, count, stride, Float.BYTES), dst, dstIndex, count, stride);
+    }
+    
+    /**
+     * Reverse the byte order of consecutive elements in place, e.g. to convert big-endian file
+     * data for upload.
+     * 
+     * @param offset Offset in bytes
+     * @param count Number of elements
+     * @param elementSize Element size in bytes: 2, 4 or 8
+     */
+    public void swapBytes(long offset, long count, int elementSize) {
+        checkWritable();
+        if (elementSize != Short.BYTES && elementSize != Integer.BYTES && elementSize != Long.BYTES) {
+            throw new IllegalArgumentException("Element size must be 2, 4 or 8, got: " + elementSize);
+        }
+        NativeMemoryOps.swapBytes(rangeAddress(offset, elements(count, elementSize)), count, elementSize);
+    }
+    
+    /**
+     * Raw writes to a read-only mapping would fault the process rather than throw.
+     */
+    private void checkWritable() {
+        if (readOnly) {
+            throw new ReadOnlyBufferException();
+        }
+    }
+    
+    /**
+     * Validate a byte range and return its start address.
+     */
+    private long rangeAddress(long offset, long length) {
+        if (offset < 0 || length < 0 || offset > size - length) {
+            throw new IllegalArgumentException("Range out of bounds: offset=" + offset + ", length=" + length + ", size=" + size);
+        }
+        return getAddress() + offset;
+    }
+    
+    private static long elements(long count, int elementSize) {
+        if (count < 0 || count > Long.MAX_VALUE / elementSize) {
+            throw new IllegalArgumentException("Invalid element count: " + count);
+        }
+        return count * elementSize;
+    }
+    
+    /**
+     * Validate a strided range of {@code count} elements and return its start address.
+     */
+    private long stridedAddress(long offset, int count, int stride, int elementSize) {
+        if (stride < elementSize) {
+            throw new IllegalArgumentException("Stride must be at least " + elementSize + " bytes, got: " + stride);
+        }
+        long extent = count == 0 ? 0 : (long) (count - 1) * stride + elementSize;
+        return rangeAddress(offset, extent);
+    }
+    
     /**
      * Copy data from this memory to another.
      * 
@@ -144,6 +401,7 @@ public class NativeMemoryHandle extends ResourceHandle<ByteBuffer> {
         if (!isValid() || !dst.isValid()) {
             throw new IllegalStateException("Cannot copy between closed memory handles");
         }
+        dst.checkWritable();
         
         if (srcOffset < 0 || srcOffset + length > size) {
             throw new IllegalArgumentException("Source range out of bounds");
@@ -175,6 +433,28 @@ public class NativeMemoryHandle extends ResourceHandle<ByteBuffer> {
         return MemoryUtil.memSlice(buffer, (int) offset, (int) length);
     }
     
+    /**
+     * Zero-copy MemorySegment view of this memory, for bounds-checked access with long offsets.
+     * The view does not own the memory and must not be used after this handle is closed.
+     * 
+     * @return A segment covering the whole allocation
+     */
+    public MemorySegment asSegment() {
+        if (!isValid()) {
+            throw new IllegalStateException("Cannot access segment of closed memory handle");
+        }
+        var view = segment;
+        if (view == null) {
+            // Built from a fresh view so the buffer's current position and limit don't matter
+            view = size == 0 ? MemorySegment.NULL : MemorySegment.ofBuffer(MemoryUtil.memByteBuffer(address, (int) size));
+            if (readOnly) {
+                view = view.asReadOnly();
+            }
+            segment = view;
+        }
+        return view;
+    }
+    
     @Override
     protected void doCleanup(ByteBuffer buffer) {
         if (aligned) {
@@ -0,0 +1,201 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import org.lwjgl.system.MemoryUtil;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32C;
+
+/**
+ * Bulk operations on raw native addresses; all but {@link #crc32c} are allocation-free.
+ * <p>
+ * Byte fills and copies go to native memset/memcpy, comparison to the JDK's vectorized mismatch
+ * intrinsic, and the remaining loops are simple counted loops over Unsafe accesses that C2
+ * unrolls and, where it can, vectorizes. Nothing here checks bounds; {@link NativeMemoryHandle}
+ * validates ranges before delegating.
+ */
+public final class NativeMemoryOps {
+    private static final int SMALL_FILL = 16; // Elements written one by one before doubling copies pay off
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+    private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME64_3 = 0x165667B19E3779F9L;
+    private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+    private NativeMemoryOps() {
+    }
+
+    /**
+     * Fill {@code count} ints with a value. The first elements are written directly and the rest
+     * by copying the filled prefix onto itself in doubling chunks, so the work is done by memcpy.
+     */
+    public static void fillInts(long address, long count, int value) {
+        long small = Math.min(count, SMALL_FILL);
+        for (long i = 0; i < small; i++) {
+            MemoryUtil.memPutInt(address + i * Integer.BYTES, value);
+        }
+        long total = count * Integer.BYTES;
+        long filled = small * Integer.BYTES;
+        while (filled < total) {
+            long chunk = Math.min(filled, total - filled);
+            MemoryUtil.memCopy(address, address + filled, chunk);
+            filled += chunk;
+        }
+    }
+
+    /**
+     * Offset of the first differing byte between two ranges, or -1 if they are equal.
+     */
+    public static long mismatch(MemorySegment a, long aOffset, MemorySegment b, long bOffset, long length) {
+        return MemorySegment.mismatch(a, aOffset, aOffset + length, b, bOffset, bOffset + length);
+    }
+
+    /**
+     * Copy ints from an array to native memory, {@code stride} bytes apart.
+     */
+    public static void putInts(long address, int[] src, int srcIndex, int count, long stride) {
+        for (int i = 0; i < count; i++) {
+            MemoryUtil.memPutInt(address + i * stride, src[srcIndex + i]);
+        }
+    }
+
+    /**
+     * Copy ints from native memory, {@code stride} bytes apart, to an array.
+     */
+    public static void getInts(long address, int[] dst, int dstIndex, int count, long stride) {
+        for (int i = 0; i < count; i++) {
+            dst[dstIndex + i] = MemoryUtil.memGetInt(address + i * stride);
+        }
+    }
+
+    /**
+     * Copy floats from an array to native memory, {@code stride} bytes apart.
+     */
+    public static void putFloats(long address, float[] src, int srcIndex, int count, long stride) {
+        for (int i = 0; i < count; i++) {
+            MemoryUtil.memPutFloat(address + i * stride, src[srcIndex + i]);
+        }
+    }
+
+    /**
+     * Copy floats from native memory, {@code stride} bytes apart, to an array.
+     */
+    public static void getFloats(long address, float[] dst, int dstIndex, int count, long stride) {
+        for (int i = 0; i < count; i++) {
+            dst[dstIndex + i] = MemoryUtil.memGetFloat(address + i * stride);
+        }
+    }
+
+    /**
+     * Reverse the byte order of {@code count} consecutive elements of 2, 4 or 8 bytes in place.
+     */
+    public static void swapBytes(long address, long count, int elementSize) {
+        switch (elementSize) {
+            case Short.BYTES -> {
+                for (long i = 0; i < count; i++) {
+                    long p = address + i * Short.BYTES;
+                    MemoryUtil.memPutShort(p, Short.reverseBytes(MemoryUtil.memGetShort(p)));
+                }
+            }
+            case Integer.BYTES -> {
+                for (long i = 0; i < count; i++) {
+                    long p = address + i * Integer.BYTES;
+                    MemoryUtil.memPutInt(p, Integer.reverseBytes(MemoryUtil.memGetInt(p)));
+                }
+            }
+            case Long.BYTES -> {
+                for (long i = 0; i < count; i++) {
+                    long p = address + i * Long.BYTES;
+                    MemoryUtil.memPutLong(p, Long.reverseBytes(MemoryUtil.memGetLong(p)));
+                }
+            }
+            default -> throw new IllegalArgumentException("Element size must be 2, 4 or 8, got: " + elementSize);
+        }
+    }
+
+    /**
+     * CRC32C of a range through the JDK's hardware-accelerated implementation. The direct buffer
+     * view that API requires is the only allocation; use {@link #xxHash64} where none is allowed.
+     */
+    public static int crc32c(long address, int length) {
+        var crc = new CRC32C();
+        crc.update(MemoryUtil.memByteBuffer(address, length));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * 64-bit xxHash (XXH64) of a range, identical to the reference implementation on every platform.
+     */
+    public static long xxHash64(long address, long length, long seed) {
+        long p = address;
+        long end = address + length;
+        long hash;
+
+        if (length >= 32) {
+            long limit = end - 32;
+            long v1 = seed + PRIME64_1 + PRIME64_2;
+            long v2 = seed + PRIME64_2;
+            long v3 = seed;
+            long v4 = seed - PRIME64_1;
+            do {
+                v1 = round(v1, getLongLE(p));
+                v2 = round(v2, getLongLE(p + 8));
+                v3 = round(v3, getLongLE(p + 16));
+                v4 = round(v4, getLongLE(p + 24));
+                p += 32;
+            } while (p <= limit);
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            hash = mergeRound(hash, v1);
+            hash = mergeRound(hash, v2);
+            hash = mergeRound(hash, v3);
+            hash = mergeRound(hash, v4);
+        } else {
+            hash = seed + PRIME64_5;
+        }
+
+        hash += length;
+        for (; p + Long.BYTES <= end; p += Long.BYTES) {
+            hash ^= round(0, getLongLE(p));
+            hash = Long.rotateLeft(hash, 27) * PRIME64_1 + PRIME64_4;
+        }
+        if (p + Integer.BYTES <= end) {
+            hash ^= (getIntLE(p) & 0xFFFFFFFFL) * PRIME64_1;
+            hash = Long.rotateLeft(hash, 23) * PRIME64_2 + PRIME64_3;
+            p += Integer.BYTES;
+        }
+        for (; p < end; p++) {
+            hash ^= (MemoryUtil.memGetByte(p) & 0xFFL) * PRIME64_5;
+            hash = Long.rotateLeft(hash, 11) * PRIME64_1;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME64_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME64_3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * PRIME64_2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * PRIME64_1;
+    }
+
+    private static long mergeRound(long acc, long value) {
+        acc ^= round(0, value);
+        return acc * PRIME64_1 + PRIME64_4;
+    }
+
+    private static long getLongLE(long address) {
+        long value = MemoryUtil.memGetLong(address);
+        return LITTLE_ENDIAN ? value : Long.reverseBytes(value);
+    }
+
+    private static int getIntLE(long address) {
+        int value = MemoryUtil.memGetInt(address);
+        return LITTLE_ENDIAN ? value : Integer.reverseBytes(value);
+    }
+}
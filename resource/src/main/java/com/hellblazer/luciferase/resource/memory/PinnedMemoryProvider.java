@@ -0,0 +1,59 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.opencl.CLBufferHandle;
+import org.lwjgl.PointerBuffer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Device side of {@link MemoryPool.PinnedBuffer}: creates host-visible allocations for a GPU
+ * context and moves their contents between host and device. The pool owns reuse and eviction;
+ * a provider only creates, transfers and releases.
+ */
+public interface PinnedMemoryProvider {
+
+    /**
+     * One pinned allocation. The host buffer is only valid while the allocation is mapped.
+     */
+    interface Allocation {
+
+        /**
+         * Host view of the allocation, as of the last map.
+         */
+        ByteBuffer hostBuffer();
+
+        /**
+         * Device buffer backing the allocation, or null for providers without one.
+         */
+        CLBufferHandle gpuBuffer();
+
+        /**
+         * Hand the host contents to the device; the host buffer is unmapped until the next download or remap.
+         */
+        void upload(long queue, PointerBuffer events, PointerBuffer event);
+
+        /**
+         * Map the device contents for host reads, blocking until they are visible.
+         */
+        void download(long queue, PointerBuffer events, PointerBuffer event);
+
+        /**
+         * Restore the host mapping of a recycled allocation before it is handed out again.
+         */
+        void remap();
+
+        void release();
+    }
+
+    /**
+     * Create an allocation of exactly {@code size} bytes in {@code context}.
+     */
+    Allocation allocate(long context, MemoryPool.AccessType access, int size);
+
+    /**
+     * Provider backed by CL_MEM_ALLOC_HOST_PTR buffers, mapped on {@code queue}.
+     */
+    static PinnedMemoryProvider openCL(long context, long queue) {
+        return new CLPinnedMemoryProvider(context, queue);
+    }
+}
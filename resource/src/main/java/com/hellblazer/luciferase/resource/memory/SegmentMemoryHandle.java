@@ -0,0 +1,205 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceHandle;
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * RAII handle for native memory allocated from its own FFM {@link Arena}.
+ * <p>
+ * Unlike {@link NativeMemoryHandle} the size is a {@code long}, so a single allocation can exceed
+ * 2 GB, and accesses through the segment are bounds- and liveness-checked by the JVM. Closing the
+ * handle closes the arena. A confined handle may only be accessed and closed by the thread that
+ * allocated it; a shared handle may be used from any thread.
+ */
+public class SegmentMemoryHandle extends ResourceHandle<MemorySegment> {
+    private static final Logger log = LoggerFactory.getLogger(SegmentMemoryHandle.class);
+
+    /**
+     * Default alignment, matching what malloc guarantees on 64-bit platforms.
+     */
+    public static final long DEFAULT_ALIGNMENT = 16;
+
+    private final Arena arena;
+    private final long address;
+    private final long size;
+    private final boolean shared;
+
+    /**
+     * Allocate zeroed native memory from a shared arena.
+     *
+     * @param size    Size in bytes
+     * @param tracker Optional resource tracker
+     * @return A new memory handle
+     */
+    public static SegmentMemoryHandle allocate(long size, ResourceTracker tracker) {
+        return allocate(size, DEFAULT_ALIGNMENT, true, tracker);
+    }
+
+    /**
+     * Allocate zeroed native memory.
+     *
+     * @param size      Size in bytes
+     * @param alignment Alignment in bytes (must be power of 2)
+     * @param shared    true for a shared arena, false for one confined to the calling thread
+     * @param tracker   Optional resource tracker
+     * @return A new memory handle
+     */
+    public static SegmentMemoryHandle allocate(long size, long alignment, boolean shared, ResourceTracker tracker) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be positive: " + size);
+        }
+        if (alignment <= 0 || (alignment & (alignment - 1)) != 0) {
+            throw new IllegalArgumentException("Alignment must be power of 2: " + alignment);
+        }
+
+        var arena = shared ? Arena.ofShared() : Arena.ofConfined();
+        MemorySegment segment;
+        try {
+            segment = arena.allocate(size, alignment);
+        } catch (RuntimeException | OutOfMemoryError e) {
+            arena.close();
+            throw e;
+        }
+
+        log.trace("Allocated {} bytes of {} segment memory at address 0x{}",
+            size, shared ? "shared" : "confined", Long.toHexString(segment.address()));
+
+        return new SegmentMemoryHandle(arena, segment, shared, tracker);
+    }
+
+    protected SegmentMemoryHandle(Arena arena, MemorySegment segment, boolean shared, ResourceTracker tracker) {
+        super(segment, tracker);
+        this.arena = arena;
+        this.address = segment.address();
+        this.size = segment.byteSize();
+        this.shared = shared;
+    }
+
+    /**
+     * Get the underlying segment.
+     */
+    public MemorySegment getSegment() {
+        return get();
+    }
+
+    /**
+     * Get the native memory address.
+     *
+     * @return The memory address
+     */
+    public long getAddress() {
+        if (!isValid()) {
+            throw new IllegalStateException("Cannot access address of closed memory handle");
+        }
+        return address;
+    }
+
+    /**
+     * Get the size in bytes.
+     *
+     * @return The size
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Check if this memory may be used from any thread.
+     *
+     * @return true if allocated from a shared arena
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * Clear the memory (set to zero).
+     */
+    public void clear() {
+        get().fill((byte) 0);
+    }
+
+    /**
+     * Copy data from this memory to another.
+     *
+     * @param dst       Destination memory handle
+     * @param srcOffset Source offset in bytes
+     * @param dstOffset Destination offset in bytes
+     * @param length    Number of bytes to copy
+     */
+    public void copyTo(SegmentMemoryHandle dst, long srcOffset, long dstOffset, long length) {
+        if (!isValid() || !dst.isValid()) {
+            throw new IllegalStateException("Cannot copy between closed memory handles");
+        }
+
+        if (srcOffset < 0 || length < 0 || srcOffset + length > size) {
+            throw new IllegalArgumentException("Source range out of bounds");
+        }
+        if (dstOffset < 0 || dstOffset + length > dst.size) {
+            throw new IllegalArgumentException("Destination range out of bounds");
+        }
+
+        MemorySegment.copy(get(), srcOffset, dst.get(), dstOffset, length);
+    }
+
+    /**
+     * Create a slice of this memory. The slice shares the arena, so it becomes inaccessible
+     * once this handle is closed.
+     *
+     * @param offset Offset in bytes
+     * @param length Length in bytes
+     * @return A new segment view
+     */
+    public MemorySegment slice(long offset, long length) {
+        var segment = get();
+        if (offset < 0 || length < 0 || offset + length > size) {
+            throw new IllegalArgumentException("Slice range out of bounds");
+        }
+        return segment.asSlice(offset, length);
+    }
+
+    /**
+     * Zero-copy ByteBuffer view of the whole segment, for APIs such as LWJGL that take buffers.
+     * Like LWJGL's own buffers, the view uses native byte order.
+     *
+     * @throws IllegalStateException if the segment is larger than a ByteBuffer can address
+     */
+    public ByteBuffer asByteBuffer() {
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Segment of " + size + " bytes exceeds ByteBuffer capacity; use asByteBuffer(offset, length)");
+        }
+        return get().asByteBuffer().order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Zero-copy ByteBuffer view of part of the segment, in native byte order.
+     *
+     * @param offset Offset in bytes
+     * @param length Length in bytes, at most {@link Integer#MAX_VALUE}
+     */
+    public ByteBuffer asByteBuffer(long offset, long length) {
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("ByteBuffer views are limited to " + Integer.MAX_VALUE + " bytes: " + length);
+        }
+        return slice(offset, length).asByteBuffer().order(ByteOrder.nativeOrder());
+    }
+
+    @Override
+    protected void doCleanup(MemorySegment segment) {
+        arena.close();
+        log.trace("Freed {} bytes of segment memory at address 0x{}", size, Long.toHexString(address));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SegmentMemoryHandle[address=0x%x, size=%d, shared=%b, state=%s]",
+            address, size, shared, getState());
+    }
+}
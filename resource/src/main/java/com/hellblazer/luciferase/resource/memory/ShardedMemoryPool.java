@@ -0,0 +1,404 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.AllocationSite;
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Facade over independent {@link MemoryPool} shards so borrowers on different cores do not
+ * share one pool's lock, borrowed set and allocation map.
+ * <p>
+ * Each thread has a home shard chosen from its thread id. A borrow takes an idle buffer from
+ * the home shard, then steals one from a sibling, and only allocates new memory in the home
+ * shard when no shard has the size class idle. A borrowed buffer always returns to the shard
+ * that owns it, wherever it is closed.
+ * <p>
+ * Every shard is built from the same {@link MemoryPool.Config}, so per-pool limits such as the
+ * byte budget and buffers per size apply to each shard, not to the facade as a whole. Warm-up
+ * and maintenance are the facade's: the warm-up profile is loaded and saved once and split
+ * between the shards, the warm-up budget is divided among them, and one scheduler maintains
+ * every shard.
+ */
+public class ShardedMemoryPool implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ShardedMemoryPool.class);
+    
+    static {
+        AllocationSite.registerAllocator(ShardedMemoryPool.class);
+    }
+
+    private final MemoryPool.Config config;
+    private final MemoryPool[] shards;
+    private final ScheduledExecutorService maintenanceScheduler; // Null without a maintenance interval
+    private final LongAdder steals = new LongAdder();
+    private final LongAdder foreignReturns = new LongAdder();
+    private volatile boolean closed = false;
+
+    /**
+     * Create one shard per available processor.
+     */
+    public ShardedMemoryPool(MemoryPool.Config config, ResourceTracker tracker) {
+        this(config, Runtime.getRuntime().availableProcessors(), tracker);
+    }
+
+    /**
+     * @param config  Configuration applied to every shard
+     * @param shards  Number of shards
+     * @param tracker Optional resource tracker shared by the shards
+     */
+    public ShardedMemoryPool(MemoryPool.Config config, int shards, ResourceTracker tracker) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("Shard count must be positive, got: " + shards);
+        }
+        this.config = config;
+        var shardConfig = config.toBuilder()
+            .warmupProfile(null)
+            .adaptiveWarmup(0, 0)
+            .maintenanceInterval(null)
+            .build();
+        this.shards = new MemoryPool[shards];
+        for (int i = 0; i < shards; i++) {
+            this.shards[i] = new MemoryPool(shardConfig, tracker);
+        }
+        loadWarmupProfile();
+        if (config.warmupTopK > 0) {
+            prewarm();
+        }
+        this.maintenanceScheduler = startMaintenance();
+        log.debug("Created sharded memory pool with {} shards", shards);
+    }
+
+    /**
+     * Borrow a buffer, reusing an idle one from the home shard or a sibling before allocating.
+     */
+    public MemoryPool.BorrowedBuffer borrow(int size) {
+        int home = homeShard();
+        var buffer = shards[home].borrowIfIdle(size, true);
+        if (buffer != null) {
+            return buffer;
+        }
+        for (int i = 1; i < shards.length; i++) {
+            buffer = shards[(home + i) % shards.length].borrowIfIdle(size, false);
+            if (buffer != null) {
+                steals.increment();
+                return buffer;
+            }
+        }
+        return shards[home].borrow(size);
+    }
+
+    /**
+     * Borrow a buffer only if it fits in the owning shard's borrow budget right now. Idle
+     * buffers are taken from the home shard or a sibling, each charged to its own shard;
+     * new memory is only allocated in the home shard.
+     *
+     * @return A borrowed buffer handle, or null if the budget is exhausted
+     */
+    public MemoryPool.BorrowedBuffer tryBorrow(int size) {
+        var buffer = tryBorrowIdle(size);
+        return buffer != null ? buffer : shards[homeShard()].tryBorrow(size);
+    }
+
+    /**
+     * Borrow a buffer, taking an idle one within budget from any shard, else waiting for the
+     * home shard's budget as {@link MemoryPool#borrow(int, Duration)} does.
+     *
+     * @return A borrowed buffer handle, or null if the timeout elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public MemoryPool.BorrowedBuffer borrow(int size, Duration timeout) throws InterruptedException {
+        var buffer = tryBorrowIdle(size);
+        return buffer != null ? buffer : shards[homeShard()].borrow(size, timeout);
+    }
+
+    private MemoryPool.BorrowedBuffer tryBorrowIdle(int size) {
+        int home = homeShard();
+        var buffer = shards[home].tryBorrowIfIdle(size, true);
+        if (buffer != null) {
+            return buffer;
+        }
+        for (int i = 1; i < shards.length; i++) {
+            buffer = shards[(home + i) % shards.length].tryBorrowIfIdle(size, false);
+            if (buffer != null) {
+                steals.increment();
+                return buffer;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Allocate a buffer to be handed back with {@link #returnToPool}, reusing an idle one from
+     * the home shard or a sibling before allocating.
+     */
+    public ByteBuffer allocate(int size) {
+        int home = homeShard();
+        var buffer = shards[home].allocateIfIdle(size);
+        if (buffer != null) {
+            return buffer;
+        }
+        for (int i = 1; i < shards.length; i++) {
+            buffer = shards[(home + i) % shards.length].allocateIfIdle(size);
+            if (buffer != null) {
+                steals.increment();
+                return buffer;
+            }
+        }
+        return shards[home].allocate(size);
+    }
+
+    /**
+     * Return a buffer from {@link #allocate} to the shard that owns it. The home shard is
+     * checked first, as buffers are usually returned by the thread that allocated them.
+     */
+    public void returnToPool(ByteBuffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+        int home = homeShard();
+        if (shards[home].returnIfOwned(buffer)) {
+            return;
+        }
+        for (int i = 1; i < shards.length; i++) {
+            if (shards[(home + i) % shards.length].returnIfOwned(buffer)) {
+                foreignReturns.increment();
+                return;
+            }
+        }
+        log.trace("Buffer {} not owned by any shard", System.identityHashCode(buffer));
+    }
+
+    /**
+     * Run maintenance on every shard, re-warming each from its share of the warm-up budget.
+     */
+    public void performMaintenance() {
+        for (var shard : shards) {
+            maintain(shard);
+        }
+    }
+
+    /**
+     * Pre-allocate the hottest size classes of every shard, dividing the configured warm-up
+     * budget equally between the shards.
+     *
+     * @return number of buffers allocated
+     */
+    public int prewarm() {
+        int allocated = 0;
+        for (var shard : shards) {
+            allocated += shard.prewarm(config.warmupTopK, config.warmupBudgetBytes / shards.length);
+        }
+        return allocated;
+    }
+
+    /**
+     * Size histogram summed over all shards.
+     */
+    public Map<Integer, Double> getSizeHistogram() {
+        var weights = new TreeMap<Integer, Double>();
+        for (var shard : shards) {
+            shard.getSizeHistogram().forEach((size, weight) -> weights.merge(size, weight, Double::sum));
+        }
+        return weights;
+    }
+
+    /**
+     * Save the summed size histogram so a later run can pre-warm from it.
+     */
+    public void saveSizeHistogram(Path file) throws IOException {
+        var histogram = new SizeClassHistogram(config.warmupDecay);
+        histogram.merge(getSizeHistogram());
+        histogram.save(file);
+    }
+
+    /**
+     * Check the borrows of every shard against their lease deadlines.
+     *
+     * @return Borrows past their deadline over all shards
+     */
+    public int scanLeases() {
+        int overdue = 0;
+        for (var shard : shards) {
+            overdue += shard.scanLeases();
+        }
+        return overdue;
+    }
+
+    /**
+     * Evict expired idle buffers from every shard.
+     */
+    public void evictExpired() {
+        for (var shard : shards) {
+            shard.evictExpired();
+        }
+    }
+
+    /**
+     * Free the idle buffers of every shard.
+     */
+    public void clear() {
+        for (var shard : shards) {
+            shard.clear();
+        }
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Get a shard, e.g. for per-shard statistics.
+     */
+    public MemoryPool getShard(int index) {
+        return shards[index];
+    }
+
+    /**
+     * Borrows and allocations served by an idle buffer of a sibling shard.
+     */
+    public long getStealCount() {
+        return steals.sum();
+    }
+
+    /**
+     * Returns that had to search past the returning thread's home shard.
+     */
+    public long getForeignReturnCount() {
+        return foreignReturns.sum();
+    }
+
+    /**
+     * Leaks reclaimed per sampled allocation site, summed over all shards.
+     */
+    public Map<AllocationSite, Long> getLeakSites() {
+        var sites = new HashMap<AllocationSite, Long>();
+        for (var shard : shards) {
+            shard.getLeakSites().forEach((site, count) -> sites.merge(site, count, Long::sum));
+        }
+        return sites;
+    }
+
+    /**
+     * Statistics summed over all shards. Slab and buddy statistics are only reported for a
+     * single shard; use {@link #getShard} for those.
+     */
+    public MemoryPool.PoolStatistics getPoolStatistics() {
+        var stats = new ArrayList<MemoryPool.PoolStatistics>(shards.length);
+        for (var shard : shards) {
+            stats.add(shard.getPoolStatistics());
+        }
+        return MemoryPool.PoolStatistics.sum(stats);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (maintenanceScheduler != null) {
+            maintenanceScheduler.shutdownNow();
+            try {
+                maintenanceScheduler.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (config.warmupProfile != null) {
+            try {
+                saveSizeHistogram(config.warmupProfile);
+            } catch (IOException e) {
+                log.warn("Failed to save size histogram to {}", config.warmupProfile, e);
+            }
+        }
+        for (var shard : shards) {
+            try {
+                shard.close();
+            } catch (Exception e) {
+                log.error("Failed to close memory pool shard", e);
+            }
+        }
+    }
+
+    /**
+     * Load the warm-up profile once, giving each shard an equal share of every weight so the
+     * shards' histograms sum to the profile again.
+     */
+    private void loadWarmupProfile() {
+        var profile = config.warmupProfile;
+        if (profile == null || !Files.exists(profile)) {
+            return;
+        }
+        try {
+            var share = new HashMap<Integer, Double>();
+            SizeClassHistogram.read(profile).forEach((size, weight) -> share.put(size, weight / shards.length));
+            for (var shard : shards) {
+                shard.mergeSizeHistogram(share);
+            }
+            log.debug("Loaded size histogram from {} into {} shards", profile, shards.length);
+        } catch (IOException e) {
+            // A stale or corrupt profile only costs a cold start
+            log.warn("Failed to load size histogram from {}", profile, e);
+        }
+    }
+
+    private ScheduledExecutorService startMaintenance() {
+        var interval = config.maintenanceInterval;
+        if (interval == null || interval.isZero() || interval.isNegative()) {
+            return null;
+        }
+        ThreadFactory factory;
+        if (config.virtualMaintenanceThreads) {
+            factory = Thread.ofVirtual().name("sharded-memory-pool-maintenance-", 0).factory();
+        } else {
+            factory = r -> {
+                var thread = new Thread(r, "sharded-memory-pool-maintenance");
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+        var scheduler = Executors.newScheduledThreadPool(config.maintenanceThreads, factory);
+        long period = interval.toNanos();
+        // One task per shard so extra maintenance threads work on different shards
+        for (var shard : shards) {
+            scheduler.scheduleWithFixedDelay(() -> maintain(shard), period, period, TimeUnit.NANOSECONDS);
+        }
+        log.debug("Started sharded memory pool maintenance every {} on {} {} thread(s)",
+            interval, config.maintenanceThreads, config.virtualMaintenanceThreads ? "virtual" : "platform");
+        return scheduler;
+    }
+
+    private void maintain(MemoryPool shard) {
+        if (closed) {
+            return;
+        }
+        try {
+            shard.performMaintenance();
+            if (config.warmupTopK > 0) {
+                shard.prewarm(config.warmupTopK, config.warmupBudgetBytes / shards.length);
+            }
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; an exception would cancel future runs
+            log.warn("Memory pool shard maintenance failed", e);
+        }
+    }
+
+    private int homeShard() {
+        return (int) Math.floorMod(Thread.currentThread().threadId(), (long) shards.length);
+    }
+}
@@ -0,0 +1,165 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Exponentially decayed histogram of requested size classes.
+ * <p>
+ * Requests are counted lock-free; {@link #decay()} folds the counts since the last call into
+ * the weights after scaling the old weights by the decay factor, so sizes that stop being
+ * requested fade out over a few periods. Weights can be saved to and loaded from a small text
+ * file so a restarted process starts from the previous run's profile.
+ */
+public final class SizeClassHistogram {
+    private static final String HEADER = "# MemoryPool size-class histogram v1: <sizeClass> <weight>";
+
+    private final double decayFactor;
+    private final ConcurrentHashMap<Integer, LongAdder> recent = new ConcurrentHashMap<>();
+    private final Map<Integer, Double> weights = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * @param decayFactor Weight kept per decay period, in (0, 1]
+     */
+    public SizeClassHistogram(double decayFactor) {
+        if (decayFactor <= 0 || decayFactor > 1) {
+            throw new IllegalArgumentException("Decay factor must be in (0, 1], got: " + decayFactor);
+        }
+        this.decayFactor = decayFactor;
+    }
+
+    public void record(int sizeClass) {
+        var counter = recent.get(sizeClass);
+        if (counter == null) {
+            counter = recent.computeIfAbsent(sizeClass, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * Scale existing weights by the decay factor and fold in the requests recorded since the last call.
+     * Weights below 0.01 are dropped.
+     */
+    public void decay() {
+        lock.lock();
+        try {
+            weights.replaceAll((size, weight) -> weight * decayFactor);
+            for (var entry : recent.entrySet()) {
+                long count = entry.getValue().sumThenReset();
+                if (count > 0) {
+                    weights.merge(entry.getKey(), (double) count, Double::sum);
+                }
+            }
+            weights.values().removeIf(weight -> weight < 0.01);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Current weights plus requests not yet folded in, by size class.
+     */
+    public Map<Integer, Double> snapshot() {
+        lock.lock();
+        try {
+            var snapshot = new TreeMap<>(weights);
+            for (var entry : recent.entrySet()) {
+                long count = entry.getValue().sum();
+                if (count > 0) {
+                    snapshot.merge(entry.getKey(), (double) count, Double::sum);
+                }
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The k heaviest size classes with their weights, heaviest first.
+     */
+    public List<Map.Entry<Integer, Double>> topK(int k) {
+        var entries = new ArrayList<>(snapshot().entrySet());
+        entries.sort(Map.Entry.<Integer, Double>comparingByValue().reversed());
+        return entries.subList(0, Math.min(k, entries.size()));
+    }
+
+    /**
+     * Add weights, e.g. from a profile saved by a previous run.
+     */
+    public void merge(Map<Integer, Double> loaded) {
+        lock.lock();
+        try {
+            loaded.forEach((size, weight) -> weights.merge(size, weight, Double::sum));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write the current snapshot, replacing the file atomically where the file system allows.
+     */
+    public void save(Path file) throws IOException {
+        var lines = new ArrayList<String>();
+        lines.add(HEADER);
+        snapshot().forEach((size, weight) -> lines.add(size + " " + weight));
+        var parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        var temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, lines, StandardCharsets.UTF_8);
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Read weights written by {@link #save(Path)}.
+     */
+    public static Map<Integer, Double> read(Path file) throws IOException {
+        var loaded = new TreeMap<Integer, Double>();
+        int lineNumber = 0;
+        for (var line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            var fields = line.split("\\s+");
+            try {
+                if (fields.length != 2) {
+                    throw new NumberFormatException("expected 2 fields");
+                }
+                int size = Integer.parseInt(fields[0]);
+                double weight = Double.parseDouble(fields[1]);
+                if (size <= 0 || !(weight >= 0)) {
+                    throw new NumberFormatException("out of range");
+                }
+                loaded.merge(size, weight, Double::sum);
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed histogram line " + lineNumber + " in " + file + ": " + line, e);
+            }
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,36 @@
+package com.hellblazer.luciferase.resource.memory;
+
+/**
+ * Size-class spacing used by {@link MemoryPool} to round requests up to a reusable buffer size.
+ * Coarser spacing improves reuse; finer spacing reduces internal fragmentation.
+ */
+public enum SizeClassScheme {
+    /**
+     * One class per power of two. Worst case wastes just under 50% (e.g. 9 MB in a 16 MB buffer).
+     */
+    POWER_OF_TWO {
+        @Override
+        public int roundUp(int size) {
+            return BufferPoolUtils.roundUpToPowerOf2(size);
+        }
+    },
+
+    /**
+     * Four classes per power of two (jemalloc-style). Worst case wastes under 20%
+     * (e.g. 9 MB in a 10 MB buffer) at the cost of four times as many free lists.
+     */
+    QUARTER_POWER_OF_TWO {
+        @Override
+        public int roundUp(int size) {
+            return BufferPoolUtils.roundUpToQuarterPowerOf2(size);
+        }
+    };
+
+    /**
+     * Round a requested size up to its size class.
+     *
+     * @param size Requested size in bytes
+     * @return Buffer size that will be reserved for the request
+     */
+    public abstract int roundUp(int size);
+}
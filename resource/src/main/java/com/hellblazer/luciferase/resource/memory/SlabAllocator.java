@@ -0,0 +1,373 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import org.lwjgl.system.MemoryUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Slab sub-allocator for small native buffers.
+ * <p>
+ * Slot sizes are powers of two between {@code minSlotSize} and {@code maxSlotSize}. Each slot size
+ * carves slabs of {@code slabSize} bytes, aligned to {@code slabSize}, so a slot's slab is found
+ * by masking its address. Slots are claimed and released with a CAS on a per-slab bitmap; the
+ * only lock is per slot size and is taken when a new slab has to be allocated.
+ * <p>
+ * A slab is released once all of its slots are free, except for the last slab of a slot size,
+ * which is kept to avoid malloc/free thrash on alloc/free ping-pong. {@link #trim()} releases those too.
+ */
+public class SlabAllocator implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(SlabAllocator.class);
+
+    public static final int DEFAULT_SLAB_SIZE = 64 * 1024;
+    public static final int DEFAULT_MIN_SLOT_SIZE = 16;
+    public static final int DEFAULT_MAX_SLOT_SIZE = 4096;
+
+    private static final int RETIRED = -1;
+
+    /**
+     * A native slab carved into equal slots. A set bit in the bitmap marks an allocated slot.
+     */
+    private static final class Slab {
+        final long address;
+        final int slotSize;
+        final int slotCount;
+        final AtomicLongArray bitmap;
+        // Number of slots not reserved by an allocator, or RETIRED once the slab is released
+        final AtomicInteger freeSlots;
+        final AtomicInteger nextWord = new AtomicInteger();
+
+        Slab(long address, int slotSize, int slotCount) {
+            this.address = address;
+            this.slotSize = slotSize;
+            this.slotCount = slotCount;
+            this.bitmap = new AtomicLongArray((slotCount + 63) >>> 6);
+            this.freeSlots = new AtomicInteger(slotCount);
+        }
+
+        /**
+         * Reserve a slot, then claim a free bit for it.
+         *
+         * @return slot address, or 0 if the slab is full or retired
+         */
+        long allocate() {
+            int free;
+            do {
+                free = freeSlots.get();
+                if (free <= 0) {
+                    return 0;
+                }
+            } while (!freeSlots.compareAndSet(free, free - 1));
+
+            // The reservation guarantees a clear bit exists; start where the last claim left off
+            int words = bitmap.length();
+            int start = nextWord.get();
+            while (true) {
+                for (int i = 0; i < words; i++) {
+                    int w = (start + i) % words;
+                    long word = bitmap.get(w);
+                    int validBits = Math.min(64, slotCount - (w << 6));
+                    long clear = ~word & (validBits == 64 ? -1L : (1L << validBits) - 1);
+                    while (clear != 0) {
+                        long bit = Long.lowestOneBit(clear);
+                        if (bitmap.compareAndSet(w, word, word | bit)) {
+                            nextWord.set(w);
+                            return address + (long) ((w << 6) + Long.numberOfTrailingZeros(bit)) * slotSize;
+                        }
+                        word = bitmap.get(w);
+                        clear = ~word & (validBits == 64 ? -1L : (1L << validBits) - 1);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Release a slot.
+         *
+         * @return true if this release left the slab completely free
+         */
+        boolean free(long slotAddress) {
+            int slot = (int) ((slotAddress - address) / slotSize);
+            int w = slot >>> 6;
+            long bit = 1L << (slot & 63);
+            long word;
+            do {
+                word = bitmap.get(w);
+                if ((word & bit) == 0) {
+                    throw new IllegalStateException("Slot at 0x" + Long.toHexString(slotAddress) + " is not allocated");
+                }
+            } while (!bitmap.compareAndSet(w, word, word & ~bit));
+            return freeSlots.incrementAndGet() == slotCount;
+        }
+
+        int slotsInUse() {
+            int free = freeSlots.get();
+            return free == RETIRED ? 0 : slotCount - free;
+        }
+    }
+
+    /**
+     * Slabs of one slot size.
+     */
+    private static final class SlotClass {
+        final int slotSize;
+        final CopyOnWriteArrayList<Slab> slabs = new CopyOnWriteArrayList<>();
+        final ReentrantLock growLock = new ReentrantLock();
+        volatile Slab current;
+
+        SlotClass(int slotSize) {
+            this.slotSize = slotSize;
+        }
+    }
+
+    private final int slabSize;
+    private final int minSlotSize;
+    private final int maxSlotSize;
+    private final SlotClass[] classes;
+    private final Map<Long, Slab> slabsByAddress = new ConcurrentHashMap<>();
+
+    private final LongAdder allocations = new LongAdder();
+    private final AtomicInteger slabsAllocated = new AtomicInteger();
+    private final AtomicInteger slabsReleased = new AtomicInteger();
+    private volatile boolean closed = false;
+
+    public SlabAllocator() {
+        this(DEFAULT_SLAB_SIZE, DEFAULT_MIN_SLOT_SIZE, DEFAULT_MAX_SLOT_SIZE);
+    }
+
+    /**
+     * @param slabSize    Bytes per slab; a power of two no smaller than maxSlotSize
+     * @param minSlotSize Smallest slot size; a power of two
+     * @param maxSlotSize Largest slot size; a power of two
+     */
+    public SlabAllocator(int slabSize, int minSlotSize, int maxSlotSize) {
+        if (Integer.bitCount(slabSize) != 1 || Integer.bitCount(minSlotSize) != 1
+            || Integer.bitCount(maxSlotSize) != 1) {
+            throw new IllegalArgumentException("Slab and slot sizes must be powers of two");
+        }
+        if (minSlotSize > maxSlotSize || maxSlotSize > slabSize) {
+            throw new IllegalArgumentException(
+                "Require minSlotSize <= maxSlotSize <= slabSize, got " + minSlotSize + ", " + maxSlotSize + ", " + slabSize);
+        }
+        this.slabSize = slabSize;
+        this.minSlotSize = minSlotSize;
+        this.maxSlotSize = maxSlotSize;
+
+        int count = Integer.numberOfTrailingZeros(maxSlotSize) - Integer.numberOfTrailingZeros(minSlotSize) + 1;
+        this.classes = new SlotClass[count];
+        for (int i = 0; i < count; i++) {
+            classes[i] = new SlotClass(minSlotSize << i);
+        }
+    }
+
+    /**
+     * Whether a request of this size is served by slabs.
+     */
+    public boolean handles(int size) {
+        return size > 0 && size <= maxSlotSize;
+    }
+
+    /**
+     * Slot size a request of this size occupies.
+     */
+    public int slotSize(int size) {
+        return Math.max(minSlotSize, BufferPoolUtils.roundUpToPowerOf2(size));
+    }
+
+    /**
+     * Allocate a slot. The memory is not zeroed.
+     *
+     * @param size Requested size, at most maxSlotSize
+     * @return Address of a slot of {@link #slotSize(int)} bytes
+     */
+    public long allocate(int size) {
+        if (!handles(size)) {
+            throw new IllegalArgumentException("Size " + size + " outside slab range (1.." + maxSlotSize + ")");
+        }
+        if (closed) {
+            throw new IllegalStateException("Slab allocator is closed");
+        }
+        var slotClass = classes[Integer.numberOfTrailingZeros(slotSize(size) / minSlotSize)];
+        allocations.increment();
+
+        var current = slotClass.current;
+        if (current != null) {
+            long address = current.allocate();
+            if (address != 0) {
+                return address;
+            }
+        }
+        for (var slab : slotClass.slabs) {
+            long address = slab.allocate();
+            if (address != 0) {
+                slotClass.current = slab;
+                return address;
+            }
+        }
+        return grow(slotClass);
+    }
+
+    private long grow(SlotClass slotClass) {
+        slotClass.growLock.lock();
+        try {
+            // Another thread may have grown the class or freed slots while we waited
+            for (var slab : slotClass.slabs) {
+                long address = slab.allocate();
+                if (address != 0) {
+                    slotClass.current = slab;
+                    return address;
+                }
+            }
+            var memory = MemoryUtil.nmemAlignedAlloc(slabSize, slabSize);
+            if (memory == 0) {
+                throw new OutOfMemoryError("Failed to allocate " + slabSize + " byte slab");
+            }
+            var slab = new Slab(memory, slotClass.slotSize, slabSize / slotClass.slotSize);
+            slabsByAddress.put(memory, slab);
+            slotClass.slabs.add(slab);
+            slabsAllocated.incrementAndGet();
+            log.trace("Allocated slab of {} x {} byte slots", slab.slotCount, slab.slotSize);
+
+            long address = slab.allocate();
+            slotClass.current = slab;
+            return address;
+        } finally {
+            slotClass.growLock.unlock();
+        }
+    }
+
+    /**
+     * Free a slot previously returned by {@link #allocate(int)}.
+     */
+    public void free(long address) {
+        var slab = slabsByAddress.get(address & -(long) slabSize);
+        if (slab == null) {
+            if (closed) {
+                return; // Slabs were released by close()
+            }
+            throw new IllegalArgumentException("Address 0x" + Long.toHexString(address) + " is not a slab slot");
+        }
+        if (slab.free(address)) {
+            var slotClass = classes[Integer.numberOfTrailingZeros(slab.slotSize / minSlotSize)];
+            if (slotClass.slabs.size() > 1) {
+                release(slotClass, slab);
+            }
+        }
+    }
+
+    /**
+     * Release a slab if it is still completely free; losing to a concurrent allocator is fine.
+     */
+    private boolean release(SlotClass slotClass, Slab slab) {
+        if (!slab.freeSlots.compareAndSet(slab.slotCount, RETIRED)) {
+            return false;
+        }
+        slotClass.slabs.remove(slab);
+        slabsByAddress.remove(slab.address);
+        if (slotClass.current == slab) {
+            slotClass.current = null;
+        }
+        MemoryUtil.nmemAlignedFree(slab.address);
+        slabsReleased.incrementAndGet();
+        log.trace("Released empty slab of {} byte slots", slab.slotSize);
+        return true;
+    }
+
+    /**
+     * Release every completely free slab, including the last one of each slot size.
+     *
+     * @return number of slabs released
+     */
+    public int trim() {
+        int released = 0;
+        for (var slotClass : classes) {
+            for (var slab : slotClass.slabs) {
+                if (release(slotClass, slab)) {
+                    released++;
+                }
+            }
+        }
+        return released;
+    }
+
+    public SlabStatistics getStatistics() {
+        int slabs = 0;
+        long slotsInUse = 0;
+        long bytesInUse = 0;
+        for (var slotClass : classes) {
+            for (var slab : slotClass.slabs) {
+                slabs++;
+                int used = slab.slotsInUse();
+                slotsInUse += used;
+                bytesInUse += (long) used * slab.slotSize;
+            }
+        }
+        return new SlabStatistics(slabs, (long) slabs * slabSize, slotsInUse, bytesInUse,
+                                  allocations.sum(), slabsAllocated.get(), slabsReleased.get());
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        long outstanding = 0;
+        for (var slotClass : classes) {
+            for (var slab : slotClass.slabs) {
+                outstanding += slab.slotsInUse();
+                MemoryUtil.nmemAlignedFree(slab.address);
+            }
+            slotClass.slabs.clear();
+            slotClass.current = null;
+        }
+        slabsByAddress.clear();
+        if (outstanding > 0) {
+            log.warn("Closing slab allocator with {} slots still allocated", outstanding);
+        }
+    }
+
+    /**
+     * Statistics snapshot for the slab allocator.
+     */
+    public static class SlabStatistics {
+        public final int slabs;
+        public final long reservedBytes;
+        public final long slotsInUse;
+        public final long bytesInUse;
+        public final long totalAllocations;
+        public final int slabsAllocated;
+        public final int slabsReleased;
+
+        public SlabStatistics(int slabs, long reservedBytes, long slotsInUse, long bytesInUse,
+                              long totalAllocations, int slabsAllocated, int slabsReleased) {
+            this.slabs = slabs;
+            this.reservedBytes = reservedBytes;
+            this.slotsInUse = slotsInUse;
+            this.bytesInUse = bytesInUse;
+            this.totalAllocations = totalAllocations;
+            this.slabsAllocated = slabsAllocated;
+            this.slabsReleased = slabsReleased;
+        }
+
+        /**
+         * Fraction of reserved slab memory occupied by allocated slots.
+         */
+        public double getUtilization() {
+            return reservedBytes > 0 ? (double) bytesInUse / reservedBytes : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("SlabStatistics[slabs=%d, reserved=%s, slotsInUse=%d, utilization=%.1f%%]",
+                slabs, BufferPoolUtils.formatBytes(reservedBytes), slotsInUse, getUtilization() * 100);
+        }
+    }
+}
@@ -13,6 +13,8 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * RAII handle for OpenCL buffers with pool awareness and performance metrics.
@@ -118,6 +120,39 @@ public class CLBufferHandle extends ResourceHandle<Long> {
         }
     }
 
+    /**
+     * Create several OpenCL buffers of one type on one stack frame, logging once for the batch.
+     * All or nothing: if any creation fails, the buffers created so far are released.
+     *
+     * @return The buffers, in the order of {@code sizes}
+     */
+    public static List<CLBufferHandle> createBatch(long context, long[] sizes, BufferType type) {
+        var batch = new ArrayList<CLBufferHandle>(sizes.length);
+        try (var stack = MemoryStack.stackPush()) {
+            IntBuffer errcode = stack.mallocInt(1);
+            for (long size : sizes) {
+                long buffer = CL10.clCreateBuffer(context, type.getFlag(), size, errcode);
+                checkError(errcode.get(0));
+                if (buffer == 0) {
+                    throw new IllegalStateException("Failed to create OpenCL buffer");
+                }
+                batch.add(new CLBufferHandle(buffer, context, size, type.getFlag(), null));
+                GLOBAL_STATISTICS.recordAllocation();
+            }
+        } catch (RuntimeException e) {
+            for (var handle : batch) {
+                try {
+                    handle.close();
+                } catch (Exception closeError) {
+                    e.addSuppressed(closeError);
+                }
+            }
+            throw e;
+        }
+        log.debug("Created batch of {} OpenCL buffers, flags={}", batch.size(), type.getFlag());
+        return batch;
+    }
+
     private static CLBufferHandle create(long context, long size, int flags, ByteBuffer hostData,
                                         Runnable onRelease) {
         try (var stack = MemoryStack.stackPush()) {
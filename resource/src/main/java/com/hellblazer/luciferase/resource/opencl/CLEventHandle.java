@@ -2,6 +2,7 @@ package com.hellblazer.luciferase.resource.opencl;
 
 import com.hellblazer.luciferase.resource.ResourceHandle;
 import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.lwjgl.system.MemoryStack;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,6 +71,23 @@ public class CLEventHandle extends ResourceHandle<Long> {
         return super.get();
     }
 
+    /**
+     * Check without blocking whether the event's command has finished, e.g. as a
+     * {@link com.hellblazer.luciferase.resource.DeferredDestructionQueue.Gate} for buffers the
+     * command uses. A command that terminated with an error also counts as finished.
+     */
+    public boolean isComplete() {
+        try (var stack = MemoryStack.stackPush()) {
+            var status = stack.mallocInt(1);
+            int error = clGetEventInfo(get(), CL_EVENT_COMMAND_EXECUTION_STATUS, status, null);
+            if (error != CL_SUCCESS) {
+                log.warn("Failed to query event 0x{}: error code {}", Long.toHexString(get()), error);
+                return false;
+            }
+            return status.get(0) <= CL_COMPLETE;
+        }
+    }
+
     /**
      * Perform actual cleanup of OpenCL event.
      * Releases the event via clReleaseEvent().
@@ -0,0 +1,245 @@
+package com.hellblazer.luciferase.resource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for deferred native releases, using handles whose deleter records what it freed.
+ */
+public class DeferredDestructionQueueTest {
+
+    private static final String GL = "gl-context";
+    private static final String CL = "cl-context";
+
+    private final List<Long> deleted = new CopyOnWriteArrayList<>();
+    private final List<String> deletingThreads = new CopyOnWriteArrayList<>();
+    private DeferredDestructionQueue queue;
+
+    @AfterEach
+    void tearDown() {
+        if (queue != null) {
+            queue.close();
+        }
+    }
+
+    private class RecordingHandle extends ResourceHandle<Long> {
+        RecordingHandle(long name) {
+            super(name, null);
+        }
+
+        @Override
+        protected void doCleanup(Long name) {
+            deletingThreads.add(Thread.currentThread().getName());
+            deleted.add(name);
+        }
+    }
+
+    private RecordingHandle deferred(long name, Object context) {
+        var handle = new RecordingHandle(name);
+        handle.deferDestruction(queue, context);
+        return handle;
+    }
+
+    @Test
+    void testCloseDefersReleaseToDrain() {
+        queue = new DeferredDestructionQueue();
+        var tracker = new ResourceTracker();
+        var first = deferred(1, GL);
+        var second = deferred(2, GL);
+        tracker.registerAll(List.of(first));
+        first.close();
+        second.close();
+        first.close(); // Idempotent, not queued twice
+
+        assertEquals(ResourceHandle.State.CLOSING, first.getState(), "Not closed until released");
+        assertEquals(1, tracker.getActiveCount(), "Still tracked until released");
+        assertThrows(IllegalStateException.class, first::get);
+        assertTrue(deleted.isEmpty(), "Nothing freed on the closing thread");
+        assertEquals(2, queue.getPendingCount(GL));
+
+        assertEquals(2, queue.drain(GL));
+        assertEquals(List.of(1L, 2L), deleted);
+        assertEquals(ResourceHandle.State.CLOSED, first.getState());
+        assertEquals(0, tracker.getActiveCount());
+        assertEquals(0, queue.getPendingCount());
+        assertEquals(2, queue.getReleasedCount());
+        assertEquals(0, queue.drain(GL));
+    }
+
+    @Test
+    void testGateHoldsReleaseUntilSignaled() {
+        queue = new DeferredDestructionQueue();
+        var fence = new AtomicBoolean();
+        var inFlight = deferred(1, GL);
+        inFlight.setDestructionGate(fence::get);
+        inFlight.close();
+        deferred(2, GL).close();
+
+        assertEquals(1, queue.drain(GL), "Signaled release runs past the gated one");
+        assertEquals(List.of(2L), deleted);
+        assertEquals(1, queue.getGatedCount());
+
+        fence.set(true);
+        assertEquals(1, queue.drain(GL));
+        assertEquals(List.of(2L, 1L), deleted);
+    }
+
+    @Test
+    void testDrainAllIgnoresGates() {
+        queue = new DeferredDestructionQueue();
+        var handle = deferred(7, GL);
+        handle.setDestructionGate(() -> false);
+        handle.close();
+
+        assertEquals(0, queue.drain(GL));
+        assertEquals(1, queue.drainAll(GL));
+        assertEquals(List.of(7L), deleted);
+    }
+
+    @Test
+    void testContextsDrainIndependently() {
+        queue = new DeferredDestructionQueue();
+        deferred(1, GL).close();
+        deferred(2, CL).close();
+
+        assertEquals(1, queue.drain(CL));
+        assertEquals(List.of(2L), deleted);
+        assertEquals(1, queue.getPendingCount(GL));
+        assertEquals(0, queue.getPendingCount(CL));
+    }
+
+    @Test
+    void testFailedReleaseIsCountedAndDrainContinues() {
+        queue = new DeferredDestructionQueue();
+        queue.enqueue(GL, () -> {
+            throw new IllegalStateException("delete failed");
+        });
+        deferred(3, GL).close();
+
+        assertEquals(1, queue.drain(GL));
+        assertEquals(1, queue.getFailureCount());
+        assertEquals(List.of(3L), deleted);
+        assertEquals(0, queue.getPendingCount());
+
+        queue.enqueue(GL, () -> deleted.add(4L), () -> {
+            throw new IllegalStateException("fence lost");
+        });
+        assertEquals(0, queue.drain(GL));
+        assertEquals(2, queue.getFailureCount(), "Gate failures are counted");
+        assertEquals(1, queue.getPendingCount(), "Release kept queued");
+    }
+
+    @Test
+    void testWorkerDrainsContext() throws InterruptedException {
+        queue = new DeferredDestructionQueue(1);
+        queue.drainOnWorker(CL, Duration.ofMillis(5));
+        deferred(9, CL).close();
+
+        for (int i = 0; i < 200 && deleted.isEmpty(); i++) {
+            Thread.sleep(5);
+        }
+        assertEquals(List.of(9L), deleted);
+        assertEquals("deferred-destruction", deletingThreads.get(0));
+    }
+
+    @Test
+    void testSynchronousWithoutQueue() {
+        queue = new DeferredDestructionQueue();
+        var handle = deferred(4, GL);
+        handle.deferDestruction(null, null);
+        handle.close();
+        assertEquals(List.of(4L), deleted);
+        assertEquals(0, queue.getEnqueuedCount());
+    }
+
+    @Test
+    void testCloseAfterQueueClosed() {
+        queue = new DeferredDestructionQueue(1);
+        queue.drainOnWorker(CL, Duration.ofHours(1));
+        var bound = deferred(8, GL);
+        var unbound = deferred(9, CL);
+        queue.close();
+
+        assertFalse(queue.offer(GL, () -> { }, null));
+        assertThrows(IllegalStateException.class, bound::close, "Never released off the context's thread");
+        assertEquals(ResourceHandle.State.ALLOCATED, bound.getState());
+        assertTrue(deleted.isEmpty());
+
+        unbound.close();
+        assertEquals(List.of(9L), deleted, "Worker-drained contexts release on any thread");
+        assertEquals(ResourceHandle.State.CLOSED, unbound.getState());
+
+        bound.deferDestruction(null, null); // Detached, then closed on the context's thread
+        bound.close();
+        assertEquals(List.of(9L, 8L), deleted);
+        assertEquals(0, queue.getPendingCount());
+    }
+
+    @Test
+    void testManagerCloseReleasesWorkerAndBoundContexts() {
+        var async = new ResourceConfiguration.Builder().withAsyncCleanup(true).withCleanupThreadCount(1).build();
+        var manager = new UnifiedResourceManager(async);
+        manager.getDestructionQueue().drainOnWorker(CL, Duration.ofHours(1));
+        manager.deferDestruction(new RecordingHandle(1), CL).close();
+        manager.deferDestruction(new RecordingHandle(2), GL).close();
+        manager.deferDestruction(new RecordingHandle(3), "other-thread").close();
+        assertTrue(deleted.isEmpty(), "Worker has not drained yet");
+
+        manager.close(GL);
+        assertEquals(Set.of(1L, 2L), Set.copyOf(deleted), "Worker and bound contexts drained on close");
+        assertEquals(1, manager.getDestructionQueue().getPendingCount("other-thread"));
+    }
+
+    @Test
+    void testCloseDrainsWorkerContexts() {
+        queue = new DeferredDestructionQueue(1);
+        queue.drainOnWorker(CL, Duration.ofHours(1));
+        var handle = deferred(5, CL);
+        handle.setDestructionGate(() -> false);
+        handle.close();
+        deferred(6, GL).close();
+
+        queue.close();
+        assertEquals(List.of(5L), deleted);
+        assertEquals(1, queue.getPendingCount());
+    }
+
+    @Test
+    void testInvalidUse() {
+        queue = new DeferredDestructionQueue();
+        assertThrows(IllegalArgumentException.class, () -> new DeferredDestructionQueue(-1));
+        assertThrows(IllegalStateException.class, () -> queue.drainOnWorker(CL, Duration.ofMillis(5)),
+                     "No cleanup workers");
+        assertThrows(NullPointerException.class, () -> new RecordingHandle(1).deferDestruction(queue, null));
+
+        queue.close();
+        assertThrows(IllegalStateException.class, () -> queue.enqueue(GL, () -> { }));
+    }
+
+    @Test
+    void testManagerWiring() {
+        var async = new ResourceConfiguration.Builder().withAsyncCleanup(true).withCleanupThreadCount(1).build();
+        try (var manager = new UnifiedResourceManager(async)) {
+            assertNotNull(manager.getDestructionQueue());
+            var handle = manager.deferDestruction(new RecordingHandle(5), GL);
+            handle.close();
+            assertEquals(1, manager.getDestructionQueue().drain(GL));
+            assertEquals(List.of(5L), deleted);
+        }
+
+        var sync = new ResourceConfiguration.Builder().withAsyncCleanup(false).withCleanupThreadCount(0).build();
+        try (var manager = new UnifiedResourceManager(sync)) {
+            assertNull(manager.getDestructionQueue());
+            manager.deferDestruction(new RecordingHandle(6), GL).close();
+            assertEquals(List.of(5L, 6L), deleted, "Released on close without async cleanup");
+        }
+    }
+}
@@ -450,4 +450,57 @@ public class MemoryPoolTest {
         assertTrue(largePool.getCurrentSize() >= 0);
         assertTrue(largePool.getCurrentSize() <= 500 * 1024 * 1024);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test 9: Lock-free borrow/return never hands one buffer to two borrowers
+     */
+    @Test
+    void testConcurrentModeBorrowReturn() throws Exception {
+        var concurrentPool = new MemoryPool(MemoryPool.Config.builder()
+            .concurrent(true)
+            .maxBuffersPerSize(4)
+            .build(), new ResourceTracker());
+
+        int threads = 8;
+        int iterations = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            final long marker = t + 1;
+            futures.add(executor.submit(() -> {
+                latch.await();
+                for (int i = 0; i < iterations; i++) {
+                    try (var borrowed = concurrentPool.borrow(1024)) {
+                        var buffer = borrowed.get();
+                        if (buffer.getLong(0) != 0) {
+                            return false; // Not zeroed, or shared with another borrower
+                        }
+                        buffer.putLong(0, marker);
+                        Thread.yield();
+                        if (buffer.getLong(0) != marker) {
+                            return false;
+                        }
+                    }
+                }
+                return true;
+            }));
+        }
+
+        latch.countDown();
+        for (var future : futures) {
+            assertTrue(future.get());
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        var stats = concurrentPool.getPoolStatistics();
+        assertEquals(0, stats.currentlyBorrowed);
+        assertEquals(threads * iterations, stats.poolHits + stats.poolMisses);
+        assertTrue(concurrentPool.getCurrentSize() <= 4 * 1024);
+        assertEquals(stats.totalMemoryBytes, concurrentPool.getCurrentSize());
+
+        concurrentPool.close();
+    }
+}
@@ -1,8 +1,12 @@
 package com.hellblazer.luciferase.resource;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 
+import java.util.HashSet;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -11,10 +15,17 @@ import static org.junit.jupiter.api.Assertions.*;
 public class ResourceTrackerTest {
     
     private ResourceTracker tracker;
+    private AllocationSampler sampler;
     
     @BeforeEach
     void setUp() {
         tracker = new ResourceTracker();
+        sampler = ResourceHandle.getAllocationSampler();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        ResourceHandle.setAllocationSampler(sampler);
     }
     
     @Test
@@ -79,6 +90,109 @@ public class ResourceTrackerTest {
         assertEquals(100, tracker.getActiveResourceIds().size());
     }
     
+    private TestHandle allocateHere(long value) {
+        var handle = new TestHandle(value);
+        tracker.track(handle);
+        return handle;
+    }
+    
+    @Test
+    void testLeaksAggregatedByAllocationSite() {
+        ResourceHandle.setAllocationSampler(AllocationSampler.ALL);
+        var sites = new HashSet<AllocationSite>();
+        for (int i = 0; i < 3; i++) {
+            sites.add(allocateHere(i).getAllocationSite());
+        }
+        var other = new TestHandle(9L);
+        tracker.track(other);
+        
+        assertEquals(1, sites.size(), "Repeated allocations share one interned site");
+        var site = sites.iterator().next();
+        assertEquals("allocateHere", site.getFrames().get(0).getMethodName(), "Site starts past the handle classes");
+        var bySite = tracker.getActiveResourcesBySite();
+        assertEquals(2, bySite.size());
+        assertEquals(Long.valueOf(3), bySite.get(site));
+        assertEquals(Long.valueOf(1), bySite.get(other.getAllocationSite()));
+        assertTrue(other.getAllocationStack().contains("testLeaksAggregatedByAllocationSite"));
+        assertTrue(tracker.generateReport().contains("(4 of 4 sampled)"), tracker.generateReport());
+        
+        tracker.untrack(other);
+        tracker.shutdown();
+        assertEquals(3, tracker.getTotalLeaked());
+        assertEquals(Map.of(site, 3L), tracker.getLeaksBySite());
+    }
+    
+    @Test
+    void testSiteSkipsHandleSuperclassesAndAllocators() {
+        ResourceHandle.setAllocationSampler(AllocationSampler.ALL);
+        var handle = TestFactory.create(1L);
+        var frames = handle.getAllocationSite().getFrames();
+        assertEquals(ResourceTrackerTest.class.getName(), frames.get(0).getClassName(),
+                     "Site starts at user code: " + handle.getAllocationSite());
+        assertEquals("testSiteSkipsHandleSuperclassesAndAllocators", frames.get(0).getMethodName());
+    }
+    
+    @Test
+    void testAllocationSampling() {
+        ResourceHandle.setAllocationSampler(AllocationSampler.OFF);
+        var unsampled = new TestHandle(1L);
+        assertNull(unsampled.getAllocationSite());
+        assertNull(unsampled.getAllocationStack());
+        
+        ResourceHandle.setAllocationSampler(AllocationSampler.perSecond(2));
+        int sampled = 0;
+        for (int i = 0; i < 50; i++) {
+            if (new TestHandle((long) i).getAllocationSite() != null) {
+                sampled++;
+            }
+        }
+        assertTrue(sampled >= 2 && sampled <= 4, "At most 2 per second, got " + sampled);
+        
+        ResourceHandle.setAllocationSampler(AllocationSampler.oneIn(1_000_000));
+        assertTrue(ResourceHandle.getAllocationSampler().isEnabled());
+    }
+    
+    @Test
+    void testSamplerSpecs() {
+        assertSame(AllocationSampler.OFF, AllocationSampler.parse("off"));
+        assertSame(AllocationSampler.ALL, AllocationSampler.parse("1/1"));
+        assertEquals("1/64", AllocationSampler.parse("1/64").toString());
+        assertEquals("100/s", AllocationSampler.parse(" 100/s ").toString());
+        assertFalse(AllocationSampler.OFF.sample(TestHandle.class));
+        assertTrue(AllocationSampler.ALL.sample(TestHandle.class));
+        assertThrows(IllegalArgumentException.class, () -> AllocationSampler.parse("sometimes"));
+        assertThrows(IllegalArgumentException.class, () -> AllocationSampler.parse("1/x"));
+        assertThrows(IllegalArgumentException.class, () -> AllocationSampler.oneIn(0));
+        assertThrows(IllegalArgumentException.class, () -> AllocationSampler.perSecond(-5));
+    }
+    
+    // Handle two levels below ResourceHandle, created only through a factory
+    private static class BaseHandle extends ResourceHandle<Long> {
+        BaseHandle(Long resource) {
+            super(resource, null);
+        }
+        
+        @Override
+        protected void doCleanup(Long resource) {
+        }
+    }
+    
+    private static class LeafHandle extends BaseHandle {
+        LeafHandle(Long resource) {
+            super(resource);
+        }
+    }
+    
+    private static class TestFactory {
+        static {
+            AllocationSite.registerAllocator(TestFactory.class);
+        }
+        
+        static LeafHandle create(Long resource) {
+            return new LeafHandle(resource);
+        }
+    }
+    
     // Simple test handle implementation
     private static class TestHandle extends ResourceHandle<Long> {
         TestHandle(Long resource) {
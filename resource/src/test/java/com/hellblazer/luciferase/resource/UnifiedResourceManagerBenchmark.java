@@ -0,0 +1,93 @@
+package com.hellblazer.luciferase.resource;
+
+import com.hellblazer.luciferase.resource.memory.MemoryPool;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of allocateMemory/releaseMemory churn through UnifiedResourceManager, against
+ * the same churn on its MemoryPool alone, which bounds what the manager's tracking can reach.
+ *
+ * <p>For a before/after comparison of a tracking change, run this at both commits with the
+ * same thread counts; the {@code pool} rows should match and the {@code manager} rows show the
+ * difference.
+ *
+ * <p>Usage:
+ * <pre>
+ * # Scaling run, 1 to 64 threads
+ * mvn exec:java -Dexec.mainClass="com.hellblazer.luciferase.resource.UnifiedResourceManagerBenchmark" \
+ *   -Dexec.classpathScope=test
+ *
+ * # Single thread count
+ * mvn exec:java -Dexec.mainClass="com.hellblazer.luciferase.resource.UnifiedResourceManagerBenchmark" \
+ *   -Dexec.classpathScope=test -Dexec.args="16"
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UnifiedResourceManagerBenchmark {
+
+    @Param({"manager", "pool"})
+    private String path;
+
+    @Param({"4096", "65536"})
+    private int bufferSize;
+
+    private UnifiedResourceManager manager;
+    private MemoryPool pool;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var config = new ResourceConfiguration.Builder()
+            .withMaxPoolSize(Integer.MAX_VALUE)
+            .withMaxIdleTime(Duration.ofMinutes(5))
+            .withLeakDetection(false)
+            .build();
+        manager = new UnifiedResourceManager(config);
+        pool = manager.getMemoryPool();
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        manager.close();
+    }
+
+    @Benchmark
+    public void allocateRelease(Blackhole bh) {
+        if ("manager".equals(path)) {
+            var buffer = manager.allocateMemory(bufferSize);
+            bh.consume(buffer);
+            manager.releaseMemory(buffer);
+        } else {
+            var buffer = pool.allocate(bufferSize);
+            bh.consume(buffer);
+            pool.returnToPool(buffer);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int minThreads = args.length > 0 ? maxThreads : 1;
+
+        for (int threads = minThreads; threads <= maxThreads; threads *= 2) {
+            var opts = new OptionsBuilder()
+                .include(UnifiedResourceManagerBenchmark.class.getSimpleName())
+                .threads(threads)
+                .forks(1)
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .build();
+
+            new Runner(opts).run();
+        }
+    }
+}
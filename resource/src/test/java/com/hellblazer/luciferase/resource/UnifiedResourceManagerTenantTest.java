@@ -0,0 +1,244 @@
+package com.hellblazer.luciferase.resource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for per-tenant quotas and accounting in the unified resource manager.
+ */
+class UnifiedResourceManagerTenantTest {
+    private UnifiedResourceManager manager;
+
+    @BeforeEach
+    void setUp() {
+        var config = new ResourceConfiguration.Builder()
+            .withMaxPoolSize(1024 * 1024)
+            .withHighWaterMark(0.5f)
+            .withLowWaterMark(0.25f)
+            .withMaxIdleTime(Duration.ofMinutes(5))
+            .withAsyncCleanup(false)
+            .withCleanupThreadCount(0)
+            .build();
+        manager = new UnifiedResourceManager(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.shutdown();
+    }
+
+    @Test
+    void testAllocationsChargedToTenant() {
+        var a = manager.allocateMemory("physics", 1000);
+        var b = manager.allocateMemory("physics", 500);
+        var c = manager.allocateMemory(200);
+
+        assertEquals(1500, manager.getTenantUsage("physics"));
+        assertEquals(200, manager.getTenantUsage(UnifiedResourceManager.DEFAULT_TENANT));
+        assertEquals(0, manager.getTenantUsage("renderer"));
+
+        manager.releaseMemory(a);
+        assertEquals(500, manager.getTenantUsage("physics"));
+
+        var stats = manager.getStatistics().getTenantStatistics().get("physics");
+        assertEquals(500, stats.getUsedBytes());
+        assertEquals(1500, stats.getPeakBytes());
+        assertEquals(1, stats.getResourceCount());
+        assertEquals(Long.MAX_VALUE, stats.getHardQuotaBytes());
+
+        manager.releaseMemory(b);
+        manager.releaseMemory(c);
+        assertEquals(0, manager.getTenantUsage("physics"));
+        assertEquals(0, manager.getTenantUsage(UnifiedResourceManager.DEFAULT_TENANT));
+    }
+
+    @Test
+    void testHardQuotaRejects() {
+        manager.setTenantQuota("streaming", 1000, 2000);
+        var first = manager.allocateMemory("streaming", 1500);
+
+        var e = assertThrows(UnifiedResourceManager.TenantQuotaExceededException.class,
+                             () -> manager.allocateMemory("streaming", 1000));
+        assertEquals("streaming", e.getTenant());
+        assertEquals(1000, e.getRequestedBytes());
+        assertEquals(1500, manager.getTenantUsage("streaming"));
+
+        // Other tenants are unaffected
+        var other = manager.allocateMemory("renderer", 1000);
+
+        var stats = manager.getStatistics().getTenantStatistics().get("streaming");
+        assertEquals(1, stats.getRejections());
+        assertEquals(1, stats.getSoftQuotaBreaches());
+        assertTrue(stats.isOverSoftQuota());
+
+        manager.releaseMemory(first);
+        manager.releaseMemory(manager.allocateMemory("streaming", 2000));
+        manager.releaseMemory(other);
+    }
+
+    @Test
+    void testQuotaValidation() {
+        assertThrows(IllegalArgumentException.class, () -> manager.setTenantQuota("a", -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> manager.setTenantQuota("a", 10, 5));
+        assertThrows(NullPointerException.class, () -> manager.allocateMemory(null, 10));
+    }
+
+    @Test
+    void testRegisteredResourcesChargedAndRejected() {
+        manager.setTenantQuota("renderer", 100, 150);
+        var texture = new FakeResource(120);
+        manager.register(texture, "renderer");
+        assertEquals(120, manager.getTenantUsage("renderer"));
+
+        var second = new FakeResource(50);
+        assertThrows(UnifiedResourceManager.TenantQuotaExceededException.class,
+                     () -> manager.register(second, "renderer"));
+        assertNull(manager.getResource(second.getId()));
+
+        manager.unregister(texture);
+        assertEquals(0, manager.getTenantUsage("renderer"));
+    }
+
+    @Test
+    void testEvictionPrefersOverQuotaTenants() throws InterruptedException {
+        manager.setTenantQuota("physics", 300, Long.MAX_VALUE);
+        manager.setTenantQuota("renderer", 1000, Long.MAX_VALUE);
+
+        var oldest = new FakeResource(150);
+        manager.register(oldest, "physics");
+        Thread.sleep(5);
+        var newer = new FakeResource(150);
+        manager.register(newer, "physics");
+        var renderer = new FakeResource(300);
+        manager.register(renderer, "renderer");
+        var pooled = manager.allocateMemory("physics", 100);
+
+        assertEquals(1, manager.evictOverQuota());
+        assertTrue(oldest.isClosed(), "Oldest resource of the over-quota tenant goes first");
+        assertFalse(newer.isClosed());
+        assertFalse(renderer.isClosed(), "Tenants within quota are untouched");
+        assertEquals(250, manager.getTenantUsage("physics"));
+
+        Thread.sleep(5);
+        var newest = new FakeResource(100);
+        manager.register(newest, "physics");
+        assertEquals(1, manager.evictOverQuota());
+        assertTrue(newer.isClosed());
+        assertFalse(newest.isClosed());
+        assertEquals(0, manager.evictOverQuota());
+        assertEquals(200, manager.getTenantUsage("physics"));
+
+        var stats = manager.getStatistics().getTenantStatistics();
+        assertEquals(2, stats.get("physics").getEvictions());
+        assertEquals(0, stats.get("renderer").getEvictions());
+        manager.releaseMemory(pooled);
+    }
+
+    @Test
+    void testConcurrentChargesRespectHardQuota() throws InterruptedException {
+        int threads = 8;
+        manager.setTenantQuota("physics", 10_000, 10_000);
+        var executor = Executors.newFixedThreadPool(threads);
+        var start = new CountDownLatch(1);
+        var granted = new AtomicInteger();
+        var buffers = new ArrayList<ByteBuffer>();
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 10; i++) {
+                    try {
+                        var buffer = manager.allocateMemory("physics", 256);
+                        granted.incrementAndGet();
+                        synchronized (buffers) {
+                            buffers.add(buffer);
+                        }
+                    } catch (UnifiedResourceManager.TenantQuotaExceededException e) {
+                        // expected once the quota is reached
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(10_000 / 256, granted.get());
+        assertEquals(granted.get() * 256L, manager.getTenantUsage("physics"));
+        buffers.forEach(manager::releaseMemory);
+        assertEquals(0, manager.getTenantUsage("physics"));
+    }
+
+    private static class FakeResource implements GPUResource {
+        private final String id = UUID.randomUUID().toString();
+        private final long size;
+        private final long created = System.currentTimeMillis();
+        private volatile boolean closed;
+
+        FakeResource(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public GPUResourceType getType() {
+            return GPUResourceType.TEXTURE_2D;
+        }
+
+        @Override
+        public long getSizeBytes() {
+            return size;
+        }
+
+        @Override
+        public boolean isValid() {
+            return !closed;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public long getAgeMillis() {
+            return System.currentTimeMillis() - created;
+        }
+
+        @Override
+        public ResourceStatistics getStatistics() {
+            return new ResourceStatistics(size, size, 0, created, 100.0f);
+        }
+
+        @Override
+        public Object getNativeHandle() {
+            return null;
+        }
+
+        @Override
+        public String getDescription() {
+            return "fake";
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
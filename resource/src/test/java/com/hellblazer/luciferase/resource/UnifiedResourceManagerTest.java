@@ -10,6 +10,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -297,6 +298,143 @@ class UnifiedResourceManagerTest {
         assertDoesNotThrow(() -> manager.releaseMemory(buffer));
     }
 
+    @Test
+    void testResourceIdTravelsWithBuffer() {
+        var first = manager.allocateMemory(1024);
+        var second = manager.allocateMemory(1024);
+        var firstId = manager.getResourceId(first);
+        var secondId = manager.getResourceId(second);
+        assertNotNull(firstId);
+        assertNotEquals(firstId, secondId);
+        assertEquals(firstId.toString(), manager.getResource(firstId.toString()).getId());
+
+        // Lookup does not depend on the buffer's position
+        first.position(512);
+        assertEquals(firstId, manager.getResourceId(first));
+        assertNull(manager.getResourceId(ByteBuffer.allocateDirect(16)));
+
+        manager.releaseMemory(first);
+        manager.releaseMemory(second);
+        assertNull(manager.getResourceId(first));
+        assertFalse(manager.isResourceActive(firstId));
+        assertEquals(0, manager.getActiveResourceCount());
+        assertEquals(0, manager.getTotalMemoryAllocated());
+    }
+
+    @Test
+    void testTypeIndexesAndAgeCleanup() {
+        var old = new AgedResource(GPUResourceType.TEXTURE_2D, 1000, 100.0f, 60_000);
+        var young = new AgedResource(GPUResourceType.TEXTURE_2D, 3000, 0.0f, 10);
+        var buffer = new AgedResource(GPUResourceType.VERTEX_BUFFER, 500, 0.0f, 30_000);
+        manager.register(young, "renderer");
+        manager.register(old, "renderer");
+        manager.register(buffer, "renderer");
+
+        assertEquals(Set.of(old, young), new HashSet<>(manager.getResourcesByType(GPUResourceType.TEXTURE_2D)));
+        assertTrue(manager.getResourcesByType(GPUResourceType.SHADER_PROGRAM).isEmpty());
+        var textures = manager.getStatistics().getTypeStatistics().get(GPUResourceType.TEXTURE_2D);
+        assertEquals(2, textures.getCount());
+        assertEquals(1000, textures.getUsedBytes());
+        assertEquals(50.0f, textures.getAvgUtilization(), 0.001f);
+
+        young.utilization = 100.0f; // Usage changing after registration is reflected
+        textures = manager.getStatistics().getTypeStatistics().get(GPUResourceType.TEXTURE_2D);
+        assertEquals(4000, textures.getUsedBytes());
+        assertEquals(100.0f, textures.getAvgUtilization(), 0.001f);
+
+        // Oldest first, stopping at the first resource young enough to keep
+        assertEquals(2, manager.cleanupUnused(1000));
+        assertTrue(old.isClosed());
+        assertTrue(buffer.isClosed());
+        assertFalse(young.isClosed());
+        assertEquals(List.of(young), manager.getResourcesByType(GPUResourceType.TEXTURE_2D));
+        assertNull(manager.getResource(old.getId()));
+        assertNull(manager.getStatistics().getTypeStatistics().get(GPUResourceType.VERTEX_BUFFER));
+
+        manager.unregister(young);
+        assertTrue(manager.getStatistics().getTypeStatistics().isEmpty());
+        assertEquals(0, manager.cleanupUnused(0));
+    }
+
+    @Test
+    void testBatchAllocateAndRelease() {
+        int[] sizes = {1024, 4096, 1024, 65536};
+        var buffers = manager.allocateMemoryBatch(sizes);
+        assertEquals(sizes.length, buffers.size());
+        for (int i = 0; i < sizes.length; i++) {
+            assertTrue(buffers.get(i).capacity() >= sizes[i]);
+            assertNotNull(manager.getResourceId(buffers.get(i)));
+        }
+        assertEquals(sizes.length, manager.getActiveResourceCount());
+        assertEquals(sizes.length, manager.getTracker().getActiveCount(), "Batch handles are tracked");
+        assertEquals(71680, manager.getTotalMemoryAllocated());
+        assertEquals(71680, manager.getTenantUsage(UnifiedResourceManager.DEFAULT_TENANT));
+
+        var withNull = new ArrayList<>(buffers);
+        withNull.add(null);
+        manager.releaseMemoryBatch(withNull);
+        assertEquals(0, manager.getActiveResourceCount());
+        assertEquals(0, manager.getTotalMemoryAllocated());
+        assertEquals(0, manager.getTenantUsage(UnifiedResourceManager.DEFAULT_TENANT));
+        assertEquals(0, manager.getStatistics().getTenantStatistics()
+                                .get(UnifiedResourceManager.DEFAULT_TENANT).getResourceCount());
+        assertEquals(0, manager.getTracker().getActiveCount(), "Batch handles unregister when released");
+        assertDoesNotThrow(() -> manager.releaseMemoryBatch(buffers), "Duplicate release is ignored");
+
+        long hits = manager.getMemoryPool().getPoolStatistics().poolHits;
+        var again = manager.allocateMemoryBatch(sizes);
+        assertEquals(hits + sizes.length, manager.getMemoryPool().getPoolStatistics().poolHits,
+                     "Released batch is reused");
+        manager.releaseMemoryBatch(again);
+    }
+
+    @Test
+    void testBatchIsAllOrNothing() {
+        manager.setTenantQuota("streaming", 4096, 4096);
+        assertThrows(UnifiedResourceManager.TenantQuotaExceededException.class,
+                     () -> manager.allocateMemoryBatch("streaming", new int[] {2048, 2048, 2048}));
+        assertThrows(IllegalArgumentException.class,
+                     () -> manager.allocateMemoryBatch(new int[] {1024, 0}));
+        assertEquals(0, manager.getActiveResourceCount());
+        assertEquals(0, manager.getTenantUsage("streaming"));
+
+        var created = new ArrayList<AgedResource>();
+        assertThrows(IllegalStateException.class, () -> manager.createBatch("streaming", 3, i -> {
+            if (i == 2) {
+                throw new IllegalStateException("creation failed");
+            }
+            var resource = new AgedResource(GPUResourceType.TEXTURE_2D, 1000, 0.0f, 0);
+            created.add(resource);
+            return resource;
+        }));
+        assertEquals(2, created.size());
+        assertTrue(created.stream().allMatch(AgedResource::isClosed), "Partial batch closed");
+        assertTrue(manager.getResourcesByType(GPUResourceType.TEXTURE_2D).isEmpty());
+
+        var batch = manager.createBatch("streaming", 4,
+                                        i -> new AgedResource(GPUResourceType.TEXTURE_2D, 1000, 0.0f, 0));
+        assertEquals(4, manager.getResourcesByType(GPUResourceType.TEXTURE_2D).size());
+        assertEquals(4000, manager.getTenantUsage("streaming"));
+        assertEquals(4000, manager.getAllocatedBytes(GPUResourceType.TEXTURE_2D));
+        assertThrows(UnifiedResourceManager.TenantQuotaExceededException.class,
+                     () -> manager.createBatch("streaming", 1,
+                                               i -> new AgedResource(GPUResourceType.TEXTURE_2D, 1000, 0.0f, 0)));
+        batch.forEach(manager::unregister);
+        assertEquals(0, manager.getTenantUsage("streaming"));
+
+        var valid = new AgedResource(GPUResourceType.TEXTURE_2D, 1000, 0.0f, 0);
+        var malformed = new AgedResource(GPUResourceType.TEXTURE_2D, 1000, 0.0f, 0) {
+            @Override
+            public String getId() {
+                return "not-a-uuid";
+            }
+        };
+        assertThrows(IllegalArgumentException.class, () -> manager.registerBatch(List.of(valid, malformed), "streaming"));
+        assertNull(manager.getResource(valid.getId()), "Entries before the malformed one are not registered");
+        assertEquals(0, manager.getTenantUsage("streaming"));
+        assertEquals(0, manager.getStatistics().getTenantStatistics().get("streaming").getResourceCount());
+    }
+
     @Test
     void testReleaseNull() {
         // Should handle null gracefully
@@ -316,4 +454,70 @@ class UnifiedResourceManagerTest {
         // Shutdown should be safe even after close
         assertDoesNotThrow(() -> manager.shutdown());
     }
+
+    private static class AgedResource implements GPUResource {
+        private final String id = UUID.randomUUID().toString();
+        private final GPUResourceType type;
+        private final long size;
+        private volatile float utilization;
+        private final long created;
+        private volatile boolean closed;
+
+        AgedResource(GPUResourceType type, long size, float utilization, long ageMillis) {
+            this.type = type;
+            this.size = size;
+            this.utilization = utilization;
+            this.created = System.currentTimeMillis() - ageMillis;
+        }
+
+        @Override
+        public GPUResourceType getType() {
+            return type;
+        }
+
+        @Override
+        public long getSizeBytes() {
+            return size;
+        }
+
+        @Override
+        public boolean isValid() {
+            return !closed;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public long getAgeMillis() {
+            return System.currentTimeMillis() - created;
+        }
+
+        @Override
+        public ResourceStatistics getStatistics() {
+            return new ResourceStatistics(size, (long) (size * utilization / 100), 0, created, utilization);
+        }
+
+        @Override
+        public Object getNativeHandle() {
+            return null;
+        }
+
+        @Override
+        public String getDescription() {
+            return "aged " + type;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
 }
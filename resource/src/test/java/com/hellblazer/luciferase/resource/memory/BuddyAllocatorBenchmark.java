@@ -0,0 +1,100 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import org.lwjgl.system.MemoryUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing large transient allocations from buddy arenas with
+ * separate malloc/free calls.
+ *
+ * <p>Each invocation allocates a batch of live buffers of mixed sizes around
+ * the parameter and frees them in a different order, so splits and merges are
+ * exercised instead of a single block bouncing between two states. The
+ * allocations are touched once so lazily mapped malloc memory is paid for.
+ *
+ * <p>Usage:
+ * <pre>
+ * mvn exec:java -Dexec.mainClass="com.hellblazer.luciferase.resource.memory.BuddyAllocatorBenchmark" \
+ *   -Dexec.classpathScope=test
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class BuddyAllocatorBenchmark {
+
+    private static final int BATCH = 8;
+
+    @Param({"1048576", "8388608", "33554432"})
+    private int size;
+
+    private BuddyAllocator buddy;
+    private long[] addresses;
+    private int[] sizes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        buddy = new BuddyAllocator(BuddyAllocator.DEFAULT_ARENA_SIZE, BuddyAllocator.DEFAULT_MIN_BLOCK_SIZE, 2, 2);
+        addresses = new long[BATCH];
+        sizes = new int[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            sizes[i] = size >> (i % 3); // size, size/2, size/4, ...
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        buddy.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void buddy(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) {
+            addresses[i] = buddy.allocate(sizes[i]);
+            MemoryUtil.memPutByte(addresses[i] + sizes[i] - 1, (byte) i);
+        }
+        for (int i = 0; i < BATCH; i += 2) {
+            bh.consume(addresses[i]);
+            buddy.free(addresses[i]);
+        }
+        for (int i = 1; i < BATCH; i += 2) {
+            bh.consume(addresses[i]);
+            buddy.free(addresses[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void malloc(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) {
+            addresses[i] = MemoryUtil.nmemAlloc(sizes[i]);
+            MemoryUtil.memPutByte(addresses[i] + sizes[i] - 1, (byte) i);
+        }
+        for (int i = 0; i < BATCH; i += 2) {
+            bh.consume(addresses[i]);
+            MemoryUtil.nmemFree(addresses[i]);
+        }
+        for (int i = 1; i < BATCH; i += 2) {
+            bh.consume(addresses[i]);
+            MemoryUtil.nmemFree(addresses[i]);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        var opts = new OptionsBuilder()
+            .include(BuddyAllocatorBenchmark.class.getSimpleName())
+            .forks(1)
+            .build();
+
+        new Runner(opts).run();
+    }
+}
@@ -0,0 +1,317 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceHandle;
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the buddy allocator and the MemoryPool BUDDY backend.
+ */
+public class BuddyAllocatorTest {
+
+    private static final int KB = 1024;
+    private static final int MB = 1024 * 1024;
+
+    @Test
+    void testSplitAndMergeBackToWholeArena() {
+        try (var buddy = new BuddyAllocator(MB, 4 * KB, 1, 1)) {
+            long address = buddy.allocate(4 * KB);
+            assertNotEquals(0, address);
+
+            var stats = buddy.getStatistics();
+            assertEquals(8, stats.splits); // 1 MB down to 4 KB
+            assertEquals(4 * KB, stats.bytesInUse);
+            assertEquals(512 * KB, stats.largestFreeBlock);
+
+            buddy.free(address);
+            stats = buddy.getStatistics();
+            assertEquals(8, stats.merges);
+            assertEquals(0, stats.bytesInUse);
+            assertEquals(MB, stats.largestFreeBlock);
+            assertEquals(0.0, stats.getExternalFragmentation(), 1e-9);
+        }
+    }
+
+    @Test
+    void testNonPowerOfTwoSizeTakesOnlyItsBytes() {
+        try (var buddy = new BuddyAllocator(MB, 4 * KB, 1, 1)) {
+            assertEquals(12 * KB, buddy.blockSize(10_000));
+            long first = buddy.allocate(640 * KB);
+            var stats = buddy.getStatistics();
+            assertEquals(640 * KB, stats.bytesInUse);
+            assertEquals(256 * KB, stats.largestFreeBlock, "Tail of the 1 MB block was split off");
+
+            // Both fit only in the freed tail
+            long second = buddy.allocate(256 * KB);
+            long third = buddy.allocate(128 * KB);
+            assertEquals(first + 768 * KB, second);
+            assertEquals(first + 640 * KB, third);
+            assertEquals(MB, buddy.getStatistics().bytesInUse);
+
+            buddy.free(second);
+            buddy.free(first);
+            buddy.free(third);
+            stats = buddy.getStatistics();
+            assertEquals(0, stats.bytesInUse);
+            assertEquals(0, stats.blocksInUse);
+            assertEquals(MB, stats.largestFreeBlock, "All parts coalesced");
+            assertThrows(IllegalStateException.class, () -> buddy.free(first));
+        }
+    }
+
+    @Test
+    void testBlocksDoNotOverlap() {
+        try (var buddy = new BuddyAllocator(MB, 4 * KB, 1, 1)) {
+            int[] sizes = {5000, 4096, 100 * KB, 1, 64 * KB, 30000, 200 * KB, 4097};
+            var blocks = new ArrayList<long[]>();
+            for (int size : sizes) {
+                long address = buddy.allocate(size);
+                assertNotEquals(0, address);
+                assertEquals(0, address % 4096, "Blocks are aligned to the minimum block size");
+                blocks.add(new long[]{address, buddy.blockSize(size)});
+            }
+            blocks.sort((a, b) -> Long.compare(a[0], b[0]));
+            for (int i = 1; i < blocks.size(); i++) {
+                assertTrue(blocks.get(i - 1)[0] + blocks.get(i - 1)[1] <= blocks.get(i)[0]);
+            }
+            blocks.forEach(block -> buddy.free(block[0]));
+            assertEquals(MB, buddy.getStatistics().largestFreeBlock);
+        }
+    }
+
+    @Test
+    void testExternalFragmentation() {
+        try (var buddy = new BuddyAllocator(MB, 4 * KB, 1, 1)) {
+            var blocks = new long[4];
+            for (int i = 0; i < 4; i++) {
+                blocks[i] = buddy.allocate(256 * KB);
+            }
+            assertEquals(0, buddy.allocate(4 * KB), "Arena is full");
+            assertEquals(1, buddy.getStatistics().failedAllocations);
+
+            // Free two non-buddy quarters: 512 KB free but only 256 KB contiguous
+            buddy.free(blocks[0]);
+            buddy.free(blocks[2]);
+            var stats = buddy.getStatistics();
+            assertEquals(0.5, stats.getUtilization(), 1e-9);
+            assertEquals(0.5, stats.getExternalFragmentation(), 1e-9);
+
+            buddy.free(blocks[1]);
+            buddy.free(blocks[3]);
+            assertEquals(0.0, buddy.getStatistics().getExternalFragmentation(), 1e-9);
+        }
+    }
+
+    @Test
+    void testOnDemandArenaIsReleasedWhenEmpty() {
+        try (var buddy = new BuddyAllocator(MB, 4 * KB, 1, 2)) {
+            long first = buddy.allocate(MB);
+            long second = buddy.allocate(MB);
+            assertNotEquals(0, second);
+            assertEquals(2, buddy.getStatistics().arenas);
+            assertEquals(0, buddy.allocate(MB), "maxArenas reached");
+
+            buddy.free(second);
+            assertEquals(1, buddy.getStatistics().arenas);
+            assertEquals(1, buddy.getStatistics().arenasReleased);
+
+            buddy.free(first);
+            assertEquals(1, buddy.getStatistics().arenas, "Initial arenas are kept");
+        }
+    }
+
+    @Test
+    void testInvalidFrees() {
+        try (var buddy = new BuddyAllocator(MB, 4 * KB, 1, 1)) {
+            long address = buddy.allocate(8 * KB);
+            buddy.free(address);
+            assertThrows(IllegalStateException.class, () -> buddy.free(address));
+            assertThrows(IllegalArgumentException.class, () -> buddy.free(1));
+            assertThrows(IllegalArgumentException.class, () -> buddy.allocate(2 * MB));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new BuddyAllocator(3 * MB, 4 * KB, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BuddyAllocator(MB, 4 * KB, 2, 1));
+    }
+
+    @Test
+    void testNativeMemoryHandle() {
+        try (var buddy = new BuddyAllocator(MB, 4 * KB, 1, 1)) {
+            var handle = buddy.allocateHandle(10000, new ResourceTracker());
+            assertNotNull(handle);
+            assertEquals(10000, handle.getSize());
+            assertEquals(10000, handle.get().capacity());
+            handle.get().putInt(9996, 42);
+            assertEquals(12 * KB, buddy.getStatistics().bytesInUse, "Rounded to the minimum block size");
+
+            handle.close();
+            assertEquals(0, buddy.getStatistics().bytesInUse);
+        }
+    }
+
+    @Test
+    void testHandleFreesBlockStartAfterRelativePuts() {
+        try (var buddy = new BuddyAllocator(MB, 4 * KB, 1, 1)) {
+            var neighbour = buddy.allocateHandle(4 * KB, new ResourceTracker());
+            var filled = buddy.allocateHandle(4 * KB, new ResourceTracker());
+            var partial = buddy.allocateHandle(4 * KB, new ResourceTracker());
+            while (filled.get().hasRemaining()) {
+                filled.get().putInt(7); // Leaves the position at the end of the block
+            }
+            partial.get().position(100);
+            assertEquals(12 * KB, buddy.getStatistics().bytesInUse);
+
+            filled.close();
+            partial.close();
+            assertEquals(ResourceHandle.State.CLOSED, filled.getState());
+            assertEquals(ResourceHandle.State.CLOSED, partial.getState());
+            assertEquals(4 * KB, buddy.getStatistics().bytesInUse, "Only the closed blocks were freed");
+            assertTrue(neighbour.isValid());
+
+            neighbour.close();
+            assertEquals(0, buddy.getStatistics().bytesInUse);
+        }
+    }
+
+    @Test
+    void testConcurrentAllocateFree() throws Exception {
+        try (var buddy = new BuddyAllocator(4 * MB, 4 * KB, 1, 1)) {
+            int threads = 8;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch latch = new CountDownLatch(1);
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final byte marker = (byte) (t + 1);
+                final int size = (4 * KB) << (t % 4);
+                futures.add(executor.submit(() -> {
+                    latch.await();
+                    for (int i = 0; i < 1000; i++) {
+                        long address = buddy.allocate(size);
+                        if (address == 0) {
+                            return false;
+                        }
+                        org.lwjgl.system.MemoryUtil.memSet(address, marker, size);
+                        if (org.lwjgl.system.MemoryUtil.memGetByte(address + size - 1) != marker) {
+                            return false; // Block handed out twice
+                        }
+                        buddy.free(address);
+                    }
+                    return true;
+                }));
+            }
+            latch.countDown();
+            for (var future : futures) {
+                assertTrue(future.get());
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+            var stats = buddy.getStatistics();
+            assertEquals(0, stats.blocksInUse);
+            assertEquals(4 * MB, stats.largestFreeBlock);
+        }
+    }
+
+    @Test
+    void testMemoryPoolBuddyBackend() {
+        var config = MemoryPool.Config.builder()
+            .backend(MemoryPool.Backend.BUDDY)
+            .buddyArenaSize(MB)
+            .buddyArenas(1, 1)
+            .build();
+        try (var pool = new MemoryPool(config, new ResourceTracker())) {
+            var buffer = pool.borrow(60 * KB);
+            assertEquals(64 * KB, buffer.getSize());
+            assertEquals(0, buffer.get().getLong(0));
+            assertEquals(1, pool.getPoolStatistics().buddyStatistics.blocksInUse);
+            buffer.close();
+
+            // Idle pooled buffers keep their block until evicted or cleared
+            assertEquals(1, pool.getPoolStatistics().buddyStatistics.blocksInUse);
+            try (var reused = pool.borrow(64 * KB)) {
+                assertEquals(1, pool.getPoolStatistics().poolHits);
+            }
+
+            // Larger than an arena: falls back to malloc
+            try (var large = pool.borrow(2 * MB)) {
+                assertEquals(2 * MB, large.getSize());
+                assertEquals(1, pool.getPoolStatistics().buddyStatistics.blocksInUse);
+            }
+
+            pool.clear();
+            var stats = pool.getPoolStatistics().buddyStatistics;
+            assertEquals(0, stats.blocksInUse);
+            assertEquals(MB, stats.largestFreeBlock);
+            assertEquals(0, pool.getPoolStatistics().totalBuffers);
+        }
+    }
+
+    @Test
+    void testMemoryPoolQuarterClassesKeepTheirSize() {
+        var config = MemoryPool.Config.builder()
+            .backend(MemoryPool.Backend.BUDDY)
+            .sizeClassScheme(SizeClassScheme.QUARTER_POWER_OF_TWO)
+            .buddyArenaSize(MB)
+            .buddyArenas(1, 1)
+            .build();
+        try (var pool = new MemoryPool(config, new ResourceTracker())) {
+            var a = pool.borrow(600 * KB);
+            var b = pool.borrow(200 * KB);
+            assertEquals(640 * KB, a.getSize());
+            assertEquals(224 * KB, b.getSize());
+
+            var stats = pool.getPoolStatistics();
+            assertEquals(2, stats.buddyStatistics.blocksInUse, "Both classes fit in one 1 MB arena");
+            assertEquals(0, stats.buddyStatistics.failedAllocations);
+            assertEquals(864 * KB, stats.buddyStatistics.bytesInUse);
+            assertEquals(864 * KB, stats.reservedBytes);
+            a.close();
+            b.close();
+        }
+    }
+
+    @Test
+    void testMemoryPoolReservedBytesCountsWholeBlocks() {
+        var config = MemoryPool.Config.builder()
+            .backend(MemoryPool.Backend.BUDDY)
+            .buddyArenaSize(MB)
+            .buddyArenas(1, 1)
+            .build();
+        try (var pool = new MemoryPool(config, new ResourceTracker())) {
+            try (var small = pool.borrow(1000)) {
+                var stats = pool.getPoolStatistics();
+                assertEquals(4 * KB, stats.buddyStatistics.bytesInUse);
+                assertEquals(4 * KB, stats.reservedBytes, "Reported as the minimum block it occupies");
+            }
+        }
+    }
+
+    @Test
+    void testMemoryPoolFallsBackWhenArenasExhausted() {
+        var config = MemoryPool.Config.builder()
+            .backend(MemoryPool.Backend.BUDDY)
+            .buddyArenaSize(MB)
+            .buddyArenas(1, 1)
+            .build();
+        try (var pool = new MemoryPool(config, new ResourceTracker())) {
+            var buffers = new ArrayList<MemoryPool.BorrowedBuffer>();
+            for (int i = 0; i < 3; i++) {
+                buffers.add(pool.borrow(512 * KB));
+            }
+            var stats = pool.getPoolStatistics();
+            assertEquals(2, stats.buddyStatistics.blocksInUse);
+            assertEquals(1, stats.buddyStatistics.failedAllocations);
+            assertEquals(3, stats.totalBuffers);
+            buffers.forEach(MemoryPool.BorrowedBuffer::close);
+        }
+    }
+}
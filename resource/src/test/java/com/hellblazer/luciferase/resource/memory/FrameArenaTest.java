@@ -0,0 +1,156 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.system.MemoryUtil;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the per-frame bump allocator.
+ */
+public class FrameArenaTest {
+
+    private static final int BLOCK = 4096;
+
+    private MemoryPool pool;
+    private ResourceTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        pool = new MemoryPool(MemoryPool.Config.builder().build(), new ResourceTracker());
+        tracker = new ResourceTracker();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void testBumpAllocationAndAlignment() {
+        try (var arena = new FrameArena(pool, BLOCK, 1, tracker)) {
+            var a = arena.allocate(10);
+            var b = arena.allocate(10);
+            assertEquals(0, a % FrameArena.DEFAULT_ALIGNMENT);
+            assertEquals(a + 16, b, "Consecutive allocations share a block");
+            var c = arena.allocate(1, 1);
+            assertEquals(b + 10, c);
+            var d = arena.allocate(8, 256);
+            assertEquals(0, d % 256);
+            assertEquals(29, arena.getUsedBytes());
+
+            MemoryUtil.memPutInt(a, 7);
+            assertEquals(7, MemoryUtil.memGetInt(a));
+
+            var buffer = arena.allocateBuffer(64);
+            assertEquals(64, buffer.capacity());
+            buffer.putLong(56, 1L);
+
+            assertThrows(IllegalArgumentException.class, () -> arena.allocate(0));
+            assertThrows(IllegalArgumentException.class, () -> arena.allocate(8, 3));
+        }
+    }
+
+    @Test
+    void testBlocksAreExemptFromLeaseReclaim() throws InterruptedException {
+        try (var leased = new MemoryPool(MemoryPool.Config.builder()
+                 .leaseTimeout(java.time.Duration.ofMillis(10))
+                 .reclaimExpiredLeases(true)
+                 .build(), new ResourceTracker());
+             var arena = new FrameArena(leased, BLOCK, 1, tracker)) {
+            var small = arena.allocate(100);
+            var large = arena.allocate(2 * BLOCK);
+            Thread.sleep(30);
+
+            assertEquals(0, leased.scanLeases(), "Arena blocks have no lease deadline");
+            assertEquals(0, leased.getPoolStatistics().reclaimedLeases);
+            assertEquals(2, leased.getPoolStatistics().currentlyBorrowed);
+            MemoryUtil.memPutInt(small, 7);
+            MemoryUtil.memPutLong(large + BLOCK, 9L);
+
+            try (var other = leased.borrow(BLOCK)) {
+                assertEquals(0, leased.getPoolStatistics().poolHits, "Block was not handed out again");
+            }
+            assertEquals(7, MemoryUtil.memGetInt(small));
+        }
+    }
+
+    @Test
+    void testResetReusesBlocks() {
+        try (var arena = new FrameArena(pool, BLOCK, 1, tracker)) {
+            var first = arena.allocate(100);
+            for (int i = 0; i < 100; i++) {
+                arena.allocate(100);
+            }
+            assertTrue(arena.getBlockCount() > 1, "Should have grown past one block");
+            int blocks = arena.getBlockCount();
+
+            arena.reset();
+            assertEquals(0, arena.getUsedBytes());
+            assertEquals(first, arena.allocate(100), "Reset rewinds to the start of the first block");
+            for (int i = 0; i < 100; i++) {
+                arena.allocate(100);
+            }
+            assertEquals(blocks, arena.getBlockCount(), "Blocks are reused, not borrowed again");
+            assertEquals(101 * 100, arena.getHighWaterBytes());
+        }
+    }
+
+    @Test
+    void testRingKeepsInFlightFramesIntact() {
+        try (var arena = new FrameArena(pool, BLOCK, 2, tracker)) {
+            var frame0 = arena.allocate(64);
+            MemoryUtil.memPutLong(frame0, 42L);
+
+            assertEquals(1, arena.nextFrame());
+            var frame1 = arena.allocate(64);
+            assertNotEquals(frame0, frame1);
+            MemoryUtil.memPutLong(frame1, 43L);
+            assertEquals(42L, MemoryUtil.memGetLong(frame0), "Previous frame untouched");
+
+            assertEquals(2, arena.nextFrame());
+            assertEquals(frame0, arena.allocate(64), "Frame 0's blocks recycled two frames later");
+            assertEquals(43L, MemoryUtil.memGetLong(frame1));
+            assertEquals(2, arena.getBlockCount());
+        }
+    }
+
+    @Test
+    void testOversizedAllocations() {
+        try (var arena = new FrameArena(pool, BLOCK, 1, tracker)) {
+            var large = arena.allocate(3 * BLOCK, 64);
+            assertEquals(0, large % 64);
+            MemoryUtil.memSet(large, 1, 3 * BLOCK);
+            assertEquals(0, arena.getBlockCount());
+            assertEquals(1, pool.getPoolStatistics().currentlyBorrowed);
+
+            arena.reset();
+            assertEquals(0, pool.getPoolStatistics().currentlyBorrowed, "Oversized buffers return on reset");
+        }
+    }
+
+    @Test
+    void testTrimAndClose() {
+        var arena = new FrameArena(pool, BLOCK, 1, tracker);
+        // One per block
+        for (int i = 0; i < 3; i++) {
+            arena.allocate(BLOCK / 2 + 1);
+        }
+        arena.reset();
+        arena.allocate(BLOCK / 2 + 1);
+        assertEquals(0, arena.trim(), "Blocks reached by the previous frame are kept");
+        arena.reset();
+        assertEquals(2, arena.trim());
+        assertEquals(1, arena.getBlockCount());
+
+        assertEquals(1, tracker.getActiveCount(), "Tracked once, not per allocation");
+        assertEquals(1, pool.getPoolStatistics().currentlyBorrowed);
+        arena.close();
+        assertEquals(0, tracker.getActiveCount());
+        assertEquals(0, pool.getPoolStatistics().currentlyBorrowed);
+        assertThrows(IllegalStateException.class, () -> arena.allocate(8));
+    }
+}
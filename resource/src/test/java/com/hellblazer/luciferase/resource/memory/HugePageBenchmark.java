@@ -0,0 +1,96 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import org.lwjgl.system.MemoryUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark measuring CPU fill throughput of a BATCH-sized buffer with and
+ * without transparent huge page advice.
+ *
+ * <p>Both variants are aligned to {@link HugePages#PAGE_SIZE} and pre-faulted in
+ * setup, so the difference is TLB reach rather than page fault cost. Sequential
+ * fill is mostly bound by memory bandwidth; the random variant writes one long per
+ * cache line at shuffled offsets and is where huge pages should pay off. Only
+ * meaningful on Linux with THP in {@code always} or {@code madvise} mode.
+ *
+ * <p>Usage:
+ * <pre>
+ * mvn exec:java -Dexec.mainClass="com.hellblazer.luciferase.resource.memory.HugePageBenchmark" \
+ *   -Dexec.classpathScope=test
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+@State(Scope.Thread)
+public class HugePageBenchmark {
+
+    private static final int CACHE_LINE = 64;
+    private static final int RANDOM_WRITES = 1 << 20;
+
+    @Param({"134217728"})
+    private int size;
+
+    @Param({"true", "false"})
+    private boolean hugePages;
+
+    private NativeMemoryHandle handle;
+    private long address;
+    private long[] offsets;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        handle = hugePages
+            ? NativeMemoryHandle.allocateHugePages(size, null)
+            : NativeMemoryHandle.allocateAligned(size, HugePages.PAGE_SIZE, null);
+        if (hugePages && !handle.isHugePageBacked()) {
+            System.err.println("Huge pages unavailable (THP mode: " + HugePages.getMode() + "), measuring regular pages");
+        }
+        address = handle.getAddress();
+        MemoryUtil.memSet(address, 0, size);
+
+        var random = new SplittableRandom(42);
+        offsets = new long[RANDOM_WRITES];
+        int lines = size / CACHE_LINE;
+        for (int i = 0; i < RANDOM_WRITES; i++) {
+            offsets[i] = (long) random.nextInt(lines) * CACHE_LINE;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        handle.close();
+    }
+
+    @Benchmark
+    public void sequentialFill() {
+        for (long offset = 0; offset < size; offset += Long.BYTES) {
+            MemoryUtil.memPutLong(address + offset, offset);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_WRITES)
+    public void randomFill() {
+        var base = address;
+        for (var offset : offsets) {
+            MemoryUtil.memPutLong(base + offset, offset);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        var opts = new OptionsBuilder()
+            .include(HugePageBenchmark.class.getSimpleName())
+            .forks(1)
+            .build();
+
+        new Runner(opts).run();
+    }
+}
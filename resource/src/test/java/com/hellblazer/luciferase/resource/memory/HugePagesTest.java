@@ -0,0 +1,101 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for transparent huge page allocation. Advice is only accepted on Linux with THP
+ * enabled, so assertions about it are conditional on {@link HugePages#isSupported()}.
+ */
+public class HugePagesTest {
+
+    private static final int MB = 1024 * 1024;
+
+    @Test
+    void testAdviseRejectsUnalignedRanges() {
+        assertNotNull(HugePages.getMode());
+        assertFalse(HugePages.advise(0, HugePages.PAGE_SIZE));
+        assertFalse(HugePages.advise(HugePages.PAGE_SIZE + 4096L, HugePages.PAGE_SIZE));
+    }
+
+    @Test
+    void testHandleAllocatedOnHugePageBoundary() {
+        try (var handle = NativeMemoryHandle.allocateHugePages(3 * MB, new ResourceTracker())) {
+            assertEquals(0, handle.getAddress() % HugePages.PAGE_SIZE);
+            assertEquals(3 * MB, handle.getSize());
+            assertEquals(3 * MB, handle.getBuffer().capacity());
+            assertTrue(handle.isAligned());
+            if (!HugePages.isSupported()) {
+                assertFalse(handle.isHugePageBacked());
+            }
+            handle.clear();
+        }
+        try (var regular = NativeMemoryHandle.allocate(MB, null)) {
+            assertFalse(regular.isHugePageBacked());
+        }
+    }
+
+    @Test
+    void testPooledBuffersAboveThreshold() {
+        var config = MemoryPool.Config.builder()
+            .hugePageThreshold(4 * MB)
+            .build();
+        try (var pool = new MemoryPool(config, new ResourceTracker())) {
+            try (var large = pool.borrow(6 * MB);
+                 var small = pool.borrow(64 * 1024)) {
+                assertEquals(0, large.getAddress() % HugePages.PAGE_SIZE);
+                assertTrue(large.isAligned());
+                assertEquals(HugePages.isSupported(), large.isHugePageBacked());
+                assertFalse(small.isHugePageBacked());
+
+                var stats = pool.getPoolStatistics();
+                assertEquals(4 * MB, stats.hugePageThreshold);
+                assertEquals(1, stats.hugePageBuffers + stats.hugePageFallbacks);
+                assertEquals(stats.hugePageBuffers * 8L * MB, stats.hugePageBytes);
+            }
+
+            // Reused from the pool without a second allocation
+            try (var reused = pool.borrow(8 * MB)) {
+                assertEquals(HugePages.isSupported(), reused.isHugePageBacked());
+            }
+            var stats = pool.getPoolStatistics();
+            assertEquals(1, stats.hugePageBuffers + stats.hugePageFallbacks);
+
+            pool.clear();
+            assertEquals(0, pool.getPoolStatistics().hugePageBuffers);
+            assertEquals(0, pool.getPoolStatistics().hugePageBytes);
+        }
+    }
+
+    @Test
+    void testUnpooledBuffersAboveThreshold() {
+        var config = MemoryPool.Config.builder()
+            .maxBufferSize(MB)
+            .hugePageThreshold(2 * MB)
+            .build();
+        try (var pool = new MemoryPool(config, new ResourceTracker())) {
+            try (var batch = pool.borrow(5 * MB)) {
+                assertTrue(batch.isAligned());
+                assertEquals(5 * MB, batch.get().capacity());
+                assertEquals(HugePages.isSupported(), batch.isHugePageBacked());
+            }
+            assertEquals(0, pool.getPoolStatistics().hugePageBuffers, "Freed on return");
+            assertEquals(0, pool.getCurrentSize());
+        }
+    }
+
+    @Test
+    void testDisabledByDefault() {
+        try (var pool = new MemoryPool(MemoryPool.Config.builder().build(), new ResourceTracker())) {
+            try (var buffer = pool.borrow(8 * MB)) {
+                assertFalse(buffer.isHugePageBacked());
+            }
+            var stats = pool.getPoolStatistics();
+            assertEquals(0, stats.hugePageBuffers);
+            assertEquals(0, stats.hugePageFallbacks);
+        }
+        assertThrows(IllegalArgumentException.class, () -> MemoryPool.Config.builder().hugePageThreshold(-1));
+    }
+}
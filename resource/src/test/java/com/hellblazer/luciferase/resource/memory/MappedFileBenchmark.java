@@ -0,0 +1,122 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import org.lwjgl.system.MemoryUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing ingestion of a 1 GB dataset file by memory mapping against
+ * the current path of streaming it into heap arrays and copying into native buffers.
+ *
+ * <p>Both variants end with the data in native memory ready for an upload and hash every
+ * byte, so the mapped variant pays for its page faults. After the first iteration the file
+ * is in the page cache for both; drop caches between runs to measure cold reads.
+ *
+ * <p>Usage:
+ * <pre>
+ * mvn exec:java -Dexec.mainClass="com.hellblazer.luciferase.resource.memory.MappedFileBenchmark" \
+ *   -Dexec.classpathScope=test
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "--enable-native-access=ALL-UNNAMED")
+@State(Scope.Benchmark)
+public class MappedFileBenchmark {
+
+    private static final int CHUNK_SIZE = 256 * 1024 * 1024;
+    private static final int READ_SIZE = 1024 * 1024;
+
+    @Param({"1073741824"})
+    private long fileSize;
+
+    private Path file;
+    private MappedFileLoader loader;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Files.createTempFile("mapped-file-benchmark", ".bin");
+        var block = new byte[READ_SIZE];
+        for (int i = 0; i < block.length; i++) {
+            block[i] = (byte) (i * 31);
+        }
+        try (var out = Files.newOutputStream(file)) {
+            for (long written = 0; written < fileSize; written += block.length) {
+                out.write(block, 0, (int) Math.min(block.length, fileSize - written));
+            }
+        }
+        loader = new MappedFileLoader(null);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long streamAndCopy() throws IOException {
+        long hash = 0;
+        var heap = new byte[READ_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            for (long offset = 0; offset < fileSize; offset += CHUNK_SIZE) {
+                int length = (int) Math.min(CHUNK_SIZE, fileSize - offset);
+                try (var chunk = NativeMemoryHandle.allocate(length, null)) {
+                    var target = chunk.getBuffer();
+                    int filled = 0;
+                    while (filled < length) {
+                        int read = in.read(heap, 0, Math.min(heap.length, length - filled));
+                        if (read < 0) {
+                            throw new IOException("Unexpected end of " + file);
+                        }
+                        target.put(filled, heap, 0, read);
+                        filled += read;
+                    }
+                    hash ^= chunk.xxHash64(0, length, 0);
+                }
+            }
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public long mapped() throws IOException {
+        long hash = 0;
+        for (var chunk : loader.mapChunks(file, CHUNK_SIZE, MappedFileLoader.ReadAhead.SEQUENTIAL)) {
+            try (chunk) {
+                hash ^= chunk.xxHash64(0, chunk.getSize(), 0);
+            }
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public long mappedAndCopied() throws IOException {
+        // Mapped, then copied once into native memory, for callers that need a writable buffer
+        long hash = 0;
+        for (var chunk : loader.mapChunks(file, CHUNK_SIZE, MappedFileLoader.ReadAhead.SEQUENTIAL)) {
+            try (chunk; var copy = NativeMemoryHandle.allocate(chunk.getSize(), null)) {
+                MemoryUtil.memCopy(chunk.getAddress(), copy.getAddress(), chunk.getSize());
+                hash ^= copy.xxHash64(0, copy.getSize(), 0);
+            }
+        }
+        return hash;
+    }
+
+    public static void main(String[] args) throws Exception {
+        var opts = new OptionsBuilder()
+            .include(MappedFileBenchmark.class.getSimpleName())
+            .forks(1)
+            .build();
+
+        new Runner(opts).run();
+    }
+}
@@ -0,0 +1,136 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for memory-mapped file loading.
+ */
+public class MappedFileLoaderTest {
+
+    private static final int SIZE = 10_000;
+
+    private Path tempDir;
+    private Path file;
+    private byte[] data;
+    private ResourceTracker tracker;
+    private MappedFileLoader loader;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("mapped-file-loader");
+        data = new byte[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            data[i] = (byte) (i * 17 + 3);
+        }
+        file = Files.write(tempDir.resolve("octree.bin"), data);
+        tracker = new ResourceTracker();
+        loader = new MappedFileLoader(tracker);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var files = Files.walk(tempDir)) {
+            for (var path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    void testMapWholeFile() throws IOException {
+        try (var handle = loader.map(file, MappedFileLoader.ReadAhead.SEQUENTIAL)) {
+            assertEquals(SIZE, handle.getSize());
+            assertEquals(0, handle.getFileOffset());
+            assertEquals(file, handle.getFile());
+            assertTrue(handle.isReadOnly());
+            assertEquals(1, tracker.getActiveCount());
+
+            var buffer = handle.getBuffer();
+            assertEquals(data[0], buffer.get(0));
+            assertEquals(data[SIZE - 1], buffer.get(SIZE - 1));
+
+            var crc = new CRC32C();
+            crc.update(data);
+            assertEquals((int) crc.getValue(), handle.crc32c(0, SIZE));
+            assertEquals(data[1234], handle.asSegment().asByteBuffer().get(1234));
+        }
+        assertEquals(0, tracker.getActiveCount());
+    }
+
+    @Test
+    void testMapRangeAndCopyOut() throws IOException {
+        try (var handle = loader.map(file, 4096, 100, MappedFileLoader.ReadAhead.NORMAL);
+             var target = NativeMemoryHandle.allocate(100, null)) {
+            assertEquals(100, handle.getSize());
+            assertEquals(4096, handle.getFileOffset());
+            handle.copyTo(target, 0, 0, 100);
+            for (int i = 0; i < 100; i++) {
+                assertEquals(data[4096 + i], target.getBuffer().get(i));
+            }
+            assertTrue(handle.contentEquals(handle));
+        }
+        assertThrows(IllegalArgumentException.class,
+            () -> loader.map(file, SIZE - 10, 100, MappedFileLoader.ReadAhead.NORMAL));
+        assertThrows(IllegalArgumentException.class,
+            () -> loader.map(file, -1, 10, MappedFileLoader.ReadAhead.NORMAL));
+    }
+
+    @Test
+    void testMapChunks() throws IOException {
+        var chunks = loader.mapChunks(file, 4096, MappedFileLoader.ReadAhead.RANDOM);
+        try {
+            assertEquals(3, chunks.size());
+            assertEquals(3, tracker.getActiveCount());
+            assertEquals(4096, chunks.get(1).getSize());
+            assertEquals(8192, chunks.get(2).getFileOffset());
+            assertEquals(SIZE - 8192, chunks.get(2).getSize());
+            assertEquals(data[8192 + 5], chunks.get(2).getBuffer().get(5));
+        } finally {
+            chunks.forEach(MappedFileHandle::close);
+        }
+        assertEquals(0, tracker.getActiveCount());
+        assertThrows(IllegalArgumentException.class, () -> loader.mapChunks(file, 0, null));
+    }
+
+    @Test
+    void testWritesRejected() throws IOException {
+        try (var handle = loader.map(file, null);
+             var source = NativeMemoryHandle.allocate(16, null)) {
+            assertThrows(ReadOnlyBufferException.class, handle::clear);
+            assertThrows(ReadOnlyBufferException.class, () -> handle.fill(0, 4, (byte) 1));
+            assertThrows(ReadOnlyBufferException.class, () -> handle.fillInts(0, 1, 1));
+            assertThrows(ReadOnlyBufferException.class, () -> handle.putFloats(0, new float[1], 0, 1, 4));
+            assertThrows(ReadOnlyBufferException.class, () -> handle.swapBytes(0, 1, Integer.BYTES));
+            assertThrows(ReadOnlyBufferException.class, () -> source.copyTo(handle, 0, 0, 16));
+            assertThrows(ReadOnlyBufferException.class, () -> handle.getBuffer().put(0, (byte) 1));
+            assertEquals(data[0], handle.getBuffer().get(0));
+        }
+        assertArrayEquals(data, Files.readAllBytes(file));
+    }
+
+    @Test
+    void testHintsAreBestEffort() throws IOException {
+        try (var handle = loader.map(file, MappedFileLoader.ReadAhead.WILL_NEED)) {
+            var accepted = handle.prefetch(0, SIZE);
+            if (!MappedFileLoader.isAdviceSupported()) {
+                assertFalse(accepted);
+            }
+            assertThrows(IllegalArgumentException.class, () -> handle.prefetch(SIZE - 1, 2));
+        }
+        Files.write(tempDir.resolve("empty.bin"), new byte[0]);
+        assertThrows(IllegalArgumentException.class,
+            () -> loader.map(tempDir.resolve("empty.bin"), MappedFileLoader.ReadAhead.NORMAL));
+    }
+}
@@ -0,0 +1,172 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for budgeted tryBorrow and timed borrow with FIFO backpressure.
+ */
+public class MemoryPoolBudgetTest {
+
+    private static final int KB = 1024;
+
+    private MemoryPool pool;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        pool = new MemoryPool(MemoryPool.Config.builder()
+            .borrowBudgetBytes(16 * KB)
+            .build(), new ResourceTracker());
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        pool.close();
+    }
+
+    @Test
+    void testTryBorrowEnforcesBudget() {
+        var first = pool.tryBorrow(8 * KB);
+        var second = pool.tryBorrow(7 * KB); // Charged as its 8 KB size class
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(pool.tryBorrow(KB));
+
+        var stats = pool.getPoolStatistics();
+        assertEquals(16 * KB, stats.borrowedBytes);
+        assertEquals(1, stats.rejectedBorrows);
+
+        first.close();
+        try (var third = pool.tryBorrow(8 * KB)) {
+            assertNotNull(third);
+        }
+        second.close();
+        assertEquals(0, pool.getPoolStatistics().borrowedBytes);
+    }
+
+    @Test
+    void testPlainBorrowCountsAgainstBudget() {
+        try (var unbudgeted = pool.borrow(16 * KB)) {
+            assertNull(pool.tryBorrow(KB));
+        }
+        assertNotNull(pool.tryBorrow(KB));
+    }
+
+    @Test
+    void testTimedBorrowTimesOut() throws InterruptedException {
+        try (var held = pool.borrow(16 * KB)) {
+            assertNull(pool.borrow(4 * KB, Duration.ofMillis(50)));
+        }
+        var stats = pool.getPoolStatistics();
+        assertEquals(1, stats.timedOutBorrows);
+        assertEquals(1, stats.blockedBorrows);
+        assertEquals(1, stats.rejectedBorrows);
+        assertEquals(0, stats.budgetWaiters);
+        assertEquals(1, stats.borrowWaitTimes.count);
+        assertTrue(stats.borrowWaitTimes.getPercentileNanos(50) >= Duration.ofMillis(50).toNanos());
+    }
+
+    @Test
+    void testTimedBorrowWokenByReturn() throws Exception {
+        var held = pool.borrow(16 * KB);
+        Future<MemoryPool.BorrowedBuffer> waiting = executor.submit(() -> pool.borrow(8 * KB, Duration.ofSeconds(5)));
+        awaitTrue(() -> pool.getPoolStatistics().budgetWaiters == 1);
+
+        held.close();
+        try (var buffer = waiting.get(5, TimeUnit.SECONDS)) {
+            assertNotNull(buffer);
+            assertEquals(8 * KB, buffer.getSize());
+        }
+        assertEquals(1, pool.getPoolStatistics().blockedBorrows);
+    }
+
+    @Test
+    void testWaitersServedInOrder() throws Exception {
+        var a = pool.borrow(8 * KB);
+        var b = pool.borrow(8 * KB);
+
+        Future<MemoryPool.BorrowedBuffer> large = executor.submit(() -> pool.borrow(16 * KB, Duration.ofSeconds(5)));
+        awaitTrue(() -> pool.getPoolStatistics().budgetWaiters == 1);
+        Future<MemoryPool.BorrowedBuffer> small = executor.submit(() -> pool.borrow(4 * KB, Duration.ofSeconds(5)));
+        awaitTrue(() -> pool.getPoolStatistics().budgetWaiters == 2);
+
+        // 8 KB free: the small request would fit, but it is queued behind the large one
+        a.close();
+        Thread.sleep(50);
+        assertFalse(small.isDone());
+        assertNull(pool.tryBorrow(KB), "tryBorrow must not barge past queued borrowers");
+
+        b.close();
+        var largeBuffer = large.get(5, TimeUnit.SECONDS);
+        assertFalse(small.isDone());
+
+        largeBuffer.close();
+        small.get(5, TimeUnit.SECONDS).close();
+        assertEquals(0, pool.getPoolStatistics().borrowedBytes);
+    }
+
+    @Test
+    void testRequestLargerThanBudget() {
+        assertThrows(IllegalArgumentException.class, () -> pool.tryBorrow(32 * KB));
+        assertThrows(IllegalArgumentException.class, () -> pool.borrow(32 * KB, Duration.ofMillis(10)));
+    }
+
+    @Test
+    void testCloseWakesWaiters() throws Exception {
+        var held = pool.borrow(16 * KB);
+        Future<MemoryPool.BorrowedBuffer> waiting = executor.submit(() -> pool.borrow(8 * KB, Duration.ofSeconds(30)));
+        awaitTrue(() -> pool.getPoolStatistics().budgetWaiters == 1);
+
+        pool.close();
+        var e = assertThrows(ExecutionException.class, () -> waiting.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        held.close();
+    }
+
+    @Test
+    void testUnlimitedWithoutBudget() throws InterruptedException {
+        try (var unlimited = new MemoryPool(MemoryPool.Config.builder().build(), new ResourceTracker())) {
+            try (var a = unlimited.tryBorrow(8 * 1024 * KB);
+                 var b = unlimited.borrow(8 * 1024 * KB, Duration.ZERO)) {
+                assertNotNull(a);
+                assertNotNull(b);
+                assertEquals(0, unlimited.getPoolStatistics().borrowBudgetBytes);
+            }
+        }
+    }
+
+    @Test
+    void testIdleCapIsNotABudget() {
+        try (var capped = new MemoryPool(16 * KB, Duration.ofMinutes(1))) {
+            try (var a = capped.tryBorrow(16 * KB);
+                 var b = capped.tryBorrow(16 * KB)) {
+                assertNotNull(a);
+                assertNotNull(b, "The idle byte cap does not limit borrowed bytes");
+                assertEquals(0, capped.getPoolStatistics().borrowBudgetBytes);
+            }
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not reached");
+            Thread.sleep(1);
+        }
+    }
+}
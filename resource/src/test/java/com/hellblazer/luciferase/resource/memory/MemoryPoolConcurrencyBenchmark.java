@@ -0,0 +1,82 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the locked and lock-free MemoryPool borrow/return paths.
+ *
+ * <p>Every thread borrows and immediately returns a buffer of the same size class,
+ * so after warmup each operation is a pool hit. The locked path serializes all
+ * threads on the pool lock; the concurrent path only contends on the free list CAS.
+ *
+ * <p>Usage:
+ * <pre>
+ * # Scaling run, 1 to N threads (N = available processors)
+ * mvn exec:java -Dexec.mainClass="com.hellblazer.luciferase.resource.memory.MemoryPoolConcurrencyBenchmark" \
+ *   -Dexec.classpathScope=test
+ *
+ * # Single thread count
+ * mvn exec:java -Dexec.mainClass="com.hellblazer.luciferase.resource.memory.MemoryPoolConcurrencyBenchmark" \
+ *   -Dexec.classpathScope=test -Dexec.args="8"
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemoryPoolConcurrencyBenchmark {
+
+    @Param({"false", "true"})
+    private boolean concurrent;
+
+    @Param({"4096", "65536"})
+    private int bufferSize;
+
+    private MemoryPool pool;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        pool = new MemoryPool(MemoryPool.Config.builder()
+            .concurrent(concurrent)
+            .maxPoolSize(Integer.MAX_VALUE)
+            .maxBuffersPerSize(1024)
+            .build(), new ResourceTracker());
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        pool.close();
+    }
+
+    @Benchmark
+    public void borrowReturn(Blackhole bh) {
+        try (var buffer = pool.borrow(bufferSize)) {
+            bh.consume(buffer.getAddress());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int minThreads = args.length > 0 ? maxThreads : 1;
+
+        for (int threads = minThreads; threads <= maxThreads; threads *= 2) {
+            var opts = new OptionsBuilder()
+                .include(MemoryPoolConcurrencyBenchmark.class.getSimpleName())
+                .threads(threads)
+                .forks(1)
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .build();
+
+            new Runner(opts).run();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceConfiguration;
+import com.hellblazer.luciferase.resource.ResourceConfiguration.EvictionPolicy;
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import com.hellblazer.luciferase.resource.UnifiedResourceManager;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for policy-driven water-mark eviction in MemoryPool.
+ */
+public class MemoryPoolEvictionTest {
+
+    private static final int KB = 1024;
+
+    private static MemoryPool pool(EvictionPolicy policy, long maxBytes, float high, float low) {
+        return new MemoryPool(MemoryPool.Config.builder()
+            .maxPoolSize(Integer.MAX_VALUE)
+            .maxBuffersPerSize(Integer.MAX_VALUE)
+            .evictionPolicy(policy)
+            .waterMarks(high, low)
+            .build(), new ResourceTracker(), Duration.ofMinutes(1), maxBytes);
+    }
+
+    @Test
+    void testLruEvictsDownToLowWaterMark() {
+        try (var pool = pool(EvictionPolicy.LRU, 16 * KB, 0.75f, 0.5f)) {
+            var buffers = new ArrayList<MemoryPool.BorrowedBuffer>();
+            for (int i = 0; i < 4; i++) {
+                buffers.add(pool.borrow(4 * KB));
+            }
+            long third = buffers.get(2).getAddress();
+            long fourth = buffers.get(3).getAddress();
+
+            for (int i = 0; i < 3; i++) {
+                buffers.get(i).close();
+            }
+            assertEquals(12 * KB, pool.getCurrentSize()); // At the high water mark, not over it
+            assertEquals(0, pool.getPoolStatistics().getEvictionCount());
+
+            buffers.get(3).close();
+            var stats = pool.getPoolStatistics();
+            assertEquals(2, stats.getEvictionCount());
+            assertEquals(8 * KB, stats.getEvictedBytes());
+            assertEquals(8 * KB, pool.getCurrentSize());
+
+            // The two least recently borrowed buffers went
+            var remaining = new HashSet<Long>();
+            try (var a = pool.borrow(4 * KB); var b = pool.borrow(4 * KB)) {
+                remaining.add(a.getAddress());
+                remaining.add(b.getAddress());
+            }
+            assertEquals(java.util.Set.of(third, fourth), remaining);
+        }
+    }
+
+    @Test
+    void testSizeBasedEvictsLargestFirst() {
+        try (var pool = pool(EvictionPolicy.SIZE_BASED, 16 * KB, 0.75f, 0.5f)) {
+            var buffers = new ArrayList<MemoryPool.BorrowedBuffer>();
+            for (int size : new int[]{KB, 2 * KB, 4 * KB, 8 * KB}) {
+                buffers.add(pool.borrow(size));
+            }
+            buffers.forEach(MemoryPool.BorrowedBuffer::close);
+
+            var stats = pool.getPoolStatistics();
+            assertEquals(EvictionPolicy.SIZE_BASED, stats.evictionPolicy);
+            assertEquals(1, stats.getEvictionCount());
+            assertEquals(8 * KB, stats.getEvictedBytes());
+            assertEquals(7 * KB, pool.getCurrentSize());
+        }
+    }
+
+    @Test
+    void testLfuKeepsFrequentlyUsedBuffers() {
+        try (var pool = pool(EvictionPolicy.LFU, 16 * KB, 0.5f, 0.25f)) {
+            for (int i = 0; i < 5; i++) {
+                pool.borrow(4 * KB).close();
+            }
+            pool.borrow(2 * KB).close();
+            pool.borrow(8 * KB).close(); // 14 KB pooled, over 8 KB
+
+            assertEquals(10 * KB, pool.getPoolStatistics().getEvictedBytes());
+            assertEquals(4 * KB, pool.getCurrentSize());
+        }
+    }
+
+    @Test
+    void testFifoIgnoresRecentUse() {
+        for (var policy : new EvictionPolicy[]{EvictionPolicy.FIFO, EvictionPolicy.LRU}) {
+            try (var pool = pool(policy, 16 * KB, 0.5f, 0.4f)) {
+                var first = pool.borrow(4 * KB);
+                var second = pool.borrow(4 * KB);
+                long firstAddress = first.getAddress();
+                long secondAddress = second.getAddress();
+                first.close();
+                second.close();
+                pool.borrow(4 * KB).close(); // Reuses the first buffer, so it is now the most recently used
+
+                pool.borrow(2 * KB).close(); // 10 KB pooled, over 8 KB: evict one 4 KB buffer
+                assertEquals(1, pool.getPoolStatistics().getEvictionCount());
+
+                try (var survivor = pool.borrow(4 * KB)) {
+                    long expected = policy == EvictionPolicy.FIFO ? secondAddress : firstAddress;
+                    assertEquals(expected, survivor.getAddress(), policy.name());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testEvictionIsIncremental() {
+        try (var pool = pool(EvictionPolicy.LRU, 64 * KB, 0.5f, 0.25f)) {
+            var buffers = new ArrayList<MemoryPool.BorrowedBuffer>();
+            for (int i = 0; i < 40; i++) {
+                buffers.add(pool.borrow(KB));
+            }
+            for (int i = 0; i < 33; i++) {
+                buffers.get(i).close();
+            }
+            // Crossing the high water mark evicts one bounded batch, not everything at once
+            assertEquals(8, pool.getPoolStatistics().getEvictionCount());
+            assertEquals(25 * KB, pool.getCurrentSize());
+
+            for (int i = 33; i < 40; i++) {
+                buffers.get(i).close();
+            }
+            assertTrue(pool.getCurrentSize() <= 32 * KB);
+        }
+    }
+
+    @Test
+    void testKeepWarmSizesAreNotEvicted() {
+        try (var pool = pool(EvictionPolicy.SIZE_BASED, 16 * KB, 0.5f, 0.25f)) {
+            pool.keepWarm(8 * KB);
+            var large = pool.borrow(8 * KB);
+            var small = pool.borrow(2 * KB);
+            large.close();
+            small.close();
+
+            assertEquals(2 * KB, pool.getPoolStatistics().getEvictedBytes());
+            assertEquals(8 * KB, pool.getCurrentSize());
+        }
+    }
+
+    @Test
+    void testReturnToPoolMakesRoomByPolicy() {
+        try (var pool = pool(EvictionPolicy.LRU, 8 * KB, 1.0f, 1.0f)) {
+            var a = pool.allocate(4 * KB);
+            var b = pool.allocate(4 * KB);
+            var c = pool.allocate(4 * KB);
+            pool.returnToPool(a);
+            pool.returnToPool(b);
+            pool.returnToPool(c); // Over the limit: the least recently used buffer makes room
+
+            assertEquals(8 * KB, pool.getCurrentSize());
+            assertEquals(1, pool.getPoolStatistics().getEvictionCount());
+            assertSame(b, pool.allocate(4 * KB));
+        }
+    }
+
+    @Test
+    void testIdleTimeoutEvictionsAreCounted() throws InterruptedException {
+        var pool = new MemoryPool(MemoryPool.Config.builder().build(), new ResourceTracker(), Duration.ofMillis(10));
+        try (pool) {
+            pool.borrow(4 * KB).close();
+            Thread.sleep(50);
+            pool.evictExpired();
+            assertEquals(1, pool.getPoolStatistics().getEvictionCount());
+            assertEquals(4 * KB, pool.getPoolStatistics().getEvictedBytes());
+        }
+    }
+
+    @Test
+    void testWaterMarkValidation() {
+        var builder = MemoryPool.Config.builder();
+        assertThrows(IllegalArgumentException.class, () -> builder.waterMarks(0.5f, 0.7f));
+        assertThrows(IllegalArgumentException.class, () -> builder.waterMarks(1.5f, 0.7f));
+        assertThrows(IllegalArgumentException.class, () -> builder.waterMarks(0.5f, 0f));
+    }
+
+    @Test
+    void testUnifiedResourceManagerUsesConfiguredPolicy() {
+        var config = new ResourceConfiguration.Builder()
+            .withMaxPoolSize(1024 * KB)
+            .withEvictionPolicy(EvictionPolicy.HYBRID)
+            .build();
+        try (var manager = new UnifiedResourceManager(config)) {
+            assertEquals(EvictionPolicy.HYBRID, manager.getMemoryPool().getPoolStatistics().evictionPolicy);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteOrder;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for Cleaner-based reclaim of borrowed and allocated buffers that are never returned.
+ */
+public class MemoryPoolLeakReclaimTest {
+
+    private MemoryPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    private static MemoryPool leakSafePool(int sampleRate) {
+        return new MemoryPool(MemoryPool.Config.builder()
+            .leakReclaim(true)
+            .leakSiteSampleRate(sampleRate)
+            .build(), new ResourceTracker());
+    }
+
+    private static boolean awaitGc(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        return condition.getAsBoolean();
+    }
+
+    private void leakBorrow(int size) {
+        pool.borrow(size).getBuffer().putInt(0, 42);
+    }
+
+    private void leakAllocate(int size) {
+        pool.allocate(size).putInt(0, 42);
+    }
+
+    @Test
+    void testDroppedBorrowIsReclaimed() throws InterruptedException {
+        pool = leakSafePool(1);
+        leakBorrow(4096);
+        assertEquals(1, pool.getPoolStatistics().currentlyBorrowed);
+
+        assertTrue(awaitGc(() -> pool.getPoolStatistics().leakedBuffers == 1), "Leak reclaimed");
+        var stats = pool.getPoolStatistics();
+        assertEquals(4096, stats.leakedBytes);
+        assertEquals(0, stats.currentlyBorrowed);
+        assertEquals(0, stats.borrowedBytes);
+        assertEquals(1, stats.totalBuffers);
+
+        var sites = pool.getLeakSites();
+        assertEquals(1, sites.size());
+        var site = sites.keySet().iterator().next();
+        assertEquals(Long.valueOf(1), sites.get(site));
+        assertEquals("leakBorrow", site.getFrames().get(0).getMethodName(), "Site starts at the caller: " + site);
+
+        pool.borrow(4096).close();
+        assertEquals(1, pool.getPoolStatistics().poolHits, "Reclaimed buffer is reused");
+    }
+
+    @Test
+    void testDroppedAllocationIsReclaimed() throws InterruptedException {
+        pool = leakSafePool(0);
+        leakAllocate(8192);
+
+        assertTrue(awaitGc(() -> pool.getPoolStatistics().leakedBuffers == 1), "Leak reclaimed");
+        assertEquals(8192, pool.getPoolStatistics().leakedBytes);
+        assertTrue(pool.getLeakSites().isEmpty(), "No sites without sampling");
+
+        var again = pool.allocate(8192);
+        assertEquals(1, pool.getPoolStatistics().poolHits, "Reclaimed buffer is reused");
+        pool.returnToPool(again);
+    }
+
+    @Test
+    void testDerivedViewsKeepTheLeaseAlive() throws InterruptedException {
+        pool = leakSafePool(0);
+        var floats = pool.allocate(4096).asFloatBuffer();
+        var ints = pool.borrow(4096).getBuffer().slice().asIntBuffer();
+        floats.put(0, 1.5f);
+        ints.put(0, 7);
+
+        awaitGc(() -> false);
+        assertEquals(0, pool.getPoolStatistics().leakedBuffers, "Derived views are still in use");
+        var other = pool.allocate(4096);
+        assertEquals(0, pool.getPoolStatistics().poolHits, "Memory was not handed out again");
+        assertEquals(1.5f, floats.get(0));
+        assertEquals(7, ints.get(0));
+        pool.returnToPool(other);
+
+        floats = null;
+        ints = null;
+        assertTrue(awaitGc(() -> pool.getPoolStatistics().leakedBuffers == 2), "Reclaimed once the views are dropped");
+    }
+
+    @Test
+    void testReturnedBuffersAreNotLeaks() throws InterruptedException {
+        pool = leakSafePool(1);
+        pool.borrow(4096).close();
+        var buffer = pool.allocate(4096);
+        assertEquals(ByteOrder.nativeOrder(), buffer.order());
+        pool.returnToPool(buffer);
+        pool.returnToPool(buffer); // Duplicate returns are ignored
+        buffer = null;
+
+        // Give the cleaner every chance to run on the returned owners
+        awaitGc(() -> false);
+        var stats = pool.getPoolStatistics();
+        assertEquals(0, stats.leakedBuffers);
+        assertEquals(1, stats.totalBuffers, "Allocation reused the returned borrow");
+        assertTrue(pool.getLeakSites().isEmpty());
+    }
+
+    @Test
+    void testDisabledByDefault() {
+        pool = new MemoryPool(MemoryPool.Config.builder().build(), new ResourceTracker());
+        var buffer = pool.allocate(4096);
+        pool.returnToPool(buffer);
+        assertSame(buffer, pool.allocate(4096), "Pool's own buffer handed out without reclaim");
+        assertEquals(0, pool.getPoolStatistics().leakedBuffers);
+    }
+
+    @Test
+    void testInvalidSampleRate() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> MemoryPool.Config.builder().leakSiteSampleRate(-1));
+    }
+}
@@ -0,0 +1,135 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for borrow lease deadlines, the stuck-borrow scan and borrow age distributions.
+ */
+public class MemoryPoolLeaseTest {
+
+    private MemoryPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    private static MemoryPool leasedPool(boolean reclaim) {
+        return new MemoryPool(MemoryPool.Config.builder()
+            .leaseTimeout(Duration.ofMillis(20))
+            .reclaimExpiredLeases(reclaim)
+            .build(), new ResourceTracker());
+    }
+
+    @Test
+    void testExpiredLeaseIsReportedOnce() throws InterruptedException {
+        pool = leasedPool(false);
+        var stuck = pool.borrow(4096);
+        assertEquals(0, pool.scanLeases(), "Deadline not reached yet");
+
+        Thread.sleep(40);
+        assertEquals(1, pool.scanLeases());
+        assertEquals(1, pool.scanLeases());
+        var stats = pool.getPoolStatistics();
+        assertEquals(1, stats.overdueBorrows);
+        assertEquals(1, stats.expiredLeases, "Reported once per borrow");
+        assertEquals(0, stats.reclaimedLeases);
+        assertEquals(1, stats.currentlyBorrowed, "Report only leaves the borrow in place");
+
+        stuck.close();
+        assertEquals(0, pool.scanLeases());
+        assertEquals(0, pool.getPoolStatistics().currentlyBorrowed);
+    }
+
+    @Test
+    void testExpiredLeaseIsReclaimed() throws InterruptedException {
+        pool = leasedPool(true);
+        var stuck = pool.borrow(4096);
+        Thread.sleep(40);
+
+        assertEquals(1, pool.scanLeases());
+        var stats = pool.getPoolStatistics();
+        assertEquals(1, stats.reclaimedLeases);
+        assertEquals(0, stats.currentlyBorrowed);
+        assertEquals(0, stats.borrowedBytes);
+        assertTrue(stuck.isReclaimed());
+        assertThrows(IllegalStateException.class, () -> stuck.renewLease(Duration.ofSeconds(1)));
+        assertFalse(stuck.isValid());
+        assertThrows(IllegalStateException.class, stuck::get, "Reclaimed handle fails fast");
+        assertThrows(IllegalStateException.class, stuck::getAddress);
+
+        var next = pool.borrow(4096);
+        assertEquals(1, pool.getPoolStatistics().poolHits, "Reclaimed buffer is reused");
+
+        stuck.close(); // Late close must not return the buffer a second time
+        assertEquals(1, pool.getPoolStatistics().currentlyBorrowed);
+        next.close();
+        assertEquals(1, pool.getPoolStatistics().totalBuffers);
+    }
+
+    @Test
+    void testRenewedLeaseIsNotExpired() throws InterruptedException {
+        pool = leasedPool(true);
+        try (var busy = pool.borrow(4096)) {
+            busy.renewLease(Duration.ofMinutes(1));
+            Thread.sleep(40);
+            assertEquals(0, pool.scanLeases());
+            assertFalse(busy.isReclaimed());
+
+            busy.renewLease(null);
+            assertEquals(0, pool.scanLeases(), "No deadline after clearing the lease");
+        }
+    }
+
+    @Test
+    void testNoDeadlinesByDefault() throws InterruptedException {
+        pool = new MemoryPool(MemoryPool.Config.builder().build(), new ResourceTracker());
+        try (var buffer = pool.borrow(4096)) {
+            Thread.sleep(5);
+            assertEquals(0, pool.scanLeases());
+
+            buffer.renewLease(Duration.ofNanos(1));
+            Thread.sleep(5);
+            assertEquals(1, pool.scanLeases(), "Per-borrow deadline without a pool default");
+        }
+    }
+
+    @Test
+    void testBorrowAgesBySizeClass() throws InterruptedException {
+        pool = leasedPool(false);
+        var old = pool.borrow(4096);
+        Thread.sleep(40);
+        var young = pool.borrow(4096);
+        var other = pool.borrow(65536);
+
+        var ages = pool.getBorrowAges();
+        assertEquals(2, ages.size());
+        var small = ages.get(4096);
+        assertEquals(2, small.getOutstanding());
+        assertEquals(1, small.overdue);
+        assertTrue(small.oldestNanos >= Duration.ofMillis(40).toNanos(), small.toString());
+        assertEquals(1, ages.get(65536).getOutstanding());
+        assertEquals(0, ages.get(65536).overdue);
+
+        old.close();
+        young.close();
+        other.close();
+        assertTrue(pool.getBorrowAges().isEmpty());
+    }
+
+    @Test
+    void testInvalidLeaseTimeout() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> MemoryPool.Config.builder().leaseTimeout(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                     () -> MemoryPool.Config.builder().leaseTimeout(Duration.ofSeconds(-1)));
+    }
+}
@@ -0,0 +1,130 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the per-thread magazine layer in front of MemoryPool.
+ */
+public class MemoryPoolMagazineTest {
+
+    private MemoryPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new MemoryPool(MemoryPool.Config.builder()
+            .magazineDepth(4)
+            .build(), new ResourceTracker());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void testSameThreadReuseHitsMagazine() {
+        pool.borrow(1024).close();
+        pool.borrow(1024).close();
+        pool.borrow(1024).close();
+
+        var stats = pool.getPoolStatistics();
+        assertEquals(2, stats.magazineHits);
+        assertEquals(1, stats.magazineMisses);
+        assertEquals(0, stats.poolHits);
+        assertEquals(1, stats.poolMisses);
+        assertEquals(2.0f / 3, stats.getHitRate(), 0.01);
+        assertEquals(1024, pool.getCurrentSize());
+    }
+
+    @Test
+    void testFullMagazineSpillsToSharedPool() {
+        var held = new ArrayList<MemoryPool.BorrowedBuffer>();
+        for (int i = 0; i < 5; i++) {
+            held.add(pool.borrow(1024));
+        }
+        held.forEach(MemoryPool.BorrowedBuffer::close);
+
+        // Depth 4: the fifth return spills two buffers to the shared pool
+        assertEquals(5 * 1024, pool.getCurrentSize());
+
+        // Another thread has an empty magazine and is served by the shared pool
+        var thread = new Thread(() -> pool.borrow(1024).close());
+        thread.start();
+        assertDoesNotThrow(() -> thread.join());
+        assertEquals(1, pool.getPoolStatistics().poolHits);
+    }
+
+    @Test
+    void testDeadThreadMagazineIsReclaimed() throws Exception {
+        var thread = new Thread(() -> returnThree(pool));
+        thread.start();
+        thread.join();
+
+        assertEquals(3 * 2048, pool.getCurrentSize());
+        assertEquals(1, pool.reclaimDeadMagazines());
+        assertEquals(3 * 2048, pool.getCurrentSize());
+
+        pool.borrow(2048).close();
+        assertEquals(1, pool.getPoolStatistics().poolHits);
+    }
+
+    @Test
+    void testDeadVirtualThreadMagazineIsReclaimed() throws Exception {
+        var thread = Thread.ofVirtual().start(() -> returnThree(pool));
+        thread.join();
+
+        assertEquals(1, pool.reclaimDeadMagazines());
+        pool.borrow(2048).close();
+        assertEquals(1, pool.getPoolStatistics().poolHits);
+    }
+
+    @Test
+    void testShortLivedThreadsHandBuffersOn() throws Exception {
+        int threads = 200;
+        for (int i = 0; i < threads; i++) {
+            var thread = new Thread(() -> pool.borrow(2048).close());
+            thread.start();
+            thread.join();
+        }
+
+        var stats = pool.getPoolStatistics();
+        assertEquals(1, stats.totalBuffers, "Each thread reused the buffer its predecessor left");
+        assertEquals(threads - 1, stats.poolHits);
+        assertEquals(2048, pool.getCurrentSize());
+    }
+
+    @Test
+    void testCloseDrainsLiveMagazines() {
+        returnThree(pool);
+        assertEquals(3, pool.getPoolStatistics().totalBuffers);
+
+        pool.close();
+        assertEquals(0, pool.getPoolStatistics().totalBuffers);
+        assertEquals(0, pool.getCurrentSize());
+    }
+
+    @Test
+    void testReturnAfterCloseFreesBuffer() {
+        var buffer = pool.borrow(1024);
+        pool.close();
+
+        buffer.close();
+        assertEquals(0, pool.getCurrentSize());
+    }
+
+    private static void returnThree(MemoryPool pool) {
+        var a = pool.borrow(2048);
+        var b = pool.borrow(2048);
+        var c = pool.borrow(2048);
+        a.close();
+        b.close();
+        c.close();
+    }
+}
@@ -0,0 +1,128 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceConfiguration.EvictionPolicy;
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for MemoryPool background maintenance.
+ */
+public class MemoryPoolMaintenanceTest {
+
+    private static final int KB = 1024;
+
+    private static MemoryPool pool(MemoryPool.Config.Builder builder, Duration idle) {
+        return new MemoryPool(builder.build(), new ResourceTracker(), idle);
+    }
+
+    @Test
+    void testIdleBuffersTrimmedInBackground() throws InterruptedException {
+        try (var pool = pool(MemoryPool.Config.builder().maintenanceInterval(Duration.ofMillis(20)),
+                             Duration.ofMillis(30))) {
+            pool.borrow(4 * KB).close();
+            assertEquals(4 * KB, pool.getCurrentSize());
+
+            awaitTrue(() -> pool.getCurrentSize() == 0, "Idle buffer was not trimmed");
+            var stats = pool.getPoolStatistics();
+            assertEquals(1, stats.getEvictionCount());
+            assertTrue(stats.maintenanceRuns > 0);
+        }
+    }
+
+    @Test
+    void testVirtualMaintenanceThread() throws InterruptedException {
+        try (var pool = pool(MemoryPool.Config.builder()
+                                 .maintenanceInterval(Duration.ofMillis(20))
+                                 .maintenanceThreads(2)
+                                 .virtualMaintenanceThreads(true),
+                             Duration.ofMillis(30))) {
+            pool.borrow(4 * KB).close();
+            awaitTrue(() -> pool.getCurrentSize() == 0, "Idle buffer was not trimmed");
+        }
+    }
+
+    @Test
+    void testKeepWarmSizesSurviveMaintenance() throws InterruptedException {
+        try (var pool = pool(MemoryPool.Config.builder().maintenanceInterval(Duration.ofMillis(20)),
+                             Duration.ofMillis(30))) {
+            pool.keepWarm(4 * KB);
+            pool.borrow(4 * KB).close();
+            pool.borrow(8 * KB).close();
+
+            awaitTrue(() -> pool.getPoolStatistics().getEvictionCount() == 1, "Cold buffer was not trimmed");
+            Thread.sleep(100);
+            assertEquals(4 * KB, pool.getCurrentSize());
+        }
+    }
+
+    @Test
+    void testBorrowLeavesEvictionToMaintenance() throws InterruptedException {
+        try (var pool = pool(MemoryPool.Config.builder()
+                                 .maxPoolSize(1)
+                                 .maintenanceInterval(Duration.ofHours(1)),
+                             Duration.ofMillis(10))) {
+            pool.borrow(4 * KB).close();
+            Thread.sleep(50);
+
+            // Pool is full and the idle buffer has expired, but borrow must not scan for it
+            pool.borrow(8 * KB).close();
+            assertEquals(0, pool.getPoolStatistics().getEvictionCount());
+
+            Thread.sleep(50);
+            pool.performMaintenance();
+            assertEquals(2, pool.getPoolStatistics().getEvictionCount());
+            assertEquals(0, pool.getCurrentSize());
+        }
+    }
+
+    @Test
+    void testMaintenanceFinishesWaterMarkEviction() throws InterruptedException {
+        var config = MemoryPool.Config.builder()
+            .maxPoolSize(Integer.MAX_VALUE)
+            .maxBuffersPerSize(Integer.MAX_VALUE)
+            .evictionPolicy(EvictionPolicy.LRU)
+            .waterMarks(0.5f, 0.25f)
+            .maintenanceInterval(Duration.ofMillis(20))
+            .build();
+        try (var pool = new MemoryPool(config, new ResourceTracker(), Duration.ofHours(1), 64 * KB)) {
+            var buffers = new ArrayList<MemoryPool.BorrowedBuffer>();
+            for (int i = 0; i < 33; i++) {
+                buffers.add(pool.borrow(KB));
+            }
+            buffers.forEach(MemoryPool.BorrowedBuffer::close);
+            assertTrue(pool.getCurrentSize() > 16 * KB, "Return path evicts only one batch");
+
+            awaitTrue(() -> pool.getCurrentSize() <= 16 * KB, "Eviction did not reach the low water mark");
+        }
+    }
+
+    @Test
+    void testCloseStopsMaintenance() throws InterruptedException {
+        var pool = pool(MemoryPool.Config.builder().maintenanceInterval(Duration.ofMillis(10)),
+                        Duration.ofMinutes(1));
+        awaitTrue(() -> pool.getPoolStatistics().maintenanceRuns > 0, "Maintenance never ran");
+        pool.close();
+        long runs = pool.getPoolStatistics().maintenanceRuns;
+        Thread.sleep(100);
+        assertEquals(runs, pool.getPoolStatistics().maintenanceRuns);
+    }
+
+    @Test
+    void testInvalidThreadCount() {
+        assertThrows(IllegalArgumentException.class, () -> MemoryPool.Config.builder().maintenanceThreads(0));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, message);
+            Thread.sleep(5);
+        }
+    }
+}
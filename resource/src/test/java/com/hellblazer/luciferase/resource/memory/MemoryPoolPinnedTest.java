@@ -0,0 +1,193 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import com.hellblazer.luciferase.resource.memory.MemoryPool.AccessType;
+import com.hellblazer.luciferase.resource.opencl.CLBufferHandle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.PointerBuffer;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for pinned buffer pooling, run against the host-memory provider so no OpenCL is needed.
+ */
+public class MemoryPoolPinnedTest {
+
+    private static final long CONTEXT_A = 1;
+    private static final long CONTEXT_B = 2;
+
+    private HostPinnedMemoryProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = new HostPinnedMemoryProvider();
+    }
+
+    @Test
+    void testReuseWithinContextAccessAndSizeClass() {
+        try (var pool = new MemoryPool(MemoryPool.Config.builder().build(), new ResourceTracker(), provider)) {
+            try (var buffer = pool.pinnedAllocate(4096, CONTEXT_A, AccessType.READ_WRITE)) {
+                assertEquals(4096, buffer.getSize());
+                assertEquals(CONTEXT_A, buffer.getContext());
+                assertNull(buffer.getGPUBuffer());
+                buffer.getHostBuffer().putInt(0, 42);
+            }
+            // Same size class
+            try (var buffer = pool.pinnedAllocate(3000, CONTEXT_A, AccessType.READ_WRITE)) {
+                assertEquals(42, buffer.getHostBuffer().getInt(0), "Should be the recycled buffer");
+            }
+            assertEquals(1, provider.getCreatedCount());
+
+            try (var otherAccess = pool.pinnedAllocate(4096, CONTEXT_A, AccessType.WRITE_ONLY);
+                 var otherContext = pool.pinnedAllocate(4096, CONTEXT_B, AccessType.READ_WRITE);
+                 var otherSize = pool.pinnedAllocate(8192, CONTEXT_A, AccessType.READ_WRITE)) {
+                assertEquals(AccessType.WRITE_ONLY, otherAccess.getAccessType());
+                assertEquals(4, provider.getCreatedCount());
+                assertEquals(3, pool.getPoolStatistics().pinnedActiveBuffers);
+            }
+
+            var stats = pool.getPoolStatistics();
+            assertEquals(1, stats.pinnedHits);
+            assertEquals(4, stats.pinnedMisses);
+            assertEquals(0.2f, stats.getPinnedHitRate(), 1e-6);
+            assertEquals(0, stats.pinnedActiveBuffers);
+            assertEquals(4, stats.pinnedIdleBuffers);
+            assertEquals(3 * 4096 + 8192, stats.pinnedIdleBytes);
+        }
+        assertEquals(0, provider.getLiveCount(), "Close should release every allocation");
+    }
+
+    @Test
+    void testEvictsLeastRecentlyReturnedOverBudget() {
+        var config = MemoryPool.Config.builder()
+            .pinnedBudgetBytes(2 * 4096)
+            .build();
+        try (var pool = new MemoryPool(config, new ResourceTracker(), provider)) {
+            var first = pool.pinnedAllocate(4096, CONTEXT_A, AccessType.READ_ONLY);
+            var second = pool.pinnedAllocate(4096, CONTEXT_A, AccessType.WRITE_ONLY);
+            var third = pool.pinnedAllocate(4096, CONTEXT_B, AccessType.READ_ONLY);
+            first.close();
+            second.close();
+            third.close();
+
+            var stats = pool.getPoolStatistics();
+            assertEquals(1, stats.pinnedEvictions);
+            assertEquals(2, stats.pinnedIdleBuffers);
+            assertEquals(2 * 4096, stats.pinnedIdleBytes);
+            assertEquals(2, provider.getLiveCount());
+
+            // The first one returned was evicted; the others are still pooled
+            pool.pinnedAllocate(4096, CONTEXT_A, AccessType.WRITE_ONLY).close();
+            assertEquals(3, provider.getCreatedCount());
+            pool.pinnedAllocate(4096, CONTEXT_A, AccessType.READ_ONLY).close();
+            assertEquals(4, provider.getCreatedCount());
+            assertEquals(1, pool.getPoolStatistics().pinnedHits);
+
+            // Larger than the whole budget: never pooled
+            pool.pinnedAllocate(4 * 4096, CONTEXT_A, AccessType.READ_ONLY).close();
+            assertEquals(2 * 4096, pool.getPoolStatistics().pinnedIdleBytes);
+
+            pool.clear();
+            assertEquals(0, pool.getPoolStatistics().pinnedIdleBuffers);
+            assertEquals(0, provider.getLiveCount());
+        }
+    }
+
+    @Test
+    void testZeroBudgetDisablesPooling() {
+        var config = MemoryPool.Config.builder()
+            .pinnedBudgetBytes(0)
+            .build();
+        try (var pool = new MemoryPool(config, new ResourceTracker(), provider)) {
+            for (int i = 0; i < 3; i++) {
+                pool.pinnedAllocate(1024, CONTEXT_A, AccessType.READ_WRITE).close();
+            }
+            assertEquals(3, provider.getCreatedCount());
+            assertEquals(0, provider.getLiveCount());
+            assertEquals(0, pool.getPoolStatistics().pinnedHits);
+        }
+        assertThrows(IllegalArgumentException.class, () -> MemoryPool.Config.builder().pinnedBudgetBytes(-1));
+    }
+
+    @Test
+    void testReleasedOutsidePoolLock() throws InterruptedException {
+        var pool = new MemoryPool[1];
+        var blocked = new AtomicBoolean();
+        var released = new AtomicInteger();
+        PinnedMemoryProvider probing = (context, access, size) -> {
+            var allocation = provider.allocate(context, access, size);
+            return new PinnedMemoryProvider.Allocation() {
+                @Override
+                public ByteBuffer hostBuffer() {
+                    return allocation.hostBuffer();
+                }
+
+                @Override
+                public CLBufferHandle gpuBuffer() {
+                    return null;
+                }
+
+                @Override
+                public void upload(long queue, PointerBuffer events, PointerBuffer event) {
+                }
+
+                @Override
+                public void download(long queue, PointerBuffer events, PointerBuffer event) {
+                }
+
+                @Override
+                public void remap() {
+                }
+
+                @Override
+                public void release() {
+                    // Another thread must be able to take the pool lock while a release runs
+                    var other = new Thread(pool[0]::clear);
+                    other.start();
+                    try {
+                        other.join(1000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    blocked.compareAndSet(false, other.isAlive());
+                    released.incrementAndGet();
+                    allocation.release();
+                }
+            };
+        };
+        var config = MemoryPool.Config.builder().pinnedBudgetBytes(4096).build();
+        try (var p = new MemoryPool(config, new ResourceTracker(), probing)) {
+            pool[0] = p;
+            p.pinnedAllocate(8192, CONTEXT_A, AccessType.READ_WRITE).close(); // Over budget, freed
+            p.pinnedAllocate(4096, CONTEXT_A, AccessType.READ_WRITE).close();
+            p.pinnedAllocate(4096, CONTEXT_B, AccessType.READ_WRITE).close(); // Evicts the first
+            assertTrue(released.get() >= 2, "Released " + released.get());
+            assertFalse(blocked.get(), "Pinned buffers released while holding the pool lock");
+        }
+    }
+
+    @Test
+    void testTransfersGoThroughProvider() {
+        try (var pool = new MemoryPool(MemoryPool.Config.builder().build(), new ResourceTracker(), provider)) {
+            try (var buffer = pool.pinnedAllocate(1024, CONTEXT_A, AccessType.READ_WRITE)) {
+                buffer.enqueueUpload(0, new float[]{1.0f, 2.0f}, null, null);
+                assertEquals(2.0f, buffer.getHostBuffer().asFloatBuffer().get(1));
+                buffer.enqueueDownload(0, null, null);
+                assertEquals(2, provider.getTransferCount());
+            }
+        }
+    }
+
+    @Test
+    void testRequiresProvider() {
+        try (var pool = new MemoryPool(MemoryPool.Config.builder().build(), new ResourceTracker())) {
+            assertThrows(IllegalStateException.class,
+                () -> pool.pinnedAllocate(1024, CONTEXT_A, AccessType.READ_WRITE));
+        }
+    }
+}
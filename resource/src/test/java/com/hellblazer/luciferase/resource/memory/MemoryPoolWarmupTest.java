@@ -0,0 +1,163 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the size-class histogram and adaptive pre-warming.
+ */
+public class MemoryPoolWarmupTest {
+
+    private static final int KB = 1024;
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("memory-pool-warmup");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var files = Files.walk(directory)) {
+            for (var file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    void testHistogramDecay() {
+        var histogram = new SizeClassHistogram(0.8);
+        for (int i = 0; i < 10; i++) {
+            histogram.record(4096);
+        }
+        histogram.decay();
+        assertEquals(10.0, histogram.snapshot().get(4096), 1e-9);
+
+        histogram.record(8192);
+        histogram.record(8192);
+        histogram.decay();
+        assertEquals(8.0, histogram.snapshot().get(4096), 1e-9);
+        assertEquals(2.0, histogram.snapshot().get(8192), 1e-9);
+        assertEquals(Integer.valueOf(4096), histogram.topK(1).get(0).getKey());
+
+        // Sizes that stop being requested fade out
+        for (int i = 0; i < 40; i++) {
+            histogram.decay();
+        }
+        assertTrue(histogram.snapshot().isEmpty());
+    }
+
+    @Test
+    void testPoolRecordsRequestedSizeClasses() {
+        try (var pool = new MemoryPool(MemoryPool.Config.builder().build(), new ResourceTracker())) {
+            for (int i = 0; i < 3; i++) {
+                pool.borrow(3000).close();
+            }
+            pool.returnToPool(pool.allocate(10 * KB));
+
+            var histogram = pool.getSizeHistogram();
+            assertEquals(3.0, histogram.get(4 * KB), 1e-9);
+            assertEquals(1.0, histogram.get(16 * KB), 1e-9);
+        }
+    }
+
+    @Test
+    void testPrewarmTopKWithinBudget() {
+        var config = MemoryPool.Config.builder()
+            .adaptiveWarmup(2, 64 * KB)
+            .build();
+        try (var pool = new MemoryPool(config, new ResourceTracker())) {
+            for (int i = 0; i < 6; i++) {
+                pool.borrow(4 * KB).close();
+            }
+            pool.borrow(16 * KB).close();
+            pool.borrow(16 * KB).close();
+            pool.borrow(KB).close();
+
+            // 4 KB gets 3/4 of the budget (capped at maxBuffersPerSize), 16 KB one buffer, 1 KB is not top-2
+            assertEquals(9, pool.prewarm());
+            var stats = pool.getPoolStatistics();
+            assertEquals(Map.of(4 * KB, 10, 16 * KB, 1), stats.warmTargets);
+            assertEquals(9, stats.prewarmedBuffers);
+
+            long hitsBefore = stats.poolHits;
+            var buffers = new ArrayList<MemoryPool.BorrowedBuffer>();
+            for (int i = 0; i < 10; i++) {
+                buffers.add(pool.borrow(4 * KB));
+            }
+            assertEquals(hitsBefore + 10, pool.getPoolStatistics().poolHits);
+            buffers.forEach(MemoryPool.BorrowedBuffer::close);
+
+            assertEquals(0, pool.prewarm(), "Targets already met");
+        }
+    }
+
+    @Test
+    void testWarmTargetsSurviveIdleEviction() throws InterruptedException {
+        var config = MemoryPool.Config.builder()
+            .adaptiveWarmup(1, 16 * KB)
+            .build();
+        try (var pool = new MemoryPool(config, new ResourceTracker(), Duration.ofMillis(10))) {
+            pool.borrow(4 * KB).close();
+            pool.borrow(4 * KB).close();
+            pool.borrow(KB).close();
+            pool.prewarm();
+
+            Thread.sleep(50);
+            pool.evictExpired();
+            assertEquals(16 * KB, pool.getCurrentSize()); // Four 4 KB buffers retained, 1 KB evicted
+        }
+    }
+
+    @Test
+    void testProfileRestoresWarmPoolAfterRestart() throws IOException {
+        var profile = directory.resolve("pool.histogram");
+        var config = MemoryPool.Config.builder()
+            .adaptiveWarmup(4, 256 * KB)
+            .warmupProfile(profile)
+            .build();
+
+        try (var first = new MemoryPool(config, new ResourceTracker())) {
+            assertEquals(0, first.getPoolStatistics().prewarmedBuffers);
+            for (int i = 0; i < 20; i++) {
+                first.borrow(32 * KB).close();
+            }
+        }
+        assertTrue(Files.exists(profile));
+        assertEquals(20.0, SizeClassHistogram.read(profile).get(32 * KB), 1e-9);
+
+        try (var restarted = new MemoryPool(config, new ResourceTracker())) {
+            assertTrue(restarted.getPoolStatistics().prewarmedBuffers > 0);
+            restarted.borrow(32 * KB).close();
+            assertEquals(1, restarted.getPoolStatistics().poolHits);
+            assertEquals(0, restarted.getPoolStatistics().poolMisses);
+        }
+    }
+
+    @Test
+    void testMalformedProfile() throws IOException {
+        var profile = directory.resolve("bad.histogram");
+        Files.writeString(profile, "4096 not-a-number\n");
+
+        try (var pool = new MemoryPool(MemoryPool.Config.builder().build(), new ResourceTracker())) {
+            assertThrows(IOException.class, () -> pool.loadSizeHistogram(profile));
+        }
+        // A corrupt profile only means a cold start
+        var config = MemoryPool.Config.builder().adaptiveWarmup(2, 64 * KB).warmupProfile(profile).build();
+        assertDoesNotThrow(() -> new MemoryPool(config, new ResourceTracker()).close());
+    }
+}
@@ -0,0 +1,126 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for MemoryPool zeroing policies.
+ */
+public class MemoryPoolZeroingTest {
+
+    private static MemoryPool pool(MemoryPool.ZeroingPolicy policy) {
+        return new MemoryPool(MemoryPool.Config.builder()
+            .zeroingPolicy(policy)
+            .build(), new ResourceTracker());
+    }
+
+    @Test
+    void testEagerZeroesReusedBuffer() {
+        try (var pool = pool(MemoryPool.ZeroingPolicy.EAGER)) {
+            var first = pool.borrow(4096);
+            long address = first.getAddress();
+            first.get().putLong(128, 0xDEADBEEFL);
+            first.close();
+
+            try (var second = pool.borrow(4096)) {
+                assertEquals(address, second.getAddress());
+                assertEquals(0, second.get().getLong(128));
+            }
+
+            var stats = pool.getPoolStatistics();
+            assertEquals(MemoryPool.ZeroingPolicy.EAGER, stats.zeroingPolicy);
+            assertEquals(2, stats.zeroedBuffers); // New allocation + reuse
+            assertEquals(2 * 4096, stats.zeroedBytes);
+        }
+    }
+
+    @Test
+    void testNoneSkipsZeroing() {
+        try (var pool = pool(MemoryPool.ZeroingPolicy.NONE)) {
+            var first = pool.borrow(4096);
+            first.get().putLong(128, 42L);
+            first.close();
+
+            try (var second = pool.borrow(4096)) {
+                assertEquals(0, second.get().position());
+                assertEquals(42L, second.get().getLong(128));
+            }
+            assertEquals(0, pool.getPoolStatistics().zeroedBuffers);
+        }
+    }
+
+    @Test
+    void testAsyncZeroesBeforeReturningToFreeList() throws Exception {
+        try (var pool = pool(MemoryPool.ZeroingPolicy.ASYNC)) {
+            var first = pool.borrow(4096);
+            long address = first.getAddress();
+            first.get().putLong(0, -1L);
+            first.close();
+
+            // Pending bytes still count as pooled while the worker zeroes them; the worker may
+            // be mid hand-off, counting the buffer in both places
+            long size = pool.getCurrentSize();
+            assertTrue(size == 4096 || size == 2 * 4096, "Pooled size " + size);
+            awaitZeroed(pool, 2);
+            assertEquals(4096, pool.getCurrentSize());
+
+            try (var second = pool.borrow(4096)) {
+                assertEquals(address, second.getAddress());
+                assertEquals(0, second.get().getLong(0));
+                assertEquals(1, pool.getPoolStatistics().poolHits);
+                assertEquals(2, pool.getPoolStatistics().zeroedBuffers); // Borrow did not zero again
+            }
+        }
+    }
+
+    @Test
+    void testAsyncAllocateAndReturnToPool() throws Exception {
+        try (var pool = pool(MemoryPool.ZeroingPolicy.ASYNC)) {
+            var buffer = pool.allocate(1024);
+            buffer.putInt(0, 7);
+            pool.returnToPool(buffer);
+            awaitZeroed(pool, 2);
+
+            var reused = pool.allocate(1024);
+            assertSame(buffer, reused);
+            assertEquals(0, reused.getInt(0));
+            pool.returnToPool(reused);
+        }
+    }
+
+    @Test
+    void testAsyncCloseFreesPendingBuffers() {
+        var pool = pool(MemoryPool.ZeroingPolicy.ASYNC);
+        for (int i = 0; i < 8; i++) {
+            pool.borrow(1024 * 1024).close();
+        }
+        pool.close();
+
+        assertEquals(0, pool.getPoolStatistics().totalBuffers);
+        assertEquals(0, pool.getCurrentSize());
+    }
+
+    @Test
+    void testZeroingCostReported() {
+        try (var pool = pool(MemoryPool.ZeroingPolicy.EAGER)) {
+            pool.borrow(1024 * 1024).close();
+            var stats = pool.getPoolStatistics();
+            assertTrue(stats.zeroingNanos > 0);
+            assertTrue(stats.getAverageZeroingNanos() > 0);
+            assertTrue(stats.getZeroingBytesPerSecond() > 0);
+        }
+    }
+
+    private static void awaitZeroed(MemoryPool pool, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (pool.getPoolStatistics().zeroedBuffers < expected
+               || pool.getPoolStatistics().zeroingPendingBytes > 0) {
+            assertTrue(System.nanoTime() < deadline, "Async zeroing did not complete");
+            Thread.sleep(1);
+        }
+    }
+}
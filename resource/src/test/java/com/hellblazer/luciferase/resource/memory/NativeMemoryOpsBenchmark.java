@@ -0,0 +1,145 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * JMH benchmark comparing the NativeMemoryHandle bulk operations with the
+ * element-by-element ByteBuffer loops they replace.
+ *
+ * <p>Run on AVX2 and AVX-512 hosts to compare; {@code -XX:UseAVX=2} on an
+ * AVX-512 machine shows the difference on one host. The naive variants use
+ * absolute ByteBuffer accessors as the node and ray buffer builders do.
+ *
+ * <p>Usage:
+ * <pre>
+ * mvn exec:java -Dexec.mainClass="com.hellblazer.luciferase.resource.memory.NativeMemoryOpsBenchmark" \
+ *   -Dexec.classpathScope=test
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class NativeMemoryOpsBenchmark {
+
+    private static final int STRIDE = 12; // One float attribute of an interleaved xyz layout
+
+    @Param({"4096", "1048576"})
+    private int size;
+
+    private NativeMemoryHandle src;
+    private NativeMemoryHandle dst;
+    private ByteBuffer srcBuffer;
+    private ByteBuffer dstBuffer;
+    private float[] floats;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        src = NativeMemoryHandle.allocate(size, null);
+        dst = NativeMemoryHandle.allocate(size, null);
+        srcBuffer = src.getBuffer().order(ByteOrder.nativeOrder());
+        dstBuffer = dst.getBuffer().order(ByteOrder.nativeOrder());
+        for (int i = 0; i + Integer.BYTES <= size; i += Integer.BYTES) {
+            srcBuffer.putInt(i, i * 0x9E3779B9);
+        }
+        src.copyTo(dst, 0, 0, size);
+        floats = new float[size / STRIDE];
+        for (int i = 0; i < floats.length; i++) {
+            floats[i] = i;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        src.close();
+        dst.close();
+    }
+
+    @Benchmark
+    public void fillFloatsNaive() {
+        for (int i = 0; i + Float.BYTES <= size; i += Float.BYTES) {
+            dstBuffer.putFloat(i, 1.0f);
+        }
+    }
+
+    @Benchmark
+    public void fillFloatsBulk() {
+        dst.fillFloats(0, size / Float.BYTES, 1.0f);
+    }
+
+    @Benchmark
+    public void putFloatsStridedNaive() {
+        for (int i = 0; i < floats.length; i++) {
+            dstBuffer.putFloat(i * STRIDE, floats[i]);
+        }
+    }
+
+    @Benchmark
+    public void putFloatsStridedBulk() {
+        dst.putFloats(0, floats, 0, floats.length, STRIDE);
+    }
+
+    @Benchmark
+    public long mismatchNaive() {
+        for (int i = 0; i < size; i++) {
+            if (srcBuffer.get(i) != dstBuffer.get(i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Benchmark
+    public long mismatchBulk() {
+        return src.mismatch(0, dst, 0, size);
+    }
+
+    @Benchmark
+    public long crc32cNaive() {
+        var crc = new CRC32C();
+        for (int i = 0; i < size; i++) {
+            crc.update(srcBuffer.get(i));
+        }
+        return crc.getValue();
+    }
+
+    @Benchmark
+    public int crc32cBulk() {
+        return src.crc32c(0, size);
+    }
+
+    @Benchmark
+    public long xxHash64Bulk() {
+        return src.xxHash64(0, size, 0);
+    }
+
+    @Benchmark
+    public void swapIntsNaive() {
+        for (int i = 0; i + Integer.BYTES <= size; i += Integer.BYTES) {
+            dstBuffer.putInt(i, Integer.reverseBytes(dstBuffer.getInt(i)));
+        }
+    }
+
+    @Benchmark
+    public void swapIntsBulk() {
+        dst.swapBytes(0, size / Integer.BYTES, Integer.BYTES);
+    }
+
+    public static void main(String[] args) throws Exception {
+        var opts = new OptionsBuilder()
+            .include(NativeMemoryOpsBenchmark.class.getSimpleName())
+            .forks(1)
+            .build();
+
+        new Runner(opts).run();
+    }
+}
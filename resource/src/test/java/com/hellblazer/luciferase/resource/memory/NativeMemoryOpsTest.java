@@ -0,0 +1,167 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the bulk operations on NativeMemoryHandle.
+ */
+public class NativeMemoryOpsTest {
+
+    private static final int SIZE = 4096;
+
+    private NativeMemoryHandle handle;
+
+    @BeforeEach
+    void setUp() {
+        handle = NativeMemoryHandle.allocate(SIZE, null);
+        handle.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        handle.close();
+    }
+
+    @Test
+    void testFill() {
+        handle.fill(10, 100, (byte) 0x7F);
+        var buffer = handle.getBuffer();
+        assertEquals(0, buffer.get(9));
+        assertEquals(0x7F, buffer.get(10));
+        assertEquals(0x7F, buffer.get(109));
+        assertEquals(0, buffer.get(110));
+    }
+
+    @Test
+    void testFillIntsAcrossDoublingBoundaries() {
+        var buffer = handle.getBuffer().order(ByteOrder.nativeOrder());
+        for (int count : new int[]{0, 1, 15, 16, 17, 33, 1000}) {
+            handle.clear();
+            handle.fillInts(8, count, 0xDEADBEEF);
+            for (int i = 0; i < count; i++) {
+                assertEquals(0xDEADBEEF, buffer.getInt(8 + i * 4), "count=" + count + ", index=" + i);
+            }
+            assertEquals(0, buffer.getInt(8 + count * 4), "Wrote past the range for count=" + count);
+        }
+
+        handle.fillFloats(0, 10, 1.5f);
+        assertEquals(1.5f, buffer.getFloat(36));
+    }
+
+    @Test
+    void testMismatchAndContentEquals() {
+        try (var other = NativeMemoryHandle.allocate(SIZE, null)) {
+            other.clear();
+            assertTrue(handle.contentEquals(other));
+            assertEquals(-1, handle.mismatch(0, other, 0, SIZE));
+
+            other.getBuffer().put(1234, (byte) 1);
+            assertFalse(handle.contentEquals(other));
+            assertEquals(1234, handle.mismatch(0, other, 0, SIZE));
+            assertEquals(34, handle.mismatch(1200, other, 1200, 100));
+            assertEquals(-1, handle.mismatch(0, other, 0, 1234));
+        }
+        try (var shorter = NativeMemoryHandle.allocate(SIZE / 2, null)) {
+            assertFalse(handle.contentEquals(shorter));
+        }
+    }
+
+    @Test
+    void testChecksumsMatchReferenceImplementations() {
+        var data = new byte[1000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31 + 7);
+        }
+        handle.getBuffer().put(0, data);
+
+        var reference = new CRC32C();
+        reference.update(data, 100, 777);
+        assertEquals((int) reference.getValue(), handle.crc32c(100, 777));
+
+        // Published XXH64 test vectors, covering the short and the 32-byte stripe paths
+        assertEquals(0xEF46DB3751D8E999L, handle.xxHash64(0, 0, 0));
+        handle.getBuffer().put(0, "abc".getBytes(StandardCharsets.US_ASCII));
+        assertEquals(0x44BC2CF5AD770999L, handle.xxHash64(0, 3, 0));
+        var text = "Nobody inspects the spammish repetition".getBytes(StandardCharsets.US_ASCII);
+        handle.getBuffer().put(0, text);
+        assertEquals(0xFBCEA83C8A378BF1L, handle.xxHash64(0, text.length, 0));
+
+        assertNotEquals(handle.xxHash64(0, text.length, 0), handle.xxHash64(0, text.length, 1));
+    }
+
+    @Test
+    void testStridedFloatsRoundTrip() {
+        // Interleaved xyz positions: write y of 100 vertices at a 12-byte stride
+        var values = new float[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * 0.5f;
+        }
+        handle.putFloats(4, values, 0, values.length, 12);
+        var buffer = handle.getBuffer().order(ByteOrder.nativeOrder());
+        assertEquals(0, buffer.getFloat(0));
+        assertEquals(0.5f, buffer.getFloat(16));
+        assertEquals(0, buffer.getFloat(20));
+
+        var read = new float[102];
+        handle.getFloats(4, read, 2, values.length, 12);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], read[i + 2]);
+        }
+    }
+
+    @Test
+    void testPackedIntsRoundTrip() {
+        var values = new int[256];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * i;
+        }
+        handle.putInts(0, values, 0, values.length, Integer.BYTES);
+        var read = new int[values.length];
+        handle.getInts(0, read, 0, read.length, Integer.BYTES);
+        assertArrayEquals(values, read);
+    }
+
+    @Test
+    void testSwapBytes() {
+        var buffer = handle.getBuffer().order(ByteOrder.nativeOrder());
+        buffer.putInt(0, 0x01020304);
+        buffer.putInt(4, 0x05060708);
+        handle.swapBytes(0, 2, Integer.BYTES);
+        assertEquals(0x04030201, buffer.getInt(0));
+        assertEquals(0x08070605, buffer.getInt(4));
+
+        buffer.putShort(16, (short) 0x1122);
+        handle.swapBytes(16, 1, Short.BYTES);
+        assertEquals((short) 0x2211, buffer.getShort(16));
+
+        buffer.putLong(24, 0x0102030405060708L);
+        handle.swapBytes(24, 1, Long.BYTES);
+        assertEquals(0x0807060504030201L, buffer.getLong(24));
+
+        assertThrows(IllegalArgumentException.class, () -> handle.swapBytes(0, 1, 3));
+    }
+
+    @Test
+    void testBoundsChecked() {
+        assertThrows(IllegalArgumentException.class, () -> handle.fill(SIZE - 4, 8, (byte) 0));
+        assertThrows(IllegalArgumentException.class, () -> handle.fillInts(SIZE - 4, 2, 0));
+        assertThrows(IllegalArgumentException.class, () -> handle.crc32c(-1, 4));
+        assertThrows(IllegalArgumentException.class, () -> handle.swapBytes(SIZE - 4, 1, Long.BYTES));
+        assertThrows(IllegalArgumentException.class, () -> handle.putFloats(0, new float[400], 0, 400, 12));
+        assertThrows(IllegalArgumentException.class, () -> handle.putFloats(0, new float[4], 0, 4, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> handle.getInts(0, new int[4], 2, 4, 4));
+        // Exactly fits: last element ends at SIZE
+        handle.putFloats(SIZE - 4 - 12 * 9, new float[10], 0, 10, 12);
+
+        handle.close();
+        assertThrows(IllegalStateException.class, () -> handle.fill(0, 1, (byte) 0));
+    }
+}
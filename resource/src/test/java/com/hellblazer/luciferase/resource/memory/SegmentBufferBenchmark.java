@@ -0,0 +1,144 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import org.lwjgl.system.MemoryUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing fill, copy and slice throughput of the ByteBuffer path
+ * (LWJGL buffers and MemoryUtil) with MemorySegment views of the same memory.
+ *
+ * <p>The indexed loops read and write ints across the whole buffer so the cost of
+ * bounds checks that C2 can or cannot hoist shows up; the bulk variants measure
+ * memset/memcpy. Slicing measures the per-view allocation that sub-range access pays.
+ *
+ * <p>Usage:
+ * <pre>
+ * mvn exec:java -Dexec.mainClass="com.hellblazer.luciferase.resource.memory.SegmentBufferBenchmark" \
+ *   -Dexec.classpathScope=test
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class SegmentBufferBenchmark {
+
+    private static final int SLICE = 256;
+
+    @Param({"4096", "1048576"})
+    private int size;
+
+    private SegmentMemoryHandle src;
+    private SegmentMemoryHandle dst;
+    private MemorySegment srcSegment;
+    private MemorySegment dstSegment;
+    private ByteBuffer srcBuffer;
+    private ByteBuffer dstBuffer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        src = SegmentMemoryHandle.allocate(size, null);
+        dst = SegmentMemoryHandle.allocate(size, null);
+        srcSegment = src.getSegment();
+        dstSegment = dst.getSegment();
+        // Same memory through LWJGL buffers, as the pool hands out today
+        srcBuffer = MemoryUtil.memByteBuffer(src.getAddress(), size).order(ByteOrder.nativeOrder());
+        dstBuffer = MemoryUtil.memByteBuffer(dst.getAddress(), size).order(ByteOrder.nativeOrder());
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        src.close();
+        dst.close();
+    }
+
+    @Benchmark
+    public void fillBuffer() {
+        MemoryUtil.memSet(dstBuffer, 0x5A);
+    }
+
+    @Benchmark
+    public void fillSegment() {
+        dstSegment.fill((byte) 0x5A);
+    }
+
+    @Benchmark
+    public void fillBufferIndexed() {
+        var buffer = dstBuffer;
+        for (int i = 0; i + Integer.BYTES <= size; i += Integer.BYTES) {
+            buffer.putInt(i, i);
+        }
+    }
+
+    @Benchmark
+    public void fillSegmentIndexed() {
+        var segment = dstSegment;
+        long limit = segment.byteSize();
+        for (long i = 0; i + Integer.BYTES <= limit; i += Integer.BYTES) {
+            segment.set(ValueLayout.JAVA_INT, i, (int) i);
+        }
+    }
+
+    @Benchmark
+    public void copyBuffer() {
+        MemoryUtil.memCopy(srcBuffer, dstBuffer);
+    }
+
+    @Benchmark
+    public void copySegment() {
+        MemorySegment.copy(srcSegment, 0, dstSegment, 0, size);
+    }
+
+    @Benchmark
+    public void copyBufferIndexed() {
+        var from = srcBuffer;
+        var to = dstBuffer;
+        for (int i = 0; i + Integer.BYTES <= size; i += Integer.BYTES) {
+            to.putInt(i, from.getInt(i));
+        }
+    }
+
+    @Benchmark
+    public void copySegmentIndexed() {
+        var from = srcSegment;
+        var to = dstSegment;
+        long limit = from.byteSize();
+        for (long i = 0; i + Integer.BYTES <= limit; i += Integer.BYTES) {
+            to.set(ValueLayout.JAVA_INT, i, from.get(ValueLayout.JAVA_INT, i));
+        }
+    }
+
+    @Benchmark
+    public void sliceBuffer(Blackhole bh) {
+        for (int offset = 0; offset + SLICE <= size; offset += SLICE) {
+            bh.consume(srcBuffer.slice(offset, SLICE).getInt(0));
+        }
+    }
+
+    @Benchmark
+    public void sliceSegment(Blackhole bh) {
+        for (long offset = 0; offset + SLICE <= size; offset += SLICE) {
+            bh.consume(srcSegment.asSlice(offset, SLICE).get(ValueLayout.JAVA_INT, 0));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        var opts = new OptionsBuilder()
+            .include(SegmentBufferBenchmark.class.getSimpleName())
+            .forks(1)
+            .build();
+
+        new Runner(opts).run();
+    }
+}
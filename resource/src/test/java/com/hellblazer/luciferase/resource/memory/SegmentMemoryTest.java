@@ -0,0 +1,188 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SegmentMemoryHandle, MemorySegment views of pooled buffers and the SEGMENT backend.
+ */
+public class SegmentMemoryTest {
+
+    private static final int KB = 1024;
+
+    @Test
+    void testSegmentHandleIsZeroedAndSharesMemoryWithByteBuffer() {
+        try (var handle = SegmentMemoryHandle.allocate(8 * KB, new ResourceTracker())) {
+            var segment = handle.getSegment();
+            assertEquals(8 * KB, handle.getSize());
+            assertEquals(0, handle.getAddress() % SegmentMemoryHandle.DEFAULT_ALIGNMENT);
+            assertEquals(0, segment.get(ValueLayout.JAVA_LONG, 4 * KB));
+
+            var buffer = handle.asByteBuffer();
+            assertTrue(buffer.isDirect());
+            assertEquals(8 * KB, buffer.capacity());
+            buffer.putInt(128, 0xCAFEBABE);
+            assertEquals(0xCAFEBABE, segment.get(ValueLayout.JAVA_INT, 128));
+
+            var tail = handle.asByteBuffer(4 * KB, KB);
+            segment.set(ValueLayout.JAVA_INT, 4 * KB, 42);
+            assertEquals(42, tail.getInt(0));
+
+            handle.clear();
+            assertEquals(0, segment.get(ValueLayout.JAVA_INT, 128));
+        }
+    }
+
+    @Test
+    void testSegmentHandleBounds() {
+        try (var handle = SegmentMemoryHandle.allocate(KB, 64, true, null)) {
+            assertEquals(0, handle.getAddress() % 64);
+            assertThrows(IllegalArgumentException.class, () -> handle.slice(KB - 8, 16));
+            assertThrows(IllegalArgumentException.class, () -> handle.slice(-1, 8));
+            assertThrows(IllegalArgumentException.class, () -> handle.asByteBuffer(0, Integer.MAX_VALUE + 1L));
+            assertEquals(16, handle.slice(KB - 16, 16).byteSize());
+        }
+        assertThrows(IllegalArgumentException.class, () -> SegmentMemoryHandle.allocate(0, null));
+        assertThrows(IllegalArgumentException.class, () -> SegmentMemoryHandle.allocate(KB, 3, true, null));
+    }
+
+    @Test
+    void testCopyBetweenSegmentHandles() {
+        try (var src = SegmentMemoryHandle.allocate(KB, null);
+             var dst = SegmentMemoryHandle.allocate(KB, null)) {
+            src.getSegment().set(ValueLayout.JAVA_LONG, 8, 0x0123456789ABCDEFL);
+            src.copyTo(dst, 8, 64, 8);
+            assertEquals(0x0123456789ABCDEFL, dst.getSegment().get(ValueLayout.JAVA_LONG, 64));
+            assertThrows(IllegalArgumentException.class, () -> src.copyTo(dst, KB - 4, 0, 8));
+        }
+    }
+
+    @Test
+    void testConfinedHandleRejectsOtherThreads() throws Exception {
+        var executor = Executors.newSingleThreadExecutor();
+        try (var handle = SegmentMemoryHandle.allocate(KB, SegmentMemoryHandle.DEFAULT_ALIGNMENT, false, null)) {
+            assertFalse(handle.isShared());
+            var segment = handle.getSegment();
+            var result = executor.submit(() -> segment.get(ValueLayout.JAVA_INT, 0));
+            var e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(RuntimeException.class, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testClosedSegmentHandle() {
+        var handle = SegmentMemoryHandle.allocate(KB, null);
+        var segment = handle.getSegment();
+        handle.close();
+        assertThrows(IllegalStateException.class, handle::getAddress);
+        assertThrows(IllegalStateException.class, () -> segment.get(ValueLayout.JAVA_INT, 0));
+    }
+
+    @Test
+    void testNativeHandleRejectsSizesBeyondByteBuffer() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> NativeMemoryHandle.allocate(Integer.MAX_VALUE + 1L, null));
+        try (var handle = NativeMemoryHandle.allocate(KB, null)) {
+            handle.getBuffer().position(100);
+            var segment = handle.asSegment();
+            assertEquals(KB, segment.byteSize());
+            assertEquals(handle.getAddress(), segment.address());
+            assertSame(segment, handle.asSegment());
+        }
+    }
+
+    @Test
+    void testBorrowedSegmentReusedWithoutCopies() {
+        try (var pool = new MemoryPool(MemoryPool.Config.builder().build(), new ResourceTracker())) {
+            var first = pool.borrow(4 * KB);
+            var segment = first.asSegment();
+            var buffer = first.get();
+            assertEquals(4 * KB, segment.byteSize());
+            first.get().put(0, (byte) 7);
+            assertEquals(7, segment.get(ValueLayout.JAVA_BYTE, 0));
+            first.get().position(64).limit(128).order(ByteOrder.LITTLE_ENDIAN);
+            first.close();
+
+            try (var second = pool.borrow(4 * KB)) {
+                assertSame(segment, second.asSegment());
+                assertSame(buffer, second.get());
+                assertEquals(0, second.get().position(), "Position reset on borrow");
+                assertEquals(4 * KB, second.get().limit());
+                assertEquals(ByteOrder.BIG_ENDIAN, second.get().order(), "Same view as a fresh duplicate");
+            }
+            assertThrows(IllegalStateException.class, first::asSegment);
+        }
+    }
+
+    @Test
+    void testViewResetBetweenBorrowAndAllocate() {
+        try (var pool = new MemoryPool(MemoryPool.Config.builder().build(), new ResourceTracker())) {
+            var borrowed = pool.borrow(4 * KB);
+            var buffer = borrowed.get();
+            buffer.position(64).limit(128);
+            borrowed.close();
+
+            var allocated = pool.allocate(4 * KB);
+            assertSame(buffer, allocated);
+            assertEquals(0, allocated.position(), "Position reset on allocate");
+            assertEquals(4 * KB, allocated.limit());
+            assertEquals(ByteOrder.nativeOrder(), allocated.order());
+            allocated.position(32).limit(64);
+            pool.returnToPool(allocated);
+
+            var batch = pool.allocateBatch(new int[]{4 * KB});
+            assertSame(buffer, batch[0]);
+            assertEquals(0, batch[0].position());
+            assertEquals(4 * KB, batch[0].limit());
+            batch[0].position(16).order(ByteOrder.BIG_ENDIAN);
+            pool.returnToPool(batch[0]);
+
+            var again = pool.allocate(4 * KB);
+            assertEquals(0, again.position());
+            assertEquals(ByteOrder.nativeOrder(), again.order(), "Order reset on allocate");
+            pool.returnToPool(again);
+
+            try (var reborrowed = pool.borrow(4 * KB)) {
+                assertEquals(0, reborrowed.get().position());
+                assertEquals(ByteOrder.BIG_ENDIAN, reborrowed.get().order());
+            }
+        }
+    }
+
+    @Test
+    void testSegmentBackend() {
+        var config = MemoryPool.Config.builder()
+            .backend(MemoryPool.Backend.SEGMENT)
+            .alignBuffers(true)
+            .alignment(256)
+            .build();
+        try (var pool = new MemoryPool(config, new ResourceTracker())) {
+            long address;
+            try (var buffer = pool.borrow(64 * KB)) {
+                address = buffer.getAddress();
+                assertEquals(0, address % 256);
+                assertEquals(0, buffer.asSegment().get(ValueLayout.JAVA_LONG, 32 * KB));
+                buffer.asSegment().set(ValueLayout.JAVA_LONG, 32 * KB, -1L);
+                assertEquals(-1L, buffer.get().getLong(32 * KB));
+            }
+            try (var reused = pool.borrow(64 * KB)) {
+                assertEquals(address, reused.getAddress());
+                assertEquals(0, reused.asSegment().get(ValueLayout.JAVA_LONG, 32 * KB), "Zeroed on reuse");
+            }
+            assertEquals(64 * KB, pool.getCurrentSize());
+            assertEquals(1, pool.getPoolStatistics().poolHits);
+
+            pool.clear();
+            assertEquals(0, pool.getCurrentSize());
+        }
+    }
+}
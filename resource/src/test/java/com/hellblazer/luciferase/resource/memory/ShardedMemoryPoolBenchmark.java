@@ -0,0 +1,106 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing borrow/return churn on one MemoryPool against a ShardedMemoryPool.
+ *
+ * <p>Each thread borrows and returns a buffer, and allocates and returns one through the
+ * ByteBuffer API. With {@code shards = 0} every thread shares a single pool; otherwise threads
+ * are spread over that many shards and only meet on steals.
+ *
+ * <p>Usage:
+ * <pre>
+ * # Scaling run, 1 to 64 threads
+ * mvn exec:java -Dexec.mainClass="com.hellblazer.luciferase.resource.memory.ShardedMemoryPoolBenchmark" \
+ *   -Dexec.classpathScope=test
+ *
+ * # Single thread count
+ * mvn exec:java -Dexec.mainClass="com.hellblazer.luciferase.resource.memory.ShardedMemoryPoolBenchmark" \
+ *   -Dexec.classpathScope=test -Dexec.args="64"
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShardedMemoryPoolBenchmark {
+
+    @Param({"0", "16", "64"})
+    private int shards;
+
+    @Param({"4096", "65536"})
+    private int bufferSize;
+
+    private MemoryPool single;
+    private ShardedMemoryPool sharded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var config = MemoryPool.Config.builder()
+            .concurrent(true)
+            .maxPoolSize(Integer.MAX_VALUE)
+            .maxBuffersPerSize(1024)
+            .build();
+        if (shards == 0) {
+            single = new MemoryPool(config, new ResourceTracker());
+        } else {
+            sharded = new ShardedMemoryPool(config, shards, new ResourceTracker());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        if (single != null) {
+            single.close();
+        }
+        if (sharded != null) {
+            sharded.close();
+        }
+    }
+
+    @Benchmark
+    public void borrowReturn(Blackhole bh) {
+        try (var buffer = single != null ? single.borrow(bufferSize) : sharded.borrow(bufferSize)) {
+            bh.consume(buffer.getAddress());
+        }
+    }
+
+    @Benchmark
+    public void allocateReturn(Blackhole bh) {
+        if (single != null) {
+            var buffer = single.allocate(bufferSize);
+            bh.consume(buffer);
+            single.returnToPool(buffer);
+        } else {
+            var buffer = sharded.allocate(bufferSize);
+            bh.consume(buffer);
+            sharded.returnToPool(buffer);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int minThreads = args.length > 0 ? maxThreads : 1;
+
+        for (int threads = minThreads; threads <= maxThreads; threads *= 2) {
+            var opts = new OptionsBuilder()
+                .include(ShardedMemoryPoolBenchmark.class.getSimpleName())
+                .threads(threads)
+                .forks(1)
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .build();
+
+            new Runner(opts).run();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the sharded memory pool facade.
+ */
+public class ShardedMemoryPoolTest {
+
+    private ShardedMemoryPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    private static <T> T onOtherThread(Callable<T> task) throws Exception {
+        var result = new AtomicReference<T>();
+        var error = new AtomicReference<Exception>();
+        var thread = new Thread(() -> {
+            try {
+                result.set(task.call());
+            } catch (Exception e) {
+                error.set(e);
+            }
+        });
+        thread.start();
+        thread.join();
+        if (error.get() != null) {
+            throw error.get();
+        }
+        return result.get();
+    }
+
+    private static boolean sameHome(long threadA, long threadB, int shards) {
+        return threadA % shards == threadB % shards;
+    }
+
+    @Test
+    void testBorrowStealsBeforeAllocating() throws Exception {
+        pool = new ShardedMemoryPool(MemoryPool.Config.builder().build(), 2, new ResourceTracker());
+        assertEquals(2, pool.getShardCount());
+
+        pool.borrow(4096).close();
+        var otherThread = new AtomicReference<Long>();
+        onOtherThread(() -> {
+            otherThread.set(Thread.currentThread().threadId());
+            pool.borrow(4096).close();
+            return null;
+        });
+
+        var stats = pool.getPoolStatistics();
+        assertEquals(1, stats.totalBuffers, "Second borrow reused the idle buffer");
+        assertEquals(1, stats.poolMisses);
+        assertEquals(2, stats.totalAllocations);
+        assertEquals(0, stats.currentlyBorrowed);
+        long expectedSteals = sameHome(Thread.currentThread().threadId(), otherThread.get(), 2) ? 0 : 1;
+        assertEquals(expectedSteals, pool.getStealCount());
+    }
+
+    @Test
+    void testAllocateAndReturnAcrossThreads() throws Exception {
+        pool = new ShardedMemoryPool(MemoryPool.Config.builder().build(), 4, new ResourceTracker());
+        ByteBuffer buffer = onOtherThread(() -> pool.allocate(10_000));
+        assertTrue(buffer.capacity() >= 10_000);
+
+        pool.returnToPool(buffer);
+        pool.returnToPool(buffer); // Duplicate returns are ignored
+        pool.returnToPool(ByteBuffer.allocateDirect(16));
+
+        var again = pool.allocate(10_000);
+        assertSame(buffer, again, "Idle buffer found in whichever shard owns it");
+        pool.returnToPool(again);
+        assertEquals(1, pool.getPoolStatistics().totalBuffers);
+    }
+
+    @Test
+    void testAggregatedStatistics() {
+        pool = new ShardedMemoryPool(MemoryPool.Config.builder().build(), 3, new ResourceTracker());
+        var a = pool.borrow(1024);
+        var b = pool.borrow(8192);
+        var stats = pool.getPoolStatistics();
+        assertEquals(2, stats.currentlyBorrowed);
+        assertEquals(1024 + 8192, stats.totalMemoryBytes);
+        assertEquals(1024 + 8192, stats.requestedBytes);
+
+        long perShard = 0;
+        for (int i = 0; i < pool.getShardCount(); i++) {
+            perShard += pool.getShard(i).getPoolStatistics().totalAllocations;
+        }
+        assertEquals(perShard, stats.totalAllocations);
+
+        a.close();
+        b.close();
+        pool.clear();
+        assertEquals(0, pool.getPoolStatistics().totalBuffers);
+    }
+
+    @Test
+    void testStatisticsSum() {
+        var first = MemoryPool.PoolStatistics.builder()
+            .poolHits(3).poolSizes(2).leakedBytes(64).reclaimedLeases(1)
+            .zeroingPolicy(MemoryPool.ZeroingPolicy.NONE).warmTargets(Map.of(1024, 2))
+            .build();
+        var second = MemoryPool.PoolStatistics.builder()
+            .poolHits(4).poolSizes(5).leakedBytes(32).pinnedActiveBuffers(7)
+            .warmTargets(Map.of(1024, 1, 4096, 1))
+            .build();
+
+        var sum = MemoryPool.PoolStatistics.sum(List.of(first, second));
+        assertEquals(7, sum.poolHits);
+        assertEquals(5, sum.poolSizes, "Largest pool count, not the sum");
+        assertEquals(96, sum.leakedBytes);
+        assertEquals(1, sum.reclaimedLeases);
+        assertEquals(7, sum.pinnedActiveBuffers);
+        assertEquals(MemoryPool.ZeroingPolicy.NONE, sum.zeroingPolicy, "Configuration from the first pool");
+        assertEquals(Map.of(1024, 3, 4096, 1), sum.warmTargets);
+        assertSame(first, MemoryPool.PoolStatistics.sum(List.of(first)));
+    }
+
+    @Test
+    void testConcurrentChurn() throws InterruptedException {
+        int threads = 8;
+        int iterations = 2000;
+        pool = new ShardedMemoryPool(MemoryPool.Config.builder().concurrent(true).build(), 4,
+                                     new ResourceTracker());
+        var executor = Executors.newFixedThreadPool(threads);
+        var start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < iterations; i++) {
+                    try (var buffer = pool.borrow(4096)) {
+                        buffer.getBuffer().putInt(0, i);
+                    }
+                    pool.returnToPool(pool.allocate(2048));
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        var stats = pool.getPoolStatistics();
+        assertEquals(2L * threads * iterations, stats.totalAllocations);
+        assertEquals(0, stats.currentlyBorrowed);
+        assertTrue(stats.getHitRate() > 0.9, "Churn is served from idle buffers: " + stats.getHitRate());
+    }
+
+    @Test
+    void testTryAndTimedBorrow() throws Exception {
+        pool = new ShardedMemoryPool(MemoryPool.Config.builder().borrowBudgetBytes(4096).build(), 2,
+                                     new ResourceTracker());
+        var held = pool.tryBorrow(4096);
+        assertNotNull(held);
+        assertNull(pool.tryBorrow(4096), "Home shard budget exhausted");
+        assertNull(pool.borrow(4096, Duration.ofMillis(10)));
+        held.close();
+
+        try (var again = pool.tryBorrow(4096)) {
+            assertNotNull(again);
+            assertEquals(4096, again.getSize());
+        }
+        var stolen = onOtherThread(() -> pool.borrow(4096, Duration.ofSeconds(1)));
+        assertNotNull(stolen, "Idle buffer taken within its owner's budget");
+        stolen.close();
+        var stats = pool.getPoolStatistics();
+        assertEquals(1, stats.totalBuffers);
+        assertEquals(0, stats.borrowedBytes);
+    }
+
+    @Test
+    void testOneProfileAndOneScheduler() throws IOException, InterruptedException {
+        var directory = Files.createTempDirectory("sharded-pool");
+        var profile = directory.resolve("pool.histogram");
+        Files.writeString(profile, "65536 8.0\n");
+        try {
+            long poolThreads = countThreads("memory-pool-maintenance");
+            var config = MemoryPool.Config.builder()
+                .adaptiveWarmup(1, 8 * 65536)
+                .warmupProfile(profile)
+                .maintenanceInterval(Duration.ofMillis(5))
+                .build();
+            pool = new ShardedMemoryPool(config, 4, new ResourceTracker());
+
+            assertEquals(8, pool.getPoolStatistics().prewarmedBuffers, "Warm-up budget split between the shards");
+            assertEquals(8.0, pool.getSizeHistogram().get(65536), 1e-9, "Profile loaded once");
+            assertEquals(poolThreads, countThreads("memory-pool-maintenance"), "Shards start no schedulers");
+            for (int i = 0; i < pool.getShardCount(); i++) {
+                var shard = pool.getShard(i);
+                long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+                while (shard.getPoolStatistics().maintenanceRuns == 0) {
+                    assertTrue(System.nanoTime() < deadline, "Shard " + i + " was not maintained");
+                    Thread.sleep(1);
+                }
+            }
+
+            pool.close();
+            pool = null;
+            var saved = SizeClassHistogram.read(profile).get(65536);
+            assertTrue(saved > 0 && saved <= 8.0, "Saved once, not summed per shard: " + saved);
+        } finally {
+            Files.deleteIfExists(profile);
+            Files.delete(directory);
+        }
+    }
+
+    private static long countThreads(String name) {
+        return Thread.getAllStackTraces().keySet().stream().filter(t -> t.getName().equals(name)).count();
+    }
+
+    @Test
+    void testInvalidShardCount() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> new ShardedMemoryPool(MemoryPool.Config.builder().build(), 0, null));
+    }
+}
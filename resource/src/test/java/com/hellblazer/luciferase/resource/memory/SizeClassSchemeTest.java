@@ -0,0 +1,77 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for size-class schemes and MemoryPool internal-fragmentation metrics.
+ */
+public class SizeClassSchemeTest {
+
+    private static final int MB = 1024 * 1024;
+
+    @Test
+    void testPowerOfTwoClasses() {
+        var scheme = SizeClassScheme.POWER_OF_TWO;
+        assertEquals(1024, scheme.roundUp(1000));
+        assertEquals(1024, scheme.roundUp(1024));
+        assertEquals(16 * MB, scheme.roundUp(9 * MB));
+    }
+
+    @Test
+    void testQuarterPowerOfTwoClasses() {
+        var scheme = SizeClassScheme.QUARTER_POWER_OF_TWO;
+        assertEquals(8, scheme.roundUp(7));
+        assertEquals(10, scheme.roundUp(9));
+        assertEquals(1024, scheme.roundUp(1024));
+        assertEquals(1280, scheme.roundUp(1025));
+        assertEquals(1536, scheme.roundUp(1500));
+        assertEquals(2048, scheme.roundUp(1800));
+        assertEquals(10 * MB, scheme.roundUp(9 * MB));
+        assertEquals(12 * MB, scheme.roundUp(10 * MB + 1));
+    }
+
+    @Test
+    void testQuarterClassesBoundWaste() {
+        var scheme = SizeClassScheme.QUARTER_POWER_OF_TWO;
+        for (int size = 9; size < 1 << 20; size += 97) {
+            int rounded = scheme.roundUp(size);
+            assertTrue(rounded >= size);
+            assertTrue((rounded - size) * 5 < rounded, "Waste over 20% for " + size);
+            assertEquals(rounded, scheme.roundUp(rounded), "Class sizes must be fixed points");
+        }
+    }
+
+    @Test
+    void testQuarterClassesNearIntegerLimit() {
+        var scheme = SizeClassScheme.QUARTER_POWER_OF_TWO;
+        assertEquals(Integer.MAX_VALUE, scheme.roundUp(Integer.MAX_VALUE - 1));
+        assertEquals(1792 * MB, scheme.roundUp(1537 * MB));
+    }
+
+    @Test
+    void testFragmentationStatistics() {
+        var config = MemoryPool.Config.builder()
+            .sizeClassScheme(SizeClassScheme.QUARTER_POWER_OF_TWO)
+            .build();
+        try (var pool = new MemoryPool(config, new ResourceTracker())) {
+            try (var buffer = pool.borrow(9 * 1024)) {
+                assertEquals(10 * 1024, buffer.getSize());
+            }
+            var stats = pool.getPoolStatistics();
+            assertEquals(SizeClassScheme.QUARTER_POWER_OF_TWO, stats.sizeClassScheme);
+            assertEquals(9 * 1024, stats.requestedBytes);
+            assertEquals(10 * 1024, stats.reservedBytes);
+            assertEquals(1024, stats.getWastedBytes());
+            assertEquals(0.1, stats.getInternalFragmentation(), 1e-9);
+        }
+
+        try (var pool = new MemoryPool(MemoryPool.Config.builder().build(), new ResourceTracker())) {
+            pool.borrow(9 * 1024).close();
+            assertEquals(16 * 1024, pool.getPoolStatistics().reservedBytes);
+            assertEquals(0.4375, pool.getPoolStatistics().getInternalFragmentation(), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.lwjgl.system.MemoryUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing small-buffer allocation through slabs with the
+ * direct malloc path MemoryPool used for sizes below minBufferSize.
+ *
+ * <p>Each invocation allocates a batch of live buffers and then frees them all,
+ * so the allocator sees realistic occupancy rather than a single hot slot.
+ *
+ * <p>Usage:
+ * <pre>
+ * mvn exec:java -Dexec.mainClass="com.hellblazer.luciferase.resource.memory.SlabAllocatorBenchmark" \
+ *   -Dexec.classpathScope=test
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class SlabAllocatorBenchmark {
+
+    private static final int BATCH = 256;
+
+    @Param({"64", "256", "1024", "4096"})
+    private int size;
+
+    private SlabAllocator slabs;
+    private MemoryPool pool;
+    private long[] addresses;
+    private MemoryPool.BorrowedBuffer[] borrowed;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        slabs = new SlabAllocator(SlabAllocator.DEFAULT_SLAB_SIZE, SlabAllocator.DEFAULT_MIN_SLOT_SIZE, 4096);
+        pool = new MemoryPool(MemoryPool.Config.builder()
+            .slabMaxSlotSize(4096)
+            .zeroingPolicy(MemoryPool.ZeroingPolicy.NONE)
+            .build(), new ResourceTracker());
+        addresses = new long[BATCH];
+        borrowed = new MemoryPool.BorrowedBuffer[BATCH];
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        pool.close();
+        slabs.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void slab(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) {
+            addresses[i] = slabs.allocate(size);
+        }
+        for (int i = 0; i < BATCH; i++) {
+            bh.consume(addresses[i]);
+            slabs.free(addresses[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void malloc(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) {
+            addresses[i] = MemoryUtil.nmemAlloc(size);
+        }
+        for (int i = 0; i < BATCH; i++) {
+            bh.consume(addresses[i]);
+            MemoryUtil.nmemFree(addresses[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void poolBorrow(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) {
+            borrowed[i] = pool.borrow(size);
+        }
+        for (int i = 0; i < BATCH; i++) {
+            bh.consume(borrowed[i].getAddress());
+            borrowed[i].close();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        var opts = new OptionsBuilder()
+            .include(SlabAllocatorBenchmark.class.getSimpleName())
+            .forks(1)
+            .build();
+
+        new Runner(opts).run();
+    }
+}
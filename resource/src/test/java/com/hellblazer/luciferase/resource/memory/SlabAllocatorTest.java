@@ -0,0 +1,160 @@
+package com.hellblazer.luciferase.resource.memory;
+
+import com.hellblazer.luciferase.resource.ResourceTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the slab sub-allocator and its use behind MemoryPool.
+ */
+public class SlabAllocatorTest {
+
+    private SlabAllocator slabs;
+
+    @BeforeEach
+    void setUp() {
+        slabs = new SlabAllocator(4096, 16, 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        slabs.close();
+    }
+
+    @Test
+    void testSlotsAreDistinctAndAligned() {
+        var addresses = new HashSet<Long>();
+        for (int i = 0; i < 64; i++) {
+            long address = slabs.allocate(100);
+            assertEquals(0, address % 128, "Slots are aligned to their slot size");
+            assertTrue(addresses.add(address));
+        }
+        // 4096 / 128 = 32 slots per slab
+        assertEquals(2, slabs.getStatistics().slabs);
+        assertEquals(64, slabs.getStatistics().slotsInUse);
+        addresses.forEach(slabs::free);
+    }
+
+    @Test
+    void testEmptySlabIsReleasedButLastIsKept() {
+        var first = new ArrayList<Long>();
+        for (int i = 0; i < 32; i++) {
+            first.add(slabs.allocate(128));
+        }
+        long overflow = slabs.allocate(128);
+        assertEquals(2, slabs.getStatistics().slabs);
+
+        first.forEach(slabs::free);
+        assertEquals(1, slabs.getStatistics().slabs);
+        assertEquals(1, slabs.getStatistics().slabsReleased);
+
+        slabs.free(overflow);
+        assertEquals(1, slabs.getStatistics().slabs, "Last slab of a slot size is retained");
+        assertEquals(1, slabs.trim());
+        assertEquals(0, slabs.getStatistics().slabs);
+    }
+
+    @Test
+    void testDoubleFreeIsRejected() {
+        long a = slabs.allocate(64);
+        long b = slabs.allocate(64);
+        slabs.free(a);
+        assertThrows(IllegalStateException.class, () -> slabs.free(a));
+        slabs.free(b);
+    }
+
+    @Test
+    void testSizeLimits() {
+        assertTrue(slabs.handles(1));
+        assertTrue(slabs.handles(1024));
+        assertFalse(slabs.handles(1025));
+        assertEquals(16, slabs.slotSize(3));
+        assertThrows(IllegalArgumentException.class, () -> slabs.allocate(2048));
+        assertThrows(IllegalArgumentException.class, () -> new SlabAllocator(4096, 16, 8192));
+    }
+
+    @Test
+    void testConcurrentAllocateFree() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final byte marker = (byte) (t + 1);
+            futures.add(executor.submit(() -> {
+                latch.await();
+                for (int i = 0; i < 2000; i++) {
+                    var held = new long[8];
+                    for (int j = 0; j < held.length; j++) {
+                        held[j] = slabs.allocate(64);
+                        org.lwjgl.system.MemoryUtil.memSet(held[j], marker, 64);
+                    }
+                    for (long address : held) {
+                        if (org.lwjgl.system.MemoryUtil.memGetByte(address + 63) != marker) {
+                            return false; // Slot handed to two threads at once
+                        }
+                        slabs.free(address);
+                    }
+                }
+                return true;
+            }));
+        }
+        latch.countDown();
+        for (var future : futures) {
+            assertTrue(future.get());
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(0, slabs.getStatistics().slotsInUse);
+    }
+
+    @Test
+    void testMemoryPoolServesSmallBuffersFromSlabs() {
+        var config = MemoryPool.Config.builder()
+            .slabMaxSlotSize(4096)
+            .build();
+        try (var pool = new MemoryPool(config, new ResourceTracker())) {
+            var small = pool.borrow(100); // Below minBufferSize, previously a direct malloc
+            var medium = pool.borrow(3000);
+            assertEquals(128, small.getSize());
+            assertEquals(4096, medium.getSize());
+            assertEquals(0, small.get().getLong(0));
+
+            var stats = pool.getPoolStatistics();
+            assertNotNull(stats.slabStatistics);
+            assertEquals(2, stats.slabStatistics.slotsInUse);
+            assertEquals(2, stats.currentlyBorrowed);
+            assertEquals(0, stats.totalBuffers);
+
+            small.close();
+            medium.close();
+            assertEquals(0, pool.getPoolStatistics().slabStatistics.slotsInUse);
+            assertEquals(0, pool.getPoolStatistics().currentlyBorrowed);
+
+            var raw = pool.allocate(64);
+            assertEquals(64, raw.capacity());
+            pool.returnToPool(raw);
+            assertEquals(0, pool.getPoolStatistics().slabStatistics.slotsInUse);
+        }
+    }
+
+    @Test
+    void testCloseWithOutstandingSlot() {
+        var pool = new MemoryPool(MemoryPool.Config.builder().slabMaxSlotSize(1024).build(), new ResourceTracker());
+        var slot = pool.borrow(256);
+        pool.close();
+        assertDoesNotThrow(slot::close);
+    }
+}